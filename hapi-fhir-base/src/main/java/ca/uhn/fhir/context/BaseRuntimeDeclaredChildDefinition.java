@@ -229,6 +229,12 @@ public abstract class BaseRuntimeDeclaredChildDefinition extends BaseRuntimeChil
 		}
 	}
 
+	/*
+	 * Plain reflection is deliberate here. LambdaMetafactory can only bind methods (and the
+	 * generated model getters lazily create values), and per-field MethodHandles measure no
+	 * faster than Field#get on JDK 17, which is itself a small share of a parse/encode round
+	 * trip - see ChildAccessorBenchmark in hapi-fhir-benchmarks.
+	 */
 	private static void setFieldValue(IBase theTarget, Object theValue, Field theField) {
 		try {
 			theField.set(theTarget, theValue);
@@ -45,14 +45,18 @@ import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.rest.client.api.IRestfulClient;
 import ca.uhn.fhir.rest.client.api.IRestfulClientFactory;
 import ca.uhn.fhir.system.HapiSystemProperties;
+import ca.uhn.fhir.util.CompiledTerserPath;
 import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.ReflectionUtil;
 import ca.uhn.fhir.util.VersionUtil;
 import ca.uhn.fhir.validation.FhirValidator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.jena.riot.Lang;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
@@ -107,6 +111,7 @@ public class FhirContext {
 	private static final Map<FhirVersionEnum, FhirContext> ourStaticContexts =
 			Collections.synchronizedMap(new EnumMap<>(FhirVersionEnum.class));
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(FhirContext.class);
+	private static final int MAX_COMPILED_TERSER_PATHS = 1000;
 	private final IFhirVersion myVersion;
 	private final Map<String, Class<? extends IBaseResource>> myDefaultTypeForProfile = new HashMap<>();
 	private final Set<PerformanceOptionsEnum> myPerformanceOptions = new HashSet<>();
@@ -128,6 +133,11 @@ public class FhirContext {
 	private ParserOptions myParserOptions = new ParserOptions();
 	private volatile IRestfulClientFactory myRestfulClientFactory;
 	private volatile RuntimeChildUndeclaredExtensionDefinition myRuntimeChildUndeclaredExtensionDefinition;
+	private volatile RuntimeChildAny.AnyChoiceTypes myAnyChoiceTypes;
+	private final Cache<Pair<BaseRuntimeElementCompositeDefinition<?>, String>, CompiledTerserPath>
+			myCompiledTerserPaths = CacheBuilder.newBuilder()
+					.maximumSize(MAX_COMPILED_TERSER_PATHS)
+					.build();
 	private IValidationSupport myValidationSupport;
 	private Map<FhirVersionEnum, Map<String, Class<? extends IBaseResource>>> myVersionToNameToResourceType =
 			Collections.emptyMap();
@@ -697,6 +707,14 @@ public class FhirContext {
 		this.myRestfulClientFactory = theRestfulClientFactory;
 	}
 
+	RuntimeChildAny.AnyChoiceTypes getAnyChoiceTypes() {
+		return myAnyChoiceTypes;
+	}
+
+	void setAnyChoiceTypes(RuntimeChildAny.AnyChoiceTypes theAnyChoiceTypes) {
+		myAnyChoiceTypes = theAnyChoiceTypes;
+	}
+
 	public RuntimeChildUndeclaredExtensionDefinition getRuntimeChildUndeclaredExtensionDefinition() {
 		validateInitialized();
 		return myRuntimeChildUndeclaredExtensionDefinition;
@@ -983,6 +1001,25 @@ public class FhirContext {
 		return getRestfulClientFactory().newGenericClient(theServerBase);
 	}
 
+	/**
+	 * Returns a {@link FhirTerser} path compiled against the given definition. This is used by the
+	 * string path based {@link FhirTerser} methods, which are typically called through short-lived
+	 * terser instances, so compiled paths are kept in a cache held by this context. The cache is
+	 * bounded, and evicts the least recently used paths when it fills up.
+	 *
+	 * @since 8.4.0
+	 */
+	public CompiledTerserPath getCompiledTerserPath(
+			BaseRuntimeElementCompositeDefinition<?> theDefinition, String thePath) {
+		Pair<BaseRuntimeElementCompositeDefinition<?>, String> key = Pair.of(theDefinition, thePath);
+		CompiledTerserPath retVal = myCompiledTerserPaths.getIfPresent(key);
+		if (retVal == null) {
+			retVal = newTerser().compilePath(theDefinition, thePath);
+			myCompiledTerserPaths.put(key, retVal);
+		}
+		return retVal;
+	}
+
 	public FhirTerser newTerser() {
 		return new FhirTerser(this);
 	}
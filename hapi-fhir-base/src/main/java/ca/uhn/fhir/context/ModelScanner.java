@@ -620,8 +620,8 @@ class ModelScanner {
 					String resName = nextKey.substring("resource.".length()).toLowerCase();
 					try {
 						@SuppressWarnings("unchecked")
-						Class<? extends IBaseResource> nextClass =
-								(Class<? extends IBaseResource>) Class.forName(nextValue);
+						Class<? extends IBaseResource> nextClass = (Class<? extends IBaseResource>)
+								Class.forName(nextValue, false, ModelScanner.class.getClassLoader());
 						if (theExistingElementDefinitions.containsKey(nextClass)) {
 							continue;
 						}
@@ -48,6 +48,7 @@ public class ParserOptions {
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
 	private Set<String> myEncodeElementsForSummaryMode = null;
 	private Set<String> myDontEncodeElementsForSummaryMode = null;
+	private boolean myUseStreamingJsonParser = false;
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
@@ -337,4 +338,43 @@ public class ParserOptions {
 	public Set<String> getDontEncodeElementsForSummaryMode() {
 		return myDontEncodeElementsForSummaryMode;
 	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources
+	 * directly from the Jackson token stream instead of first loading the complete document into a
+	 * JSON tree. Complex elements (including the resources in <code>Bundle.entry</code> and
+	 * <code>Resource.contained</code>) are then built as soon as they are read, so only the
+	 * primitive values and extensions of the element currently being parsed are held in memory
+	 * alongside the resulting model. This substantially reduces the memory required to parse
+	 * large Bundles.
+	 * <p>
+	 * The parsed model and the errors reported to the {@link ca.uhn.fhir.parser.IParserErrorHandler}
+	 * are the same in both modes, although the order in which errors are reported may differ.
+	 * </p>
+	 *
+	 * @since 8.4.0
+	 */
+	public boolean isUseStreamingJsonParser() {
+		return myUseStreamingJsonParser;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources
+	 * directly from the Jackson token stream instead of first loading the complete document into a
+	 * JSON tree. Complex elements (including the resources in <code>Bundle.entry</code> and
+	 * <code>Resource.contained</code>) are then built as soon as they are read, so only the
+	 * primitive values and extensions of the element currently being parsed are held in memory
+	 * alongside the resulting model. This substantially reduces the memory required to parse
+	 * large Bundles.
+	 * <p>
+	 * The parsed model and the errors reported to the {@link ca.uhn.fhir.parser.IParserErrorHandler}
+	 * are the same in both modes, although the order in which errors are reported may differ.
+	 * </p>
+	 *
+	 * @since 8.4.0
+	 */
+	public ParserOptions setUseStreamingJsonParser(boolean theUseStreamingJsonParser) {
+		myUseStreamingJsonParser = theUseStreamingJsonParser;
+		return this;
+	}
 }
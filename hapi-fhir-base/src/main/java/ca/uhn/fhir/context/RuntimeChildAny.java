@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class RuntimeChildAny extends RuntimeChildChoiceDefinition {
 
@@ -45,44 +46,82 @@ public class RuntimeChildAny extends RuntimeChildChoiceDefinition {
 	void sealAndInitialize(
 			FhirContext theContext,
 			Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
-		List<Class<? extends IBase>> choiceTypes = new ArrayList<>();
-		List<Class<? extends IBase>> specializationChoiceTypes = new ArrayList<>();
+		/*
+		 * Every "any" child sealed in the same scanning pass sees the same definitions, so the
+		 * candidate types are computed once per pass. Children with the same name (mostly the
+		 * extension and modifierExtension on every element) also end up with identical lookup
+		 * tables, so those are built once and shared too.
+		 */
+		AnyChoiceTypes choiceTypes = theContext.getAnyChoiceTypes();
+		if (choiceTypes == null || !choiceTypes.isFor(theClassToElementDefinitions)) {
+			choiceTypes = new AnyChoiceTypes(theClassToElementDefinitions);
+			theContext.setAnyChoiceTypes(choiceTypes);
+		}
 
-		for (Class<? extends IBase> next : theClassToElementDefinitions.keySet()) {
-			if (next.equals(XhtmlDt.class)) {
-				continue;
-			}
+		RuntimeChildAny template = choiceTypes.mySealedChildren.get(getElementName());
+		if (template != null) {
+			sealFrom(template);
+			return;
+		}
+
+		setChoiceTypes(choiceTypes.myChoiceTypes, choiceTypes.mySpecializationChoiceTypes);
+
+		super.sealAndInitialize(theContext, theClassToElementDefinitions);
+
+		choiceTypes.mySealedChildren.putIfAbsent(getElementName(), this);
+	}
+
+	static final class AnyChoiceTypes {
+		private final Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> mySource;
+		private final int mySourceSize;
+		private final List<Class<? extends IBase>> myChoiceTypes = new ArrayList<>();
+		private final List<Class<? extends IBase>> mySpecializationChoiceTypes = new ArrayList<>();
+		private final Map<String, RuntimeChildAny> mySealedChildren = new ConcurrentHashMap<>();
 
-			boolean isSpecialization = false;
-			BaseRuntimeElementDefinition<?> nextDef = theClassToElementDefinitions.get(next);
-			if (nextDef instanceof IRuntimeDatatypeDefinition) {
-				if (((IRuntimeDatatypeDefinition) nextDef).isSpecialization()) {
-					/*
-					 * Things like BoundCodeDt shoudn't be considered as valid options for an "any" choice, since
-					 * we'll already have CodeDt as an option
-					 */
-					isSpecialization = true;
+		private AnyChoiceTypes(
+				Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
+			mySource = theClassToElementDefinitions;
+			mySourceSize = theClassToElementDefinitions.size();
+
+			for (Map.Entry<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> nextEntry :
+					theClassToElementDefinitions.entrySet()) {
+				Class<? extends IBase> next = nextEntry.getKey();
+				if (next.equals(XhtmlDt.class)) {
+					continue;
 				}
-			}
 
-			if (IResource.class.isAssignableFrom(next)
-					|| IDatatype.class.isAssignableFrom(next)
-					|| IBaseDatatype.class.isAssignableFrom(next)
-					|| IBaseReference.class.isAssignableFrom(next)) {
-				if (isSpecialization) {
-					specializationChoiceTypes.add(next);
-				} else {
-					choiceTypes.add(next);
+				boolean isSpecialization = false;
+				BaseRuntimeElementDefinition<?> nextDef = nextEntry.getValue();
+				if (nextDef instanceof IRuntimeDatatypeDefinition) {
+					if (((IRuntimeDatatypeDefinition) nextDef).isSpecialization()) {
+						/*
+						 * Things like BoundCodeDt shoudn't be considered as valid options for an "any" choice, since
+						 * we'll already have CodeDt as an option
+						 */
+						isSpecialization = true;
+					}
 				}
-			}
-		}
 
-		choiceTypes.sort(new ResourceTypeNameComparator());
-		specializationChoiceTypes.sort(new ResourceTypeNameComparator());
+				if (IResource.class.isAssignableFrom(next)
+						|| IDatatype.class.isAssignableFrom(next)
+						|| IBaseDatatype.class.isAssignableFrom(next)
+						|| IBaseReference.class.isAssignableFrom(next)) {
+					if (isSpecialization) {
+						mySpecializationChoiceTypes.add(next);
+					} else {
+						myChoiceTypes.add(next);
+					}
+				}
+			}
 
-		setChoiceTypes(choiceTypes, specializationChoiceTypes);
+			myChoiceTypes.sort(new ResourceTypeNameComparator());
+			mySpecializationChoiceTypes.sort(new ResourceTypeNameComparator());
+		}
 
-		super.sealAndInitialize(theContext, theClassToElementDefinitions);
+		private boolean isFor(
+				Map<Class<? extends IBase>, BaseRuntimeElementDefinition<?>> theClassToElementDefinitions) {
+			return mySource == theClassToElementDefinitions && mySourceSize == theClassToElementDefinitions.size();
+		}
 	}
 
 	private static class ResourceTypeNameComparator implements Comparator<Class<?>> {
@@ -82,6 +82,20 @@ public class RuntimeChildChoiceDefinition extends BaseRuntimeDeclaredChildDefini
 		mySpecializationChoiceTypes = Collections.unmodifiableList(theSpecializationChoiceTypes);
 	}
 
+	/**
+	 * Seals this child by sharing the (unmodifiable) lookup tables of another child which
+	 * has the same element name and was sealed against the same choice types
+	 */
+	void sealFrom(RuntimeChildChoiceDefinition theTemplate) {
+		myChoiceTypes = theTemplate.myChoiceTypes;
+		mySpecializationChoiceTypes = theTemplate.mySpecializationChoiceTypes;
+		myNameToChildDefinition = theTemplate.myNameToChildDefinition;
+		myDatatypeToElementName = theTemplate.myDatatypeToElementName;
+		myDatatypeToElementDefinition = theTemplate.myDatatypeToElementDefinition;
+		myReferenceSuffix = theTemplate.myReferenceSuffix;
+		myResourceTypes = theTemplate.myResourceTypes;
+	}
+
 	public List<Class<? extends IBase>> getChoices() {
 		return myChoiceTypes;
 	}
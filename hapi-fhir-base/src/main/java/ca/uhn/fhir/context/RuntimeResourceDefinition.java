@@ -34,9 +34,12 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class RuntimeResourceDefinition extends BaseRuntimeElementCompositeDefinition<IBaseResource> {
 
+	private static final Pattern WHERE_RESOLVE_IS_PATTERN =
+			Pattern.compile(".*\\.where\\(resolve\\(\\) is [a-zA-Z]+\\)");
 	private Class<? extends IBaseResource> myBaseType;
 	private Map<String, List<RuntimeSearchParam>> myCompartmentNameToSearchParams;
 	private FhirContext myContext;
@@ -276,7 +279,7 @@ public class RuntimeResourceDefinition extends BaseRuntimeElementCompositeDefini
 
 	private String massagePathForCompartmentSimilarity(String thePath) {
 		String path = thePath;
-		if (path.matches(".*\\.where\\(resolve\\(\\) is [a-zA-Z]+\\)")) {
+		if (WHERE_RESOLVE_IS_PATTERN.matcher(path).matches()) {
 			path = path.substring(0, path.indexOf(".where"));
 		}
 		return path;
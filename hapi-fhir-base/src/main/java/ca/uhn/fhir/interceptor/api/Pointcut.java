@@ -61,6 +61,16 @@ public enum Pointcut implements IPointcut {
 	 */
 	INTERCEPTOR_REGISTERED(void.class),
 
+	/**
+	 * <b>Interceptor Framework Hook:</b>
+	 * This pointcut will be called once when a given interceptor is unregistered, after
+	 * its hooks have been removed. Interceptors can use this hook to release any resources
+	 * (such as threads) which they own.
+	 *
+	 * @since 8.4.0
+	 */
+	INTERCEPTOR_UNREGISTERED(void.class),
+
 	/**
 	 * <b>Client Hook:</b>
 	 * This hook is called before an HTTP client request is sent
@@ -80,6 +90,34 @@ public enum Pointcut implements IPointcut {
 	CLIENT_REQUEST(
 			void.class, "ca.uhn.fhir.rest.client.api.IHttpRequest", "ca.uhn.fhir.rest.client.api.IRestfulClient"),
 
+	/**
+	 * <b>Client Hook:</b>
+	 * This hook is called after the {@link #CLIENT_REQUEST} hooks, immediately before an HTTP client request is
+	 * sent. Hook methods may supply a response which will be used instead of sending the request, for example
+	 * a response which was previously stored by a client-side cache. The supplied response is processed
+	 * exactly as though it had been received from the server, including invoking the {@link #CLIENT_RESPONSE} hooks.
+	 * <p>
+	 * Hooks may accept the following parameters:
+	 * <ul>
+	 * <li>
+	 * ca.uhn.fhir.rest.client.api.IHttpRequest - The details of the request
+	 * </li>
+	 * <li>
+	 *    ca.uhn.fhir.rest.client.api.IRestfulClient - The client object making the request
+	 * </li>
+	 * </ul>
+	 * </p>
+	 * Hook methods may return an instance of <code>ca.uhn.fhir.rest.client.api.IHttpResponse</code> which will be
+	 * used as the response to the request, or <code>null</code> if the request should be sent normally. If a hook
+	 * method returns a response, hook methods with a later order are not called.
+	 *
+	 * @since 8.4.0
+	 */
+	CLIENT_REQUEST_SUBSTITUTE_RESPONSE(
+			"ca.uhn.fhir.rest.client.api.IHttpResponse",
+			"ca.uhn.fhir.rest.client.api.IHttpRequest",
+			"ca.uhn.fhir.rest.client.api.IRestfulClient"),
+
 	/**
 	 * <b>Client Hook:</b>
 	 * This hook is called after an HTTP client request has completed, prior to returning
@@ -2315,6 +2353,34 @@ public enum Pointcut implements IPointcut {
 			"java.lang.String",
 			"ca.uhn.fhir.validation.ValidationResult"),
 
+	/**
+	 * <b>Validation Hook:</b>
+	 * This hook is called when the <code>RequestValidatingInterceptor</code> or the
+	 * <code>ResponseValidatingInterceptor</code> has finished validating a request asynchronously
+	 * (see <code>BaseValidatingInterceptor#setAsyncValidationSelector</code>). It is invoked on the
+	 * background validation thread, usually after the request itself has completed, so hooks can not
+	 * affect the request. Typically this is used to record conformance metrics.
+	 * <p>
+	 * Hooks may accept the following parameters:
+	 * <ul>
+	 * <li>
+	 * ca.uhn.fhir.rest.server.interceptor.AsyncValidationResult - The outcome of the validation, along with
+	 * the resource type, operation type and ID of the request which was validated, and the time spent validating
+	 * </li>
+	 * <li>
+	 * ca.uhn.fhir.validation.ValidationResult - The outcome of the validation. Hooks methods should not modify this object.
+	 * </li>
+	 * </ul>
+	 * </p>
+	 * Hook methods must return <code>void</code>.
+	 *
+	 * @since 8.4.0
+	 */
+	VALIDATION_ASYNC_COMPLETED(
+			void.class,
+			"ca.uhn.fhir.rest.server.interceptor.AsyncValidationResult",
+			"ca.uhn.fhir.validation.ValidationResult"),
+
 	/**
 	 * <b>MDM(EMPI) Hook:</b>
 	 * Invoked when a persisted resource (a resource that has just been stored in the
@@ -37,6 +37,7 @@ import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -45,15 +46,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -80,7 +84,13 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	private final ListMultimap<POINTCUT, IInvoker> myAnonymousInvokers = ArrayListMultimap.create();
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
-	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	/**
+	 * Immutable per-pointcut invoker lists, indexed by {@link Enum#ordinal()}. This
+	 * array is replaced as a whole (never modified) whenever an interceptor is
+	 * registered or unregistered, so it can be read without locking.
+	 */
+	private volatile List<IInvoker>[] myInvokersByPointcut;
+
 	private boolean myWarnOnInterceptorWithNoHooks = true;
 
 	/**
@@ -100,7 +110,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	public BaseInterceptorService(Class<POINTCUT> thePointcutType, String theName) {
 		super();
 		myPointcutType = thePointcutType;
-		rebuildRegisteredPointcutSet();
+		rebuildInvokerSnapshots();
 	}
 
 	/**
@@ -132,7 +142,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 				myInterceptors.add(theInterceptor);
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshots();
 		}
 	}
 
@@ -147,11 +157,14 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	@Override
 	@VisibleForTesting
 	public void unregisterAllInterceptors() {
+		List<IInvoker> unregisteredHooks = new ArrayList<>();
 		synchronized (myRegistryMutex) {
-			unregisterInterceptors(myAnonymousInvokers.values());
-			unregisterInterceptors(myGlobalInvokers.values());
-			unregisterInterceptors(myInterceptors);
+			removeInterceptors(myAnonymousInvokers.values(), unregisteredHooks);
+			removeInterceptors(myGlobalInvokers.values(), unregisteredHooks);
+			removeInterceptors(myInterceptors, unregisteredHooks);
+			rebuildInvokerSnapshots();
 		}
+		invokeUnregisteredHooks(unregisteredHooks);
 	}
 
 	@Override
@@ -173,9 +186,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	@Override
 	public void unregisterAllAnonymousInterceptors() {
-		synchronized (myRegistryMutex) {
-			unregisterInterceptorsIf(t -> true, myAnonymousInvokers);
-		}
+		unregisterInterceptorsIf(t -> true, myAnonymousInvokers);
 	}
 
 	@Override
@@ -186,15 +197,17 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	private void unregisterInterceptorsIf(
 			Predicate<Object> theShouldUnregisterFunction, ListMultimap<POINTCUT, IInvoker> theGlobalInvokers) {
+		List<IInvoker> unregisteredHooks = new ArrayList<>();
 		synchronized (myRegistryMutex) {
 			for (Map.Entry<POINTCUT, IInvoker> nextInvoker : new ArrayList<>(theGlobalInvokers.entries())) {
 				if (theShouldUnregisterFunction.test(nextInvoker.getValue().getInterceptor())) {
-					unregisterInterceptor(nextInvoker.getValue().getInterceptor());
+					removeInterceptor(nextInvoker.getValue().getInterceptor(), unregisteredHooks);
 				}
 			}
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshots();
 		}
+		invokeUnregisteredHooks(unregisteredHooks);
 	}
 
 	@Override
@@ -218,17 +231,34 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			myInterceptors.add(theInterceptor);
 			sortByOrderAnnotation(myInterceptors);
 
-			rebuildRegisteredPointcutSet();
+			rebuildInvokerSnapshots();
 
 			return true;
 		}
 	}
 
-	private void rebuildRegisteredPointcutSet() {
-		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
-		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
-		registeredPointcuts.addAll(myGlobalInvokers.keySet());
-		myRegisteredPointcuts = registeredPointcuts;
+	/**
+	 * Must be called while holding {@link #myRegistryMutex}
+	 */
+	private void rebuildInvokerSnapshots() {
+		@SuppressWarnings("unchecked")
+		List<IInvoker>[] invokersByPointcut = new List[myPointcutType.getEnumConstants().length];
+		Arrays.fill(invokersByPointcut, Collections.emptyList());
+
+		for (POINTCUT nextPointcut : myGlobalInvokers.keySet()) {
+			invokersByPointcut[nextPointcut.ordinal()] = buildInvokerSnapshot(nextPointcut);
+		}
+		for (POINTCUT nextPointcut : myAnonymousInvokers.keySet()) {
+			invokersByPointcut[nextPointcut.ordinal()] = buildInvokerSnapshot(nextPointcut);
+		}
+
+		myInvokersByPointcut = invokersByPointcut;
+	}
+
+	private List<IInvoker> buildInvokerSnapshot(POINTCUT thePointcut) {
+		List<IInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
+		List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
+		return List.copyOf(union(Arrays.asList(globalInvokers, anonymousInvokers)));
 	}
 
 	private boolean isInterceptorAlreadyRegistered(Object theInterceptor) {
@@ -242,13 +272,53 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	@Override
 	public boolean unregisterInterceptor(Object theInterceptor) {
+		List<IInvoker> unregisteredHooks = new ArrayList<>();
+		boolean removed;
 		synchronized (myRegistryMutex) {
-			boolean removed = myInterceptors.removeIf(t -> t == theInterceptor);
-			removed |= myGlobalInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
-			removed |= myAnonymousInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
-			rebuildRegisteredPointcutSet();
-			return removed;
+			removed = removeInterceptor(theInterceptor, unregisteredHooks);
+			rebuildInvokerSnapshots();
 		}
+		invokeUnregisteredHooks(unregisteredHooks);
+		return removed;
+	}
+
+	private void removeInterceptors(Collection<?> theInterceptors, List<IInvoker> theUnregisteredHooks) {
+		// Copied first, since the service's own lists may be passed in
+		for (Object next : new ArrayList<>(theInterceptors)) {
+			removeInterceptor(next, theUnregisteredHooks);
+		}
+	}
+
+	/**
+	 * Removes the given interceptor and all of its hooks. Must be called while holding the registry
+	 * lock, and the caller must call {@link #rebuildInvokerSnapshots()} afterward.
+	 *
+	 * @param theUnregisteredHooks The {@link Pointcut#INTERCEPTOR_UNREGISTERED} hooks of the removed
+	 *                             interceptor are added to this list
+	 */
+	private boolean removeInterceptor(Object theInterceptor, List<IInvoker> theUnregisteredHooks) {
+		for (ListMultimap<POINTCUT, IInvoker> nextInvokers : List.of(myGlobalInvokers, myAnonymousInvokers)) {
+			for (Map.Entry<POINTCUT, IInvoker> nextInvoker : nextInvokers.entries()) {
+				if (Pointcut.INTERCEPTOR_UNREGISTERED.equals(nextInvoker.getKey())
+						&& nextInvoker.getValue().getInterceptor() == theInterceptor) {
+					theUnregisteredHooks.add(nextInvoker.getValue());
+				}
+			}
+		}
+
+		boolean removed = myInterceptors.removeIf(t -> t == theInterceptor);
+		removed |= myGlobalInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
+		removed |= myAnonymousInvokers.entries().removeIf(t -> t.getValue().getInterceptor() == theInterceptor);
+		return removed;
+	}
+
+	/**
+	 * Invokes the {@link Pointcut#INTERCEPTOR_UNREGISTERED} pointcut for the removed hooks. This is
+	 * only called after the registry lock has been released, so that a hook which blocks (e.g. while
+	 * shutting down an executor) can't hold up the registration of other interceptors.
+	 */
+	private static void invokeUnregisteredHooks(List<IInvoker> theUnregisteredHooks) {
+		theUnregisteredHooks.forEach(t -> t.invoke(new HookParams()));
 	}
 
 	private void sortByOrderAnnotation(List<Object> theObjects) {
@@ -276,7 +346,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	@Override
 	public boolean hasHooks(POINTCUT thePointcut) {
-		return myRegisteredPointcuts.contains(thePointcut);
+		return !myInvokersByPointcut[thePointcut.ordinal()].isEmpty();
 	}
 
 	protected Class<?> getBooleanReturnType() {
@@ -294,7 +364,8 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams) {
-		List<IInvoker> invokers = getInvokersForPointcut(thePointcut);
+		// The snapshot is never modified, so there is no need to copy it here
+		List<IInvoker> invokers = myInvokersByPointcut[thePointcut.ordinal()];
 		return callInvokers(thePointcut, theParams, invokers);
 	}
 
@@ -314,15 +385,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	 */
 	@Override
 	public List<IInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<IInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<IInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<IInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			invokers = union(Arrays.asList(globalInvokers, anonymousInvokers));
-		}
-
-		return invokers;
+		return new ArrayList<>(myInvokersByPointcut[thePointcut.ordinal()]);
 	}
 
 	/**
@@ -421,16 +484,20 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	protected abstract Optional<HookDescriptor> scanForHook(Method nextMethod);
 
 	public static Object callInvokers(IPointcut thePointcut, HookParams theParams, List<IInvoker> invokers) {
+		if (invokers.isEmpty()) {
+			return null;
+		}
 
 		Object retVal = null;
+		Class<?> pointcutReturnType = thePointcut.getReturnType();
+		boolean booleanReturnType = pointcutReturnType.equals(thePointcut.getBooleanReturnTypeForEnum());
 
 		/*
 		 * Call each hook in order
 		 */
 		for (IInvoker nextInvoker : invokers) {
 			Object nextOutcome = nextInvoker.invoke(theParams);
-			Class<?> pointcutReturnType = thePointcut.getReturnType();
-			if (pointcutReturnType.equals(thePointcut.getBooleanReturnTypeForEnum())) {
+			if (booleanReturnType) {
 				Boolean nextOutcomeAsBoolean = (Boolean) nextOutcome;
 				if (Boolean.FALSE.equals(nextOutcomeAsBoolean)) {
 					ourLog.trace("callHooks({}) for invoker({}) returned false", thePointcut, nextInvoker);
@@ -524,9 +591,21 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 	private class HookInvoker extends BaseInvoker {
 
+		private static final int PARAMETER_INDEX_POINTCUT = -1;
+
 		private final Method myMethod;
+		private final MethodHandle myMethodHandle;
 		private final Class<?>[] myParameterTypes;
+		/**
+		 * The hook method parameter types, with primitive types replaced by their wrappers
+		 */
+		private final Class<?>[] myArgumentTypes;
+		/**
+		 * For each hook method parameter, the index within {@link HookParams} of the value
+		 * of that type, or {@link #PARAMETER_INDEX_POINTCUT} if the parameter receives the pointcut
+		 */
 		private final int[] myParameterIndexes;
+
 		private final POINTCUT myPointcut;
 
 		/**
@@ -537,6 +616,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			super(theInterceptor, theOrder);
 			myPointcut = theHook.getPointcut();
 			myParameterTypes = theHookMethod.getParameterTypes();
+			myArgumentTypes = ClassUtils.primitivesToWrappers(myParameterTypes);
 			myMethod = theHookMethod;
 
 			Class<?> returnType = theHookMethod.getReturnType();
@@ -559,11 +639,37 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 			myParameterIndexes = new int[myParameterTypes.length];
 			Map<Class<?>, AtomicInteger> typeToCount = new HashMap<>();
 			for (int i = 0; i < myParameterTypes.length; i++) {
+				if (myParameterTypes[i].equals(Pointcut.class)) {
+					myParameterIndexes[i] = PARAMETER_INDEX_POINTCUT;
+					continue;
+				}
 				AtomicInteger counter = typeToCount.computeIfAbsent(myParameterTypes[i], t -> new AtomicInteger(0));
 				myParameterIndexes[i] = counter.getAndIncrement();
 			}
 
 			myMethod.setAccessible(true);
+			myMethodHandle = createMethodHandle(theInterceptor, theHookMethod);
+		}
+
+		/**
+		 * Binds the hook method to the interceptor instance and adapts it to accept
+		 * the arguments as an array and to return an {@link Object}, so that it can
+		 * be called using {@link MethodHandle#invokeExact(Object...)} without any
+		 * reflective access checks per invocation.
+		 */
+		private MethodHandle createMethodHandle(Object theInterceptor, Method theHookMethod) {
+			MethodHandle retVal;
+			try {
+				retVal = MethodHandles.lookup().unreflect(theHookMethod);
+			} catch (IllegalAccessException e) {
+				throw new InternalErrorException(
+						Msg.code(2781) + "Unable to access interceptor hook method: " + theHookMethod, e);
+			}
+			if (!Modifier.isStatic(theHookMethod.getModifiers())) {
+				retVal = retVal.bindTo(theInterceptor);
+			}
+			return retVal.asSpreader(Object[].class, myParameterTypes.length)
+					.asType(MethodType.methodType(Object.class, Object[].class));
 		}
 
 		@Override
@@ -590,40 +696,53 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 
 			Object[] args = new Object[myParameterTypes.length];
 			for (int i = 0; i < myParameterTypes.length; i++) {
-				Class<?> nextParamType = myParameterTypes[i];
-				if (nextParamType.equals(Pointcut.class)) {
+				int nextParamIndex = myParameterIndexes[i];
+				if (nextParamIndex == PARAMETER_INDEX_POINTCUT) {
 					args[i] = myPointcut;
 				} else {
-					int nextParamIndex = myParameterIndexes[i];
-					Object nextParamValue = theParams.get(nextParamType, nextParamIndex);
-					args[i] = nextParamValue;
+					args[i] = theParams.get(myParameterTypes[i], nextParamIndex);
+				}
+				if (!isAssignable(myArgumentTypes[i], args[i], myParameterTypes[i].isPrimitive())) {
+					String argumentType = args[i] != null ? args[i].getClass().getName() : "null";
+					throw new InternalErrorException(
+							Msg.code(1911) + "Unable to pass " + argumentType + " as parameter " + i + " of " + myMethod);
 				}
 			}
 
 			// Invoke the method
 			try {
 				return invokeMethod(args);
-			} catch (InvocationTargetException e) {
-				Throwable targetException = e.getTargetException();
-				if (myPointcut.isShouldLogAndSwallowException(targetException)) {
-					ourLog.error("Exception thrown by interceptor: " + targetException.toString(), targetException);
+			} catch (WrongMethodTypeException e) {
+				throw new InternalErrorException(Msg.code(1911) + e);
+			} catch (Throwable e) {
+				if (myPointcut.isShouldLogAndSwallowException(e)) {
+					ourLog.error("Exception thrown by interceptor: " + e.toString(), e);
 					return null;
 				}
 
-				if (targetException instanceof RuntimeException) {
-					throw ((RuntimeException) targetException);
+				if (e instanceof RuntimeException) {
+					throw ((RuntimeException) e);
 				} else {
 					throw new InternalErrorException(
-							Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(),
-							targetException);
+							Msg.code(1910) + "Failure invoking interceptor for pointcut(s) " + getPointcut(), e);
 				}
-			} catch (Exception e) {
-				throw new InternalErrorException(Msg.code(1911) + e);
 			}
 		}
 
+		/**
+		 * Arguments are checked before they are passed to the method handle, so that a mismatched
+		 * argument is reported as such rather than as a {@link ClassCastException} or
+		 * {@link NullPointerException}, which can't be told apart from one thrown by the hook itself
+		 */
+		private boolean isAssignable(Class<?> theArgumentType, @Nullable Object theArgument, boolean thePrimitive) {
+			if (theArgument == null) {
+				return !thePrimitive;
+			}
+			return theArgumentType.isInstance(theArgument);
+		}
+
 		@WithSpan("hapifhir.interceptor")
-		private Object invokeMethod(Object[] args) throws InvocationTargetException, IllegalAccessException {
+		private Object invokeMethod(Object[] args) throws Throwable {
 			// Add attributes to the opentelemetry span
 			Span currentSpan = Span.current();
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_POINTCUT_NAME_ATT_KEY, myPointcut.name());
@@ -632,7 +751,7 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 					myMethod.getDeclaringClass().getName());
 			currentSpan.setAttribute(OTEL_INTERCEPTOR_METHOD_NAME_ATT_KEY, myMethod.getName());
 
-			return myMethod.invoke(getInterceptor(), args);
+			return (Object) myMethodHandle.invokeExact(args);
 		}
 	}
 
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for {@link IBundleEntryIterator} implementations. Subclasses parse the
+ * envelope, each entry and the trailing elements of the Bundle, and this class takes
+ * care of the iteration contract and of merging the trailing elements into the envelope.
+ */
+abstract class BaseBundleEntryIterator<T extends IBaseBundle> implements IBundleEntryIterator<T> {
+
+	private final FhirContext myContext;
+	private T myEnvelope;
+	private BundleEntryParts myNext;
+	private boolean myFinished;
+	private boolean myClosed;
+
+	BaseBundleEntryIterator(FhirContext theContext) {
+		myContext = theContext;
+	}
+
+	/**
+	 * Must be called by the subclass constructor once the streaming reader is ready
+	 */
+	protected void initialize() {
+		myEnvelope = parseEnvelope();
+	}
+
+	/**
+	 * Parses all elements of the Bundle appearing before the first entry, leaving the reader
+	 * positioned on the first entry (if any)
+	 */
+	protected abstract T parseEnvelope();
+
+	/**
+	 * Parses the next entry into a new Bundle containing only that entry
+	 *
+	 * @return The Bundle, or <code>null</code> if there are no more entries
+	 */
+	protected abstract T parseNextEntry();
+
+	/**
+	 * Parses any elements of the Bundle appearing after the last entry into a new Bundle
+	 *
+	 * @return The Bundle, or <code>null</code> if there are no trailing elements
+	 */
+	protected abstract T parseTail();
+
+	/**
+	 * Releases the underlying streaming reader
+	 */
+	protected abstract void closeReader();
+
+	@Override
+	public T getEnvelope() {
+		return myEnvelope;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (myNext == null && !myFinished) {
+			T nextBundle = parseNextEntry();
+			if (nextBundle != null) {
+				List<BundleEntryParts> entries = BundleUtil.toListOfEntries(myContext, nextBundle);
+				myNext = entries.get(0);
+			} else {
+				myFinished = true;
+				T tail = parseTail();
+				if (tail != null) {
+					mergeInto(tail, myEnvelope);
+				}
+				close();
+			}
+		}
+		return myNext != null;
+	}
+
+	@Override
+	public BundleEntryParts next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException(Msg.code(2776) + "No more entries in Bundle");
+		}
+		BundleEntryParts retVal = myNext;
+		myNext = null;
+		return retVal;
+	}
+
+	@Override
+	public void close() {
+		if (!myClosed) {
+			myClosed = true;
+			myFinished = true;
+			closeReader();
+		}
+	}
+
+	private void mergeInto(T theSource, T theTarget) {
+		RuntimeResourceDefinition bundleDef = myContext.getResourceDefinition(theTarget);
+		for (BaseRuntimeChildDefinition nextChild : bundleDef.getChildren()) {
+			List<IBase> values = nextChild.getAccessor().getValues(theSource);
+			for (IBase nextValue : values) {
+				if (nextChild.getMax() == 1) {
+					nextChild.getMutator().setValue(theTarget, nextValue);
+				} else {
+					nextChild.getMutator().addValue(theTarget, nextValue);
+				}
+			}
+		}
+	}
+}
@@ -70,10 +70,13 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -121,6 +124,7 @@ public abstract class BaseParser implements IParser {
 	private boolean mySummaryMode;
 	private boolean mySuppressNarratives;
 	private Set<String> myDontStripVersionsFromReferencesAtPaths;
+	private ParseElementsProjection myParseElementsProjection;
 	/**
 	 * Constructor
 	 */
@@ -145,6 +149,23 @@ public abstract class BaseParser implements IParser {
 		return this;
 	}
 
+	@Override
+	public IParser setParseElements(Collection<String> theParseElements) {
+		if (theParseElements == null || theParseElements.isEmpty()) {
+			myParseElementsProjection = null;
+		} else {
+			myParseElementsProjection = new ParseElementsProjection(theParseElements);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the projection built from {@link #setParseElements(Collection)}, or <code>null</code>
+	 */
+	ParseElementsProjection getParseElementsProjection() {
+		return myParseElementsProjection;
+	}
+
 	protected Iterable<CompositeChildElement> compositeChildIterator(
 			IBase theCompositeElement,
 			final boolean theContainedResource,
@@ -248,6 +269,19 @@ public abstract class BaseParser implements IParser {
 			IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException;
 
+	/**
+	 * Subclasses whose underlying generator can emit bytes directly should override this. The
+	 * default implementation transcodes the output of
+	 * {@link #doEncodeResourceToWriter(IBaseResource, Writer, EncodeContext)} to UTF-8.
+	 */
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		doEncodeResourceToWriter(theResource, writer, theEncodeContext);
+		writer.flush();
+	}
+
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException {
 		throw new InternalErrorException(Msg.code(2363) + "This parser does not support encoding non-resource values");
@@ -276,6 +310,14 @@ public abstract class BaseParser implements IParser {
 		encodeResourceToWriter(theResource, theWriter, encodeContext);
 	}
 
+	@Override
+	public final void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		EncodeContext encodeContext =
+				new EncodeContext(this, myContext.getParserOptions(), new FhirTerser.ContainedResources());
+		encodeResourceToOutputStream(theResource, theOutputStream, encodeContext);
+	}
+
 	@Override
 	public String encodeToString(IBase theElement) throws DataFormatException {
 		Writer stringWriter = new StringBuilderWriter();
@@ -321,6 +363,28 @@ public abstract class BaseParser implements IParser {
 		Validate.notNull(theWriter, "theWriter can not be null");
 		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
 
+		pushResourcePath(theResource, theEncodeContext);
+
+		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	protected void encodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		Validate.notNull(theResource, "theResource can not be null");
+		Validate.notNull(theOutputStream, "theOutputStream can not be null");
+		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
+
+		pushResourcePath(theResource, theEncodeContext);
+
+		doEncodeResourceToOutputStream(theResource, theOutputStream, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	private void pushResourcePath(IBaseResource theResource, EncodeContext theEncodeContext) {
 		if (theResource.getStructureFhirVersionEnum() != myContext.getVersion().getVersion()) {
 			throw new IllegalArgumentException(Msg.code(1829) + "This parser is for FHIR version "
 					+ myContext.getVersion().getVersion() + " - Can not encode a structure for version "
@@ -330,10 +394,6 @@ public abstract class BaseParser implements IParser {
 		String resourceName =
 				myContext.getElementDefinition(theResource.getClass()).getName();
 		theEncodeContext.pushPath(resourceName, true);
-
-		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
-
-		theEncodeContext.popPath();
 	}
 
 	protected void encodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
@@ -686,11 +746,21 @@ public abstract class BaseParser implements IParser {
 			}
 		}
 
-		RuntimeResourceDefinition def = myContext.getResourceDefinition(retVal);
+		overrideResourceIdsWithBundleEntryFullUrls(retVal);
+
+		return retVal;
+	}
+
+	/**
+	 * If the given resource is a Bundle, and {@link #setOverrideResourceIdWithBundleEntryFullUrl(Boolean)} is
+	 * enabled, replaces the ID of each entry resource with the value of <code>Bundle.entry.fullUrl</code>
+	 */
+	void overrideResourceIdsWithBundleEntryFullUrls(IBaseResource theResource) {
+		RuntimeResourceDefinition def = myContext.getResourceDefinition(theResource);
 		if ("Bundle".equals(def.getName())) {
 
 			if (isOverrideResourceIdWithBundleEntryFullUrl()) {
-				BundleUtil.processEntries(myContext, (IBaseBundle) retVal, t -> {
+				BundleUtil.processEntries(myContext, (IBaseBundle) theResource, t -> {
 					String fullUrl = t.getFullUrl();
 					if (fullUrl != null) {
 						IBaseResource resource = t.getResource();
@@ -731,8 +801,17 @@ public abstract class BaseParser implements IParser {
 				});
 			}
 		}
+	}
 
-		return retVal;
+	/**
+	 * This implementation parses the complete Bundle up front. Subclasses which are able to
+	 * parse a Bundle incrementally should override this method.
+	 */
+	@Override
+	public <T extends IBaseBundle> IBundleEntryIterator<T> parseBundleEntries(Class<T> theBundleType, Reader theReader)
+			throws DataFormatException {
+		T bundle = parseResource(theBundleType, theReader);
+		return new ParsedBundleEntryIterator<>(myContext, bundle);
 	}
 
 	@SuppressWarnings("cast")
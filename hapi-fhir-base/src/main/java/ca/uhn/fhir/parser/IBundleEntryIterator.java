@@ -0,0 +1,71 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the entries of a Bundle which is being parsed one entry at a time,
+ * as returned by {@link IParser#parseBundleEntries(Class, java.io.Reader)}. Each entry
+ * (and the resource it contains) is only parsed when {@link #hasNext()} or {@link #next()}
+ * is invoked, so memory usage is bounded by the size of a single entry instead of the
+ * size of the whole Bundle.
+ * <p>
+ * Instances are not thread safe, and should be {@link #close() closed} when no longer
+ * needed. Closing the iterator does not close the underlying reader.
+ * </p>
+ *
+ * @param <T> The Bundle type
+ * @since 8.4.0
+ */
+public interface IBundleEntryIterator<T extends IBaseBundle> extends Iterator<BundleEntryParts>, Closeable {
+
+	/**
+	 * Returns the Bundle "envelope", meaning the Bundle with all of its elements populated
+	 * except for <code>Bundle.entry</code>. Elements appearing before the first entry in the
+	 * source document are available immediately. Elements appearing after the entries (e.g.
+	 * <code>Bundle.signature</code>) are added to the envelope once iteration has completed.
+	 */
+	T getEnvelope();
+
+	/**
+	 * Releases the streaming reader used by this iterator. This does not close the
+	 * reader which was originally supplied to the parser.
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Returns a sequential {@link Stream} over the remaining entries. Closing the stream
+	 * closes this iterator.
+	 */
+	default Stream<BundleEntryParts> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+				.onClose(this::close);
+	}
+}
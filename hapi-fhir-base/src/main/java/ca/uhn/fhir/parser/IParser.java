@@ -31,14 +31,18 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -71,6 +75,29 @@ public interface IParser {
 	 */
 	void encodeResourceToWriter(IBaseResource theResource, Writer theWriter) throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource using the parser's given encoding format, writing the result to the
+	 * given stream as UTF-8 bytes. The output is identical to the UTF-8 encoded output of
+	 * {@link #encodeResourceToString(IBaseResource)}, but the encoded resource is never held
+	 * in memory as a String. The XML parser produces the bytes directly from its underlying
+	 * generator. The stream is flushed but not closed.
+	 * <p>
+	 * The default implementation wraps the stream in an {@link OutputStreamWriter} and calls
+	 * {@link #encodeResourceToWriter(IBaseResource, Writer)}.
+	 * </p>
+	 *
+	 * @param theResource     The resource to encode. Must not be null.
+	 * @param theOutputStream The stream to write to.
+	 * @throws DataFormatException If any invalid elements within the contents to be encoded prevent successful encoding.
+	 * @since 8.4.0
+	 */
+	default void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		encodeResourceToWriter(theResource, writer);
+		writer.flush();
+	}
+
 	/**
 	 * Encodes any FHIR element to a string.
 	 * If a {@link IBaseResource resource object} is passed in, the resource will be encoded using standard FHIR
@@ -234,6 +261,30 @@ public interface IParser {
 	 */
 	IParser setSummaryMode(boolean theSummaryMode);
 
+	/**
+	 * Parses a Bundle one entry at a time. The elements of the Bundle appearing before
+	 * the first entry are parsed immediately and are available from
+	 * {@link IBundleEntryIterator#getEnvelope()}, and each entry (along with its resource)
+	 * is only parsed when the iterator is advanced. This allows very large Bundles to be
+	 * processed without holding the complete object graph in memory.
+	 * <p>
+	 * Parsers which do not support incremental parsing will parse the complete Bundle
+	 * up front, but still return an iterator with the same behaviour.
+	 * </p>
+	 *
+	 * @param theBundleType The Bundle type to use
+	 * @param theReader     The reader to parse input from. Note that the Reader will not be closed by the parser upon completion.
+	 * @return An iterator over the entries of the Bundle, which should be closed when no longer needed
+	 * @throws DataFormatException If the Bundle can not be parsed because the data is not recognized or invalid for any reason.
+	 *                             Note that this exception may also be thrown while iterating.
+	 * @since 8.4.0
+	 */
+	default <T extends IBaseBundle> IBundleEntryIterator<T> parseBundleEntries(
+			Class<T> theBundleType, Reader theReader) throws DataFormatException {
+		T bundle = parseResource(theBundleType, theReader);
+		return new ParsedBundleEntryIterator<>(FhirContext.forCached(bundle.getStructureFhirVersionEnum()), bundle);
+	}
+
 	/**
 	 * Parses a resource
 	 *
@@ -403,6 +454,47 @@ public interface IParser {
 		return setEncodeElements(CollectionUtil.newSet(theEncodeElements));
 	}
 
+	/**
+	 * If provided, specifies the elements which should be populated when parsing a resource. Any other
+	 * elements are skipped over without being parsed, which can be considerably cheaper when only a
+	 * small part of a large resource is needed. Valid values for this field would include:
+	 * <ul>
+	 * <li><b>Patient</b> - Parse the patient and all its children</li>
+	 * <li><b>Patient.name</b> - Parse only the patient's name</li>
+	 * <li><b>Patient.name.family</b> - Parse only the patient's family name</li>
+	 * <li><b>*.subject</b> - Parse the subject element on any resource (only the very first position may contain a
+	 * wildcard)</li>
+	 * </ul>
+	 * <p>
+	 * The projection only applies to the top level resource being parsed, and only if at least one
+	 * of the paths applies to its type. The resource <code>id</code> and <code>meta</code> are always
+	 * populated, and resources found within a selected element (e.g. <code>Bundle.entry</code>) are
+	 * parsed in full.
+	 * </p>
+	 * <p>
+	 * This is an optimization only. The default implementation ignores the given elements, so parsers
+	 * which don't support it continue to parse the whole resource.
+	 * </p>
+	 *
+	 * @param theParseElements The elements to parse, or <code>null</code> to parse the whole resource
+	 * @since 8.4.0
+	 */
+	default IParser setParseElements(@Nullable Collection<String> theParseElements) {
+		return this;
+	}
+
+	/**
+	 * If provided, specifies the elements which should be populated when parsing a resource.
+	 * See {@link #setParseElements(Collection)} for details.
+	 *
+	 * @param theParseElements The elements to parse. Can be an empty list, but must not be <code>null</code>.
+	 * @since 8.4.0
+	 * @see #setParseElements(Collection)
+	 */
+	default IParser setParseElements(@Nonnull String... theParseElements) {
+		return setParseElements(CollectionUtil.newSet(theParseElements));
+	}
+
 	/**
 	 * If set to <code>true</code> (default is false), the values supplied
 	 * to {@link #setEncodeElements(Set)} will not be applied to the root
@@ -55,12 +55,17 @@ import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.util.ElementUtil;
 import ca.uhn.fhir.util.FhirTerser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.annotation.Nonnull;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.text.WordUtils;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBooleanDatatype;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDecimalDatatype;
 import org.hl7.fhir.instance.model.api.IBaseExtension;
 import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
@@ -78,9 +83,11 @@ import java.io.Writer;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.ID_DATATYPE;
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.PRIMITIVE_DATATYPE;
@@ -252,6 +259,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isUseStreamingJsonParser()) {
+			return doParseResourceStreaming(theResourceType, theReader);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -286,6 +297,239 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return retVal;
 	}
 
+	@Override
+	public <T extends IBaseBundle> IBundleEntryIterator<T> parseBundleEntries(Class<T> theBundleType, Reader theReader)
+			throws DataFormatException {
+		getContext().getResourceDefinition(theBundleType);
+		return new JsonBundleEntryIterator<>(theBundleType, theReader);
+	}
+
+	/**
+	 * Parses a resource directly from the Jackson token stream, without first loading the
+	 * whole document into a tree.
+	 *
+	 * @see ca.uhn.fhir.context.ParserOptions#setUseStreamingJsonParser(boolean)
+	 */
+	private <T extends IBaseResource> T doParseResourceStreaming(Class<T> theResourceType, Reader theReader) {
+		try (com.fasterxml.jackson.core.JsonParser parser = JacksonStructure.createStreamingParser(theReader)) {
+			parser.nextToken();
+			JsonToken token = parser.nextToken();
+
+			if (token != JsonToken.FIELD_NAME || !"resourceType".equals(parser.currentName())) {
+				/*
+				 * The resource type must be known before anything else can be parsed,
+				 * so if it isn't the first property we fall back to reading the whole
+				 * document into a tree.
+				 */
+				JacksonStructure jsonStructure = new JacksonStructure();
+				jsonStructure.setNativeObject(readRemainingObject(parser));
+				assertNoTrailingContent(parser);
+				return doParseResource(theResourceType, jsonStructure);
+			}
+
+			token = parser.nextToken();
+			String resourceType = token == JsonToken.VALUE_STRING ? parser.getText() : null;
+			if (isBlank(resourceType)) {
+				throw new DataFormatException(
+						Msg.code(2817) + "Invalid JSON content detected, missing required element: 'resourceType'");
+			}
+
+			ParserState<? extends IBaseResource> state =
+					ParserState.getPreResourceInstance(this, theResourceType, getContext(), true, getErrorHandler());
+			state.enteringNewElement(null, resourceType);
+
+			parser.nextToken();
+			parseChildrenStreaming(parser, state);
+
+			state.endingElement();
+			state.endingElement();
+
+			assertNoTrailingContent(parser);
+
+			@SuppressWarnings("unchecked")
+			T retVal = (T) state.getObject();
+
+			return retVal;
+		} catch (IOException e) {
+			throw JacksonStructure.toDataFormatException(e);
+		}
+	}
+
+	/**
+	 * Streaming equivalent of {@link #parseChildren(BaseJsonLikeObject, ParserState)}. On entry the
+	 * parser must be positioned on the first token inside the object (a field name or the closing
+	 * brace), and on exit it is positioned on the closing brace.
+	 * <p>
+	 * Complex children are handed to the {@link ParserState} as soon as they are read. Everything
+	 * else (primitives and their <code>_name</code> companions, extensions, ids and comments) is
+	 * small, and may need to be matched up with properties that appear later in the object, so these
+	 * are collected and passed through the regular tree-based logic once the object is complete.
+	 * </p>
+	 */
+	private void parseChildrenStreaming(com.fasterxml.jackson.core.JsonParser theParser, ParserState<?> theState)
+			throws IOException {
+		ObjectNode deferred = null;
+		Set<String> streamedNames = null;
+
+		for (JsonToken token = theParser.currentToken(); token == JsonToken.FIELD_NAME; token = theParser.nextToken()) {
+			String nextName = theParser.currentName();
+			JsonToken valueToken = theParser.nextToken();
+
+			if ("resourceType".equals(nextName) && theState.isToplevelResourceElement()) {
+				theParser.skipChildren();
+				continue;
+			}
+
+			String elementName = nextName.charAt(0) == '_' ? nextName.substring(1) : nextName;
+			if (theState.isSkippedByProjection(elementName)) {
+				// Not wanted, so the tokens are skipped without building anything
+				theParser.skipChildren();
+				continue;
+			}
+
+			boolean streamable = (valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY)
+					&& nextName.charAt(0) != '_'
+					&& !"id".equals(nextName)
+					&& !"extension".equals(nextName)
+					&& !"modifierExtension".equals(nextName)
+					&& !"fhir_comments".equals(nextName);
+
+			if (streamable && valueToken == JsonToken.START_ARRAY) {
+				JsonToken firstToken = theParser.nextToken();
+				if (firstToken != JsonToken.START_OBJECT) {
+					// Not an array of complex elements, so it is parsed once the object is complete
+					ArrayNode array = JacksonStructure.createArrayNode();
+					for (JsonToken next = firstToken; next != JsonToken.END_ARRAY; next = theParser.nextToken()) {
+						array.add((JsonNode) theParser.readValueAsTree());
+					}
+					if (deferred == null) {
+						deferred = JacksonStructure.createObjectNode();
+					}
+					deferred.set(nextName, array);
+					continue;
+				}
+
+				for (JsonToken next = firstToken; next != JsonToken.END_ARRAY; next = theParser.nextToken()) {
+					if (next == JsonToken.START_OBJECT) {
+						parseObjectStreaming(theParser, theState, nextName, true);
+					} else {
+						ObjectNode single = JacksonStructure.createObjectNode();
+						single.set(nextName, JacksonStructure.createArrayNode().add((JsonNode)
+								theParser.readValueAsTree()));
+						parseChildren(toJsonLikeObject(single), theState);
+					}
+				}
+			} else if (streamable) {
+				parseObjectStreaming(theParser, theState, nextName, false);
+			} else {
+				if (deferred == null) {
+					deferred = JacksonStructure.createObjectNode();
+				}
+				deferred.set(nextName, (JsonNode) theParser.readValueAsTree());
+				continue;
+			}
+
+			if (streamedNames == null) {
+				streamedNames = new HashSet<>();
+			}
+			streamedNames.add(nextName);
+		}
+
+		if (deferred != null) {
+			if (streamedNames != null) {
+				// Complex elements never have a "_name" companion, and the element has already been created
+				for (String next : streamedNames) {
+					deferred.remove('_' + next);
+				}
+			}
+			parseChildren(toJsonLikeObject(deferred), theState);
+		}
+	}
+
+	/**
+	 * Streaming equivalent of the object branch in
+	 * {@link #parseChildren(ParserState, String, BaseJsonLikeValue, BaseJsonLikeValue, String, boolean)}.
+	 * On entry the parser must be positioned on the opening brace of the object, and on exit it is
+	 * positioned on the closing brace.
+	 */
+	private void parseObjectStreaming(
+			com.fasterxml.jackson.core.JsonParser theParser,
+			ParserState<?> theState,
+			String theName,
+			boolean theInArray)
+			throws IOException {
+		if (!theInArray && theState.elementIsRepeating(theName)) {
+			getErrorHandler().incorrectJsonType(null, theName, ValueType.ARRAY, null, ValueType.OBJECT, null);
+		}
+
+		theState.enteringNewElement(null, theName);
+		theParser.nextToken();
+
+		boolean preResource = false;
+		if (theState.isPreResource()) {
+			if (theParser.currentToken() == JsonToken.FIELD_NAME && "resourceType".equals(theParser.currentName())) {
+				if (theParser.nextToken() != JsonToken.VALUE_STRING) {
+					throw new DataFormatException(Msg.code(2818)
+							+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+				}
+				theState.enteringNewElement(null, theParser.getText());
+				theParser.nextToken();
+				preResource = true;
+			} else {
+				// The resource type isn't the first property, so this resource is parsed from a tree
+				BaseJsonLikeObject object = toJsonLikeObject(readRemainingObject(theParser));
+				BaseJsonLikeValue resType = object.get("resourceType");
+				if (resType == null || !resType.isString()) {
+					throw new DataFormatException(Msg.code(2819)
+							+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+				}
+				theState.enteringNewElement(null, resType.getAsString());
+				parseChildren(object, theState);
+				theState.endingElement();
+				theState.endingElement();
+				return;
+			}
+		}
+
+		parseChildrenStreaming(theParser, theState);
+
+		if (preResource) {
+			theState.endingElement();
+		}
+		theState.endingElement();
+	}
+
+	/**
+	 * Reads the remaining properties of the current object into a tree. On entry the parser must be
+	 * positioned on a field name or the closing brace, and on exit it is positioned on the closing brace.
+	 */
+	private static ObjectNode readRemainingObject(com.fasterxml.jackson.core.JsonParser theParser) throws IOException {
+		ObjectNode retVal = JacksonStructure.createObjectNode();
+		while (theParser.currentToken() == JsonToken.FIELD_NAME) {
+			String name = theParser.currentName();
+			theParser.nextToken();
+			retVal.set(name, (JsonNode) theParser.readValueAsTree());
+			theParser.nextToken();
+		}
+		return retVal;
+	}
+
+	private static void assertNoTrailingContent(com.fasterxml.jackson.core.JsonParser theParser) throws IOException {
+		JsonToken trailing = theParser.nextToken();
+		if (trailing != null) {
+			throw new DataFormatException(
+					Msg.code(2820) + "Failed to parse JSON encoded FHIR content: Trailing token (of type " + trailing
+							+ ") found after resource\n at ["
+							+ theParser.currentLocation().offsetDescription() + "]");
+		}
+	}
+
+	private static BaseJsonLikeObject toJsonLikeObject(ObjectNode theObjectNode) {
+		JacksonStructure structure = new JacksonStructure();
+		structure.setNativeObject(theObjectNode);
+		return structure.getRootObject();
+	}
+
 	private void encodeChildElementToStreamWriter(
 			RuntimeResourceDefinition theResDef,
 			IBaseResource theResource,
@@ -1331,6 +1575,9 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 		for (Iterator<String> keyIter = theObject.keyIterator(); keyIter.hasNext(); ) {
 			String nextName = keyIter.next();
+			if (theState.isSkippedByProjection(nextName)) {
+				continue;
+			}
 			if ("resourceType".equals(nextName)) {
 				if (theState.isToplevelResourceElement()) {
 					continue;
@@ -2078,4 +2325,122 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 			theEventWriter.endObject();
 		}
 	}
+
+	/**
+	 * Parses a Bundle one entry at a time from the Jackson token stream. The envelope and the
+	 * trailing elements are small, so they are read into a tree and parsed normally. Each entry is
+	 * streamed into a new Bundle.
+	 */
+	private class JsonBundleEntryIterator<T extends IBaseBundle> extends BaseBundleEntryIterator<T> {
+
+		private final Class<T> myBundleType;
+		private final String myBundleTypeName;
+		private final com.fasterxml.jackson.core.JsonParser myParser;
+		private boolean myInEntryArray;
+
+		private JsonBundleEntryIterator(Class<T> theBundleType, Reader theReader) {
+			super(getContext());
+			myBundleType = theBundleType;
+			myBundleTypeName = getContext().getResourceType(theBundleType);
+			myParser = JacksonStructure.createStreamingParser(theReader);
+			try {
+				myParser.nextToken();
+				myParser.nextToken();
+			} catch (IOException e) {
+				closeReader();
+				throw JacksonStructure.toDataFormatException(e);
+			}
+			initialize();
+		}
+
+		@Override
+		protected T parseEnvelope() {
+			try {
+				ObjectNode envelope = JacksonStructure.createObjectNode();
+				for (JsonToken token = myParser.currentToken();
+						token == JsonToken.FIELD_NAME;
+						token = myParser.nextToken()) {
+					String nextName = myParser.currentName();
+					JsonToken valueToken = myParser.nextToken();
+					if ("entry".equals(nextName) && valueToken == JsonToken.START_ARRAY) {
+						myParser.nextToken();
+						myInEntryArray = true;
+						break;
+					}
+					envelope.set(nextName, (JsonNode) myParser.readValueAsTree());
+				}
+				return parseTree(envelope);
+			} catch (IOException e) {
+				throw JacksonStructure.toDataFormatException(e);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected T parseNextEntry() {
+			if (!myInEntryArray) {
+				return null;
+			}
+			try {
+				JsonToken token = myParser.currentToken();
+				if (token == JsonToken.END_ARRAY) {
+					myInEntryArray = false;
+					myParser.nextToken();
+					return null;
+				}
+
+				ParserState<T> state = ParserState.getPreResourceInstance(
+						JsonParser.this, myBundleType, getContext(), true, getErrorHandler());
+				state.enteringNewElement(null, myBundleTypeName);
+				if (token == JsonToken.START_OBJECT) {
+					parseObjectStreaming(myParser, state, "entry", true);
+				} else {
+					ObjectNode single = JacksonStructure.createObjectNode();
+					single.set("entry", JacksonStructure.createArrayNode().add((JsonNode) myParser.readValueAsTree()));
+					parseChildren(toJsonLikeObject(single), state);
+				}
+				state.endingElement();
+				state.endingElement();
+				myParser.nextToken();
+
+				T retVal = state.getObject();
+				overrideResourceIdsWithBundleEntryFullUrls(retVal);
+				return retVal;
+			} catch (IOException e) {
+				throw JacksonStructure.toDataFormatException(e);
+			}
+		}
+
+		@Override
+		protected T parseTail() {
+			try {
+				ObjectNode tail = readRemainingObject(myParser);
+				assertNoTrailingContent(myParser);
+				if (tail.isEmpty()) {
+					return null;
+				}
+				tail.put("resourceType", myBundleTypeName);
+				return parseTree(tail);
+			} catch (IOException e) {
+				throw JacksonStructure.toDataFormatException(e);
+			}
+		}
+
+		@Override
+		protected void closeReader() {
+			try {
+				myParser.close();
+			} catch (IOException e) {
+				ourLog.debug("Failed to close JSON parser", e);
+			}
+		}
+
+		private T parseTree(ObjectNode theObject) {
+			JacksonStructure jsonStructure = new JacksonStructure();
+			jsonStructure.setNativeObject(theObject);
+			T retVal = doParseResource(myBundleType, jsonStructure);
+			overrideResourceIdsWithBundleEntryFullUrls(retVal);
+			return retVal;
+		}
+	}
 }
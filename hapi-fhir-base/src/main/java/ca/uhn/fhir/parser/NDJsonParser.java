@@ -29,6 +29,7 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
@@ -71,14 +72,7 @@ public class NDJsonParser extends BaseParser {
 	@Override
 	protected void doEncodeResourceToWriter(IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException {
-		// We only encode bundles to NDJSON.
-		if (!(IBaseBundle.class.isAssignableFrom(theResource.getClass()))) {
-			throw new IllegalArgumentException(Msg.code(1833) + "NDJsonParser can only encode Bundle types.  Received "
-					+ theResource.getClass().getName());
-		}
-
-		// Ok, convert the bundle to a list of resources.
-		List<IBaseResource> theBundleResources = BundleUtil.toListOfResources(myFhirContext, (IBaseBundle) theResource);
+		List<IBaseResource> theBundleResources = toListOfBundleResources(theResource);
 
 		// Now we write each one in turn.
 		// Use newline only as a line separator, not at the end of the file.
@@ -93,6 +87,34 @@ public class NDJsonParser extends BaseParser {
 		}
 	}
 
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		List<IBaseResource> theBundleResources = toListOfBundleResources(theResource);
+
+		boolean isFirstResource = true;
+		for (IBaseResource theBundleEntryResource : theBundleResources) {
+			if (!(isFirstResource)) {
+				theOutputStream.write('\n');
+			}
+			isFirstResource = false;
+
+			myJsonParser.encodeResourceToOutputStream(theBundleEntryResource, theOutputStream);
+		}
+	}
+
+	private List<IBaseResource> toListOfBundleResources(IBaseResource theResource) {
+		// We only encode bundles to NDJSON.
+		if (!(IBaseBundle.class.isAssignableFrom(theResource.getClass()))) {
+			throw new IllegalArgumentException(Msg.code(1833) + "NDJsonParser can only encode Bundle types.  Received "
+					+ theResource.getClass().getName());
+		}
+
+		// Ok, convert the bundle to a list of resources.
+		return BundleUtil.toListOfResources(myFhirContext, (IBaseBundle) theResource);
+	}
+
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader)
 			throws DataFormatException {
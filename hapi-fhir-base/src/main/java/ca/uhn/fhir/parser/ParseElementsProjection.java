@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The set of element paths a parser has been asked to populate (see
+ * {@link IParser#setParseElements(Collection)}), held as a tree of element
+ * names so that {@link ParserState} can decide whether to descend into a
+ * child element with a single map lookup.
+ */
+final class ParseElementsProjection {
+
+	private static final String WILDCARD = "*";
+
+	/**
+	 * Node which accepts the element it represents and all of its descendants
+	 */
+	private static final Node ALL = new Node();
+
+	private final Map<String, Node> myRootNodes = new HashMap<>();
+	private final Map<String, Node> myResourceTypeNodes = new HashMap<>();
+
+	ParseElementsProjection(Collection<String> thePaths) {
+		for (String nextPath : thePaths) {
+			if (StringUtils.isBlank(nextPath)) {
+				continue;
+			}
+			String[] segments = StringUtils.split(nextPath.trim(), '.');
+			if (segments.length == 1) {
+				myRootNodes.put(segments[0], ALL);
+				continue;
+			}
+			Node node = myRootNodes.computeIfAbsent(segments[0], t -> new Node());
+			for (int i = 1; i < segments.length && node != ALL; i++) {
+				node = node.addChild(segments[i], i == segments.length - 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns the projection to apply to a top level resource of the given type, or
+	 * <code>null</code> if none of the paths apply to this resource type (in which
+	 * case the resource is parsed in full). The resource <code>id</code> and
+	 * <code>meta</code> are always populated.
+	 */
+	@Nullable
+	Node forResourceType(String theResourceType) {
+		return myResourceTypeNodes.computeIfAbsent(theResourceType, t -> {
+			Node typeNode = Node.merge(myRootNodes.get(t), myRootNodes.get(WILDCARD));
+			if (typeNode == null || typeNode == ALL) {
+				return typeNode;
+			}
+			typeNode.myChildren.put("id", ALL);
+			typeNode.myChildren.put("meta", ALL);
+			return typeNode;
+		});
+	}
+
+	static final class Node {
+
+		private final Map<String, Node> myChildren;
+
+		private Node() {
+			myChildren = new HashMap<>();
+		}
+
+		/**
+		 * Returns <code>true</code> if this node accepts the element it represents
+		 * and all of its descendants
+		 */
+		boolean isAll() {
+			return this == ALL;
+		}
+
+		/**
+		 * Returns the projection for the given child element, or <code>null</code> if
+		 * the child should not be populated
+		 */
+		@Nullable
+		Node getChild(String theElementName) {
+			if (this == ALL) {
+				return ALL;
+			}
+			return myChildren.get(theElementName);
+		}
+
+		private Node addChild(String theElementName, boolean theLeaf) {
+			if (theLeaf) {
+				myChildren.put(theElementName, ALL);
+				return ALL;
+			}
+			return myChildren.computeIfAbsent(theElementName, t -> new Node());
+		}
+
+		@Nullable
+		private static Node merge(@Nullable Node theFirst, @Nullable Node theSecond) {
+			if (theFirst == null && theSecond == null) {
+				return null;
+			}
+			if (theFirst == ALL || theSecond == ALL) {
+				return ALL;
+			}
+			Node retVal = new Node();
+			for (Node nextSource : new Node[] {theFirst, theSecond}) {
+				if (nextSource != null) {
+					nextSource.myChildren.forEach((name, child) -> retVal.myChildren.merge(name, child, Node::merge));
+				}
+			}
+			return retVal;
+		}
+	}
+}
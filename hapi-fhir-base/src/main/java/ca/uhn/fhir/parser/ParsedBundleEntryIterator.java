@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link IBundleEntryIterator} over a Bundle which has already been fully parsed
+ */
+class ParsedBundleEntryIterator<T extends IBaseBundle> extends BaseBundleEntryIterator<T> {
+
+	private final T myBundle;
+	private final RuntimeResourceDefinition myBundleDef;
+	private final BaseRuntimeChildDefinition myEntryChild;
+	private final List<IBase> myEntries;
+	private int myIndex;
+
+	ParsedBundleEntryIterator(FhirContext theContext, T theBundle) {
+		super(theContext);
+		myBundle = theBundle;
+		myBundleDef = theContext.getResourceDefinition(theBundle);
+		myEntryChild = myBundleDef.getChildByName("entry");
+		myEntries = new ArrayList<>(myEntryChild.getAccessor().getValues(theBundle));
+		myEntryChild.getMutator().setValue(theBundle, null);
+		initialize();
+	}
+
+	@Override
+	protected T parseEnvelope() {
+		return myBundle;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T parseNextEntry() {
+		if (myIndex >= myEntries.size()) {
+			return null;
+		}
+		T retVal = (T) myBundleDef.newInstance();
+		myEntryChild.getMutator().addValue(retVal, myEntries.get(myIndex));
+		myEntries.set(myIndex++, null);
+		return retVal;
+	}
+
+	@Override
+	protected T parseTail() {
+		return null;
+	}
+
+	@Override
+	protected void closeReader() {
+		// nothing
+	}
+}
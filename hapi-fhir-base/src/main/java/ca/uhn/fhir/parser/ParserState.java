@@ -152,6 +152,15 @@ class ParserState<T> {
 		return myState.isPreResource();
 	}
 
+	/**
+	 * Returns <code>true</code> if the given child of the current element is excluded by the
+	 * {@link IParser#setParseElements(java.util.Collection) parse elements projection}, meaning
+	 * the caller can skip over its content entirely
+	 */
+	boolean isSkippedByProjection(String theElementName) {
+		return myState != null && myState.isSkippedByProjection(theElementName);
+	}
+
 	boolean isToplevelResourceElement() {
 		return myState instanceof ParserState.ResourceStateHl7Org || myState instanceof ParserState.ResourceStateHapi;
 	}
@@ -190,6 +199,14 @@ class ParserState<T> {
 		myState.string(theData);
 	}
 
+	/**
+	 * Returns <code>true</code> if the current state wants to receive {@link #xmlEvent(XMLEvent)} calls, which
+	 * is basically only the case while embedded XHTML content is being parsed
+	 */
+	boolean isCapturingXmlEvents() {
+		return myState != null && myState.isCapturingXmlEvents();
+	}
+
 	/**
 	 * Invoked after any new XML event is individually processed, containing a copy of the XML event. This is basically
 	 * intended for embedded XHTML content
@@ -337,6 +354,10 @@ class ParserState<T> {
 			return null;
 		}
 
+		public boolean isCapturingXmlEvents() {
+			return false;
+		}
+
 		BasePreResourceState getPreResourceState() {
 			return myPreResourceState;
 		}
@@ -345,6 +366,14 @@ class ParserState<T> {
 			return false;
 		}
 
+		public boolean isSkippedByProjection(String theElementName) {
+			return false;
+		}
+
+		boolean isRootState() {
+			return myStack == null;
+		}
+
 		void logAndSwallowUnexpectedElement(String theLocalPart) {
 			myErrorHandler.unknownElement(null, theLocalPart);
 			push(new SwallowChildrenWholeState(getPreResourceState()));
@@ -586,16 +615,30 @@ class ParserState<T> {
 		private final IBase myInstance;
 		private final Set<String> myParsedNonRepeatableNames = new HashSet<>();
 		private final String myElementName;
+		private final ParseElementsProjection.Node myProjection;
 
 		ElementCompositeState(
 				BasePreResourceState thePreResourceState,
 				String theElementName,
 				BaseRuntimeElementCompositeDefinition<?> theDef,
 				IBase theInstance) {
+			this(thePreResourceState, theElementName, theDef, theInstance, null);
+		}
+
+		/**
+		 * @param theProjection The elements to populate, or <code>null</code> to populate all children
+		 */
+		ElementCompositeState(
+				BasePreResourceState thePreResourceState,
+				String theElementName,
+				BaseRuntimeElementCompositeDefinition<?> theDef,
+				IBase theInstance,
+				@Nullable ParseElementsProjection.Node theProjection) {
 			super(thePreResourceState);
 			myDefinition = theDef;
 			myInstance = theInstance;
 			myElementName = theElementName;
+			myProjection = theProjection == null || theProjection.isAll() ? null : theProjection;
 		}
 
 		@Override
@@ -666,6 +709,15 @@ class ParserState<T> {
 				}
 			}
 
+			ParseElementsProjection.Node childProjection = null;
+			if (myProjection != null && !"id".equals(theChildName)) {
+				childProjection = myProjection.getChild(child.getElementName());
+				if (childProjection == null) {
+					push(new SwallowChildrenWholeState(getPreResourceState()));
+					return;
+				}
+			}
+
 			BaseRuntimeElementDefinition<?> target = child.getChildByName(theChildName);
 			if (target == null) {
 				// This is a bug with the structures and shouldn't happen.
@@ -682,7 +734,7 @@ class ParserState<T> {
 							newCompositeInstance(getPreResourceState(), child, compositeTarget);
 					child.getMutator().addValue(myInstance, newChildInstance);
 					ParserState<T>.ElementCompositeState newState = new ElementCompositeState(
-							getPreResourceState(), theChildName, compositeTarget, newChildInstance);
+							getPreResourceState(), theChildName, compositeTarget, newChildInstance, childProjection);
 					push(newState);
 					return;
 				}
@@ -702,7 +754,7 @@ class ParserState<T> {
 					IBase newBlockInstance = newInstance(blockTarget);
 					child.getMutator().addValue(myInstance, newBlockInstance);
 					ElementCompositeState newState = new ElementCompositeState(
-							getPreResourceState(), theChildName, blockTarget, newBlockInstance);
+							getPreResourceState(), theChildName, blockTarget, newBlockInstance, childProjection);
 					push(newState);
 					return;
 				}
@@ -766,6 +818,11 @@ class ParserState<T> {
 		@Override
 		public void enteringNewElementExtension(
 				StartElement theElement, String theUrlAttr, boolean theIsModifier, final String baseServerUrl) {
+			if (myProjection != null
+					&& myProjection.getChild(theIsModifier ? "modifierExtension" : "extension") == null) {
+				push(new SwallowChildrenWholeState(getPreResourceState()));
+				return;
+			}
 			RuntimeChildDeclaredExtensionDefinition declaredExtension =
 					myDefinition.getDeclaredExtension(theUrlAttr, baseServerUrl);
 			if (declaredExtension != null) {
@@ -780,6 +837,22 @@ class ParserState<T> {
 		protected IBase getCurrentElement() {
 			return myInstance;
 		}
+
+		@Override
+		public boolean isSkippedByProjection(String theElementName) {
+			if (myProjection == null || "id".equals(theElementName)) {
+				return false;
+			}
+			String elementName = theElementName;
+			BaseRuntimeChildDefinition child = myDefinition.getChildByName(theElementName);
+			if (child != null) {
+				elementName = child.getElementName();
+			} else if (!"extension".equals(theElementName) && !"modifierExtension".equals(theElementName)) {
+				// Unknown elements are left to the error handler
+				return false;
+			}
+			return myProjection.getChild(elementName) == null;
+		}
 	}
 
 	public class ElementIdState extends BaseState {
@@ -1119,10 +1192,18 @@ class ParserState<T> {
 			}
 			myInstance = newInstance(def);
 
+			ParseElementsProjection.Node projection = null;
+			if (isRootState() && myParser instanceof BaseParser) {
+				ParseElementsProjection parseElements = ((BaseParser) myParser).getParseElementsProjection();
+				if (parseElements != null) {
+					projection = parseElements.forResourceType(def.getName());
+				}
+			}
+
 			if (myInstance instanceof IResource) {
-				push(new ResourceStateHapi(getRootPreResourceState(), def, (IResource) myInstance));
+				push(new ResourceStateHapi(getRootPreResourceState(), def, (IResource) myInstance, projection));
 			} else {
-				push(new ResourceStateHl7Org(getRootPreResourceState(), def, myInstance));
+				push(new ResourceStateHl7Org(getRootPreResourceState(), def, myInstance, projection));
 			}
 		}
 
@@ -1511,8 +1592,9 @@ class ParserState<T> {
 		public ResourceStateHapi(
 				BasePreResourceState thePreResourceState,
 				BaseRuntimeElementCompositeDefinition<?> theDef,
-				IResource theInstance) {
-			super(thePreResourceState, theDef.getName(), theDef, theInstance);
+				IResource theInstance,
+				@Nullable ParseElementsProjection.Node theProjection) {
+			super(thePreResourceState, theDef.getName(), theDef, theInstance, theProjection);
 			myInstance = theInstance;
 		}
 
@@ -1533,8 +1615,9 @@ class ParserState<T> {
 		ResourceStateHl7Org(
 				BasePreResourceState thePreResourceState,
 				BaseRuntimeElementCompositeDefinition<?> theDef,
-				IBaseResource theInstance) {
-			super(thePreResourceState, theDef.getName(), theDef, theInstance);
+				IBaseResource theInstance,
+				@Nullable ParseElementsProjection.Node theProjection) {
+			super(thePreResourceState, theDef.getName(), theDef, theInstance, theProjection);
 		}
 	}
 
@@ -1751,6 +1834,11 @@ class ParserState<T> {
 			return myDt;
 		}
 
+		@Override
+		public boolean isCapturingXmlEvents() {
+			return true;
+		}
+
 		@Override
 		public void xmlEvent(XMLEvent theEvent) {
 			if (theEvent.isEndElement()) {
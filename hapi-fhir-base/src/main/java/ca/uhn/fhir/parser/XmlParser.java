@@ -49,6 +49,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBinary;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDatatype;
 import org.hl7.fhir.instance.model.api.IBaseExtension;
 import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
@@ -58,17 +59,18 @@ import org.hl7.fhir.instance.model.api.IBaseXhtml;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
-import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.Characters;
@@ -78,6 +80,7 @@ import javax.xml.stream.events.Namespace;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
+import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -88,6 +91,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class XmlParser extends BaseParser {
 
 	static final String FHIR_NS = "http://hl7.org/fhir";
+	private static final XMLEventFactory XML_EVENT_FACTORY = XMLEventFactory.newInstance();
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(XmlParser.class);
 	private boolean myPrettyPrint;
 
@@ -101,9 +105,9 @@ public class XmlParser extends BaseParser {
 		super(theContext, theParserErrorHandler);
 	}
 
-	private XMLEventReader createStreamReader(Reader theReader) {
+	private XMLStreamReader createStreamReader(Reader theReader) {
 		try {
-			return XmlUtil.createXmlReader(theReader);
+			return XmlUtil.createXmlStreamReader(theReader);
 		} catch (FactoryConfigurationError e1) {
 			throw new ConfigurationException(Msg.code(1848) + "Failed to initialize STaX event factory", e1);
 		} catch (XMLStreamException e1) {
@@ -141,6 +145,21 @@ public class XmlParser extends BaseParser {
 		}
 	}
 
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws DataFormatException {
+		XMLStreamWriter eventWriter;
+		try {
+			eventWriter = decorateStreamWriter(XmlUtil.createXmlStreamWriter(theOutputStream));
+
+			encodeResourceToXmlStreamWriter(theResource, eventWriter, false, theEncodeContext);
+			eventWriter.flush();
+		} catch (XMLStreamException e) {
+			throw new ConfigurationException(Msg.code(2824) + "Failed to initialize STaX event factory", e);
+		}
+	}
+
 	@Override
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws DataFormatException {
@@ -166,7 +185,7 @@ public class XmlParser extends BaseParser {
 
 	@Override
 	protected void doParseIntoComplexStructure(Reader theSource, IBase theTarget) {
-		XMLEventReader streamReader = createStreamReader(theSource);
+		XMLStreamReader streamReader = createStreamReader(theSource);
 
 		ParserState<IBase> state = ParserState.getComplexObjectState(
 				this, getContext(), getContext(), false, theTarget, getErrorHandler());
@@ -176,105 +195,160 @@ public class XmlParser extends BaseParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
-		XMLEventReader streamReader = createStreamReader(theReader);
+		XMLStreamReader streamReader = createStreamReader(theReader);
 		return parseResource(theResourceType, streamReader);
 	}
 
-	private <T> T doXmlLoop(XMLEventReader streamReader, ParserState<T> parserState) {
-		ourLog.trace("Entering XML parsing loop with state: {}", parserState);
+	@Override
+	public <T extends IBaseBundle> IBundleEntryIterator<T> parseBundleEntries(Class<T> theBundleType, Reader theReader)
+			throws DataFormatException {
+		getContext().getResourceDefinition(theBundleType);
+		return new XmlBundleEntryIterator<>(theBundleType, createStreamReader(theReader));
+	}
+
+	private <T> T doXmlLoop(XMLStreamReader theStreamReader, ParserState<T> theParserState) {
+		ourLog.trace("Entering XML parsing loop with state: {}", theParserState);
 
 		try {
 			List<String> heldComments = new ArrayList<>(1);
 
-			while (streamReader.hasNext()) {
-				XMLEvent nextEvent = streamReader.nextEvent();
-				try {
-
-					switch (nextEvent.getEventType()) {
-						case XMLStreamConstants.START_ELEMENT: {
-							StartElement elem = nextEvent.asStartElement();
-
-							String namespaceURI = elem.getName().getNamespaceURI();
-
-							String localPart = elem.getName().getLocalPart();
-							if ("extension".equals(localPart)) {
-								Attribute urlAttr = elem.getAttributeByName(new QName("url"));
-								String url;
-								if (urlAttr == null || isBlank(urlAttr.getValue())) {
-									getErrorHandler()
-											.missingRequiredElement(
-													new ParseLocation().setParentElementName("extension"), "url");
-									url = null;
-								} else {
-									url = urlAttr.getValue();
-								}
-								parserState.enteringNewElementExtension(elem, url, false, getServerBaseUrl());
-							} else if ("modifierExtension".equals(localPart)) {
-								Attribute urlAttr = elem.getAttributeByName(new QName("url"));
-								String url;
-								if (urlAttr == null || isBlank(urlAttr.getValue())) {
-									getErrorHandler()
-											.missingRequiredElement(
-													new ParseLocation().setParentElementName("modifierExtension"),
-													"url");
-									url = null;
-								} else {
-									url = urlAttr.getValue();
-								}
-								parserState.enteringNewElementExtension(elem, url, true, getServerBaseUrl());
-							} else {
-								parserState.enteringNewElement(namespaceURI, localPart);
-							}
-
-							if (!heldComments.isEmpty()) {
-								for (String next : heldComments) {
-									parserState.commentPre(next);
-								}
-								heldComments.clear();
-							}
-
-							for (Iterator<Attribute> attributes = elem.getAttributes(); attributes.hasNext(); ) {
-								Attribute next = attributes.next();
-								parserState.attributeValue(next.getName().getLocalPart(), next.getValue());
-							}
+			while (theStreamReader.hasNext()) {
+				theStreamReader.next();
+				handleXmlEvent(theStreamReader, theParserState, heldComments);
+			}
+			return theParserState.getObject();
+		} catch (XMLStreamException e) {
+			throw new DataFormatException(Msg.code(1852) + "Failed to parse XML content: " + e.getMessage());
+		}
+	}
 
-							break;
-						}
-						case XMLStreamConstants.END_DOCUMENT:
-						case XMLStreamConstants.END_ELEMENT: {
-							if (!heldComments.isEmpty()) {
-								for (String next : heldComments) {
-									parserState.commentPost(next);
-								}
-								heldComments.clear();
-							}
-							parserState.endingElement();
-							break;
+	/**
+	 * Passes the event at the current position of the stream reader to the parser state. The reader
+	 * is only turned into an {@link XMLEvent} while the parser state is capturing XHTML content, so
+	 * parsing everything else does not allocate an event object per tag, attribute and text node.
+	 */
+	private void handleXmlEvent(
+			XMLStreamReader theStreamReader, ParserState<?> theParserState, List<String> theHeldComments)
+			throws XMLStreamException {
+		try {
+			switch (theStreamReader.getEventType()) {
+				case XMLStreamConstants.START_ELEMENT: {
+					String localPart = theStreamReader.getLocalName();
+					if ("extension".equals(localPart) || "modifierExtension".equals(localPart)) {
+						String url = theStreamReader.getAttributeValue(null, "url");
+						if (isBlank(url)) {
+							getErrorHandler()
+									.missingRequiredElement(new ParseLocation().setParentElementName(localPart), "url");
+							url = null;
 						}
-						case XMLStreamConstants.CHARACTERS: {
-							parserState.string(nextEvent.asCharacters().getData());
-							break;
+						theParserState.enteringNewElementExtension(
+								null, url, "modifierExtension".equals(localPart), getServerBaseUrl());
+					} else {
+						theParserState.enteringNewElement(theStreamReader.getNamespaceURI(), localPart);
+					}
+
+					if (!theHeldComments.isEmpty()) {
+						for (String next : theHeldComments) {
+							theParserState.commentPre(next);
 						}
-						case XMLStreamConstants.COMMENT: {
-							Comment comment = (Comment) nextEvent;
-							String commentText = comment.getText();
-							heldComments.add(commentText);
-							break;
+						theHeldComments.clear();
+					}
+
+					for (int i = 0; i < theStreamReader.getAttributeCount(); i++) {
+						theParserState.attributeValue(
+								theStreamReader.getAttributeLocalName(i), theStreamReader.getAttributeValue(i));
+					}
+
+					break;
+				}
+				case XMLStreamConstants.END_DOCUMENT:
+				case XMLStreamConstants.END_ELEMENT: {
+					if (!theHeldComments.isEmpty()) {
+						for (String next : theHeldComments) {
+							theParserState.commentPost(next);
 						}
+						theHeldComments.clear();
 					}
+					theParserState.endingElement();
+					break;
+				}
+				case XMLStreamConstants.CHARACTERS: {
+					theParserState.string(theStreamReader.getText());
+					break;
+				}
+				case XMLStreamConstants.COMMENT: {
+					theHeldComments.add(theStreamReader.getText());
+					break;
+				}
+			}
+
+			if (theParserState.isCapturingXmlEvents()) {
+				XMLEvent event = toXmlEvent(theStreamReader);
+				if (event != null) {
+					theParserState.xmlEvent(event);
+				}
+			}
 
-					parserState.xmlEvent(nextEvent);
+		} catch (DataFormatException e) {
+			throw new DataFormatException(
+					Msg.code(1851) + "DataFormatException at ["
+							+ theStreamReader.getLocation().toString() + "]: " + e.getMessage(),
+					e);
+		}
+	}
 
-				} catch (DataFormatException e) {
-					throw new DataFormatException(
-							Msg.code(1851) + "DataFormatException at ["
-									+ nextEvent.getLocation().toString() + "]: " + e.getMessage(),
-							e);
+	/**
+	 * Creates an {@link XMLEvent} for the current position of the stream reader, or returns
+	 * <code>null</code> for events which are not relevant to XHTML content (e.g. a DTD)
+	 */
+	private static XMLEvent toXmlEvent(XMLStreamReader theStreamReader) {
+		switch (theStreamReader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT: {
+				List<Attribute> attributes = new ArrayList<>(theStreamReader.getAttributeCount());
+				for (int i = 0; i < theStreamReader.getAttributeCount(); i++) {
+					attributes.add(XML_EVENT_FACTORY.createAttribute(
+							defaultString(theStreamReader.getAttributePrefix(i)),
+							defaultString(theStreamReader.getAttributeNamespace(i)),
+							theStreamReader.getAttributeLocalName(i),
+							theStreamReader.getAttributeValue(i)));
+				}
+				List<Namespace> namespaces = new ArrayList<>(theStreamReader.getNamespaceCount());
+				for (int i = 0; i < theStreamReader.getNamespaceCount(); i++) {
+					String prefix = theStreamReader.getNamespacePrefix(i);
+					String uri = defaultString(theStreamReader.getNamespaceURI(i));
+					namespaces.add(
+							isBlank(prefix)
+									? XML_EVENT_FACTORY.createNamespace(uri)
+									: XML_EVENT_FACTORY.createNamespace(prefix, uri));
 				}
+				return XML_EVENT_FACTORY.createStartElement(
+						defaultString(theStreamReader.getPrefix()),
+						defaultString(theStreamReader.getNamespaceURI()),
+						theStreamReader.getLocalName(),
+						attributes.iterator(),
+						namespaces.iterator());
 			}
-			return parserState.getObject();
-		} catch (XMLStreamException e) {
-			throw new DataFormatException(Msg.code(1852) + "Failed to parse XML content: " + e.getMessage());
+			case XMLStreamConstants.END_ELEMENT:
+				return XML_EVENT_FACTORY.createEndElement(
+						defaultString(theStreamReader.getPrefix()),
+						defaultString(theStreamReader.getNamespaceURI()),
+						theStreamReader.getLocalName());
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				return XML_EVENT_FACTORY.createCharacters(theStreamReader.getText());
+			case XMLStreamConstants.SPACE:
+				return XML_EVENT_FACTORY.createIgnorableSpace(theStreamReader.getText());
+			case XMLStreamConstants.CDATA:
+				return XML_EVENT_FACTORY.createCData(theStreamReader.getText());
+			case XMLStreamConstants.COMMENT:
+				return XML_EVENT_FACTORY.createComment(theStreamReader.getText());
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				return XML_EVENT_FACTORY.createProcessingInstruction(
+						theStreamReader.getPITarget(), theStreamReader.getPIData());
+			case XMLStreamConstants.END_DOCUMENT:
+				return XML_EVENT_FACTORY.createEndDocument();
+			default:
+				return null;
 		}
 	}
 
@@ -1002,7 +1076,7 @@ public class XmlParser extends BaseParser {
 		return EncodingEnum.XML;
 	}
 
-	private <T extends IBaseResource> T parseResource(Class<T> theResourceType, XMLEventReader theStreamReader) {
+	private <T extends IBaseResource> T parseResource(Class<T> theResourceType, XMLStreamReader theStreamReader) {
 		ParserState<T> parserState =
 				ParserState.getPreResourceInstance(this, theResourceType, getContext(), false, getErrorHandler());
 		return doXmlLoop(theStreamReader, parserState);
@@ -1053,4 +1127,166 @@ public class XmlParser extends BaseParser {
 			theEventWriter.writeEndElement();
 		}
 	}
+
+	/**
+	 * Parses a Bundle one entry at a time. The envelope, each entry and the trailing elements
+	 * are each passed to a separate {@link ParserState} as a document consisting of the original
+	 * root element and the relevant fragment.
+	 */
+	private class XmlBundleEntryIterator<T extends IBaseBundle> extends BaseBundleEntryIterator<T> {
+
+		private final Class<T> myBundleType;
+		/**
+		 * Between fragments, the current event of the reader is the next one which has not been
+		 * consumed yet
+		 */
+		private final XMLStreamReader myReader;
+
+		private final String myRootNamespaceUri;
+		private final String myRootLocalName;
+		private final List<String> myRootAttributeNames = new ArrayList<>();
+		private final List<String> myRootAttributeValues = new ArrayList<>();
+
+		private XmlBundleEntryIterator(Class<T> theBundleType, XMLStreamReader theReader) {
+			super(getContext());
+			myBundleType = theBundleType;
+			myReader = theReader;
+			try {
+				while (myReader.hasNext() && myReader.next() != XMLStreamConstants.START_ELEMENT) {
+					// skip the prolog
+				}
+				if (!myReader.isStartElement()) {
+					throw new DataFormatException(Msg.code(2777) + "Did not find any content to parse");
+				}
+				myRootNamespaceUri = myReader.getNamespaceURI();
+				myRootLocalName = myReader.getLocalName();
+				for (int i = 0; i < myReader.getAttributeCount(); i++) {
+					myRootAttributeNames.add(myReader.getAttributeLocalName(i));
+					myRootAttributeValues.add(myReader.getAttributeValue(i));
+				}
+				myReader.next();
+			} catch (XMLStreamException e) {
+				throw new DataFormatException(Msg.code(2821) + "Failed to parse XML content: " + e.getMessage());
+			}
+			initialize();
+		}
+
+		@Override
+		protected T parseEnvelope() {
+			return parseFragment(FragmentModeEnum.ENVELOPE);
+		}
+
+		@Override
+		protected T parseNextEntry() {
+			if (!"entry".equals(peekStartElement())) {
+				return null;
+			}
+			return parseFragment(FragmentModeEnum.ENTRY);
+		}
+
+		@Override
+		protected T parseTail() {
+			if (peekStartElement() == null) {
+				return null;
+			}
+			return parseFragment(FragmentModeEnum.TAIL);
+		}
+
+		@Override
+		protected void closeReader() {
+			try {
+				myReader.close();
+			} catch (XMLStreamException e) {
+				ourLog.debug("Failed to close XML reader", e);
+			}
+		}
+
+		private T parseFragment(FragmentModeEnum theMode) {
+			ParserState<T> parserState = ParserState.getPreResourceInstance(
+					XmlParser.this, myBundleType, getContext(), false, getErrorHandler());
+			List<String> heldComments = new ArrayList<>(1);
+
+			try {
+				parserState.enteringNewElement(myRootNamespaceUri, myRootLocalName);
+				for (int i = 0; i < myRootAttributeNames.size(); i++) {
+					parserState.attributeValue(myRootAttributeNames.get(i), myRootAttributeValues.get(i));
+				}
+
+				int depth = 0;
+				while (depth > 0 || !isEndOfFragment(theMode)) {
+					int eventType = myReader.getEventType();
+					handleXmlEvent(myReader, parserState, heldComments);
+					myReader.next();
+
+					if (eventType == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+					} else if (eventType == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+						if (theMode == FragmentModeEnum.ENTRY && depth == 0) {
+							break;
+						}
+					}
+				}
+
+				// End of the root element and end of the document
+				parserState.endingElement();
+				parserState.endingElement();
+			} catch (XMLStreamException e) {
+				throw new DataFormatException(Msg.code(2822) + "Failed to parse XML content: " + e.getMessage());
+			}
+
+			T retVal = parserState.getObject();
+			overrideResourceIdsWithBundleEntryFullUrls(retVal);
+			return retVal;
+		}
+
+		private boolean isEndOfFragment(FragmentModeEnum theMode) {
+			switch (myReader.getEventType()) {
+				case XMLStreamConstants.END_ELEMENT:
+				case XMLStreamConstants.END_DOCUMENT:
+					return true;
+				case XMLStreamConstants.START_ELEMENT:
+					return theMode == FragmentModeEnum.ENVELOPE && "entry".equals(myReader.getLocalName());
+				default:
+					return false;
+			}
+		}
+
+		/**
+		 * Skips any whitespace and comments between the children of the root element, and returns
+		 * the name of the next child element, or <code>null</code> if there are no more children
+		 */
+		private String peekStartElement() {
+			try {
+				while (true) {
+					switch (myReader.getEventType()) {
+						case XMLStreamConstants.START_ELEMENT:
+							return myReader.getLocalName();
+						case XMLStreamConstants.END_ELEMENT:
+						case XMLStreamConstants.END_DOCUMENT:
+							return null;
+						default:
+							myReader.next();
+					}
+				}
+			} catch (XMLStreamException e) {
+				throw new DataFormatException(Msg.code(2823) + "Failed to parse XML content: " + e.getMessage());
+			}
+		}
+	}
+
+	private enum FragmentModeEnum {
+		/**
+		 * The children of the root element up to the first entry
+		 */
+		ENVELOPE,
+		/**
+		 * A single entry
+		 */
+		ENTRY,
+		/**
+		 * The remaining children of the root element
+		 */
+		TAIL
+	}
 }
@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.rest.client.api;
 
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.model.primitive.IdDt;
 import ca.uhn.fhir.model.primitive.UriDt;
 import ca.uhn.fhir.rest.api.MethodOutcome;
@@ -40,6 +41,8 @@ import ca.uhn.fhir.rest.gclient.IValidate;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.concurrent.Executor;
+
 public interface IGenericClient extends IRestfulClient {
 
 	/**
@@ -80,6 +83,18 @@ public interface IGenericClient extends IRestfulClient {
 	 */
 	IHistory history();
 
+	/**
+	 * Sets the executor used by {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync() asynchronous requests}
+	 * to handle responses, and to perform requests when the underlying HTTP client does not support non-blocking
+	 * requests. If not set (or set to <code>null</code>), a shared, bounded pool of daemon threads is used.
+	 *
+	 * @since 8.4.0
+	 */
+	default void setAsyncExecutor(Executor theAsyncExecutor) {
+		throw new UnsupportedOperationException(
+				Msg.code(2816) + "Asynchronous execution is not supported by " + getClass().getName());
+	}
+
 	/**
 	 * Loads the previous/next bundle of resources from a paged set, using the link specified in the "link type=next" tag within the atom bundle.
 	 */
@@ -19,9 +19,12 @@
  */
 package ca.uhn.fhir.rest.client.api;
 
+import jakarta.annotation.Nullable;
+
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Http Request. Allows addition of headers and execution of the request.
@@ -43,6 +46,20 @@ public interface IHttpRequest {
 	 */
 	IHttpResponse execute() throws IOException;
 
+	/**
+	 * Execute the request without blocking the calling thread while waiting for the response.
+	 * Implementations which can not perform non-blocking requests return <code>null</code>, in
+	 * which case the caller should invoke {@link #execute()} on a thread of its own choosing.
+	 *
+	 * @return a future which completes with the response, or fails with the {@link IOException} (or other exception)
+	 * that {@link #execute()} would have thrown, or <code>null</code> if non-blocking requests are not supported
+	 * @since 8.4.0
+	 */
+	@Nullable
+	default CompletableFuture<IHttpResponse> executeAsync() {
+		return null;
+	}
+
 	/**
 	 * @return all request headers in lower case. Note that this method
 	 * returns an <b>immutable</b> Map
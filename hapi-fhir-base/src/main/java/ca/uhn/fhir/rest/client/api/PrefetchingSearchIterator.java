@@ -0,0 +1,248 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.api;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import ca.uhn.fhir.util.BundleUtil;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over every resource in a paged search result, starting with a bundle which has
+ * already been loaded (e.g. the result of {@link IGenericClient#search()}) and following the
+ * <code>next</code> links.
+ * <p>
+ * Pages are fetched using {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}
+ * while the caller consumes the current page. If the <code>next</code> links contain
+ * <code>_getpagesoffset</code> and <code>_count</code> parameters (as the links generated by a
+ * HAPI FHIR server do), up to {@link #setMaxPrefetchPages(int) max prefetch pages} are requested
+ * ahead of the caller. Otherwise only the page following the current one can be requested
+ * ahead, since its URL is not known until the current page has been received. Pages are only
+ * requested when the caller advances, so no more than the configured number of pages are ever
+ * buffered or in flight.
+ * </p>
+ * <p>
+ * If a page fails to load, the same exception that
+ * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#execute()} would have thrown is thrown by
+ * {@link #hasNext()} or {@link #next()}. This class is not thread safe. Call {@link #close()}
+ * to abandon any requests which are still in flight if iteration is stopped early.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public class PrefetchingSearchIterator implements Iterator<IBaseResource>, AutoCloseable {
+
+	public static final int DEFAULT_MAX_PREFETCH_PAGES = 2;
+
+	private static final Pattern OFFSET_PATTERN =
+			Pattern.compile("([?&]" + Constants.PARAM_PAGINGOFFSET + "=)(\\d+)(?=&|$)");
+	private static final Pattern COUNT_PATTERN = Pattern.compile("[?&]" + Constants.PARAM_COUNT + "=(\\d+)(?=&|$)");
+
+	private final IGenericClient myClient;
+	private final FhirContext myContext;
+	private final Class<? extends IBaseBundle> myBundleType;
+	private final Deque<PendingPage> myPendingPages = new ArrayDeque<>();
+	private Iterator<IBaseResource> myCurrentPage;
+	private String myNextPageUrl;
+	private int myMaxPrefetchPages = DEFAULT_MAX_PREFETCH_PAGES;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theClient    The client used to fetch subsequent pages
+	 * @param theFirstPage The first page of results, which has already been fetched
+	 */
+	public PrefetchingSearchIterator(IGenericClient theClient, IBaseBundle theFirstPage) {
+		Validate.notNull(theClient, "theClient must not be null");
+		Validate.notNull(theFirstPage, "theFirstPage must not be null");
+		myClient = theClient;
+		myContext = theClient.getFhirContext();
+		myBundleType = theFirstPage.getClass();
+		myCurrentPage = BundleUtil.toListOfResources(myContext, theFirstPage).iterator();
+		myNextPageUrl = BundleUtil.getLinkUrlOfType(myContext, theFirstPage, Constants.LINK_NEXT);
+	}
+
+	public int getMaxPrefetchPages() {
+		return myMaxPrefetchPages;
+	}
+
+	/**
+	 * Sets the maximum number of pages which may be requested ahead of the page currently being
+	 * consumed, including pages which have been received but not yet consumed. Defaults to
+	 * {@value #DEFAULT_MAX_PREFETCH_PAGES}. Must be set before iteration begins.
+	 */
+	public PrefetchingSearchIterator setMaxPrefetchPages(int theMaxPrefetchPages) {
+		Validate.isTrue(theMaxPrefetchPages > 0, "theMaxPrefetchPages must be greater than 0");
+		myMaxPrefetchPages = theMaxPrefetchPages;
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		fillPrefetchWindow();
+		while (!myCurrentPage.hasNext()) {
+			if (myPendingPages.isEmpty()) {
+				return false;
+			}
+			advanceToNextPage();
+		}
+		return true;
+	}
+
+	@Override
+	public IBaseResource next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException(Msg.code(2788) + "No more resources in search result");
+		}
+		return myCurrentPage.next();
+	}
+
+	/**
+	 * Returns a sequential stream over the remaining resources. Closing the stream closes this iterator.
+	 */
+	public Stream<IBaseResource> stream() {
+		Spliterator<IBaseResource> spliterator =
+				Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(this::close);
+	}
+
+	/**
+	 * Cancels any page requests which are still in flight, which aborts them and releases their
+	 * connections. No further resources are returned after this method is called.
+	 */
+	@Override
+	public void close() {
+		myNextPageUrl = null;
+		myCurrentPage = Collections.emptyIterator();
+		cancelPendingPages();
+	}
+
+	private void advanceToNextPage() {
+		PendingPage page = myPendingPages.removeFirst();
+		IBaseBundle bundle = awaitPage(page);
+
+		String actualNextPageUrl = BundleUtil.getLinkUrlOfType(myContext, bundle, Constants.LINK_NEXT);
+		String expectedNextPageUrl = myPendingPages.isEmpty()
+				? myNextPageUrl
+				: myPendingPages.peekFirst().getUrl();
+		if (actualNextPageUrl == null || !actualNextPageUrl.equals(expectedNextPageUrl)) {
+			// The server did not link to the page we predicted, so discard anything requested speculatively
+			cancelPendingPages();
+			myNextPageUrl = actualNextPageUrl;
+		}
+
+		myCurrentPage = BundleUtil.toListOfResources(myContext, bundle).iterator();
+		fillPrefetchWindow();
+	}
+
+	private void fillPrefetchWindow() {
+		while (myNextPageUrl != null && myPendingPages.size() < myMaxPrefetchPages) {
+			String url = myNextPageUrl;
+			CompletableFuture<? extends IBaseBundle> future =
+					myClient.loadPage().byUrl(url).andReturnBundle(myBundleType).executeAsync();
+			myPendingPages.addLast(new PendingPage(url, future));
+			myNextPageUrl = predictFollowingPageUrl(url);
+		}
+	}
+
+	private void cancelPendingPages() {
+		for (PendingPage next : myPendingPages) {
+			next.getFuture().cancel(true);
+		}
+		myPendingPages.clear();
+	}
+
+	private IBaseBundle awaitPage(PendingPage thePage) {
+		try {
+			return thePage.getFuture().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new FhirClientConnectionException(
+					Msg.code(2789) + "Interrupted while waiting for search page: " + thePage.getUrl(), e);
+		} catch (ExecutionException e) {
+			close();
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new FhirClientConnectionException(Msg.code(2790) + cause, cause);
+		}
+	}
+
+	/**
+	 * If the URL pages using an explicit offset and page size, returns the URL of the page which
+	 * follows it. Otherwise returns <code>null</code>, since the following URL can only be learned
+	 * from the page itself.
+	 */
+	private static String predictFollowingPageUrl(String theUrl) {
+		Matcher countMatcher = COUNT_PATTERN.matcher(theUrl);
+		if (!countMatcher.find()) {
+			return null;
+		}
+		int count = Integer.parseInt(countMatcher.group(1));
+		Matcher offsetMatcher = OFFSET_PATTERN.matcher(theUrl);
+		if (count <= 0 || !offsetMatcher.find()) {
+			return null;
+		}
+		long offset = Long.parseLong(offsetMatcher.group(2));
+		return theUrl.substring(0, offsetMatcher.start(2)) + (offset + count) + theUrl.substring(offsetMatcher.end(2));
+	}
+
+	private static class PendingPage {
+
+		private final String myUrl;
+		private final CompletableFuture<? extends IBaseBundle> myFuture;
+
+		private PendingPage(String theUrl, CompletableFuture<? extends IBaseBundle> theFuture) {
+			myUrl = theUrl;
+			myFuture = theFuture;
+		}
+
+		public String getUrl() {
+			return myUrl;
+		}
+
+		public CompletableFuture<? extends IBaseBundle> getFuture() {
+			return myFuture;
+		}
+	}
+}
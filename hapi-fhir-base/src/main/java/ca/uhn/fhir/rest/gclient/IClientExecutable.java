@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.rest.gclient;
 
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.CacheControlDirective;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.RequestFormatParamStyleEnum;
@@ -26,6 +27,7 @@ import ca.uhn.fhir.rest.api.SummaryEnum;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface IClientExecutable<T extends IClientExecutable<?, Y>, Y> {
 
@@ -106,6 +108,22 @@ public interface IClientExecutable<T extends IClientExecutable<?, Y>, Y> {
 	 */
 	Y execute();
 
+	/**
+	 * Execute the client operation asynchronously. The request is built and the
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#CLIENT_REQUEST CLIENT_REQUEST} hooks are invoked
+	 * before this method returns. The returned future completes with the same value that
+	 * {@link #execute()} would have returned, or fails with the same exception that it would have
+	 * thrown. If the HTTP client supports non-blocking requests, no thread is blocked while
+	 * waiting for the server to respond. Cancelling the returned future aborts the request and
+	 * releases its connection.
+	 *
+	 * @since 8.4.0
+	 */
+	default CompletableFuture<Y> executeAsync() {
+		throw new UnsupportedOperationException(Msg.code(2787) + "Asynchronous execution is not supported by "
+				+ getClass().getName());
+	}
+
 	/**
 	 * Explicitly specify a custom structure type to attempt to use when parsing the response. This
 	 * is useful for invocations where the response is a Bundle/Parameters containing nested resources,
@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
+import ca.uhn.fhir.parser.DataFormatException;
+import org.hl7.fhir.instance.model.api.IBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link FhirTerser} path which has been parsed and resolved against the model once, so that it
+ * can be evaluated many times without being parsed again. Instances are immutable and thread safe,
+ * and are created using {@link FhirTerser#compilePath(String, String)}.
+ * <p>
+ * Child definitions are resolved when the path is compiled for the element types which are known
+ * from the model. Elements of any other type (e.g. the value of a choice element, or a custom
+ * subclass of a model type) are resolved when the path is evaluated, exactly as the string based
+ * {@link FhirTerser} methods do.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public final class CompiledTerserPath {
+
+	private final BaseRuntimeElementCompositeDefinition<?> myDefinition;
+	private final String myPath;
+	private final List<Step> mySteps;
+
+	CompiledTerserPath(BaseRuntimeElementCompositeDefinition<?> theDefinition, String thePath, List<String> theParts) {
+		myDefinition = theDefinition;
+		myPath = thePath;
+
+		List<Step> steps = new ArrayList<>(theParts.size());
+		BaseRuntimeElementCompositeDefinition<?> expectedDefinition = theDefinition;
+		for (String next : theParts) {
+			Step step = new Step(next, expectedDefinition);
+			steps.add(step);
+
+			expectedDefinition = null;
+			BaseRuntimeChildDefinition child = step.myExpectedChild;
+			if (child != null && !(child instanceof RuntimeChildChoiceDefinition)) {
+				if (child.getChildByName(next) instanceof BaseRuntimeElementCompositeDefinition<?> childDefinition) {
+					expectedDefinition = childDefinition;
+				}
+			}
+		}
+		mySteps = Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 * Returns the definition this path was compiled against
+	 */
+	public BaseRuntimeElementCompositeDefinition<?> getDefinition() {
+		return myDefinition;
+	}
+
+	/**
+	 * Returns the path as it was supplied when compiling it
+	 */
+	public String getPath() {
+		return myPath;
+	}
+
+	/**
+	 * Returns the steps of this path. This is empty if the path can never match, e.g. because it
+	 * starts with a different resource type than the one it was compiled against.
+	 */
+	List<Step> getSteps() {
+		return mySteps;
+	}
+
+	@Override
+	public String toString() {
+		return myDefinition.getName() + ": " + myPath;
+	}
+
+	static final class Step {
+
+		private static final String EXTENSION_PREFIX = "extension('";
+		private static final String MODIFIER_EXTENSION_PREFIX = "modifierExtension('";
+
+		private final String myName;
+		private final String myExtensionUrl;
+		private final boolean myModifierExtension;
+		private final BaseRuntimeElementCompositeDefinition<?> myExpectedDefinition;
+		private final BaseRuntimeChildDefinition myExpectedChild;
+
+		private Step(String theName, BaseRuntimeElementCompositeDefinition<?> theExpectedDefinition) {
+			myName = theName;
+			if (theName.startsWith(EXTENSION_PREFIX)) {
+				myExtensionUrl = parseExtensionUrl(theName.substring(EXTENSION_PREFIX.length()));
+				myModifierExtension = false;
+			} else if (theName.startsWith(MODIFIER_EXTENSION_PREFIX)) {
+				myExtensionUrl = parseExtensionUrl(theName.substring(MODIFIER_EXTENSION_PREFIX.length()));
+				myModifierExtension = true;
+			} else {
+				myExtensionUrl = null;
+				myModifierExtension = false;
+			}
+
+			/*
+			 * Unknown names are not an error here, since the string based terser methods only
+			 * fail when an element is actually reached with such a name
+			 */
+			if (myExtensionUrl == null && theExpectedDefinition != null) {
+				myExpectedDefinition = theExpectedDefinition;
+				myExpectedChild = theExpectedDefinition.getChildByName(theName);
+			} else {
+				myExpectedDefinition = null;
+				myExpectedChild = null;
+			}
+		}
+
+		String getName() {
+			return myName;
+		}
+
+		/**
+		 * Returns the URL if this step is an <code>extension('url')</code> or
+		 * <code>modifierExtension('url')</code> step, or <code>null</code> otherwise
+		 */
+		String getExtensionUrl() {
+			return myExtensionUrl;
+		}
+
+		boolean isModifierExtension() {
+			return myModifierExtension;
+		}
+
+		/**
+		 * Returns the child this step selects from an element with the given definition
+		 *
+		 * @throws DataFormatException If the definition has no child with the name of this step
+		 */
+		BaseRuntimeChildDefinition getChild(BaseRuntimeElementCompositeDefinition<?> theDefinition) {
+			if (theDefinition == myExpectedDefinition && myExpectedChild != null) {
+				return myExpectedChild;
+			}
+			return theDefinition.getChildByNameOrThrowDataFormatException(myName);
+		}
+
+		/**
+		 * Returns the definition for an element which this step will be applied to
+		 */
+		BaseRuntimeElementDefinition<?> getDefinition(FhirContext theContext, IBase theElement) {
+			if (myExpectedDefinition != null && myExpectedDefinition.getImplementingClass() == theElement.getClass()) {
+				return myExpectedDefinition;
+			}
+			return theContext.getElementDefinition(theElement.getClass());
+		}
+
+		private static String parseExtensionUrl(String theUrlAndSuffix) {
+			int endIndex = theUrlAndSuffix.indexOf('\'');
+			if (endIndex != -1) {
+				return theUrlAndSuffix.substring(0, endIndex);
+			}
+			return theUrlAndSuffix;
+		}
+	}
+}
@@ -419,9 +419,25 @@ public class FhirTerser {
 
 		BaseRuntimeElementCompositeDefinition<?> currentDef = (BaseRuntimeElementCompositeDefinition<?>) def;
 
-		List<String> parts = parsePath(currentDef, thePath);
+		CompiledTerserPath path = myContext.getCompiledTerserPath(currentDef, thePath);
 
-		List<T> retVal = getValues(currentDef, theTarget, parts, theWantedType);
+		List<T> retVal = getValues(currentDef, theTarget, path, 0, theWantedType, false, false);
+		if (retVal.isEmpty()) {
+			return null;
+		}
+		return retVal.get(0);
+	}
+
+	/**
+	 * Returns the first value found at a compiled path, or <code>null</code> if there is none
+	 *
+	 * @since 8.4.0
+	 */
+	public <T extends IBase> T getSingleValueOrNull(
+			IBase theTarget, CompiledTerserPath thePath, Class<T> theWantedType) {
+		Validate.notNull(theTarget, "theTarget must not be null");
+
+		List<T> retVal = getValues(theTarget, thePath, theWantedType);
 		if (retVal.isEmpty()) {
 			return null;
 		}
@@ -442,35 +458,27 @@ public class FhirTerser {
 		return Optional.ofNullable(getSingleValueOrNull(theTarget, thePath, theWantedType));
 	}
 
-	private <T extends IBase> List<T> getValues(
-			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
-			IBase theCurrentObj,
-			List<String> theSubList,
-			Class<T> theWantedClass) {
-		return getValues(theCurrentDef, theCurrentObj, theSubList, theWantedClass, false, false);
-	}
-
 	@SuppressWarnings("unchecked")
 	private <T extends IBase> List<T> getValues(
 			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
 			IBase theCurrentObj,
-			List<String> theSubList,
+			CompiledTerserPath thePath,
+			int theStepIndex,
 			Class<T> theWantedClass,
 			boolean theCreate,
 			boolean theAddExtension) {
-		if (theSubList.isEmpty()) {
+		List<CompiledTerserPath.Step> steps = thePath.getSteps();
+		if (theStepIndex >= steps.size()) {
 			return Collections.emptyList();
 		}
 
-		String name = theSubList.get(0);
+		CompiledTerserPath.Step step = steps.get(theStepIndex);
+		boolean isLastStep = theStepIndex == steps.size() - 1;
+		String name = step.getName();
 		List<T> retVal = new ArrayList<>();
 
-		if (name.startsWith("extension('")) {
-			String extensionUrl = name.substring("extension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
+		if (step.getExtensionUrl() != null && !step.isModifierExtension()) {
+			String extensionUrl = step.getExtensionUrl();
 
 			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
 				// DTSU2
@@ -483,8 +491,7 @@ public class FhirTerser {
 									.collect(Collectors.toList());
 
 					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensionDts.isEmpty() && theSubList.size() == 1))) {
+							&& (!(theCurrentObj instanceof IBaseExtension) || (extensionDts.isEmpty() && isLastStep))) {
 						extensionDts.add(
 								createEmptyExtensionDt((ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
 					}
@@ -497,7 +504,7 @@ public class FhirTerser {
 				} else if (theCurrentObj instanceof IBaseExtension) {
 					extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
 
-					if (theAddExtension && (extensionDts.isEmpty() && theSubList.size() == 1)) {
+					if (theAddExtension && (extensionDts.isEmpty() && isLastStep)) {
 						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
 					}
 
@@ -522,8 +529,7 @@ public class FhirTerser {
 									.collect(Collectors.toList());
 
 					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensions.isEmpty() && theSubList.size() == 1))) {
+							&& (!(theCurrentObj instanceof IBaseExtension) || (extensions.isEmpty() && isLastStep))) {
 						extensions.add(createEmptyExtension((IBaseHasExtensions) theCurrentObj, extensionUrl));
 					}
 
@@ -539,16 +545,18 @@ public class FhirTerser {
 				}
 			}
 
-			if (theSubList.size() > 1) {
+			if (!isLastStep) {
+				CompiledTerserPath.Step nextStep = steps.get(theStepIndex + 1);
 				List<T> values = retVal;
 				retVal = new ArrayList<>();
 				for (T nextElement : values) {
-					BaseRuntimeElementCompositeDefinition<?> nextChildDef = (BaseRuntimeElementCompositeDefinition<?>)
-							myContext.getElementDefinition(nextElement.getClass());
+					BaseRuntimeElementCompositeDefinition<?> nextChildDef =
+							(BaseRuntimeElementCompositeDefinition<?>) nextStep.getDefinition(myContext, nextElement);
 					List<T> foundValues = getValues(
 							nextChildDef,
 							nextElement,
-							theSubList.subList(1, theSubList.size()),
+							thePath,
+							theStepIndex + 1,
 							theWantedClass,
 							theCreate,
 							theAddExtension);
@@ -559,12 +567,8 @@ public class FhirTerser {
 			return retVal;
 		}
 
-		if (name.startsWith("modifierExtension('")) {
-			String extensionUrl = name.substring("modifierExtension('".length());
-			int endIndex = extensionUrl.indexOf('\'');
-			if (endIndex != -1) {
-				extensionUrl = extensionUrl.substring(0, endIndex);
-			}
+		if (step.getExtensionUrl() != null) {
+			String extensionUrl = step.getExtensionUrl();
 
 			if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
 				// DSTU2
@@ -577,8 +581,7 @@ public class FhirTerser {
 									.collect(Collectors.toList());
 
 					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensionDts.isEmpty() && theSubList.size() == 1))) {
+							&& (!(theCurrentObj instanceof IBaseExtension) || (extensionDts.isEmpty() && isLastStep))) {
 						extensionDts.add(createEmptyModifierExtensionDt(
 								(ISupportsUndeclaredExtensions) theCurrentObj, extensionUrl));
 					}
@@ -591,7 +594,7 @@ public class FhirTerser {
 				} else if (theCurrentObj instanceof IBaseExtension) {
 					extensionDts = ((IBaseExtension) theCurrentObj).getExtension();
 
-					if (theAddExtension && (extensionDts.isEmpty() && theSubList.size() == 1)) {
+					if (theAddExtension && (extensionDts.isEmpty() && isLastStep)) {
 						extensionDts.add(createEmptyExtensionDt((IBaseExtension) theCurrentObj, extensionUrl));
 					}
 
@@ -617,8 +620,7 @@ public class FhirTerser {
 									.collect(Collectors.toList());
 
 					if (theAddExtension
-							&& (!(theCurrentObj instanceof IBaseExtension)
-									|| (extensions.isEmpty() && theSubList.size() == 1))) {
+							&& (!(theCurrentObj instanceof IBaseExtension) || (extensions.isEmpty() && isLastStep))) {
 						extensions.add(
 								createEmptyModifierExtension((IBaseHasModifierExtensions) theCurrentObj, extensionUrl));
 					}
@@ -636,16 +638,18 @@ public class FhirTerser {
 				}
 			}
 
-			if (theSubList.size() > 1) {
+			if (!isLastStep) {
+				CompiledTerserPath.Step nextStep = steps.get(theStepIndex + 1);
 				List<T> values = retVal;
 				retVal = new ArrayList<>();
 				for (T nextElement : values) {
-					BaseRuntimeElementCompositeDefinition<?> nextChildDef = (BaseRuntimeElementCompositeDefinition<?>)
-							myContext.getElementDefinition(nextElement.getClass());
+					BaseRuntimeElementCompositeDefinition<?> nextChildDef =
+							(BaseRuntimeElementCompositeDefinition<?>) nextStep.getDefinition(myContext, nextElement);
 					List<T> foundValues = getValues(
 							nextChildDef,
 							nextElement,
-							theSubList.subList(1, theSubList.size()),
+							thePath,
+							theStepIndex + 1,
 							theWantedClass,
 							theCreate,
 							theAddExtension);
@@ -656,7 +660,7 @@ public class FhirTerser {
 			return retVal;
 		}
 
-		BaseRuntimeChildDefinition nextDef = theCurrentDef.getChildByNameOrThrowDataFormatException(name);
+		BaseRuntimeChildDefinition nextDef = step.getChild(theCurrentDef);
 		List<? extends IBase> values = nextDef.getAccessor().getValues(theCurrentObj);
 
 		if (values.isEmpty() && theCreate) {
@@ -674,7 +678,7 @@ public class FhirTerser {
 			values = list;
 		}
 
-		if (theSubList.size() == 1) {
+		if (isLastStep) {
 			if (nextDef instanceof RuntimeChildChoiceDefinition) {
 				for (IBase next : values) {
 					if (next != null) {
@@ -684,7 +688,7 @@ public class FhirTerser {
 							}
 						} else {
 							String childName = nextDef.getChildNameByDatatype(next.getClass());
-							if (theSubList.get(0).equals(childName)) {
+							if (name.equals(childName)) {
 								if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
 									retVal.add((T) next);
 								}
@@ -702,16 +706,18 @@ public class FhirTerser {
 				}
 			}
 		} else {
+			CompiledTerserPath.Step nextStep = steps.get(theStepIndex + 1);
 			for (IBase nextElement : values) {
 				// We can only continue iterating if the current element is composite.
 				// If we haven't reached the end of the path, and we have already reached an element
 				// with a primitive data type, we did not find a match.
-				if (myContext.getElementDefinition(nextElement.getClass())
+				if (nextStep.getDefinition(myContext, nextElement)
 						instanceof BaseRuntimeElementCompositeDefinition<?> nextChildDef) {
 					List<T> foundValues = getValues(
 							nextChildDef,
 							nextElement,
-							theSubList.subList(1, theSubList.size()),
+							thePath,
+							theStepIndex + 1,
 							theWantedClass,
 							theCreate,
 							theAddExtension);
@@ -778,10 +784,7 @@ public class FhirTerser {
 	 * @return A list of values of type <code>theWantedClass</code>.
 	 */
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass) {
-		BaseRuntimeElementCompositeDefinition<?> def =
-				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass);
+		return getValues(theElement, thePath, theWantedClass, false, false);
 	}
 
 	/**
@@ -797,10 +800,7 @@ public class FhirTerser {
 	 */
 	public <T extends IBase> List<T> getValues(
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate) {
-		BaseRuntimeElementCompositeDefinition<?> def =
-				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, false);
+		return getValues(theElement, thePath, theWantedClass, theCreate, false);
 	}
 
 	/**
@@ -819,8 +819,79 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass, theCreate, theAddExtension);
+		CompiledTerserPath path = myContext.getCompiledTerserPath(def, thePath);
+		return getValues(def, theElement, path, 0, theWantedClass, theCreate, theAddExtension);
+	}
+
+	/**
+	 * Returns values stored in an element identified by a compiled path. The element should be
+	 * an instance of the type the path was compiled for.
+	 *
+	 * @param theElement     The element to be accessed. Must not be null.
+	 * @param thePath        The compiled path, see {@link #compilePath(String, String)}
+	 * @param theWantedClass The desired class to be returned in a list.
+	 * @param <T>            Type declared by <code>theWantedClass</code>
+	 * @return A list of values of type <code>theWantedClass</code>.
+	 * @since 8.4.0
+	 */
+	public <T extends IBase> List<T> getValues(IBase theElement, CompiledTerserPath thePath, Class<T> theWantedClass) {
+		return getValues(theElement, thePath, theWantedClass, false, false);
+	}
+
+	/**
+	 * Returns values stored in an element identified by a compiled path. The element should be
+	 * an instance of the type the path was compiled for.
+	 *
+	 * @param theElement      The element to be accessed. Must not be null.
+	 * @param thePath         The compiled path, see {@link #compilePath(String, String)}
+	 * @param theWantedClass  The desired class to be returned in a list.
+	 * @param theCreate       When set to <code>true</code>, the terser will create a null-valued element where none exists.
+	 * @param theAddExtension When set to <code>true</code>, the terser will add a null-valued extension where one or more such extensions already exist.
+	 * @param <T>             Type declared by <code>theWantedClass</code>
+	 * @return A list of values of type <code>theWantedClass</code>.
+	 * @since 8.4.0
+	 */
+	public <T extends IBase> List<T> getValues(
+			IBase theElement,
+			CompiledTerserPath thePath,
+			Class<T> theWantedClass,
+			boolean theCreate,
+			boolean theAddExtension) {
+		Validate.notNull(theElement, "theElement must not be null");
+		if (thePath.getSteps().isEmpty()) {
+			return Collections.emptyList();
+		}
+		BaseRuntimeElementDefinition<?> def = thePath.getSteps().get(0).getDefinition(myContext, theElement);
+		if (!(def instanceof BaseRuntimeElementCompositeDefinition<?> compositeDef)) {
+			throw new IllegalArgumentException(Msg.code(2780) + "Target is not a composite type: "
+					+ theElement.getClass().getName());
+		}
+		return getValues(compositeDef, theElement, thePath, 0, theWantedClass, theCreate, theAddExtension);
+	}
+
+	/**
+	 * Parses and resolves a path once, so that it can be evaluated repeatedly using
+	 * {@link #getValues(IBase, CompiledTerserPath, Class)} and related methods without the cost of
+	 * parsing it on every call. The returned path is immutable and may be shared between threads.
+	 *
+	 * @param theResourceType The resource type the path will be evaluated against, e.g. <code>Patient</code>
+	 * @param thePath         The path, e.g. <code>Patient.name.family</code> or <code>name.family</code>
+	 * @since 8.4.0
+	 */
+	public CompiledTerserPath compilePath(String theResourceType, String thePath) {
+		return compilePath(myContext.getResourceDefinition(theResourceType), thePath);
+	}
+
+	/**
+	 * Parses and resolves a path against an arbitrary composite element definition, such as a
+	 * datatype. See {@link #compilePath(String, String)}.
+	 *
+	 * @since 8.4.0
+	 */
+	public CompiledTerserPath compilePath(BaseRuntimeElementCompositeDefinition<?> theDefinition, String thePath) {
+		Validate.notNull(theDefinition, "theDefinition must not be null");
+		Validate.notBlank(thePath, "thePath must not be empty");
+		return new CompiledTerserPath(theDefinition, thePath, parsePath(theDefinition, thePath));
 	}
 
 	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
@@ -28,6 +28,7 @@ import ca.uhn.fhir.util.jar.IDependencyLog;
 import com.ctc.wstx.api.WstxInputProperties;
 import com.ctc.wstx.stax.WstxOutputFactory;
 import org.apache.commons.text.StringEscapeUtils;
+import org.codehaus.stax2.XMLInputFactory2;
 import org.codehaus.stax2.XMLOutputFactory2;
 import org.codehaus.stax2.io.EscapingWriterFactory;
 import org.w3c.dom.Document;
@@ -44,6 +45,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,6 +61,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLResolver;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import javax.xml.stream.events.XMLEvent;
 import javax.xml.transform.OutputKeys;
@@ -1593,6 +1596,20 @@ public class XmlUtil {
 		return inputFactory.createXMLEventReader(reader);
 	}
 
+	/**
+	 * Creates a cursor based reader, which unlike {@link #createXmlReader(Reader)} does not allocate
+	 * an event object for every node in the document
+	 *
+	 * @since 8.4.0
+	 */
+	public static XMLStreamReader createXmlStreamReader(Reader theReader)
+			throws FactoryConfigurationError, XMLStreamException {
+		throwUnitTestExceptionIfConfiguredToDoSo();
+
+		XMLInputFactory inputFactory = getOrCreateInputFactory();
+		return inputFactory.createXMLStreamReader(theReader);
+	}
+
 	public static XMLStreamWriter createXmlStreamWriter(Writer theWriter)
 			throws FactoryConfigurationError, XMLStreamException {
 		throwUnitTestExceptionIfConfiguredToDoSo();
@@ -1601,6 +1618,19 @@ public class XmlUtil {
 		return outputFactory.createXMLStreamWriter(theWriter);
 	}
 
+	/**
+	 * Creates a stream writer which encodes directly to UTF-8 bytes on the given stream
+	 *
+	 * @since 8.4.0
+	 */
+	public static XMLStreamWriter createXmlStreamWriter(OutputStream theOutputStream)
+			throws FactoryConfigurationError, XMLStreamException {
+		throwUnitTestExceptionIfConfiguredToDoSo();
+
+		XMLOutputFactory outputFactory = getOrCreateOutputFactory();
+		return outputFactory.createXMLStreamWriter(theOutputStream, StandardCharsets.UTF_8.name());
+	}
+
 	public static XMLEventWriter createXmlWriter(Writer theWriter)
 			throws FactoryConfigurationError, XMLStreamException {
 		XMLOutputFactory outputFactory = getOrCreateOutputFactory();
@@ -1691,6 +1721,12 @@ public class XmlUtil {
 				if (isWoodstox) {
 					// inputFactory.setProperty(WstxInputFactory.IS_REPLACING_ENTITY_REFERENCES, false);
 					inputFactory.setProperty(WstxInputProperties.P_UNDECLARED_ENTITY_RESOLVER, XML_RESOLVER);
+					/*
+					 * Stream readers default to parsing text lazily, which means that malformed content is
+					 * reported as an unchecked exception when the text is accessed instead of when the
+					 * reader is advanced. Event readers always parse eagerly, so make both behave the same.
+					 */
+					inputFactory.setProperty(XMLInputFactory2.P_LAZY_PARSING, false);
 					try {
 						inputFactory.setProperty(WstxInputProperties.P_MAX_ATTRIBUTE_SIZE, "100000000");
 					} catch (IllegalArgumentException e) {
@@ -19,7 +19,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static ca.uhn.fhir.interceptor.executor.BaseInterceptorService.haveAppropriateParams;
@@ -198,6 +202,61 @@ class InterceptorServiceTest {
 
 	}
 
+	@Test
+	void testUnregisterHookInvoked() {
+		class InterceptorWithUnregisterHook {
+			@Hook(Pointcut.INTERCEPTOR_UNREGISTERED)
+			public void stop() {
+				myInvocations.add("stop");
+			}
+		}
+
+		InterceptorService svc = new InterceptorService();
+		InterceptorWithUnregisterHook interceptor = new InterceptorWithUnregisterHook();
+		svc.registerInterceptor(interceptor);
+		assertThat(myInvocations).isEmpty();
+
+		assertTrue(svc.unregisterInterceptor(interceptor));
+		assertThat(myInvocations).containsExactly("stop");
+		assertFalse(svc.hasHooks(Pointcut.INTERCEPTOR_UNREGISTERED));
+
+		// Unregistering again does nothing
+		assertFalse(svc.unregisterInterceptor(interceptor));
+		assertThat(myInvocations).containsExactly("stop");
+	}
+
+	/**
+	 * The unregister hook is invoked after the registry lock is released, so a hook which
+	 * waits for another thread to register an interceptor must not deadlock
+	 */
+	@Test
+	void testUnregisterHookInvokedOutsideOfRegistryLock() throws Exception {
+		InterceptorService svc = new InterceptorService();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			class InterceptorWithUnregisterHook {
+				@Hook(Pointcut.INTERCEPTOR_UNREGISTERED)
+				public void stop() throws Exception {
+					executor.submit(() -> svc.registerInterceptor(new MyTestInterceptorOne()))
+							.get(10, TimeUnit.SECONDS);
+					myInvocations.add("stop");
+				}
+			}
+
+			InterceptorWithUnregisterHook interceptor = new InterceptorWithUnregisterHook();
+			svc.registerInterceptor(interceptor);
+			assertTrue(svc.unregisterInterceptor(interceptor));
+			assertThat(myInvocations).containsExactly("stop");
+			assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+
+			svc.registerInterceptor(interceptor);
+			svc.unregisterInterceptorsIf(t -> t == interceptor);
+			assertThat(myInvocations).containsExactly("stop", "stop");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	@Test
 	void testManuallyRegisterInterceptor() {
 		InterceptorService svc = new InterceptorService();
@@ -863,6 +922,109 @@ class InterceptorServiceTest {
 		assertThat(invokers).hasSize(1);
 		assertThat(invokers.get(0).getHookDescription()).isEqualTo("ca.uhn.fhir.interceptor.executor.InterceptorServiceTest$HookClass1.hook1");
 	}
-	
+
+	@Test
+	void testGetInvokersForPointcutReturnsNewList() {
+		InterceptorService svc = new InterceptorService();
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInvokersForPointcut(Pointcut.TEST_RB)).isEmpty();
+
+		MyTestInterceptorTwo interceptor1 = new MyTestInterceptorTwo();
+		svc.registerInterceptor(interceptor1);
+		List<IBaseInterceptorBroadcaster.IInvoker> invokers = svc.getInvokersForPointcut(Pointcut.TEST_RB);
+		assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+		assertFalse(svc.hasHooks(Pointcut.TEST_RO));
+		assertThat(invokers).hasSize(1);
+
+		// Modifying the returned list doesn't affect the registered hooks
+		invokers.remove(0);
+		assertTrue(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInvokersForPointcut(Pointcut.TEST_RB)).hasSize(1);
+
+		MyTestInterceptorOne interceptor0 = new MyTestInterceptorOne();
+		svc.registerInterceptor(interceptor0);
+		assertThat(invokers).isEmpty();
+		assertThat(svc.getInterceptorsWithInvokersForPointcut(Pointcut.TEST_RB)).containsExactly(interceptor0, interceptor1);
+
+		svc.unregisterInterceptor(interceptor0);
+		svc.unregisterInterceptor(interceptor1);
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInvokersForPointcut(Pointcut.TEST_RB)).isEmpty();
+	}
+
+	@Test
+	void testInvokeHookWithPointcutParameterAndPrimitiveReturn() {
+		class PointcutParameterInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public boolean hook(String theValue0, Pointcut thePointcut, String theValue1) {
+				myInvocations.add(thePointcut + " " + theValue0 + " " + theValue1);
+				return false;
+			}
+		}
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new PointcutParameterInterceptor());
+
+		boolean outcome = svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+
+		assertFalse(outcome);
+		assertThat(myInvocations).containsExactly("TEST_RB A B");
+	}
+
+	@Test
+	void testInvokeHookThrowingCheckedException() {
+		class CheckedExceptionInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void hook(String theValue0, String theValue1) throws IOException {
+				throw new IOException("FOO");
+			}
+		}
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new CheckedExceptionInterceptor());
+
+		assertThatThrownBy(() -> svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")))
+				.isInstanceOf(InternalErrorException.class)
+				.hasMessageContaining(Msg.code(1910))
+				.hasCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	void testInvokeHookThrowingClassCastException() {
+		class ClassCastExceptionInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void hook(String theValue0, String theValue1) {
+				throw new ClassCastException("FOO");
+			}
+		}
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new ClassCastExceptionInterceptor());
+
+		// Exceptions thrown by the hook itself are passed through unchanged
+		assertThatThrownBy(() -> svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B")))
+				.isExactlyInstanceOf(ClassCastException.class)
+				.hasMessage("FOO");
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	@Test
+	void testInvokeHookWithWrongParameterType() {
+		class StringInterceptor {
+			@Hook(Pointcut.TEST_RB)
+			public void hook(String theValue0, String theValue1) {
+				myInvocations.add(theValue0 + theValue1);
+			}
+		}
+		InterceptorService svc = new InterceptorService();
+		svc.registerInterceptor(new StringInterceptor());
+		HookParams params = new HookParams();
+		params.add((Class) String.class, 123);
+		params.add(String.class, "B");
+
+		assertThatThrownBy(() -> svc.callHooks(Pointcut.TEST_RB, params))
+				.isInstanceOf(InternalErrorException.class)
+				.hasMessageContaining(Msg.code(1911))
+				.hasMessageContaining("java.lang.Integer");
+		assertThat(myInvocations).isEmpty();
+	}
+
 
 }
@@ -0,0 +1,367 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.i18n.Msg;
+import org.hl7.fhir.convertors.factory.VersionConvertorFactory_40_50;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Condition;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.DateType;
+import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Immunization;
+import org.hl7.fhir.r4.model.MedicationRequest;
+import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Period;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.Timing;
+import org.hl7.fhir.r4.model.ValueSet;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data used by the benchmarks. The data is generated rather than
+ * loaded from files so that the fixture sizes can be tuned without checking large
+ * documents into the source tree, and a fixed random seed is used so that every run
+ * (and every release) benchmarks exactly the same content.
+ */
+public enum BenchmarkFixture {
+
+	/**
+	 * A Synthea-style transaction Bundle containing a single patient's record:
+	 * encounters, conditions, vital signs and laboratory observations,
+	 * medication requests and immunizations
+	 */
+	PATIENT_BUNDLE {
+		@Override
+		Resource createR4() {
+			return createPatientBundle(new Random(SEED));
+		}
+	},
+
+	/**
+	 * A large expanded ValueSet, similar to an expansion of a LOINC or SNOMED CT
+	 * subset
+	 */
+	VALUE_SET {
+		@Override
+		Resource createR4() {
+			return createValueSet(new Random(SEED));
+		}
+	},
+
+	/**
+	 * A searchset Bundle containing a page of Observation resources, as returned
+	 * by an <code>Observation?patient=...</code> search
+	 */
+	OBSERVATION_SEARCHSET {
+		@Override
+		Resource createR4() {
+			return createObservationSearchset(new Random(SEED));
+		}
+	};
+
+	private static final long SEED = 20250101L;
+	private static final long BASE_TIME = 1577836800000L; // 2020-01-01T00:00:00Z
+	private static final int ENCOUNTER_COUNT = 40;
+	private static final int OBSERVATIONS_PER_ENCOUNTER = 12;
+	private static final int VALUE_SET_CODE_COUNT = 10000;
+	private static final int SEARCHSET_PAGE_SIZE = 500;
+
+	private static final String[][] LAB_CODES = {
+		{"2339-0", "Glucose [Mass/volume] in Blood", "mg/dL"},
+		{"6299-2", "Urea nitrogen [Mass/volume] in Blood", "mg/dL"},
+		{"38483-4", "Creatinine [Mass/volume] in Blood", "mg/dL"},
+		{"49765-1", "Calcium [Mass/volume] in Blood", "mg/dL"},
+		{"2947-0", "Sodium [Moles/volume] in Blood", "mmol/L"},
+		{"6298-4", "Potassium [Moles/volume] in Blood", "mmol/L"},
+		{"2069-3", "Chloride [Moles/volume] in Blood", "mmol/L"},
+		{"20565-8", "Carbon dioxide, total [Moles/volume] in Blood", "mmol/L"},
+		{"29463-7", "Body Weight", "kg"},
+		{"8302-2", "Body Height", "cm"},
+		{"39156-5", "Body mass index (BMI) [Ratio]", "kg/m2"},
+		{"8867-4", "Heart rate", "/min"}
+	};
+
+	private static final String[][] CONDITION_CODES = {
+		{"44054006", "Diabetes mellitus type 2"},
+		{"38341003", "Hypertensive disorder"},
+		{"195662009", "Acute viral pharyngitis"},
+		{"10509002", "Acute bronchitis"},
+		{"162864005", "Body mass index 30+ - obesity"}
+	};
+
+	/**
+	 * Creates a new copy of this fixture for the given context, which must be
+	 * an R4 or R5 context
+	 */
+	public IBaseResource create(FhirContext theContext) {
+		Resource r4 = createR4();
+		FhirVersionEnum version = theContext.getVersion().getVersion();
+		switch (version) {
+			case R4:
+				return r4;
+			case R5:
+				return VersionConvertorFactory_40_50.convertResource(r4);
+			default:
+				throw new IllegalArgumentException(Msg.code(2782) + "Unsupported FHIR version: " + version);
+		}
+	}
+
+	abstract Resource createR4();
+
+	private static Bundle createPatientBundle(Random theRandom) {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.TRANSACTION);
+
+		Patient patient = createPatient(theRandom, 0);
+		String patientUrl = addTransactionEntry(bundle, patient, theRandom);
+		Reference patientRef = new Reference(patientUrl);
+
+		for (int i = 0; i < ENCOUNTER_COUNT; i++) {
+			Date start = new Date(BASE_TIME + i * 30L * 24 * 3600 * 1000);
+
+			Encounter encounter = new Encounter();
+			encounter.setStatus(Encounter.EncounterStatus.FINISHED);
+			encounter.getClass_().setSystem("http://terminology.hl7.org/CodeSystem/v3-ActCode").setCode("AMB");
+			encounter
+					.addType()
+					.addCoding()
+					.setSystem("http://snomed.info/sct")
+					.setCode("185345009")
+					.setDisplay("Encounter for symptom");
+			encounter.setSubject(patientRef);
+			encounter.setPeriod(new Period().setStart(start).setEnd(new Date(start.getTime() + 3600 * 1000)));
+			String encounterUrl = addTransactionEntry(bundle, encounter, theRandom);
+			Reference encounterRef = new Reference(encounterUrl);
+
+			if (i % 8 == 0) {
+				String[] code = CONDITION_CODES[(i / 8) % CONDITION_CODES.length];
+				Condition condition = new Condition();
+				condition.getClinicalStatus().addCoding()
+						.setSystem("http://terminology.hl7.org/CodeSystem/condition-clinical")
+						.setCode("active");
+				condition.getVerificationStatus().addCoding()
+						.setSystem("http://terminology.hl7.org/CodeSystem/condition-ver-status")
+						.setCode("confirmed");
+				condition.getCode().addCoding().setSystem("http://snomed.info/sct").setCode(code[0]).setDisplay(code[1]);
+				condition.getCode().setText(code[1]);
+				condition.setSubject(patientRef);
+				condition.setEncounter(encounterRef);
+				condition.setOnset(new DateTimeType(start));
+				condition.setRecordedDate(start);
+				addTransactionEntry(bundle, condition, theRandom);
+			}
+
+			for (int j = 0; j < OBSERVATIONS_PER_ENCOUNTER; j++) {
+				Observation observation = createObservation(theRandom, j, start);
+				observation.setSubject(patientRef);
+				observation.setEncounter(encounterRef);
+				addTransactionEntry(bundle, observation, theRandom);
+			}
+
+			MedicationRequest medicationRequest = new MedicationRequest();
+			medicationRequest.setStatus(MedicationRequest.MedicationRequestStatus.ACTIVE);
+			medicationRequest.setIntent(MedicationRequest.MedicationRequestIntent.ORDER);
+			medicationRequest.setMedication(new CodeableConcept()
+					.addCoding(new Coding()
+							.setSystem("http://www.nlm.nih.gov/research/umls/rxnorm")
+							.setCode("860975")
+							.setDisplay("24 HR Metformin hydrochloride 500 MG Extended Release Oral Tablet")));
+			medicationRequest.setSubject(patientRef);
+			medicationRequest.setEncounter(encounterRef);
+			medicationRequest.setAuthoredOn(start);
+			medicationRequest
+					.addDosageInstruction()
+					.setSequence(1)
+					.setText("Take one tablet by mouth once daily")
+					.getTiming()
+					.getRepeat()
+					.setFrequency(1)
+					.setPeriod(1)
+					.setPeriodUnit(Timing.UnitsOfTime.D);
+			addTransactionEntry(bundle, medicationRequest, theRandom);
+
+			if (i % 10 == 0) {
+				Immunization immunization = new Immunization();
+				immunization.setStatus(Immunization.ImmunizationStatus.COMPLETED);
+				immunization.getVaccineCode().addCoding()
+						.setSystem("http://hl7.org/fhir/sid/cvx")
+						.setCode("140")
+						.setDisplay("Influenza, seasonal, injectable, preservative free");
+				immunization.setPatient(patientRef);
+				immunization.setEncounter(encounterRef);
+				immunization.setOccurrence(new DateTimeType(start));
+				immunization.setPrimarySource(true);
+				addTransactionEntry(bundle, immunization, theRandom);
+			}
+		}
+
+		return bundle;
+	}
+
+	private static Bundle createObservationSearchset(Random theRandom) {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		bundle.setTotal(SEARCHSET_PAGE_SIZE * 20);
+		bundle.addLink().setRelation("self").setUrl("http://example.com/fhir/Observation?patient=Patient/0");
+		bundle.addLink()
+				.setRelation("next")
+				.setUrl("http://example.com/fhir?_getpages=" + new UUID(theRandom.nextLong(), theRandom.nextLong())
+						+ "&_getpagesoffset=" + SEARCHSET_PAGE_SIZE + "&_count=" + SEARCHSET_PAGE_SIZE);
+
+		for (int i = 0; i < SEARCHSET_PAGE_SIZE; i++) {
+			Observation observation =
+					createObservation(theRandom, i, new Date(BASE_TIME + i * 24L * 3600 * 1000));
+			observation.setId("Observation/" + (i + 1));
+			observation.getMeta().setVersionId("1").setLastUpdated(observation.getEffectiveDateTimeType().getValue());
+			observation.setSubject(new Reference("Patient/0"));
+			bundle.addEntry()
+					.setFullUrl("http://example.com/fhir/Observation/" + (i + 1))
+					.setResource(observation)
+					.getSearch()
+					.setMode(Bundle.SearchEntryMode.MATCH);
+		}
+
+		return bundle;
+	}
+
+	private static ValueSet createValueSet(Random theRandom) {
+		ValueSet valueSet = new ValueSet();
+		valueSet.setId("ValueSet/benchmark-codes");
+		valueSet.setUrl("http://example.com/fhir/ValueSet/benchmark-codes");
+		valueSet.setVersion("1.0.0");
+		valueSet.setName("BenchmarkCodes");
+		valueSet.setStatus(Enumerations.PublicationStatus.ACTIVE);
+		valueSet.getCompose().addInclude().setSystem("http://loinc.org");
+
+		ValueSet.ValueSetExpansionComponent expansion = valueSet.getExpansion();
+		expansion.setIdentifier(new UUID(theRandom.nextLong(), theRandom.nextLong()).toString());
+		expansion.setTimestamp(new Date(BASE_TIME));
+		expansion.setTotal(VALUE_SET_CODE_COUNT);
+		expansion.setOffset(0);
+		for (int i = 0; i < VALUE_SET_CODE_COUNT; i++) {
+			int code = 10000 + i;
+			expansion
+					.addContains()
+					.setSystem("http://loinc.org")
+					.setVersion("2.77")
+					.setCode(code + "-" + (code % 10))
+					.setDisplay("Benchmark concept " + i + " [Mass/volume] in Serum or Plasma by "
+							+ (theRandom.nextBoolean() ? "Automated count" : "Manual count"));
+		}
+
+		return valueSet;
+	}
+
+	private static Patient createPatient(Random theRandom, int theIndex) {
+		Patient patient = new Patient();
+		patient.getText().setStatus(Narrative.NarrativeStatus.GENERATED);
+		patient.getText()
+				.setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">Generated by <b>HAPI FHIR benchmarks</b>."
+						+ " Version identifier: v1.0.0</div>");
+		patient.addExtension()
+				.setUrl("http://hl7.org/fhir/us/core/StructureDefinition/us-core-race")
+				.addExtension(new Extension(
+						"ombCategory",
+						new Coding("urn:oid:2.16.840.1.113883.6.238", "2106-3", "White")))
+				.addExtension(new Extension("text", new StringType("White")));
+		patient.addExtension(
+				new Extension("http://hl7.org/fhir/us/core/StructureDefinition/us-core-birthsex", new StringType("F")));
+		patient.addIdentifier()
+				.setSystem("https://github.com/synthetichealth/synthea")
+				.setValue(new UUID(theRandom.nextLong(), theRandom.nextLong()).toString());
+		patient.addIdentifier()
+				.setSystem("http://hl7.org/fhir/sid/us-ssn")
+				.setValue("999-" + (10 + theRandom.nextInt(90)) + "-" + (1000 + theRandom.nextInt(9000)));
+		patient.addName()
+				.setUse(HumanName.NameUse.OFFICIAL)
+				.setFamily("Benchmark" + theIndex)
+				.addGiven("Jane")
+				.addGiven("Q")
+				.addPrefix("Mrs.");
+		patient.addTelecom()
+				.setSystem(ContactPoint.ContactPointSystem.PHONE)
+				.setValue("555-" + (100 + theRandom.nextInt(900)) + "-" + (1000 + theRandom.nextInt(9000)))
+				.setUse(ContactPoint.ContactPointUse.HOME);
+		patient.setGender(Enumerations.AdministrativeGender.FEMALE);
+		patient.setBirthDateElement(new DateType("1970-03-14"));
+		patient.addAddress()
+				.addLine(theRandom.nextInt(1000) + " Main Street")
+				.setCity("Springfield")
+				.setState("MA")
+				.setPostalCode("01101")
+				.setCountry("US");
+		return patient;
+	}
+
+	private static Observation createObservation(Random theRandom, int theIndex, Date theEffective) {
+		String[] code = LAB_CODES[theIndex % LAB_CODES.length];
+
+		Observation observation = new Observation();
+		observation.setStatus(Observation.ObservationStatus.FINAL);
+		observation
+				.addCategory()
+				.addCoding()
+				.setSystem("http://terminology.hl7.org/CodeSystem/observation-category")
+				.setCode(code[2].equals("kg") || code[2].equals("cm") || code[2].equals("/min") ? "vital-signs" : "laboratory");
+		observation.getCode().addCoding().setSystem("http://loinc.org").setCode(code[0]).setDisplay(code[1]);
+		observation.getCode().setText(code[1]);
+		observation.setEffective(new DateTimeType(theEffective));
+		observation.setIssued(theEffective);
+		observation.setValue(new Quantity()
+				.setValue(Math.round(theRandom.nextDouble() * 100000) / 1000.0)
+				.setUnit(code[2])
+				.setSystem("http://unitsofmeasure.org")
+				.setCode(code[2]));
+		observation.addReferenceRange()
+				.setLow(new Quantity().setValue(10).setUnit(code[2]))
+				.setHigh(new Quantity().setValue(90).setUnit(code[2]));
+		return observation;
+	}
+
+	private static String addTransactionEntry(Bundle theBundle, Resource theResource, Random theRandom) {
+		String fullUrl = "urn:uuid:" + new UUID(theRandom.nextLong(), theRandom.nextLong());
+		theBundle
+				.addEntry()
+				.setFullUrl(fullUrl)
+				.setResource(theResource)
+				.getRequest()
+				.setMethod(Bundle.HTTPVerb.POST)
+				.setUrl(theResource.fhirType());
+		return fullUrl;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeDeclaredChildDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.util.BundleUtil;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@link Field} access used by the child accessors of
+ * {@link BaseRuntimeDeclaredChildDefinition} with {@link MethodHandle} based access,
+ * reading every declared child of every resource in the fixture. The
+ * <code>childAccessor</code> benchmark measures the accessor as the parser and
+ * terser use it.
+ * <p>
+ * The <code>roundTrip</code> benchmark parses and re-encodes an R4 Patient, Observation
+ * and Bundle as JSON, so that any difference between the accessor implementations can
+ * be weighed against the end-to-end cost of the parser, which walks every child through
+ * these accessors.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildAccessorBenchmark {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	@State(Scope.Benchmark)
+	public static class AccessorState {
+
+		@Param({"PATIENT_BUNDLE", "OBSERVATION_SEARCHSET"})
+		public BenchmarkFixture fixture;
+
+		private Object[] myTargets;
+		private Field[] myFields;
+		private MethodHandle[] myHandles;
+		private BaseRuntimeChildDefinition.IAccessor[] myAccessors;
+
+		@Setup
+		public void setup() throws IllegalAccessException {
+			FhirContext ctx = FhirContext.forR4Cached();
+			IBaseResource resource = fixture.create(ctx);
+			List<IBaseResource> resources = new ArrayList<>();
+			resources.add(resource);
+			if (resource instanceof IBaseBundle) {
+				resources.addAll(BundleUtil.toListOfResources(ctx, (IBaseBundle) resource));
+			}
+
+			List<Object> targets = new ArrayList<>();
+			List<Field> fields = new ArrayList<>();
+			List<MethodHandle> handles = new ArrayList<>();
+			List<BaseRuntimeChildDefinition.IAccessor> accessors = new ArrayList<>();
+			for (IBaseResource next : resources) {
+				for (BaseRuntimeChildDefinition child : ctx.getResourceDefinition(next).getChildren()) {
+					if (child instanceof BaseRuntimeDeclaredChildDefinition) {
+						Field field = ((BaseRuntimeDeclaredChildDefinition) child).getField();
+						MethodHandles.Lookup lookup =
+								MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+						targets.add(next);
+						fields.add(field);
+						handles.add(lookup.unreflectGetter(field).asType(GETTER_TYPE));
+						accessors.add(child.getAccessor());
+					}
+				}
+			}
+
+			myTargets = targets.toArray();
+			myFields = fields.toArray(new Field[0]);
+			myHandles = handles.toArray(new MethodHandle[0]);
+			myAccessors = accessors.toArray(new BaseRuntimeChildDefinition.IAccessor[0]);
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class RoundTripState {
+
+		@Param({"Patient", "Observation", "Bundle"})
+		public String resourceType;
+
+		private IParser myParser;
+		private Class<? extends IBaseResource> myType;
+		private String myEncoded;
+
+		@Setup
+		public void setup() {
+			FhirContext ctx = FhirContext.forR4Cached();
+			IBaseBundle bundle = (IBaseBundle) BenchmarkFixture.PATIENT_BUNDLE.create(ctx);
+
+			// The Patient and the first Observation of the bundle, or the whole bundle
+			IBaseResource resource = bundle;
+			if (!"Bundle".equals(resourceType)) {
+				resource = BundleUtil.toListOfResources(ctx, bundle).stream()
+						.filter(t -> resourceType.equals(ctx.getResourceType(t)))
+						.findFirst()
+						.orElseThrow();
+			}
+
+			myParser = ctx.newJsonParser();
+			myType = resource.getClass();
+			myEncoded = myParser.encodeResourceToString(resource);
+		}
+	}
+
+	@Benchmark
+	public int fieldGet(AccessorState theState) throws IllegalAccessException {
+		int count = 0;
+		for (int i = 0; i < theState.myFields.length; i++) {
+			if (theState.myFields[i].get(theState.myTargets[i]) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int methodHandle(AccessorState theState) throws Throwable {
+		int count = 0;
+		for (int i = 0; i < theState.myHandles.length; i++) {
+			if (theState.myHandles[i].invokeExact(theState.myTargets[i]) != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int childAccessor(AccessorState theState) {
+		int count = 0;
+		for (int i = 0; i < theState.myAccessors.length; i++) {
+			List<IBase> values = theState.myAccessors[i].getValues((IBase) theState.myTargets[i]);
+			count += values.size();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public String roundTrip(RoundTripState theState) {
+		IBaseResource parsed = theState.myParser.parseResource(theState.myType, theState.myEncoded);
+		return theState.myParser.encodeResourceToString(parsed);
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model scanning cost of a {@link FhirContext} once the model classes are loaded and
+ * the JVM is warm, which isolates the scanner itself from class loading. See
+ * {@link FhirContextStartupBenchmark} for the cold start cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FhirContextScanBenchmark {
+
+	@Param({"R4", "R5"})
+	public FhirVersionEnum fhirVersion;
+
+	/**
+	 * Creates a context and scans the datatypes, which happens on first use of
+	 * any element definition
+	 */
+	@Benchmark
+	public int scanDatatypes() {
+		FhirContext ctx = new FhirContext(fhirVersion);
+		return ctx.getElementDefinitions().size();
+	}
+
+	/**
+	 * Creates a context and scans the definitions of every resource type
+	 */
+	@Benchmark
+	public int scanAllResourceDefinitions() {
+		FhirContext ctx = new FhirContext(fhirVersion);
+		int retVal = 0;
+		for (String next : ctx.getResourceTypes()) {
+			retVal += ctx.getResourceDefinition(next).getChildren().size();
+		}
+		return retVal;
+	}
+}
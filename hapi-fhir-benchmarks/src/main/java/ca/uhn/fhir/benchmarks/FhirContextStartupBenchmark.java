@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start cost of a {@link FhirContext}: each measurement is a single invocation
+ * in a freshly forked JVM, so it includes class loading and model scanning exactly
+ * as an application sees them at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class FhirContextStartupBenchmark {
+
+	private static final String PATIENT_JSON =
+			"{\"resourceType\":\"Patient\",\"active\":true,\"name\":[{\"family\":\"Smith\",\"given\":[\"John\"]}]}";
+
+	@Param({"R4", "R5"})
+	public FhirVersionEnum fhirVersion;
+
+	/**
+	 * Creates a context and parses a small resource, which is the minimum work
+	 * an application does before handling its first request
+	 */
+	@Benchmark
+	public IBaseResource firstParse() {
+		FhirContext ctx = new FhirContext(fhirVersion);
+		return ctx.newJsonParser().parseResource(PATIENT_JSON);
+	}
+
+	/**
+	 * Creates a context and scans the definitions of every resource type, as a server
+	 * does when it builds its capability statement
+	 */
+	@Benchmark
+	public int scanAllResourceDefinitions() {
+		FhirContext ctx = new FhirContext(fhirVersion);
+		int retVal = 0;
+		for (String next : ctx.getResourceTypes()) {
+			retVal += ctx.getResourceDefinition(next).getChildren().size();
+		}
+		return retVal;
+	}
+}
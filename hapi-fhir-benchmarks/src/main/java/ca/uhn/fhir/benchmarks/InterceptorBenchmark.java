@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.interceptor.executor.InterceptorService;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hook dispatch through {@link InterceptorService}, both directly and through the
+ * {@link CompositeInterceptorBroadcaster} that combines the global interceptors
+ * with the per-request interceptors, as the storage layer does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+
+	@Param({"1", "5", "20"})
+	public int hookCount;
+
+	private InterceptorService myInterceptorService;
+	private IInterceptorBroadcaster myCompositeBroadcaster;
+	private HookParams myParams;
+
+	@Setup
+	public void setup() {
+		myInterceptorService = new InterceptorService();
+		for (int i = 0; i < hookCount; i++) {
+			myInterceptorService.registerInterceptor(new PreStorageInterceptor());
+		}
+
+		InterceptorService requestInterceptorService = new InterceptorService();
+		requestInterceptorService.registerInterceptor(new PreStorageInterceptor());
+		SystemRequestDetails requestDetails = new SystemRequestDetails(requestInterceptorService);
+		myCompositeBroadcaster =
+				CompositeInterceptorBroadcaster.newCompositeBroadcaster(myInterceptorService, requestDetails);
+
+		myParams = new HookParams()
+				.add(IBaseResource.class, new Patient().setActive(true))
+				.add(RequestDetails.class, requestDetails)
+				.addIfMatchesType(ServletRequestDetails.class, requestDetails)
+				.add(TransactionDetails.class, new TransactionDetails())
+				.add(RequestPartitionId.class, RequestPartitionId.defaultPartition());
+	}
+
+	@Benchmark
+	public boolean hasHooksNotRegistered() {
+		return myInterceptorService.hasHooks(Pointcut.STORAGE_PRESTORAGE_RESOURCE_UPDATED);
+	}
+
+	@Benchmark
+	public boolean callHooks() {
+		return myInterceptorService.callHooks(Pointcut.STORAGE_PRESTORAGE_RESOURCE_CREATED, myParams);
+	}
+
+	@Benchmark
+	public boolean callHooksComposite() {
+		return myCompositeBroadcaster.callHooks(Pointcut.STORAGE_PRESTORAGE_RESOURCE_CREATED, myParams);
+	}
+
+	public static class PreStorageInterceptor {
+
+		private int myCount;
+
+		@Hook(Pointcut.STORAGE_PRESTORAGE_RESOURCE_CREATED)
+		public void resourceCreated(IBaseResource theResource, RequestDetails theRequestDetails) {
+			if (theResource != null && theRequestDetails != null) {
+				myCount++;
+			}
+		}
+	}
+}
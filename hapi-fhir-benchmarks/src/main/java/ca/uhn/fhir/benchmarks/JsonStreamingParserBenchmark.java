@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.context.ParserOptions;
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the tree based and streaming JSON parse modes (see
+ * {@link ParserOptions#setUseStreamingJsonParser(boolean)}). Run with
+ * <code>-prof gc</code> to compare the memory allocated per parse, which is
+ * the main difference between the two modes for large Bundles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStreamingParserBenchmark {
+
+	@Param({"R4"})
+	public FhirVersionEnum fhirVersion;
+
+	@Param({"PATIENT_BUNDLE", "OBSERVATION_SEARCHSET"})
+	public BenchmarkFixture fixture;
+
+	@Param({"false", "true"})
+	public boolean streaming;
+
+	private IParser myParser;
+	private Class<? extends IBaseResource> myResourceType;
+	private String myEncoded;
+	private byte[] myEncodedBytes;
+
+	@Setup
+	public void setup() {
+		// A dedicated context, since the parser options of the cached ones are shared
+		FhirContext ctx = new FhirContext(fhirVersion);
+		ctx.getParserOptions().setUseStreamingJsonParser(streaming);
+		myParser = ctx.newJsonParser();
+		IBaseResource resource = fixture.create(ctx);
+		myResourceType = resource.getClass();
+		myEncoded = myParser.encodeResourceToString(resource);
+		myEncodedBytes = myEncoded.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public IBaseResource parseString() {
+		return myParser.parseResource(myResourceType, myEncoded);
+	}
+
+	@Benchmark
+	public IBaseResource parseInputStream() {
+		return myParser.parseResource(myResourceType, new ByteArrayInputStream(myEncodedBytes));
+	}
+}
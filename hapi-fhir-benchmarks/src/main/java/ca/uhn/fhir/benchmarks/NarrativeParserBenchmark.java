@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.util.BundleUtil;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.DomainResource;
+import org.hl7.fhir.r4.model.Narrative;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a large Bundle with and without an XHTML narrative on every entry, which
+ * exercises the narrative handling of the XML stream reader. Run with <code>-prof gc</code>
+ * to compare the memory allocated per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NarrativeParserBenchmark {
+
+	private static final String NARRATIVE = "<div xmlns=\"http://www.w3.org/1999/xhtml\"><table>"
+			+ "<tr><td>Code</td><td>Value</td></tr>"
+			+ "<tr><td>Glucose</td><td><b>123.567</b> mg/L</td></tr>"
+			+ "</table></div>";
+
+	@Param({"OBSERVATION_SEARCHSET"})
+	public BenchmarkFixture fixture;
+
+	@Param({"XML", "JSON"})
+	public EncodingEnum encoding;
+
+	@Param({"false", "true"})
+	public boolean narratives;
+
+	private IParser myParser;
+	private Class<? extends IBaseResource> myResourceType;
+	private String myEncoded;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		IBaseResource resource = fixture.create(ctx);
+		if (resource instanceof IBaseBundle) {
+			for (IBaseResource next : BundleUtil.toListOfResources(ctx, (IBaseBundle) resource)) {
+				if (next instanceof DomainResource) {
+					DomainResource domainResource = (DomainResource) next;
+					if (narratives) {
+						domainResource.getText().setStatus(Narrative.NarrativeStatus.GENERATED);
+						domainResource.getText().setDivAsString(NARRATIVE);
+					} else {
+						domainResource.setText(null);
+					}
+				}
+			}
+		}
+
+		myParser = encoding.newParser(ctx);
+		myResourceType = resource.getClass();
+		myEncoded = myParser.encodeResourceToString(resource);
+	}
+
+	@Benchmark
+	public IBaseResource parseString() {
+		return myParser.parseResource(myResourceType, myEncoded);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and encoding of the {@link BenchmarkFixture fixtures} using the JSON and
+ * XML parsers, for R4 and R5
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param({"R4", "R5"})
+	public FhirVersionEnum fhirVersion;
+
+	@Param({"PATIENT_BUNDLE", "VALUE_SET", "OBSERVATION_SEARCHSET"})
+	public BenchmarkFixture fixture;
+
+	@Param({"JSON", "XML"})
+	public EncodingEnum encoding;
+
+	private IParser myParser;
+	private IBaseResource myResource;
+	private Class<? extends IBaseResource> myResourceType;
+	private String myEncoded;
+	private byte[] myEncodedBytes;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forCached(fhirVersion);
+		myParser = encoding.newParser(ctx);
+		myResource = fixture.create(ctx);
+		myResourceType = myResource.getClass();
+		myEncoded = myParser.encodeResourceToString(myResource);
+		myEncodedBytes = myEncoded.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public IBaseResource parseString() {
+		return myParser.parseResource(myResourceType, myEncoded);
+	}
+
+	@Benchmark
+	public IBaseResource parseInputStream() {
+		return myParser.parseResource(myResourceType, new ByteArrayInputStream(myEncodedBytes));
+	}
+
+	@Benchmark
+	public String encodeString() {
+		return myParser.encodeResourceToString(myResource);
+	}
+
+	@Benchmark
+	public int encodeOutputStream() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(myEncodedBytes.length);
+		myParser.encodeResourceToOutputStream(myResource, outputStream);
+		return outputStream.size();
+	}
+
+	/**
+	 * Parse followed by encode, which is what a server does with a resource body
+	 * that it stores and returns
+	 */
+	@Benchmark
+	public String roundTrip() {
+		IBaseResource parsed = myParser.parseResource(myResourceType, myEncoded);
+		return myParser.encodeResourceToString(parsed);
+	}
+}
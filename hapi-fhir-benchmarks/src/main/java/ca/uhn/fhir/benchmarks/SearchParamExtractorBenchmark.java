@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.searchparam.extractor.BaseSearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.SearchParamExtractorR4;
+import ca.uhn.fhir.jpa.searchparam.extractor.SearchParamExtractorR5;
+import ca.uhn.fhir.rest.server.util.FhirContextSearchParamRegistry;
+import ca.uhn.fhir.util.BundleUtil;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search parameter extraction ({@link BaseSearchParamExtractor}) for every resource
+ * in the {@link BenchmarkFixture#PATIENT_BUNDLE patient bundle}, using the built-in
+ * search parameters for the FHIR version
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchParamExtractorBenchmark {
+
+	@Param({"R4", "R5"})
+	public FhirVersionEnum fhirVersion;
+
+	private ISearchParamExtractor myExtractor;
+	private List<IBaseResource> myResources;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forCached(fhirVersion);
+		FhirContextSearchParamRegistry searchParamRegistry = new FhirContextSearchParamRegistry(ctx);
+		if (fhirVersion == FhirVersionEnum.R4) {
+			myExtractor = new SearchParamExtractorR4(
+					new StorageSettings(), new PartitionSettings(), ctx, searchParamRegistry);
+		} else {
+			myExtractor = new SearchParamExtractorR5(
+					new StorageSettings(), new PartitionSettings(), ctx, searchParamRegistry);
+		}
+
+		IBaseBundle bundle = (IBaseBundle) BenchmarkFixture.PATIENT_BUNDLE.create(ctx);
+		myResources = BundleUtil.toListOfResources(ctx, bundle);
+	}
+
+	@Benchmark
+	public int extractTokens() {
+		int retVal = 0;
+		for (IBaseResource next : myResources) {
+			retVal += myExtractor.extractSearchParamTokens(next).size();
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int extractStrings() {
+		int retVal = 0;
+		for (IBaseResource next : myResources) {
+			retVal += myExtractor.extractSearchParamStrings(next).size();
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int extractDates() {
+		int retVal = 0;
+		for (IBaseResource next : myResources) {
+			retVal += myExtractor.extractSearchParamDates(next).size();
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int extractQuantities() {
+		int retVal = 0;
+		for (IBaseResource next : myResources) {
+			retVal += myExtractor.extractSearchParamQuantity(next).size();
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int extractResourceLinks() {
+		int retVal = 0;
+		for (IBaseResource next : myResources) {
+			retVal += myExtractor.extractResourceLinks(next, false).size();
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.CompiledTerserPath;
+import ca.uhn.fhir.util.FhirTerser;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FhirTerser} path evaluation over every Observation in the
+ * {@link BenchmarkFixture#OBSERVATION_SEARCHSET observation searchset}, using
+ * both string paths and {@link CompiledTerserPath compiled paths}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerserBenchmark {
+
+	private static final String[] PATHS = {
+		"Observation.code.coding.system",
+		"Observation.subject.reference",
+		"Observation.referenceRange.low.value",
+		"Observation.meta.lastUpdated"
+	};
+
+	@Param({"R4", "R5"})
+	public FhirVersionEnum fhirVersion;
+
+	private FhirTerser myTerser;
+	private List<IBaseResource> myObservations;
+	private CompiledTerserPath[] myCompiledPaths;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forCached(fhirVersion);
+		myTerser = ctx.newTerser();
+		IBaseBundle bundle = (IBaseBundle) BenchmarkFixture.OBSERVATION_SEARCHSET.create(ctx);
+		myObservations = BundleUtil.toListOfResources(ctx, bundle);
+
+		myCompiledPaths = new CompiledTerserPath[PATHS.length];
+		for (int i = 0; i < PATHS.length; i++) {
+			myCompiledPaths[i] = myTerser.compilePath("Observation", PATHS[i]);
+		}
+	}
+
+	@Benchmark
+	public int stringPaths() {
+		int retVal = 0;
+		for (IBaseResource next : myObservations) {
+			for (String path : PATHS) {
+				retVal += myTerser.getValues(next, path).size();
+			}
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int compiledPaths() {
+		int retVal = 0;
+		for (IBaseResource next : myObservations) {
+			for (CompiledTerserPath path : myCompiledPaths) {
+				retVal += myTerser.getValues(next, path, IBase.class).size();
+			}
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public int singleValueOrNull() {
+		int retVal = 0;
+		for (IBaseResource next : myObservations) {
+			if (myTerser.getSingleValueOrNull(next, PATHS[1], IBase.class) != null) {
+				retVal++;
+			}
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,34 @@
+package ca.uhn.fhir.benchmarks;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.StrictErrorHandler;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BenchmarkFixtureTest {
+
+	/**
+	 * Benchmark results are only comparable between runs if the fixtures are
+	 * identical every time they are created, and they must survive a strict
+	 * parse in every version they are used with.
+	 */
+	@ParameterizedTest
+	@EnumSource(BenchmarkFixture.class)
+	public void testFixturesAreDeterministicAndValid(BenchmarkFixture theFixture) {
+		for (FhirVersionEnum version : new FhirVersionEnum[] {FhirVersionEnum.R4, FhirVersionEnum.R5}) {
+			FhirContext ctx = FhirContext.forCached(version);
+			IParser parser = ctx.newJsonParser().setParserErrorHandler(new StrictErrorHandler());
+
+			String encoded = parser.encodeResourceToString(theFixture.create(ctx));
+			assertThat(parser.encodeResourceToString(theFixture.create(ctx))).isEqualTo(encoded);
+
+			IBaseResource parsed = parser.parseResource(encoded);
+			assertThat(parser.encodeResourceToString(parsed)).isEqualTo(encoded);
+		}
+	}
+}
@@ -23,22 +23,36 @@ import ca.uhn.fhir.rest.client.api.BaseHttpRequest;
 import ca.uhn.fhir.rest.client.api.IHttpRequest;
 import ca.uhn.fhir.rest.client.api.IHttpResponse;
 import ca.uhn.fhir.util.StopWatch;
+import jakarta.annotation.Nullable;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.hc.client5.http.async.HttpAsyncClient;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * A Http Request based on Apache. This is an adapter around the class
@@ -49,10 +63,26 @@ import java.util.Map;
 public class ApacheHttp5Request extends BaseHttpRequest implements IHttpRequest {
 
 	private HttpClient myClient;
+	private Supplier<HttpAsyncClient> myAsyncClientSupplier;
 	private HttpUriRequest myRequest;
 
 	public ApacheHttp5Request(HttpClient theClient, HttpUriRequest theApacheRequest) {
+		this(theClient, null, theApacheRequest);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theAsyncClientSupplier Supplies the non-blocking client used by {@link #executeAsync()}. If
+	 *                               <code>null</code>, {@link #executeAsync()} is not supported.
+	 * @since 8.4.0
+	 */
+	public ApacheHttp5Request(
+			HttpClient theClient,
+			@Nullable Supplier<HttpAsyncClient> theAsyncClientSupplier,
+			HttpUriRequest theApacheRequest) {
 		this.myClient = theClient;
+		this.myAsyncClientSupplier = theAsyncClientSupplier;
 		this.myRequest = theApacheRequest;
 	}
 
@@ -67,6 +97,82 @@ public class ApacheHttp5Request extends BaseHttpRequest implements IHttpRequest
 		return myClient.execute(myRequest, httpResponse -> new ApacheHttp5Response(httpResponse, responseStopWatch));
 	}
 
+	/**
+	 * Performs the request using the non-blocking client. The request body is sent from
+	 * memory and the response body is fully buffered before the returned future completes,
+	 * so no thread is blocked while waiting for the server.
+	 */
+	@Nullable
+	@Override
+	public CompletableFuture<IHttpResponse> executeAsync() {
+		if (myAsyncClientSupplier == null) {
+			return null;
+		}
+
+		SimpleHttpRequest asyncRequest;
+		try {
+			asyncRequest = toSimpleHttpRequest();
+		} catch (IOException | URISyntaxException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		StopWatch responseStopWatch = new StopWatch();
+		CompletableFuture<IHttpResponse> retVal = new CompletableFuture<>();
+		Future<SimpleHttpResponse> future = myAsyncClientSupplier
+				.get()
+				.execute(
+						SimpleRequestProducer.create(asyncRequest),
+						SimpleResponseConsumer.create(),
+						null,
+						null,
+						new FutureCallback<>() {
+							@Override
+							public void completed(SimpleHttpResponse theResult) {
+								retVal.complete(toResponse(theResult, responseStopWatch));
+							}
+
+							@Override
+							public void failed(Exception theException) {
+								retVal.completeExceptionally(theException);
+							}
+
+							@Override
+							public void cancelled() {
+								retVal.cancel(false);
+							}
+						});
+		retVal.whenComplete((theResponse, theError) -> {
+			if (retVal.isCancelled()) {
+				future.cancel(true);
+			}
+		});
+		return retVal;
+	}
+
+	private SimpleHttpRequest toSimpleHttpRequest() throws IOException, URISyntaxException {
+		SimpleHttpRequest retVal = SimpleHttpRequest.create(myRequest.getMethod(), myRequest.getUri());
+		for (Header next : myRequest.getHeaders()) {
+			retVal.addHeader(next);
+		}
+		HttpEntity entity = myRequest.getEntity();
+		if (entity != null) {
+			Header contentTypeHeader = myRequest.getFirstHeader("Content-Type");
+			String contentType = contentTypeHeader != null ? contentTypeHeader.getValue() : entity.getContentType();
+			retVal.setBody(
+					EntityUtils.toByteArray(entity), contentType != null ? ContentType.parse(contentType) : null);
+		}
+		return retVal;
+	}
+
+	private static ApacheHttp5Response toResponse(SimpleHttpResponse theResponse, StopWatch theResponseStopWatch) {
+		BasicClassicHttpResponse response =
+				new BasicClassicHttpResponse(theResponse.getCode(), theResponse.getReasonPhrase());
+		response.setHeaders(theResponse.getHeaders());
+		byte[] body = theResponse.getBodyBytes();
+		response.setEntity(new ByteArrayEntity(body != null ? body : new byte[0], theResponse.getContentType()));
+		return new ApacheHttp5Response(response, theResponseStopWatch);
+	}
+
 	@Override
 	public Map<String, List<String>> getAllHeaders() {
 		Map<String, List<String>> result = new HashMap<>();
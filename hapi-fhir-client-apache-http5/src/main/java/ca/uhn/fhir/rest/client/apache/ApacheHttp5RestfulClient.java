@@ -23,6 +23,8 @@ import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.client.api.Header;
 import ca.uhn.fhir.rest.client.api.IHttpClient;
 import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import jakarta.annotation.Nullable;
+import org.apache.hc.client5.http.async.HttpAsyncClient;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.classic.methods.*;
 import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
@@ -37,6 +39,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Supplier;
 
 import static org.apache.hc.core5.http.ContentType.APPLICATION_OCTET_STREAM;
 
@@ -49,6 +52,7 @@ import static org.apache.hc.core5.http.ContentType.APPLICATION_OCTET_STREAM;
 public class ApacheHttp5RestfulClient extends BaseHttpClient implements IHttpClient {
 
 	private final HttpClient myClient;
+	private final Supplier<HttpAsyncClient> myAsyncClientSupplier;
 	private final HttpHost host;
 
 	public ApacheHttp5RestfulClient(
@@ -58,8 +62,27 @@ public class ApacheHttp5RestfulClient extends BaseHttpClient implements IHttpCli
 			String theIfNoneExistString,
 			RequestTypeEnum theRequestType,
 			List<Header> theHeaders) {
+		this(theClient, null, theUrl, theIfNoneExistParams, theIfNoneExistString, theRequestType, theHeaders);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theAsyncClientSupplier Supplies the non-blocking client used by asynchronous requests. If <code>null</code>,
+	 *                               asynchronous requests are not performed in a non-blocking fashion.
+	 * @since 8.4.0
+	 */
+	public ApacheHttp5RestfulClient(
+			HttpClient theClient,
+			@Nullable Supplier<HttpAsyncClient> theAsyncClientSupplier,
+			StringBuilder theUrl,
+			Map<String, List<String>> theIfNoneExistParams,
+			String theIfNoneExistString,
+			RequestTypeEnum theRequestType,
+			List<Header> theHeaders) {
 		super(theUrl, theIfNoneExistParams, theIfNoneExistString, theRequestType, theHeaders);
 		this.myClient = theClient;
+		this.myAsyncClientSupplier = theAsyncClientSupplier;
 		this.host = new HttpHost(theUrl.toString());
 	}
 
@@ -110,7 +133,7 @@ public class ApacheHttp5RestfulClient extends BaseHttpClient implements IHttpCli
 
 	private ApacheHttp5Request createHttpRequest(HttpEntity theEntity) {
 		HttpUriRequest request = constructRequestBase(theEntity);
-		return new ApacheHttp5Request(myClient, request);
+		return new ApacheHttp5Request(myClient, myAsyncClientSupplier, request);
 	}
 
 	@Override
@@ -24,23 +24,32 @@ import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.client.api.Header;
 import ca.uhn.fhir.rest.client.api.IHttpClient;
 import ca.uhn.fhir.rest.client.impl.RestfulClientFactory;
+import org.apache.hc.client5.http.async.HttpAsyncClient;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.hc.core5.util.TimeValue;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -52,6 +61,9 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 
 	private HttpClient myHttpClient;
+	private boolean myHttpClientProvided;
+	private HttpAsyncClient myAsyncHttpClient;
+	private CloseableHttpAsyncClient myCreatedAsyncHttpClient;
 	private HttpHost myProxy;
 
 	/**
@@ -84,7 +96,24 @@ public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 			RequestTypeEnum theRequestType,
 			List<Header> theHeaders) {
 		return new ApacheHttp5RestfulClient(
-				getNativeHttpClient(), theUrl, theIfNoneExistParams, theIfNoneExistString, theRequestType, theHeaders);
+				getNativeHttpClient(),
+				getAsyncHttpClientSupplier(),
+				theUrl,
+				theIfNoneExistParams,
+				theIfNoneExistString,
+				theRequestType,
+				theHeaders);
+	}
+
+	/**
+	 * If a custom blocking client has been supplied without a matching asynchronous client, asynchronous
+	 * requests fall back to using the blocking client so that its configuration (e.g. TLS) is honoured
+	 */
+	private Supplier<HttpAsyncClient> getAsyncHttpClientSupplier() {
+		if (myHttpClientProvided && myAsyncHttpClient == null) {
+			return null;
+		}
+		return this::getNativeAsyncHttpClient;
 	}
 
 	public HttpClient getNativeHttpClient() {
@@ -111,14 +140,9 @@ public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 					createPoolingHttpClientConnectionManager(socketConfig, connectionConfig);
 			builder.setConnectionManager(connectionManager);
 
-			if (myProxy != null && isNotBlank(getProxyUsername()) && isNotBlank(getProxyPassword())) {
-				BasicCredentialsProvider credsProvider = new BasicCredentialsProvider();
-				credsProvider.setCredentials(
-						new AuthScope(myProxy.getHostName(), myProxy.getPort()),
-						new UsernamePasswordCredentials(
-								getProxyUsername(), getProxyPassword().toCharArray()));
+			if (isProxyAuthenticationConfigured()) {
 				builder.setProxyAuthenticationStrategy(new DefaultAuthenticationStrategy());
-				builder.setDefaultCredentialsProvider(credsProvider);
+				builder.setDefaultCredentialsProvider(createProxyCredentialsProvider());
 			}
 
 			myHttpClient = builder.build();
@@ -127,6 +151,70 @@ public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 		return myHttpClient;
 	}
 
+	/**
+	 * Returns the non-blocking HTTP client used by asynchronous requests (e.g.
+	 * {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()}). The client is
+	 * created and started on first use, using the same timeouts and pool sizes as the
+	 * blocking client.
+	 *
+	 * @since 8.4.0
+	 */
+	public synchronized HttpAsyncClient getNativeAsyncHttpClient() {
+		if (myAsyncHttpClient == null) {
+			ConnectionConfig connectionConfig = ConnectionConfig.custom()
+					.setConnectTimeout(getConnectTimeout(), TimeUnit.MILLISECONDS)
+					.setSocketTimeout(getSocketTimeout(), TimeUnit.MILLISECONDS)
+					.setValidateAfterInactivity(TimeValue.ofSeconds(5))
+					.build();
+
+			RequestConfig defaultRequestConfig = RequestConfig.custom()
+					.setResponseTimeout(getSocketTimeout(), TimeUnit.MILLISECONDS)
+					.setConnectionRequestTimeout(getConnectionRequestTimeout(), TimeUnit.MILLISECONDS)
+					.build();
+
+			PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+					.useSystemProperties()
+					.setMaxConnTotal(getPoolMaxTotal())
+					.setMaxConnPerRoute(getPoolMaxPerRoute())
+					.setDefaultConnectionConfig(connectionConfig)
+					.build();
+
+			HttpAsyncClientBuilder builder = getHttpAsyncClientBuilder()
+					.useSystemProperties()
+					.setDefaultRequestConfig(defaultRequestConfig)
+					.setIOReactorConfig(IOReactorConfig.custom()
+							.setSoTimeout(getSocketTimeout(), TimeUnit.MILLISECONDS)
+							.build())
+					.setConnectionManager(connectionManager)
+					.disableCookieManagement();
+
+			if (isProxyAuthenticationConfigured()) {
+				builder.setProxyAuthenticationStrategy(new DefaultAuthenticationStrategy());
+				builder.setDefaultCredentialsProvider(createProxyCredentialsProvider());
+			}
+
+			CloseableHttpAsyncClient asyncHttpClient = builder.build();
+			asyncHttpClient.start();
+			myCreatedAsyncHttpClient = asyncHttpClient;
+			myAsyncHttpClient = asyncHttpClient;
+		}
+
+		return myAsyncHttpClient;
+	}
+
+	private boolean isProxyAuthenticationConfigured() {
+		return myProxy != null && isNotBlank(getProxyUsername()) && isNotBlank(getProxyPassword());
+	}
+
+	private BasicCredentialsProvider createProxyCredentialsProvider() {
+		BasicCredentialsProvider credsProvider = new BasicCredentialsProvider();
+		credsProvider.setCredentials(
+				new AuthScope(myProxy.getHostName(), myProxy.getPort()),
+				new UsernamePasswordCredentials(
+						getProxyUsername(), getProxyPassword().toCharArray()));
+		return credsProvider;
+	}
+
 	private PoolingHttpClientConnectionManager createPoolingHttpClientConnectionManager(
 			SocketConfig socketConfig, ConnectionConfig connectionConfig) {
 		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
@@ -145,9 +233,22 @@ public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 		return HttpClients.custom();
 	}
 
+	/**
+	 * @since 8.4.0
+	 */
+	protected HttpAsyncClientBuilder getHttpAsyncClientBuilder() {
+		return HttpAsyncClients.custom();
+	}
+
 	@Override
-	protected void resetHttpClient() {
+	protected synchronized void resetHttpClient() {
 		this.myHttpClient = null;
+		this.myHttpClientProvided = false;
+		if (myCreatedAsyncHttpClient != null) {
+			myCreatedAsyncHttpClient.close(CloseMode.GRACEFUL);
+			myCreatedAsyncHttpClient = null;
+		}
+		this.myAsyncHttpClient = null;
 	}
 
 	/**
@@ -157,6 +258,19 @@ public class ApacheHttp5RestfulClientFactory extends RestfulClientFactory {
 	@Override
 	public synchronized void setHttpClient(Object theHttpClient) {
 		this.myHttpClient = (HttpClient) theHttpClient;
+		this.myHttpClientProvided = theHttpClient != null;
+	}
+
+	/**
+	 * Sets the non-blocking HTTP client used by asynchronous requests. The client must already
+	 * be started. If a blocking client is supplied using {@link #setHttpClient(Object)} and no
+	 * asynchronous client is supplied, asynchronous requests are performed using the blocking
+	 * client on the generic client's async executor.
+	 *
+	 * @since 8.4.0
+	 */
+	public synchronized void setAsyncHttpClient(HttpAsyncClient theAsyncHttpClient) {
+		this.myAsyncHttpClient = theAsyncHttpClient;
 	}
 
 	@Override
@@ -1,14 +1,27 @@
 package ca.uhn.fhir.rest.client.apache;
 
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.io.CloseMode;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class ApacheHttp5RequestTest {
 
@@ -37,4 +50,55 @@ public class ApacheHttp5RequestTest {
 
 		assertEquals(ENTITY_CONTENT, result);
 	}
+
+	@Test
+	public void testExecuteAsyncNotSupportedWithoutAsyncClient() {
+		assertNull(new ApacheHttp5Request(null, request).executeAsync());
+	}
+
+	@Test
+	public void testExecuteAsync() throws Exception {
+		AtomicReference<String> requestBody = new AtomicReference<>();
+		AtomicReference<String> requestContentType = new AtomicReference<>();
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/Patient", exchange -> {
+			requestBody.set(IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8));
+			requestContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+			byte[] responseBody = "{\"resourceType\":\"Patient\"}".getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/fhir+json;charset=utf-8");
+			exchange.getResponseHeaders().add("ETag", "W/\"1\"");
+			exchange.sendResponseHeaders(201, responseBody.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(responseBody);
+			}
+		});
+		server.start();
+		CloseableHttpAsyncClient asyncClient = HttpAsyncClients.createDefault();
+		asyncClient.start();
+		try {
+			String url = "http://localhost:" + server.getAddress().getPort() + "/Patient";
+			HttpPost post = new HttpPost(url);
+			post.setHeader("Content-Type", "application/fhir+json; charset=UTF-8");
+			post.setEntity(new StringEntity(ENTITY_CONTENT, StandardCharsets.UTF_8));
+
+			IHttpResponse response =
+					new ApacheHttp5Request(null, () -> asyncClient, post).executeAsync().get(10, TimeUnit.SECONDS);
+
+			assertEquals(201, response.getStatus());
+			assertEquals("application/fhir+json", response.getMimeType());
+			assertThat(response.getHeaders("ETag")).containsExactly("W/\"1\"");
+			assertEquals("{\"resourceType\":\"Patient\"}", IOUtils.toString(response.readEntity(), StandardCharsets.UTF_8));
+			assertEquals(ENTITY_CONTENT, requestBody.get());
+			assertEquals("application/fhir+json; charset=UTF-8", requestContentType.get());
+
+			IHttpResponse getResponse = new ApacheHttp5Request(null, () -> asyncClient, new HttpGet(url))
+					.executeAsync()
+					.get(10, TimeUnit.SECONDS);
+			assertEquals(201, getResponse.getStatus());
+			assertEquals("", requestBody.get());
+		} finally {
+			asyncClient.close(CloseMode.IMMEDIATE);
+			server.stop(0);
+		}
+	}
 }
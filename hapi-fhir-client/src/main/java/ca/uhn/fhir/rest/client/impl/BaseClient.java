@@ -62,6 +62,7 @@ import jakarta.annotation.Nonnull;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBinary;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -80,12 +81,36 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public abstract class BaseClient implements IRestfulClient {
 
+	/**
+	 * The maximum number of threads in the shared executor used by asynchronous requests if no
+	 * {@link #setAsyncExecutor(Executor) async executor} has been set
+	 *
+	 * @since 8.4.0
+	 */
+	public static final int DEFAULT_ASYNC_EXECUTOR_MAX_THREADS = 20;
+
+	/**
+	 * The number of tasks which may be queued in the shared executor used by asynchronous requests
+	 * if no {@link #setAsyncExecutor(Executor) async executor} has been set. Once the queue is full,
+	 * further tasks are run by the thread which submits them.
+	 *
+	 * @since 8.4.0
+	 */
+	public static final int DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY = 1000;
+
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(BaseClient.class);
 
 	private final IHttpClient myClient;
@@ -100,6 +125,7 @@ public abstract class BaseClient implements IRestfulClient {
 	private SummaryEnum mySummary;
 	private RequestFormatParamStyleEnum myRequestFormatParamStyle = RequestFormatParamStyleEnum.SHORT;
 	private IInterceptorService myInterceptorService;
+	private Executor myAsyncExecutor;
 
 	BaseClient(IHttpClient theClient, String theUrlBase, RestfulClientFactory theFactory) {
 		super();
@@ -190,6 +216,34 @@ public abstract class BaseClient implements IRestfulClient {
 		return myClient;
 	}
 
+	/**
+	 * Returns the executor used by asynchronous requests to handle responses, and to perform requests
+	 * when the HTTP client does not support non-blocking requests
+	 *
+	 * @see #setAsyncExecutor(Executor)
+	 * @since 8.4.0
+	 */
+	@Nonnull
+	public Executor getAsyncExecutor() {
+		Executor retVal = myAsyncExecutor;
+		if (retVal == null) {
+			retVal = DefaultAsyncExecutorHolder.INSTANCE;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Sets the executor used by asynchronous requests (e.g. {@link ca.uhn.fhir.rest.gclient.IClientExecutable#executeAsync()})
+	 * to invoke the {@link Pointcut#CLIENT_RESPONSE} hooks and parse responses, and to perform requests when the HTTP
+	 * client does not support non-blocking requests. If not set (or set to <code>null</code>), a shared pool of at most
+	 * {@value #DEFAULT_ASYNC_EXECUTOR_MAX_THREADS} daemon threads is used.
+	 *
+	 * @since 8.4.0
+	 */
+	public void setAsyncExecutor(Executor theAsyncExecutor) {
+		myAsyncExecutor = theAsyncExecutor;
+	}
+
 	/**
 	 * For now, this is a part of the internal API of HAPI - Use with caution as this method may change!
 	 */
@@ -275,84 +329,275 @@ public abstract class BaseClient implements IRestfulClient {
 		// TODO: handle non 2xx status codes by throwing the correct exception,
 		// and ensure it's passed upwards
 		IHttpRequest httpRequest = null;
-		IHttpResponse response = null;
 		try {
-			Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
-
-			if (clientInvocation instanceof HttpGetClientInvocation) {
-				if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
-					if (theEncoding == EncodingEnum.XML) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
-					} else if (theEncoding == EncodingEnum.JSON) {
-						params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
-					}
-				}
+			httpRequest = createHttpRequest(
+					clientInvocation,
+					theEncoding,
+					thePrettyPrint,
+					theLogRequestAndResponse,
+					theSummaryMode,
+					theSubsetElements,
+					theCacheControlDirective,
+					theCustomAcceptHeader,
+					theCustomHeaders);
+
+			IHttpResponse response = findSubstituteResponse(httpRequest);
+			if (response == null) {
+				response = httpRequest.execute();
 			}
 
-			if (theSummaryMode != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
-			} else if (mySummary != null) {
-				params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
-			}
+			return handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse);
+		} catch (Exception e) {
+			throw translateException(e, httpRequest);
+		}
+	}
+
+	/**
+	 * Asynchronous equivalent of {@link #invokeClient(FhirContext, IClientResponseHandler, BaseHttpClientInvocation, EncodingEnum, Boolean, boolean, SummaryEnum, Set, CacheControlDirective, String, Map)}.
+	 * The request is built and the {@link Pointcut#CLIENT_REQUEST} hooks are invoked on the calling thread. The
+	 * request is then performed using {@link IHttpRequest#executeAsync()}, or using {@link IHttpRequest#execute()}
+	 * on the {@link #getAsyncExecutor() async executor} if the HTTP client does not support non-blocking requests.
+	 * The {@link Pointcut#CLIENT_RESPONSE} hooks are invoked and the response is handled on the async executor.
+	 * The returned future fails with the same exception that the blocking call would have thrown. Cancelling the
+	 * returned future aborts the HTTP request, and a response which arrives afterwards is closed.
+	 *
+	 * @since 8.4.0
+	 */
+	protected <T> CompletableFuture<T> invokeClientAsync(
+			FhirContext theContext,
+			IClientResponseHandler<T> binding,
+			BaseHttpClientInvocation clientInvocation,
+			EncodingEnum theEncoding,
+			Boolean thePrettyPrint,
+			boolean theLogRequestAndResponse,
+			SummaryEnum theSummaryMode,
+			Set<String> theSubsetElements,
+			CacheControlDirective theCacheControlDirective,
+			String theCustomAcceptHeader,
+			Map<String, List<String>> theCustomHeaders) {
 
-			if (thePrettyPrint == Boolean.TRUE) {
-				params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
+		IHttpRequest httpRequest;
+		CompletableFuture<IHttpResponse> responseFuture;
+		try {
+			if (!myDontValidateConformance) {
+				myFactory.validateServerBaseIfConfiguredToDoSo(myUrlBase, myClient, this);
 			}
 
-			if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
-				params.put(
-						Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
+			httpRequest = createHttpRequest(
+					clientInvocation,
+					theEncoding,
+					thePrettyPrint,
+					theLogRequestAndResponse,
+					theSummaryMode,
+					theSubsetElements,
+					theCacheControlDirective,
+					theCustomAcceptHeader,
+					theCustomHeaders);
+
+			IHttpResponse substituteResponse = findSubstituteResponse(httpRequest);
+			if (substituteResponse != null) {
+				responseFuture = CompletableFuture.completedFuture(substituteResponse);
+			} else {
+				responseFuture = httpRequest.executeAsync();
+			}
+			if (responseFuture == null) {
+				responseFuture = executeBlockingRequestAsync(httpRequest);
 			}
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(translateException(e, null));
+		}
 
-			EncodingEnum encoding = getEncoding();
-			if (theEncoding != null) {
-				encoding = theEncoding;
+		CompletableFuture<IHttpResponse> transportFuture = responseFuture;
+		CompletableFuture<T> retVal = new CompletableFuture<>();
+		retVal.whenComplete((theResult, theError) -> {
+			if (retVal.isCancelled()) {
+				// Abort the HTTP request so that its connection is returned to the pool
+				transportFuture.cancel(true);
 			}
+		});
+
+		transportFuture.whenCompleteAsync(
+				(response, error) -> {
+					if (retVal.isDone()) {
+						// The caller has abandoned the request, so nobody will ever consume this response
+						closeQuietly(response);
+						return;
+					}
+					try {
+						if (error != null) {
+							Throwable cause = error instanceof CompletionException && error.getCause() != null
+									? error.getCause()
+									: error;
+							if (!(cause instanceof Exception)) {
+								retVal.completeExceptionally(cause);
+								return;
+							}
+							throw (Exception) cause;
+						}
+						retVal.complete(
+								handleResponse(theContext, binding, httpRequest, response, theLogRequestAndResponse));
+					} catch (Exception e) {
+						retVal.completeExceptionally(translateException(e, httpRequest));
+					}
+				},
+				getAsyncExecutor())
+				.exceptionally(t -> {
+					// Only has an effect if the executor rejected the task above
+					retVal.completeExceptionally(t);
+					return null;
+				});
 
-			httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
+		return retVal;
+	}
 
-			if (isNotBlank(theCustomAcceptHeader)) {
-				httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
-				httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+	/**
+	 * Performs a request on the {@link #getAsyncExecutor() async executor} using the blocking
+	 * {@link IHttpRequest#execute()}. Cancelling the returned future interrupts the request if it
+	 * is in progress, and a response which arrives after the future was cancelled is closed.
+	 */
+	private CompletableFuture<IHttpResponse> executeBlockingRequestAsync(IHttpRequest theHttpRequest) {
+		CompletableFuture<IHttpResponse> retVal = new CompletableFuture<>();
+		FutureTask<Void> task = new FutureTask<>(
+				() -> {
+					try {
+						IHttpResponse response = theHttpRequest.execute();
+						if (!retVal.complete(response)) {
+							closeQuietly(response);
+						}
+					} catch (Throwable t) {
+						retVal.completeExceptionally(t);
+					}
+				},
+				null);
+		retVal.whenComplete((theResult, theError) -> {
+			if (retVal.isCancelled()) {
+				task.cancel(true);
 			}
+		});
+		getAsyncExecutor().execute(task);
+		return retVal;
+	}
 
-			if (theCacheControlDirective != null) {
-				StringBuilder b = new StringBuilder();
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
-				addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
-				if (theCacheControlDirective.getMaxResults() != null) {
-					addToCacheControlHeader(
-							b,
-							Constants.CACHE_CONTROL_MAX_RESULTS + "="
-									+ theCacheControlDirective.getMaxResults().intValue(),
-							true);
-				}
-				if (b.length() > 0) {
-					httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
-				}
+	private static void closeQuietly(IHttpResponse theResponse) {
+		if (theResponse != null) {
+			try {
+				theResponse.close();
+			} catch (RuntimeException e) {
+				ourLog.debug("Failed to close abandoned response", e);
 			}
+		}
+	}
 
-			if (theLogRequestAndResponse) {
-				ourLog.info("Client invoking: {}", httpRequest);
-				String body = httpRequest.getRequestBodyFromStream();
-				if (body != null) {
-					ourLog.info("Client request body: {}", body);
+	private IHttpRequest createHttpRequest(
+			BaseHttpClientInvocation clientInvocation,
+			EncodingEnum theEncoding,
+			Boolean thePrettyPrint,
+			boolean theLogRequestAndResponse,
+			SummaryEnum theSummaryMode,
+			Set<String> theSubsetElements,
+			CacheControlDirective theCacheControlDirective,
+			String theCustomAcceptHeader,
+			Map<String, List<String>> theCustomHeaders)
+			throws IOException {
+		Map<String, List<String>> params = createExtraParams(theCustomAcceptHeader);
+
+		if (clientInvocation instanceof HttpGetClientInvocation) {
+			if (myRequestFormatParamStyle == RequestFormatParamStyleEnum.SHORT && isBlank(theCustomAcceptHeader)) {
+				if (theEncoding == EncodingEnum.XML) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
+				} else if (theEncoding == EncodingEnum.JSON) {
+					params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
 				}
 			}
+		}
+
+		if (theSummaryMode != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(theSummaryMode.getCode()));
+		} else if (mySummary != null) {
+			params.put(Constants.PARAM_SUMMARY, Collections.singletonList(mySummary.getCode()));
+		}
+
+		if (thePrettyPrint == Boolean.TRUE) {
+			params.put(Constants.PARAM_PRETTY, Collections.singletonList(Constants.PARAM_PRETTY_VALUE_TRUE));
+		}
+
+		if (theSubsetElements != null && theSubsetElements.isEmpty() == false) {
+			params.put(Constants.PARAM_ELEMENTS, Collections.singletonList(StringUtils.join(theSubsetElements, ',')));
+		}
+
+		EncodingEnum encoding = getEncoding();
+		if (theEncoding != null) {
+			encoding = theEncoding;
+		}
 
-			if (theCustomHeaders != null) {
-				AdditionalRequestHeadersInterceptor interceptor =
-						new AdditionalRequestHeadersInterceptor(theCustomHeaders);
-				interceptor.interceptRequest(httpRequest);
+		IHttpRequest httpRequest = clientInvocation.asHttpRequest(myUrlBase, params, encoding, thePrettyPrint);
+
+		if (isNotBlank(theCustomAcceptHeader)) {
+			httpRequest.removeHeaders(Constants.HEADER_ACCEPT);
+			httpRequest.addHeader(Constants.HEADER_ACCEPT, theCustomAcceptHeader);
+		}
+
+		if (theCacheControlDirective != null) {
+			StringBuilder b = new StringBuilder();
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_CACHE, theCacheControlDirective.isNoCache());
+			addToCacheControlHeader(b, Constants.CACHE_CONTROL_NO_STORE, theCacheControlDirective.isNoStore());
+			if (theCacheControlDirective.getMaxResults() != null) {
+				addToCacheControlHeader(
+						b,
+						Constants.CACHE_CONTROL_MAX_RESULTS + "="
+								+ theCacheControlDirective.getMaxResults().intValue(),
+						true);
+			}
+			if (b.length() > 0) {
+				httpRequest.addHeader(Constants.HEADER_CACHE_CONTROL, b.toString());
 			}
+		}
 
-			HookParams requestParams = new HookParams();
-			requestParams.add(IHttpRequest.class, httpRequest);
-			requestParams.add(IRestfulClient.class, this);
-			getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
+		if (theLogRequestAndResponse) {
+			ourLog.info("Client invoking: {}", httpRequest);
+			String body = httpRequest.getRequestBodyFromStream();
+			if (body != null) {
+				ourLog.info("Client request body: {}", body);
+			}
+		}
+
+		if (theCustomHeaders != null) {
+			AdditionalRequestHeadersInterceptor interceptor = new AdditionalRequestHeadersInterceptor(theCustomHeaders);
+			interceptor.interceptRequest(httpRequest);
+		}
+
+		HookParams requestParams = new HookParams();
+		requestParams.add(IHttpRequest.class, httpRequest);
+		requestParams.add(IRestfulClient.class, this);
+		getInterceptorService().callHooks(Pointcut.CLIENT_REQUEST, requestParams);
 
-			response = httpRequest.execute();
+		return httpRequest;
+	}
+
+	/**
+	 * Invokes the {@link Pointcut#CLIENT_REQUEST_SUBSTITUTE_RESPONSE} hooks, returning the response supplied by a hook
+	 * or <code>null</code> if the request should be sent
+	 */
+	private IHttpResponse findSubstituteResponse(IHttpRequest theHttpRequest) {
+		if (!getInterceptorService().hasHooks(Pointcut.CLIENT_REQUEST_SUBSTITUTE_RESPONSE)) {
+			return null;
+		}
+		HookParams params = new HookParams();
+		params.add(IHttpRequest.class, theHttpRequest);
+		params.add(IRestfulClient.class, this);
+		return (IHttpResponse)
+				getInterceptorService().callHooksAndReturnObject(Pointcut.CLIENT_REQUEST_SUBSTITUTE_RESPONSE, params);
+	}
 
+	private <T> T handleResponse(
+			FhirContext theContext,
+			IClientResponseHandler<T> binding,
+			IHttpRequest httpRequest,
+			IHttpResponse theResponse,
+			boolean theLogRequestAndResponse)
+			throws IOException {
+		IHttpResponse response = theResponse;
+		try {
 			final Class<? extends IBaseResource> returnType = (binding instanceof ResourceResponseHandler)
 					? ((ResourceResponseHandler<? extends IBaseResource>) binding).getReturnType()
 					: null;
@@ -447,46 +692,32 @@ public abstract class BaseClient implements IRestfulClient {
 
 				return binding.invokeClient(mimeType, inputStreamToReturn, response.getStatus(), headers);
 			}
-
-		} catch (DataFormatException e) {
-			String msg;
-			if (httpRequest != null) {
-				msg = getFhirContext()
-						.getLocalizer()
-						.getMessage(
-								BaseClient.class,
-								"failedToParseResponse",
-								httpRequest.getHttpVerbName(),
-								httpRequest.getUri(),
-								e.toString());
-			} else {
-				msg = getFhirContext()
-						.getLocalizer()
-						.getMessage(BaseClient.class, "failedToParseResponse", "UNKNOWN", "UNKNOWN", e.toString());
-			}
-			throw new FhirClientConnectionException(Msg.code(1359) + msg, e);
-		} catch (IllegalStateException e) {
-			throw new FhirClientConnectionException(Msg.code(1360) + e);
-		} catch (IOException e) {
-			String msg;
-			msg = getFhirContext()
-					.getLocalizer()
-					.getMessage(
-							BaseClient.class,
-							"failedToParseResponse",
-							httpRequest.getHttpVerbName(),
-							httpRequest.getUri(),
-							e.toString());
-			throw new FhirClientConnectionException(Msg.code(1361) + msg, e);
-		} catch (RuntimeException e) {
-			throw e;
-		} catch (Exception e) {
-			throw new FhirClientConnectionException(Msg.code(1362) + e);
 		} finally {
-			if (response != null) {
-				response.close();
-			}
+			response.close();
+		}
+	}
+
+	private RuntimeException translateException(Exception theException, IHttpRequest httpRequest) {
+		if (theException instanceof DataFormatException) {
+			return new FhirClientConnectionException(
+					Msg.code(1359) + createFailedToParseMessage(theException, httpRequest), theException);
+		} else if (theException instanceof IllegalStateException) {
+			return new FhirClientConnectionException(Msg.code(1360) + theException);
+		} else if (theException instanceof IOException) {
+			return new FhirClientConnectionException(
+					Msg.code(1361) + createFailedToParseMessage(theException, httpRequest), theException);
+		} else if (theException instanceof RuntimeException) {
+			return (RuntimeException) theException;
 		}
+		return new FhirClientConnectionException(Msg.code(1362) + theException);
+	}
+
+	private String createFailedToParseMessage(Exception theException, IHttpRequest httpRequest) {
+		String verb = httpRequest != null ? httpRequest.getHttpVerbName() : "UNKNOWN";
+		String uri = httpRequest != null ? httpRequest.getUri() : "UNKNOWN";
+		return getFhirContext()
+				.getLocalizer()
+				.getMessage(BaseClient.class, "failedToParseResponse", verb, uri, theException.toString());
 	}
 
 	private void addToCacheControlHeader(StringBuilder theBuilder, String theDirective, boolean theActive) {
@@ -733,4 +964,24 @@ public abstract class BaseClient implements IRestfulClient {
 		}
 		return preferResponseTypes;
 	}
+
+	private static class DefaultAsyncExecutorHolder {
+		private static final Executor INSTANCE = createDefaultAsyncExecutor();
+
+		private static ThreadPoolExecutor createDefaultAsyncExecutor() {
+			ThreadPoolExecutor retVal = new ThreadPoolExecutor(
+					DEFAULT_ASYNC_EXECUTOR_MAX_THREADS,
+					DEFAULT_ASYNC_EXECUTOR_MAX_THREADS,
+					60,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(DEFAULT_ASYNC_EXECUTOR_QUEUE_CAPACITY),
+					new BasicThreadFactory.Builder()
+							.namingPattern("hapi-fhir-client-async-%d")
+							.daemon(true)
+							.build(),
+					new ThreadPoolExecutor.CallerRunsPolicy());
+			retVal.allowCoreThreadTimeOut(true);
+			return retVal;
+		}
+	}
 }
@@ -0,0 +1,518 @@
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.impl;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.util.BundleBuilder;
+import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.OperationOutcomeUtil;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.substringAfter;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+
+/**
+ * Collects individual read, create and update requests and sends them to the server together as a
+ * single <code>batch</code> Bundle using {@link IGenericClient#transaction()}. This reduces the number
+ * of round trips when client code issues many small requests, e.g. reading a list of resources one
+ * ID at a time.
+ * <p>
+ * Requests are held until {@link #setMaxBatchSize(int) max batch size} requests are waiting, or
+ * until {@link #setMaxDelayMillis(long) max delay} has elapsed since the first of them was
+ * submitted, whichever comes first. Each request returns a future which is completed from the
+ * matching entry in the <code>batch-response</code>. An entry with an error status fails its
+ * future with the same {@link BaseServerResponseException} subclass that the individual call
+ * would have thrown, and does not affect the other entries. A batch containing a single
+ * request is sent as an ordinary request.
+ * </p>
+ * <p>
+ * The server must support batch processing. Note that unlike a <code>transaction</code>, the
+ * entries in a batch are processed independently, so a batch must not contain requests which
+ * depend on each other.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public class ClientRequestBatcher implements AutoCloseable {
+
+	public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+	public static final long DEFAULT_MAX_DELAY_MILLIS = 10;
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ClientRequestBatcher.class);
+
+	private final IGenericClient myClient;
+	private final FhirContext myContext;
+	private final FhirTerser myTerser;
+	private final ScheduledExecutorService myScheduler;
+	private final boolean myShutdownSchedulerOnClose;
+	private final Object myLock = new Object();
+	private final AtomicLong myBatchCount = new AtomicLong();
+	private List<BatchEntry<?>> myPendingEntries = new ArrayList<>();
+	private ScheduledFuture<?> myScheduledFlush;
+	private int myMaxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	private long myMaxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+	private boolean myClosed;
+
+	/**
+	 * Constructor which uses a dedicated daemon thread to send batches when the delay expires
+	 *
+	 * @param theClient The client used to send requests
+	 */
+	public ClientRequestBatcher(IGenericClient theClient) {
+		this(
+				theClient,
+				Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder()
+						.namingPattern("hapi-fhir-client-batcher-%d")
+						.daemon(true)
+						.build()),
+				true);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theClient    The client used to send requests
+	 * @param theScheduler The scheduler used to send batches when the delay expires. This scheduler is not
+	 *                     shut down by {@link #close()}.
+	 */
+	public ClientRequestBatcher(IGenericClient theClient, ScheduledExecutorService theScheduler) {
+		this(theClient, theScheduler, false);
+	}
+
+	private ClientRequestBatcher(
+			IGenericClient theClient, ScheduledExecutorService theScheduler, boolean theShutdownSchedulerOnClose) {
+		Validate.notNull(theClient, "theClient must not be null");
+		Validate.notNull(theScheduler, "theScheduler must not be null");
+		myClient = theClient;
+		myContext = theClient.getFhirContext();
+		myTerser = myContext.newTerser();
+		myScheduler = theScheduler;
+		myShutdownSchedulerOnClose = theShutdownSchedulerOnClose;
+	}
+
+	public int getMaxBatchSize() {
+		return myMaxBatchSize;
+	}
+
+	/**
+	 * Sets the number of waiting requests which causes a batch to be sent immediately.
+	 * Defaults to {@value #DEFAULT_MAX_BATCH_SIZE}.
+	 */
+	public ClientRequestBatcher setMaxBatchSize(int theMaxBatchSize) {
+		Validate.isTrue(theMaxBatchSize > 0, "theMaxBatchSize must be greater than 0");
+		myMaxBatchSize = theMaxBatchSize;
+		return this;
+	}
+
+	public long getMaxDelayMillis() {
+		return myMaxDelayMillis;
+	}
+
+	/**
+	 * Sets the maximum time that a request waits for other requests to join its batch.
+	 * Defaults to {@value #DEFAULT_MAX_DELAY_MILLIS}.
+	 */
+	public ClientRequestBatcher setMaxDelayMillis(long theMaxDelayMillis) {
+		Validate.isTrue(theMaxDelayMillis >= 0, "theMaxDelayMillis must not be negative");
+		myMaxDelayMillis = theMaxDelayMillis;
+		return this;
+	}
+
+	/**
+	 * Returns the number of requests (batches and individually sent requests) sent to the server so far
+	 */
+	public long getBatchCount() {
+		return myBatchCount.get();
+	}
+
+	/**
+	 * Reads a resource
+	 *
+	 * @param theType The resource type
+	 * @param theId   The resource ID, e.g. <code>123</code> or <code>Patient/123</code>. If the ID contains a
+	 *                version, the given version is read.
+	 */
+	public <T extends IBaseResource> CompletableFuture<T> read(Class<T> theType, String theId) {
+		Validate.notBlank(theId, "theId must not be blank");
+		IdDt id = new IdDt(theId);
+		return read(theType, new IdDt(myContext.getResourceType(theType), id.getIdPart(), id.getVersionIdPart()));
+	}
+
+	/**
+	 * Reads a resource
+	 *
+	 * @param theType The resource type
+	 * @param theId   The resource ID. If the ID contains a version, the given version is read.
+	 */
+	public <T extends IBaseResource> CompletableFuture<T> read(Class<T> theType, IIdType theId) {
+		Validate.notNull(theType, "theType must not be null");
+		Validate.isTrue(theId != null && theId.hasIdPart(), "theId must contain an ID part");
+		IIdType id = new IdDt(myContext.getResourceType(theType), theId.getIdPart(), theId.getVersionIdPart());
+		return submit(new ReadEntry<>(theType, id));
+	}
+
+	/**
+	 * Creates a resource
+	 */
+	public CompletableFuture<MethodOutcome> create(IBaseResource theResource) {
+		Validate.notNull(theResource, "theResource must not be null");
+		return submit(new CreateEntry(theResource));
+	}
+
+	/**
+	 * Updates a resource. The resource must have an ID.
+	 */
+	public CompletableFuture<MethodOutcome> update(IBaseResource theResource) {
+		Validate.notNull(theResource, "theResource must not be null");
+		if (!theResource.getIdElement().hasIdPart()) {
+			throw new InvalidRequestException(
+					Msg.code(2791) + "No ID supplied for resource to update, can not invoke server");
+		}
+		return submit(new UpdateEntry(theResource));
+	}
+
+	/**
+	 * Sends any waiting requests immediately
+	 */
+	public void flush() {
+		List<BatchEntry<?>> entries;
+		synchronized (myLock) {
+			entries = takePendingEntries();
+		}
+		send(entries);
+	}
+
+	/**
+	 * Sends any waiting requests, and rejects any further requests
+	 */
+	@Override
+	public void close() {
+		synchronized (myLock) {
+			myClosed = true;
+		}
+		flush();
+		if (myShutdownSchedulerOnClose) {
+			myScheduler.shutdown();
+		}
+	}
+
+	private <T> CompletableFuture<T> submit(BatchEntry<T> theEntry) {
+		List<BatchEntry<?>> toSend = null;
+		synchronized (myLock) {
+			if (myClosed) {
+				throw new IllegalStateException(Msg.code(2792) + "This batcher has been closed");
+			}
+			myPendingEntries.add(theEntry);
+			if (myPendingEntries.size() >= myMaxBatchSize) {
+				toSend = takePendingEntries();
+			} else if (myScheduledFlush == null) {
+				myScheduledFlush = myScheduler.schedule(this::flush, myMaxDelayMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+		if (toSend != null) {
+			send(toSend);
+		}
+		return theEntry.getFuture();
+	}
+
+	private List<BatchEntry<?>> takePendingEntries() {
+		if (myScheduledFlush != null) {
+			myScheduledFlush.cancel(false);
+			myScheduledFlush = null;
+		}
+		List<BatchEntry<?>> retVal = myPendingEntries;
+		myPendingEntries = new ArrayList<>();
+		return retVal;
+	}
+
+	private void send(List<BatchEntry<?>> theEntries) {
+		if (theEntries.isEmpty()) {
+			return;
+		}
+		myBatchCount.incrementAndGet();
+
+		if (theEntries.size() == 1) {
+			BatchEntry<?> entry = theEntries.get(0);
+			try {
+				entry.executeIndividually();
+			} catch (RuntimeException e) {
+				entry.getFuture().completeExceptionally(e);
+			}
+			return;
+		}
+
+		CompletableFuture<IBaseBundle> response;
+		try {
+			BundleBuilder builder = new BundleBuilder(myContext);
+			builder.setType("batch");
+			for (BatchEntry<?> next : theEntries) {
+				next.addToBundle(builder);
+			}
+			ourLog.debug("Sending batch of {} requests", theEntries.size());
+			response = myClient.transaction().withBundle(builder.getBundle()).executeAsync();
+		} catch (RuntimeException e) {
+			response = CompletableFuture.failedFuture(e);
+		}
+
+		response.whenComplete((theResponse, theError) -> {
+			if (theError != null) {
+				Throwable cause = theError instanceof CompletionException && theError.getCause() != null
+						? theError.getCause()
+						: theError;
+				theEntries.forEach(t -> t.getFuture().completeExceptionally(cause));
+				return;
+			}
+			completeFromResponse(theEntries, theResponse);
+		});
+	}
+
+	private void completeFromResponse(List<BatchEntry<?>> theEntries, IBaseBundle theResponse) {
+		List<IBase> responseEntries = myTerser.getValues(theResponse, "Bundle.entry");
+		if (responseEntries.size() != theEntries.size()) {
+			FhirClientConnectionException e = new FhirClientConnectionException(Msg.code(2793) + "Batch response has "
+					+ responseEntries.size() + " entries but " + theEntries.size() + " were expected");
+			theEntries.forEach(t -> t.getFuture().completeExceptionally(e));
+			return;
+		}
+
+		for (int i = 0; i < theEntries.size(); i++) {
+			BatchEntry<?> entry = theEntries.get(i);
+			try {
+				entry.complete(responseEntries.get(i));
+			} catch (RuntimeException e) {
+				entry.getFuture().completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Extracts the status code from <code>Bundle.entry.response.status</code>, and
+	 * throws the exception matching the status if it does not indicate success
+	 */
+	private int checkStatus(IBase theResponseEntry) {
+		String status = myTerser.getSinglePrimitiveValueOrNull(theResponseEntry, "response.status");
+		if (isBlank(status)) {
+			throw new FhirClientConnectionException(Msg.code(2794) + "Batch response entry has no status");
+		}
+		int statusCode;
+		try {
+			statusCode = Integer.parseInt(substringBefore(status.trim(), " "));
+		} catch (NumberFormatException e) {
+			throw new FhirClientConnectionException(
+					Msg.code(2795) + "Batch response entry has an invalid status: " + status);
+		}
+
+		if (statusCode < 200 || statusCode > 299) {
+			IBaseOperationOutcome outcome = getOutcome(theResponseEntry);
+			String message = "HTTP " + statusCode + " " + substringAfter(status.trim(), " ");
+			if (outcome != null) {
+				String details = OperationOutcomeUtil.getFirstIssueDiagnostics(myContext, outcome);
+				if (isNotBlank(details)) {
+					message = message + ": " + details;
+				}
+			}
+			BaseServerResponseException exception = BaseServerResponseException.newInstance(statusCode, message);
+			exception.setOperationOutcome(outcome);
+			throw exception;
+		}
+
+		return statusCode;
+	}
+
+	private IBaseOperationOutcome getOutcome(IBase theResponseEntry) {
+		IBaseResource outcome =
+				myTerser.getSingleValueOrNull(theResponseEntry, "response.outcome", IBaseResource.class);
+		if (outcome == null) {
+			// Some servers place the OperationOutcome in the entry resource instead
+			outcome = myTerser.getSingleValueOrNull(theResponseEntry, "resource", IBaseResource.class);
+		}
+		return outcome instanceof IBaseOperationOutcome ? (IBaseOperationOutcome) outcome : null;
+	}
+
+	private abstract static class BatchEntry<T> {
+
+		private final CompletableFuture<T> myFuture = new CompletableFuture<>();
+
+		CompletableFuture<T> getFuture() {
+			return myFuture;
+		}
+
+		abstract void addToBundle(BundleBuilder theBuilder);
+
+		/**
+		 * Completes the future from the matching entry in the batch response
+		 */
+		abstract void complete(IBase theResponseEntry);
+
+		/**
+		 * Sends this request on its own, completing the future with the result
+		 */
+		abstract void executeIndividually();
+
+		void completeFrom(CompletableFuture<T> theFuture) {
+			theFuture.whenComplete((theResult, theError) -> {
+				if (theError != null) {
+					myFuture.completeExceptionally(
+							theError instanceof CompletionException && theError.getCause() != null
+									? theError.getCause()
+									: theError);
+				} else {
+					myFuture.complete(theResult);
+				}
+			});
+		}
+	}
+
+	private class ReadEntry<T extends IBaseResource> extends BatchEntry<T> {
+
+		private final Class<T> myType;
+		private final IIdType myId;
+
+		ReadEntry(Class<T> theType, IIdType theId) {
+			myType = theType;
+			myId = theId;
+		}
+
+		@Override
+		void addToBundle(BundleBuilder theBuilder) {
+			IBase request = theBuilder.addEntryAndReturnRequest();
+			myTerser.setElement(request, "method", "GET");
+			myTerser.setElement(request, "url", myId.toUnqualified().getValue());
+		}
+
+		@Override
+		void complete(IBase theResponseEntry) {
+			checkStatus(theResponseEntry);
+			IBaseResource resource = myTerser.getSingleValueOrNull(theResponseEntry, "resource", IBaseResource.class);
+			if (resource != null && !myType.isInstance(resource)) {
+				throw new FhirClientConnectionException(Msg.code(2796) + "Batch response entry for " + myId.getValue()
+						+ " contains a " + myContext.getResourceType(resource) + " resource");
+			}
+			getFuture().complete(myType.cast(resource));
+		}
+
+		@Override
+		void executeIndividually() {
+			completeFrom(myClient.read().resource(myType).withUrl(myId).executeAsync());
+		}
+	}
+
+	private abstract class BaseOutcomeEntry extends BatchEntry<MethodOutcome> {
+
+		@Override
+		void complete(IBase theResponseEntry) {
+			int statusCode = checkStatus(theResponseEntry);
+			MethodOutcome retVal = new MethodOutcome();
+			retVal.setCreatedUsingStatusCode(statusCode);
+			retVal.setResponseStatusCode(statusCode);
+
+			Map<String, List<String>> headers = new HashMap<>();
+			String location = myTerser.getSinglePrimitiveValueOrNull(theResponseEntry, "response.location");
+			if (isNotBlank(location)) {
+				IIdType id = new IdDt(location);
+				if (!id.hasBaseUrl()) {
+					id = id.withServerBase(myClient.getServerBase(), id.getResourceType());
+				}
+				retVal.setId(id);
+				headers.put(Constants.HEADER_LOCATION_LC, Collections.singletonList(location));
+			}
+			String etag = myTerser.getSinglePrimitiveValueOrNull(theResponseEntry, "response.etag");
+			if (isNotBlank(etag)) {
+				headers.put(Constants.HEADER_ETAG_LC, Collections.singletonList(etag));
+			}
+			retVal.setResponseHeaders(headers);
+
+			IBaseResource resource = myTerser.getSingleValueOrNull(theResponseEntry, "resource", IBaseResource.class);
+			if (resource instanceof IBaseOperationOutcome) {
+				retVal.setOperationOutcome((IBaseOperationOutcome) resource);
+			} else {
+				retVal.setResource(resource);
+				retVal.setOperationOutcome(getOutcome(theResponseEntry));
+			}
+			getFuture().complete(retVal);
+		}
+	}
+
+	private class CreateEntry extends BaseOutcomeEntry {
+
+		private final IBaseResource myResource;
+
+		CreateEntry(IBaseResource theResource) {
+			myResource = theResource;
+		}
+
+		@Override
+		void addToBundle(BundleBuilder theBuilder) {
+			theBuilder.addTransactionCreateEntry(myResource);
+		}
+
+		@Override
+		void executeIndividually() {
+			completeFrom(myClient.create().resource(myResource).executeAsync());
+		}
+	}
+
+	private class UpdateEntry extends BaseOutcomeEntry {
+
+		private final IBaseResource myResource;
+
+		UpdateEntry(IBaseResource theResource) {
+			myResource = theResource;
+		}
+
+		@Override
+		void addToBundle(BundleBuilder theBuilder) {
+			theBuilder.addTransactionUpdateEntry(myResource);
+		}
+
+		@Override
+		void executeIndividually() {
+			completeFrom(myClient.update().resource(myResource).executeAsync());
+		}
+	}
+}
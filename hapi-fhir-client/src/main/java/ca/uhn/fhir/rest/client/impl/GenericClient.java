@@ -164,6 +164,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -220,6 +224,33 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			Set<String> theSubsetElements,
 			String theCustomAcceptHeaderValue,
 			Map<String, List<String>> theCustomHeaders) {
+		return prepareReadOrVRead(
+						theType,
+						theId,
+						theVRead,
+						theNotModifiedHandler,
+						theIfVersionMatches,
+						thePrettyPrint,
+						theSummary,
+						theEncoding,
+						theSubsetElements,
+						theCustomAcceptHeaderValue,
+						theCustomHeaders)
+				.invoke();
+	}
+
+	private <T extends IBaseResource> PreparedInvocation<T> prepareReadOrVRead(
+			final Class<T> theType,
+			IIdType theId,
+			boolean theVRead,
+			ICallable<T> theNotModifiedHandler,
+			String theIfVersionMatches,
+			Boolean thePrettyPrint,
+			SummaryEnum theSummary,
+			EncodingEnum theEncoding,
+			Set<String> theSubsetElements,
+			String theCustomAcceptHeaderValue,
+			Map<String, List<String>> theCustomHeaders) {
 		String resName = toResourceName(theType);
 		IIdType id = theId;
 		if (!id.hasBaseUrl()) {
@@ -253,36 +284,18 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		ResourceResponseHandler<T> binding =
 				new ResourceResponseHandler<>(theType, (Class<? extends IBaseResource>) null, id, allowHtmlResponse);
 
-		if (theNotModifiedHandler == null) {
-			return invokeClient(
-					myContext,
-					binding,
-					invocation,
-					theEncoding,
-					thePrettyPrint,
-					myLogRequestAndResponse,
-					theSummary,
-					theSubsetElements,
-					null,
-					theCustomAcceptHeaderValue,
-					theCustomHeaders);
-		}
-		try {
-			return invokeClient(
-					myContext,
-					binding,
-					invocation,
-					theEncoding,
-					thePrettyPrint,
-					myLogRequestAndResponse,
-					theSummary,
-					theSubsetElements,
-					null,
-					theCustomAcceptHeaderValue,
-					theCustomHeaders);
-		} catch (NotModifiedException e) {
-			return theNotModifiedHandler.call();
-		}
+		return new PreparedInvocation<>(
+						binding,
+						invocation,
+						theEncoding,
+						thePrettyPrint,
+						myLogRequestAndResponse,
+						theSummary,
+						theSubsetElements,
+						null,
+						theCustomAcceptHeaderValue,
+						theCustomHeaders)
+				.onNotModified(theNotModifiedHandler);
 	}
 
 	@Override
@@ -470,6 +483,123 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		GET
 	}
 
+	/**
+	 * A fully built request which has not yet been performed. It can be performed either
+	 * synchronously or asynchronously, and in both cases the same response handling is applied.
+	 */
+	private final class PreparedInvocation<Y> {
+
+		private final Supplier<Y> mySynchronousInvoker;
+		private final Supplier<CompletableFuture<Y>> myAsynchronousInvoker;
+
+		PreparedInvocation(
+				IClientResponseHandler<Y> theHandler,
+				BaseHttpClientInvocation theInvocation,
+				EncodingEnum theEncoding,
+				Boolean thePrettyPrint,
+				boolean theLogRequestAndResponse,
+				SummaryEnum theSummaryMode,
+				Set<String> theSubsetElements,
+				CacheControlDirective theCacheControlDirective,
+				String theCustomAcceptHeader,
+				Map<String, List<String>> theCustomHeaders) {
+			this(
+					() -> invokeClient(
+							myContext,
+							theHandler,
+							theInvocation,
+							theEncoding,
+							thePrettyPrint,
+							theLogRequestAndResponse,
+							theSummaryMode,
+							theSubsetElements,
+							theCacheControlDirective,
+							theCustomAcceptHeader,
+							theCustomHeaders),
+					() -> invokeClientAsync(
+							myContext,
+							theHandler,
+							theInvocation,
+							theEncoding,
+							thePrettyPrint,
+							theLogRequestAndResponse,
+							theSummaryMode,
+							theSubsetElements,
+							theCacheControlDirective,
+							theCustomAcceptHeader,
+							theCustomHeaders));
+		}
+
+		private PreparedInvocation(
+				Supplier<Y> theSynchronousInvoker, Supplier<CompletableFuture<Y>> theAsynchronousInvoker) {
+			mySynchronousInvoker = theSynchronousInvoker;
+			myAsynchronousInvoker = theAsynchronousInvoker;
+		}
+
+		Y invoke() {
+			return mySynchronousInvoker.get();
+		}
+
+		CompletableFuture<Y> invokeAsync() {
+			return myAsynchronousInvoker.get();
+		}
+
+		/**
+		 * Returns an invocation which applies the given function to the response
+		 */
+		<W> PreparedInvocation<W> map(Function<Y, W> theMapper) {
+			return new PreparedInvocation<>(() -> theMapper.apply(invoke()), () -> {
+				CompletableFuture<Y> source = invokeAsync();
+				return propagateCancellation(source, source.thenApply(theMapper));
+			});
+		}
+
+		/**
+		 * Returns an invocation which uses the given handler to provide the result if the
+		 * server responds with <code>304 Not Modified</code>
+		 */
+		PreparedInvocation<Y> onNotModified(ICallable<Y> theNotModifiedHandler) {
+			if (theNotModifiedHandler == null) {
+				return this;
+			}
+			return new PreparedInvocation<>(
+					() -> {
+						try {
+							return invoke();
+						} catch (NotModifiedException e) {
+							return theNotModifiedHandler.call();
+						}
+					},
+					() -> {
+						CompletableFuture<Y> source = invokeAsync();
+						return propagateCancellation(source, source.exceptionally(t -> {
+							Throwable cause =
+									t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+							if (cause instanceof NotModifiedException) {
+								return theNotModifiedHandler.call();
+							}
+							throw t instanceof CompletionException
+									? (CompletionException) t
+									: new CompletionException(t);
+						}));
+					});
+		}
+
+		/**
+		 * Dependent futures do not cancel the future they depend on, so this is needed in
+		 * order for cancelling the future returned to the caller to abort the HTTP request
+		 */
+		private <W> CompletableFuture<W> propagateCancellation(
+				CompletableFuture<?> theSource, CompletableFuture<W> theDependent) {
+			theDependent.whenComplete((theResult, theError) -> {
+				if (theDependent.isCancelled()) {
+					theSource.cancel(true);
+				}
+			});
+			return theDependent;
+		}
+	}
+
 	private abstract class BaseClientExecutable<T extends IClientExecutable<?, Y>, Y>
 			implements IClientExecutable<T, Y> {
 
@@ -573,7 +703,29 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return mySubsetElements;
 		}
 
-		protected <Z> Z invoke(
+		@Override
+		public Y execute() {
+			return prepareInvocation().invoke();
+		}
+
+		@Override
+		public CompletableFuture<Y> executeAsync() {
+			PreparedInvocation<Y> invocation;
+			try {
+				invocation = prepareInvocation();
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+			return invocation.invokeAsync();
+		}
+
+		/**
+		 * Builds the request without performing it. This is shared by {@link #execute()}
+		 * and {@link #executeAsync()} so that both behave identically.
+		 */
+		protected abstract PreparedInvocation<Y> prepareInvocation();
+
+		protected <Z> PreparedInvocation<Z> prepare(
 				Map<String, List<String>> theParams,
 				IClientResponseHandler<Z> theHandler,
 				BaseHttpClientInvocation theInvocation) {
@@ -581,8 +733,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				myLastRequest = theInvocation.asHttpRequest(getServerBase(), theParams, getEncoding(), myPrettyPrint);
 			}
 
-			return invokeClient(
-					myContext,
+			return new PreparedInvocation<>(
 					theHandler,
 					theInvocation,
 					myParamEncoding,
@@ -721,7 +872,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 
 		@Override
-		public MethodOutcome execute() {
+		protected PreparedInvocation<MethodOutcome> prepareInvocation() {
 			if (myResource == null) {
 				myResource = parseResourceBody(myResourceBody);
 			}
@@ -745,7 +896,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			OutcomeResponseHandler binding = new OutcomeResponseHandler(myPrefer);
 
 			Map<String, List<String>> params = new HashMap<>();
-			return invoke(params, binding, invocation);
+			return prepare(params, binding, invocation);
 		}
 
 		@Override
@@ -779,7 +930,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private DeleteCascadeModeEnum myCascadeMode;
 
 		@Override
-		public MethodOutcome execute() {
+		protected PreparedInvocation<MethodOutcome> prepareInvocation() {
 
 			Map<String, List<String>> additionalParams = new HashMap<>();
 			if (myCascadeMode != null) {
@@ -805,7 +956,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 			OutcomeResponseHandler binding = new OutcomeResponseHandler();
 
-			return invoke(additionalParams, binding, invocation);
+			return prepare(additionalParams, binding, invocation);
 		}
 
 		@Override
@@ -887,11 +1038,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private RuntimeResourceDefinition myType;
 
 		@Override
-		public Object execute() {
+		protected PreparedInvocation prepareInvocation() {
 			ResourceResponseHandler binding = new ResourceResponseHandler(myType.getImplementingClass());
 			FhirContext fhirContext = getFhirContext();
 			HttpGetClientInvocation invocation = MethodUtil.createConformanceInvocation(fhirContext);
-			return super.invoke(null, binding, invocation);
+			return prepare(null, binding, invocation);
 		}
 
 		@Override
@@ -921,11 +1072,11 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 
 		@Override
-		public Object execute() {
+		protected PreparedInvocation<Object> prepareInvocation() {
 			IClientResponseHandler binding = new ResourceResponseHandler(myBundleType, getPreferResponseTypes());
 			HttpSimpleClientInvocation invocationGet =
 					new HttpSimpleClientInvocation(myContext, myUrl, myPagingHttpMethod);
-			return invoke(null, binding, invocationGet);
+			return prepare(null, binding, invocationGet);
 		}
 
 		@Override
@@ -979,7 +1130,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		@SuppressWarnings("unchecked")
 		@Override
-		public Object execute() {
+		protected PreparedInvocation prepareInvocation() {
 			String resourceName;
 			String id;
 			if (myType != null) {
@@ -999,7 +1150,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			IClientResponseHandler handler;
 			handler = new ResourceResponseHandler(myReturnType, getPreferResponseTypes(myType));
 
-			return invoke(null, handler, invocation);
+			return prepare(null, handler, invocation);
 		}
 
 		@Override
@@ -1148,7 +1299,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		@SuppressWarnings("unchecked")
 		@Override
-		public Object execute() {
+		protected PreparedInvocation prepareInvocation() {
 
 			BaseHttpClientInvocation invocation = null;
 
@@ -1191,7 +1342,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 			IClientResponseHandler handler;
 			handler = new MetaParametersResponseHandler(myMetaType);
-			return invoke(null, handler, invocation);
+			return prepare(null, handler, invocation);
 		}
 
 		@Override
@@ -1378,7 +1529,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		@SuppressWarnings("unchecked")
 		@Override
-		public Object execute() {
+		protected PreparedInvocation prepareInvocation() {
 			if (myOperationName != null
 					&& myOperationName.equals(Constants.EXTOP_PROCESS_MESSAGE)
 					&& myMsgBundle != null) {
@@ -1399,7 +1550,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				ResourceResponseHandler handler = new ResourceResponseHandler();
 				handler.setPreferResponseTypes(getPreferResponseTypes(myType));
 
-				return invoke(null, handler, invocation);
+				return prepare(null, handler, invocation);
 			}
 
 			String resourceName;
@@ -1438,19 +1589,19 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				} else {
 					handler = new ResourceResponseHandler(myReturnResourceType);
 				}
-				return invoke(null, handler, invocation);
+				return prepare(null, handler, invocation);
 			}
 			IClientResponseHandler handler =
 					new ResourceOrBinaryResponseHandler().setPreferResponseTypes(getPreferResponseTypes(myType));
 
 			if (myReturnMethodOutcome) {
 				handler = new MethodOutcomeResponseHandler(handler);
+				return prepare(null, handler, invocation);
 			}
-			Object retVal = invoke(null, handler, invocation);
-			if (myReturnMethodOutcome) {
-				return retVal;
-			}
+			return prepare(null, handler, invocation).map(this::wrapInParametersIfNeeded);
+		}
 
+		private Object wrapInParametersIfNeeded(Object retVal) {
 			if (myContext
 					.getResourceDefinition((IBaseResource) retVal)
 					.getName()
@@ -1472,9 +1623,9 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return parameters;
 		}
 
-		private StringOutcome handleForStringOutcome(BaseHttpClientInvocation theInvocation) {
+		private PreparedInvocation<StringOutcome> handleForStringOutcome(BaseHttpClientInvocation theInvocation) {
 			IClientResponseHandler handler = new StringOutcomeResponseHandler();
-			return (StringOutcome) invoke(null, handler, theInvocation);
+			return prepare(null, handler, theInvocation);
 		}
 
 		@Override
@@ -1765,7 +1916,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 
 		@Override
-		public MethodOutcome execute() {
+		protected PreparedInvocation<MethodOutcome> prepareInvocation() {
 
 			if (myPatchType == null) {
 				throw new InvalidRequestException(Msg.code(1383) + "No patch type supplied, cannot invoke server");
@@ -1793,7 +1944,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			OutcomeResponseHandler binding = new OutcomeResponseHandler(myPrefer);
 
 			Map<String, List<String>> params = new HashMap<>();
-			return invoke(params, binding, invocation);
+			return prepare(params, binding, invocation);
 		}
 
 		@Override
@@ -1864,9 +2015,9 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private RuntimeResourceDefinition myType;
 
 		@Override
-		public Object execute() { // AAA
+		protected PreparedInvocation prepareInvocation() {
 			if (myId.hasVersionIdPart()) {
-				return doReadOrVRead(
+				return prepareReadOrVRead(
 						myType.getImplementingClass(),
 						myId,
 						true,
@@ -1879,7 +2030,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 						getCustomAcceptHeaderValue(),
 						myCustomHeaderValues);
 			}
-			return doReadOrVRead(
+			return prepareReadOrVRead(
 					myType.getImplementingClass(),
 					myId,
 					false,
@@ -2103,8 +2254,9 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			return this;
 		}
 
+		@SuppressWarnings({"unchecked", "rawtypes"})
 		@Override
-		public OUTPUT execute() {
+		protected PreparedInvocation<OUTPUT> prepareInvocation() {
 
 			Map<String, List<String>> params = getParamMap();
 
@@ -2206,7 +2358,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 						myContext, myResourceName, params, resourceId, myCompartmentName, mySearchStyle);
 			}
 
-			return (OUTPUT) invoke(params, binding, invocation);
+			return (PreparedInvocation) prepare(params, binding, invocation);
 		}
 
 		@Override
@@ -2390,19 +2542,19 @@ public class GenericClient extends BaseClient implements IGenericClient {
 
 		@SuppressWarnings({"unchecked", "rawtypes"})
 		@Override
-		public T execute() {
+		protected PreparedInvocation<T> prepareInvocation() {
 			Map<String, List<String>> params = new HashMap<>();
 			if (myResources != null) {
 				ResourceListResponseHandler binding = new ResourceListResponseHandler();
 				BaseHttpClientInvocation invocation =
 						TransactionMethodBinding.createTransactionInvocation(myResources, myContext);
-				return (T) invoke(params, binding, invocation);
+				return (PreparedInvocation) prepare(params, binding, invocation);
 			} else if (myBaseBundle != null) {
 				ResourceResponseHandler binding =
 						new ResourceResponseHandler(myBaseBundle.getClass(), getPreferResponseTypes());
 				BaseHttpClientInvocation invocation =
 						TransactionMethodBinding.createTransactionInvocation(myBaseBundle, myContext);
-				return (T) invoke(params, binding, invocation);
+				return (PreparedInvocation) prepare(params, binding, invocation);
 				// } else if (myRawBundle != null) {
 			} else {
 				StringResponseHandler binding = new StringResponseHandler();
@@ -2418,7 +2570,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 				}
 				BaseHttpClientInvocation invocation =
 						TransactionMethodBinding.createTransactionInvocation(myRawBundle, myContext);
-				return (T) invoke(params, binding, invocation);
+				return (PreparedInvocation) prepare(params, binding, invocation);
 			}
 		}
 	}
@@ -2489,7 +2641,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		}
 
 		@Override
-		public MethodOutcome execute() {
+		protected PreparedInvocation<MethodOutcome> prepareInvocation() {
 			if (myResource == null) {
 				myResource = parseResourceBody(myResourceBody);
 			}
@@ -2532,7 +2684,7 @@ public class GenericClient extends BaseClient implements IGenericClient {
 			OutcomeResponseHandler binding = new OutcomeResponseHandler(myPrefer);
 
 			Map<String, List<String>> params = new HashMap<>();
-			return invoke(params, binding, invocation);
+			return prepare(params, binding, invocation);
 		}
 
 		@Override
@@ -2587,12 +2739,12 @@ public class GenericClient extends BaseClient implements IGenericClient {
 		private IBaseResource myResource;
 
 		@Override
-		public MethodOutcome execute() {
+		protected PreparedInvocation<MethodOutcome> prepareInvocation() {
 			BaseHttpClientInvocation invocation =
 					ValidateMethodBindingDstu2Plus.createValidateInvocation(myContext, myResource);
 			ResourceResponseHandler<BaseOperationOutcome> handler = new ResourceResponseHandler<>(null, null);
 			MethodOutcomeResponseHandler methodHandler = new MethodOutcomeResponseHandler(handler);
-			return invoke(null, methodHandler, invocation);
+			return prepare(null, methodHandler, invocation);
 		}
 
 		@Override
@@ -0,0 +1,589 @@
+/*
+ * #%L
+ * HAPI FHIR - Client Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.client.interceptor;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.client.api.ClientResponseContext;
+import ca.uhn.fhir.rest.client.api.IHttpRequest;
+import ca.uhn.fhir.rest.client.api.IHttpResponse;
+import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import ca.uhn.fhir.rest.client.impl.BaseHttpResponse;
+import ca.uhn.fhir.util.StopWatch;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.trim;
+
+/**
+ * Client interceptor which keeps a private HTTP cache of successful <code>GET</code> responses, so that
+ * repeatedly reading the same resources (e.g. conformance resources, ValueSets or Practitioners) does not
+ * transfer them again each time.
+ * <p>
+ * Responses are stored as raw bytes, keyed by the request URL together with the <code>Accept</code> and
+ * <code>Authorization</code> request headers, and are parsed again each time they are used so that callers
+ * never share a resource instance. The cache follows the usual HTTP rules:
+ * </p>
+ * <ul>
+ * <li>A response is used without contacting the server while it is fresh according to its
+ * <code>Cache-Control: max-age</code> directive.</li>
+ * <li>A stale response which has an <code>ETag</code> or <code>Last-Modified</code> header is revalidated
+ * using <code>If-None-Match</code> / <code>If-Modified-Since</code>, and an <code>HTTP 304 Not Modified</code>
+ * response is answered from the cache.</li>
+ * <li>Responses marked <code>Cache-Control: no-store</code> are never stored, and requests marked
+ * <code>no-cache</code> (e.g. using {@link ca.uhn.fhir.rest.gclient.IClientExecutable#cacheControl(ca.uhn.fhir.rest.api.CacheControlDirective)})
+ * are always revalidated.</li>
+ * <li>A successful non-<code>GET</code> request removes any stored responses for the URL it was sent to and
+ * for any URL beneath it.</li>
+ * <li>Requests which already carry their own conditional headers (e.g. a read using
+ * {@link ca.uhn.fhir.rest.gclient.IRead ifVersionMatches}) are not answered from the cache.</li>
+ * </ul>
+ * <p>
+ * The cache holds at most {@link #setMaxEntries(int) a fixed number} of responses, evicting the least recently
+ * used response when it is full. Responses larger than {@link #setMaxEntrySizeBytes(int) the maximum entry size}
+ * are not stored.
+ * </p>
+ * <p>
+ * This interceptor is thread safe and may be shared between clients, although only clients talking to servers
+ * that return the same content for the same URL should share an instance.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+@Interceptor
+public class HttpCachingInterceptor {
+
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+	public static final int DEFAULT_MAX_ENTRY_SIZE_BYTES = 1024 * 1024;
+	private static final String CACHE_CONTROL_MAX_AGE = "max-age";
+	private static final String HEADER_AGE = "Age";
+	private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+	private static final String HEADER_VARY = "Vary";
+
+	private final Map<CacheKey, CacheEntry> myEntries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<IHttpRequest, CacheEntry> myPendingRevalidations =
+			Collections.synchronizedMap(new WeakHashMap<>());
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myRevalidatedHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final AtomicLong myEvictionCount = new AtomicLong();
+	private int myMaxEntries = DEFAULT_MAX_ENTRIES;
+	private int myMaxEntrySizeBytes = DEFAULT_MAX_ENTRY_SIZE_BYTES;
+	private LongSupplier myClock = System::currentTimeMillis;
+
+	/**
+	 * Sets the maximum number of responses which will be held. When the cache is full, the least recently used
+	 * response is evicted. Defaults to {@link #DEFAULT_MAX_ENTRIES}.
+	 */
+	public HttpCachingInterceptor setMaxEntries(int theMaxEntries) {
+		Validate.isTrue(theMaxEntries > 0, "theMaxEntries must be greater than 0");
+		synchronized (myEntries) {
+			myMaxEntries = theMaxEntries;
+			evictIfNeeded();
+		}
+		return this;
+	}
+
+	public int getMaxEntries() {
+		return myMaxEntries;
+	}
+
+	/**
+	 * Sets the size of the largest response body which will be stored. Defaults to
+	 * {@link #DEFAULT_MAX_ENTRY_SIZE_BYTES}.
+	 */
+	public HttpCachingInterceptor setMaxEntrySizeBytes(int theMaxEntrySizeBytes) {
+		Validate.isTrue(theMaxEntrySizeBytes > 0, "theMaxEntrySizeBytes must be greater than 0");
+		myMaxEntrySizeBytes = theMaxEntrySizeBytes;
+		return this;
+	}
+
+	public int getMaxEntrySizeBytes() {
+		return myMaxEntrySizeBytes;
+	}
+
+	@VisibleForTesting
+	void setClockForUnitTest(LongSupplier theClock) {
+		myClock = theClock;
+	}
+
+	/**
+	 * Removes all stored responses. The statistics are not reset.
+	 */
+	public void clear() {
+		synchronized (myEntries) {
+			myEntries.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of responses currently stored
+	 */
+	public int getEntryCount() {
+		synchronized (myEntries) {
+			return myEntries.size();
+		}
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache without contacting the server
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of requests which were answered from the cache after the server confirmed
+	 * (with an <code>HTTP 304 Not Modified</code>) that the stored response was still valid
+	 */
+	public long getRevalidatedHitCount() {
+		return myRevalidatedHitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests for which the full response had to be fetched from the server
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the number of responses which were removed to make room for newer ones
+	 */
+	public long getEvictionCount() {
+		return myEvictionCount.get();
+	}
+
+	/**
+	 * Returns the proportion (between 0 and 1) of cacheable requests which were answered from the cache,
+	 * including those which were revalidated with the server
+	 */
+	public double getHitRate() {
+		long hits = getHitCount() + getRevalidatedHitCount();
+		long total = hits + getMissCount();
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	@Hook(Pointcut.CLIENT_REQUEST_SUBSTITUTE_RESPONSE)
+	public IHttpResponse substituteResponse(IHttpRequest theRequest) {
+		if (!isCacheableRequest(theRequest)) {
+			return null;
+		}
+
+		CacheKey key = new CacheKey(theRequest);
+		CacheEntry entry;
+		synchronized (myEntries) {
+			entry = myEntries.get(key);
+		}
+		if (entry == null) {
+			myMissCount.incrementAndGet();
+			return null;
+		}
+
+		List<String> requestCacheControl = getHeaderValues(theRequest.getAllHeaders(), Constants.HEADER_CACHE_CONTROL);
+		boolean mustRevalidate = hasDirective(requestCacheControl, Constants.CACHE_CONTROL_NO_CACHE)
+				|| Long.valueOf(0).equals(getMaxAgeSeconds(requestCacheControl));
+		if (!mustRevalidate && entry.isFresh(myClock.getAsLong())) {
+			myHitCount.incrementAndGet();
+			return new CachedHttpResponse(entry);
+		}
+
+		if (isNotBlank(entry.getETag())) {
+			theRequest.addHeader(Constants.HEADER_IF_NONE_MATCH, entry.getETag());
+		}
+		if (isNotBlank(entry.getLastModified())) {
+			theRequest.addHeader(Constants.HEADER_IF_MODIFIED_SINCE, entry.getLastModified());
+		}
+		myPendingRevalidations.put(theRequest, entry);
+		return null;
+	}
+
+	@Hook(value = Pointcut.CLIENT_RESPONSE, order = InterceptorOrders.HTTP_CACHING_INTERCEPTOR_RESPONSE)
+	public void interceptResponse(ClientResponseContext theContext) {
+		IHttpRequest request = theContext.getHttpRequest();
+		IHttpResponse response = theContext.getHttpResponse();
+		if (response instanceof CachedHttpResponse) {
+			return;
+		}
+
+		CacheEntry revalidatedEntry = myPendingRevalidations.remove(request);
+		int status = response.getStatus();
+		CacheKey key = new CacheKey(request);
+
+		if (!RequestTypeEnum.GET.name().equals(request.getHttpVerbName())) {
+			if (status >= 200 && status < 400) {
+				invalidate(request.getUri());
+			}
+			return;
+		}
+
+		if (revalidatedEntry != null && status == Constants.STATUS_HTTP_304_NOT_MODIFIED) {
+			CacheEntry refreshed = revalidatedEntry.refresh(response.getAllHeaders(), myClock.getAsLong());
+			store(key, refreshed);
+			myRevalidatedHitCount.incrementAndGet();
+			response.close();
+			theContext.setHttpResponse(new CachedHttpResponse(refreshed));
+			return;
+		}
+
+		if (revalidatedEntry != null) {
+			// The stored response has been superseded, whether or not the new one can be stored
+			myMissCount.incrementAndGet();
+			remove(key);
+		}
+
+		if (status != Constants.STATUS_HTTP_200_OK || (revalidatedEntry == null && !isCacheableRequest(request))) {
+			return;
+		}
+
+		Map<String, List<String>> headers = toLowerCaseKeys(response.getAllHeaders());
+		List<String> cacheControl = getHeaderValues(headers, Constants.HEADER_CACHE_CONTROL);
+		if (hasDirective(cacheControl, Constants.CACHE_CONTROL_NO_STORE)
+				|| getHeaderValues(headers, HEADER_VARY).contains("*")) {
+			return;
+		}
+
+		long now = myClock.getAsLong();
+		long freshUntil = getFreshUntil(headers, now);
+		if (freshUntil <= now
+				&& getFirstHeaderValue(headers, Constants.HEADER_ETAG) == null
+				&& getFirstHeaderValue(headers, Constants.HEADER_LAST_MODIFIED) == null) {
+			// There would be no way of using this response again
+			return;
+		}
+
+		String contentLength = getFirstHeaderValue(headers, HEADER_CONTENT_LENGTH);
+		if (contentLength != null && NumberUtils.toLong(trim(contentLength), 0) > myMaxEntrySizeBytes) {
+			return;
+		}
+
+		String statusInfo = response.getStatusInfo();
+		String mimeType = response.getMimeType();
+		byte[] body;
+		try (InputStream inputStream = response.readEntity()) {
+			body = inputStream != null ? IOUtils.toByteArray(inputStream) : new byte[0];
+		} catch (IOException e) {
+			throw new FhirClientConnectionException(Msg.code(2797) + "Failed to read response: " + e, e);
+		} finally {
+			response.close();
+		}
+
+		CacheEntry entry = new CacheEntry(statusInfo, mimeType, headers, body, freshUntil);
+		if (body.length <= myMaxEntrySizeBytes) {
+			store(key, entry);
+		}
+		theContext.setHttpResponse(new CachedHttpResponse(entry));
+	}
+
+	private void store(CacheKey theKey, CacheEntry theEntry) {
+		synchronized (myEntries) {
+			myEntries.put(theKey, theEntry);
+			evictIfNeeded();
+		}
+	}
+
+	private void remove(CacheKey theKey) {
+		synchronized (myEntries) {
+			myEntries.remove(theKey);
+		}
+	}
+
+	private void evictIfNeeded() {
+		Iterator<CacheEntry> iterator = myEntries.values().iterator();
+		while (myEntries.size() > myMaxEntries && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			myEvictionCount.incrementAndGet();
+		}
+	}
+
+	private void invalidate(String theUri) {
+		String path = stripQuery(theUri);
+		synchronized (myEntries) {
+			myEntries.keySet().removeIf(t -> {
+				String nextPath = stripQuery(t.myUri);
+				return nextPath.equals(path) || nextPath.startsWith(path + "/");
+			});
+		}
+	}
+
+	private static boolean isCacheableRequest(IHttpRequest theRequest) {
+		if (!RequestTypeEnum.GET.name().equals(theRequest.getHttpVerbName())) {
+			return false;
+		}
+		Map<String, List<String>> headers = theRequest.getAllHeaders();
+		if (!getHeaderValues(headers, Constants.HEADER_IF_NONE_MATCH).isEmpty()
+				|| !getHeaderValues(headers, Constants.HEADER_IF_MODIFIED_SINCE).isEmpty()) {
+			return false;
+		}
+		return !hasDirective(
+				getHeaderValues(headers, Constants.HEADER_CACHE_CONTROL), Constants.CACHE_CONTROL_NO_STORE);
+	}
+
+	private static String stripQuery(String theUri) {
+		int queryIndex = theUri.indexOf('?');
+		return queryIndex != -1 ? theUri.substring(0, queryIndex) : theUri;
+	}
+
+	/**
+	 * Returns the values of the given header, with any comma-separated values split apart
+	 */
+	private static List<String> getHeaderValues(Map<String, List<String>> theHeaders, String theName) {
+		List<String> retVal = new ArrayList<>();
+		if (theHeaders != null) {
+			for (Map.Entry<String, List<String>> next : theHeaders.entrySet()) {
+				if (theName.equalsIgnoreCase(next.getKey()) && next.getValue() != null) {
+					for (String nextValue : next.getValue()) {
+						for (String nextPart : defaultString(nextValue).split(",")) {
+							if (isNotBlank(nextPart)) {
+								retVal.add(trim(nextPart));
+							}
+						}
+					}
+				}
+			}
+		}
+		return retVal;
+	}
+
+	private static String getFirstHeaderValue(Map<String, List<String>> theHeaders, String theName) {
+		List<String> values = theHeaders.get(theName.toLowerCase(Locale.ROOT));
+		return values != null && !values.isEmpty() ? values.get(0) : null;
+	}
+
+	private static boolean hasDirective(List<String> theCacheControl, String theDirective) {
+		return theCacheControl.stream().anyMatch(t -> t.equalsIgnoreCase(theDirective));
+	}
+
+	private static Long getMaxAgeSeconds(List<String> theCacheControl) {
+		for (String next : theCacheControl) {
+			int equalsIndex = next.indexOf('=');
+			if (equalsIndex != -1 && CACHE_CONTROL_MAX_AGE.equalsIgnoreCase(trim(next.substring(0, equalsIndex)))) {
+				try {
+					return Long.parseLong(trim(next.substring(equalsIndex + 1)).replace("\"", ""));
+				} catch (NumberFormatException e) {
+					return null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the time until which a response with the given headers, received at the given time, is fresh
+	 */
+	private static long getFreshUntil(Map<String, List<String>> theHeaders, long theReceivedTime) {
+		List<String> cacheControl = getHeaderValues(theHeaders, Constants.HEADER_CACHE_CONTROL);
+		Long maxAge = getMaxAgeSeconds(cacheControl);
+		if (maxAge == null || hasDirective(cacheControl, Constants.CACHE_CONTROL_NO_CACHE)) {
+			return theReceivedTime;
+		}
+		long age = 0;
+		String ageHeader = getFirstHeaderValue(theHeaders, HEADER_AGE);
+		if (isNotBlank(ageHeader)) {
+			try {
+				age = Long.parseLong(trim(ageHeader));
+			} catch (NumberFormatException e) {
+				// ignore an invalid header
+			}
+		}
+		return theReceivedTime + Math.max(0, maxAge - age) * 1000L;
+	}
+
+	private static Map<String, List<String>> toLowerCaseKeys(Map<String, List<String>> theHeaders) {
+		Map<String, List<String>> retVal = new HashMap<>();
+		if (theHeaders != null) {
+			theHeaders.forEach((k, v) -> retVal.computeIfAbsent(k.toLowerCase(Locale.ROOT), t -> new ArrayList<>())
+					.addAll(v));
+		}
+		return retVal;
+	}
+
+	private static class CacheKey {
+		private final String myUri;
+		private final List<String> myAccept;
+		private final List<String> myAuthorization;
+		private final int myHashCode;
+
+		CacheKey(IHttpRequest theRequest) {
+			myUri = theRequest.getUri();
+			myAccept = getHeaderValues(theRequest.getAllHeaders(), Constants.HEADER_ACCEPT);
+			myAuthorization = getHeaderValues(theRequest.getAllHeaders(), Constants.HEADER_AUTHORIZATION);
+			myHashCode = Objects.hash(myUri, myAccept, myAuthorization);
+		}
+
+		@Override
+		public boolean equals(Object theO) {
+			if (this == theO) {
+				return true;
+			}
+			if (!(theO instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey that = (CacheKey) theO;
+			return myUri.equals(that.myUri)
+					&& myAccept.equals(that.myAccept)
+					&& myAuthorization.equals(that.myAuthorization);
+		}
+
+		@Override
+		public int hashCode() {
+			return myHashCode;
+		}
+	}
+
+	private static class CacheEntry {
+		private final String myStatusInfo;
+		private final String myMimeType;
+		private final Map<String, List<String>> myHeaders;
+		private final byte[] myBody;
+		private final long myFreshUntil;
+
+		CacheEntry(
+				String theStatusInfo,
+				String theMimeType,
+				Map<String, List<String>> theHeaders,
+				byte[] theBody,
+				long theFreshUntil) {
+			myStatusInfo = theStatusInfo;
+			myMimeType = theMimeType;
+			myHeaders = theHeaders;
+			myBody = theBody;
+			myFreshUntil = theFreshUntil;
+		}
+
+		String getETag() {
+			return getFirstHeaderValue(myHeaders, Constants.HEADER_ETAG);
+		}
+
+		String getLastModified() {
+			return getFirstHeaderValue(myHeaders, Constants.HEADER_LAST_MODIFIED);
+		}
+
+		boolean isFresh(long theNow) {
+			return theNow < myFreshUntil;
+		}
+
+		/**
+		 * Returns a copy of this entry updated with the headers from an <code>HTTP 304 Not Modified</code> response
+		 */
+		CacheEntry refresh(Map<String, List<String>> theNotModifiedHeaders, long theNow) {
+			Map<String, List<String>> headers = new HashMap<>(myHeaders);
+			toLowerCaseKeys(theNotModifiedHeaders).forEach((k, v) -> {
+				if (!k.equalsIgnoreCase(HEADER_CONTENT_LENGTH) && !k.equalsIgnoreCase(Constants.HEADER_CONTENT_TYPE)) {
+					headers.put(k, v);
+				}
+			});
+			return new CacheEntry(myStatusInfo, myMimeType, headers, myBody, getFreshUntil(headers, theNow));
+		}
+	}
+
+	/**
+	 * A response served from the cache
+	 */
+	private static class CachedHttpResponse extends BaseHttpResponse {
+		private final CacheEntry myEntry;
+
+		CachedHttpResponse(CacheEntry theEntry) {
+			super(new StopWatch());
+			myEntry = theEntry;
+		}
+
+		@Override
+		public void bufferEntity() {
+			// already buffered
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+
+		@Override
+		public Reader createReader() {
+			return new InputStreamReader(readEntity(), StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public Map<String, List<String>> getAllHeaders() {
+			Map<String, List<String>> retVal = new HashMap<>();
+			myEntry.myHeaders.forEach((k, v) -> retVal.put(k, new ArrayList<>(v)));
+			return retVal;
+		}
+
+		@Override
+		public List<String> getHeaders(String theName) {
+			List<String> values = myEntry.myHeaders.get(theName.toLowerCase(Locale.ROOT));
+			return values != null ? Collections.unmodifiableList(values) : Collections.emptyList();
+		}
+
+		@Override
+		public String getMimeType() {
+			return myEntry.myMimeType;
+		}
+
+		@Override
+		public Object getResponse() {
+			return null;
+		}
+
+		@Override
+		public int getStatus() {
+			return Constants.STATUS_HTTP_200_OK;
+		}
+
+		@Override
+		public String getStatusInfo() {
+			return myEntry.myStatusInfo;
+		}
+
+		@Override
+		public InputStream readEntity() {
+			return new ByteArrayInputStream(myEntry.myBody);
+		}
+	}
+}
@@ -25,6 +25,7 @@ public interface InterceptorOrders {
 	int URL_TENANT_SELECTION_INTERCEPTOR_REQUEST = 100;
 	int CAPTURING_INTERCEPTOR_REQUEST = 1000;
 
+	int HTTP_CACHING_INTERCEPTOR_RESPONSE = -10;
 	int CAPTURING_INTERCEPTOR_RESPONSE = -1;
 	int LOGGING_INTERCEPTOR_RESPONSE = 1001;
 }
@@ -35,6 +35,7 @@ import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.model.ExpungeOptions;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.api.svc.IResourceHistoryRecompressionSvc;
 import ca.uhn.fhir.jpa.api.svc.ISearchUrlJobMaintenanceSvc;
 import ca.uhn.fhir.jpa.binary.interceptor.BinaryStorageInterceptor;
 import ca.uhn.fhir.jpa.binary.provider.BinaryAccessProvider;
@@ -60,6 +61,12 @@ import ca.uhn.fhir.jpa.dao.MatchResourceUrlService;
 import ca.uhn.fhir.jpa.dao.ResourceHistoryCalculator;
 import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
 import ca.uhn.fhir.jpa.dao.TransactionProcessor;
+import ca.uhn.fhir.jpa.dao.compression.IResourceCompressionDictionarySvc;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionCodecRegistry;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionDictionarySvcImpl;
+import ca.uhn.fhir.jpa.dao.compression.ResourceHistoryRecompressionSvcImpl;
+import ca.uhn.fhir.jpa.dao.data.IResourceCompressionDictionaryDao;
+import ca.uhn.fhir.jpa.dao.data.IResourceHistoryTableDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceIndexedSearchParamIdentityDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceLinkDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceModifiedDao;
@@ -976,8 +983,48 @@ public class JpaConfig {
 
 	@Bean
 	public ResourceHistoryCalculator resourceHistoryCalculator(
-			FhirContext theFhirContext, HibernatePropertiesProvider theHibernatePropertiesProvider) {
-		return new ResourceHistoryCalculator(theFhirContext, theHibernatePropertiesProvider.isOracleDialect());
+			FhirContext theFhirContext,
+			HibernatePropertiesProvider theHibernatePropertiesProvider,
+			ResourceCompressionCodecRegistry theResourceCompressionCodecRegistry,
+			IResourceCompressionDictionarySvc theResourceCompressionDictionarySvc) {
+		return new ResourceHistoryCalculator(
+				theFhirContext,
+				theHibernatePropertiesProvider.isOracleDialect(),
+				theResourceCompressionCodecRegistry,
+				theResourceCompressionDictionarySvc);
+	}
+
+	@Bean
+	public ResourceCompressionCodecRegistry resourceCompressionCodecRegistry() {
+		return new ResourceCompressionCodecRegistry();
+	}
+
+	@Bean
+	public IResourceCompressionDictionarySvc resourceCompressionDictionarySvc(
+			IHapiTransactionService theTransactionService,
+			IResourceCompressionDictionaryDao theResourceCompressionDictionaryDao,
+			IResourceHistoryTableDao theResourceHistoryTableDao,
+			ResourceCompressionCodecRegistry theResourceCompressionCodecRegistry,
+			MemoryCacheService theMemoryCacheService) {
+		return new ResourceCompressionDictionarySvcImpl(
+				theTransactionService,
+				theResourceCompressionDictionaryDao,
+				theResourceHistoryTableDao,
+				theResourceCompressionCodecRegistry,
+				theMemoryCacheService);
+	}
+
+	@Bean
+	public IResourceHistoryRecompressionSvc resourceHistoryRecompressionSvc(
+			IHapiTransactionService theTransactionService,
+			IResourceHistoryTableDao theResourceHistoryTableDao,
+			ResourceHistoryCalculator theResourceHistoryCalculator,
+			IResourceCompressionDictionarySvc theResourceCompressionDictionarySvc) {
+		return new ResourceHistoryRecompressionSvcImpl(
+				theTransactionService,
+				theResourceHistoryTableDao,
+				theResourceHistoryCalculator,
+				theResourceCompressionDictionarySvc);
 	}
 
 	@Bean
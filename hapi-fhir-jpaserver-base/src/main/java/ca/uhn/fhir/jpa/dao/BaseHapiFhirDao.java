@@ -88,6 +88,7 @@ import ca.uhn.fhir.rest.api.InterceptorInvocationTimingEnum;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
@@ -502,6 +503,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		byte[] resourceBinary;
 		String resourceText;
 		ResourceEncodingEnum encoding;
+		Long compressionDictionaryId = null;
 		boolean changed = false;
 
 		if (theEntity.getDeleted() == null) {
@@ -541,13 +543,13 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 					resourceText = calculate.getResourceText();
 					resourceBinary = calculate.getResourceBinary();
 					encoding = calculate.getEncoding(); // This may be a no-op
+					compressionDictionaryId = calculate.getCompressionDictionaryId();
 					final HashCode hashCode = calculate.getHashCode();
 
-					String hashSha256 = hashCode.toString();
-					if (!hashSha256.equals(theEntity.getHashSha256())) {
+					if (myResourceHistoryCalculator.isHashChanged(theEntity.getHashSha256(), calculate)) {
 						changed = true;
 					}
-					theEntity.setHashSha256(hashSha256);
+					theEntity.setHashSha256(hashCode.toString());
 
 					if (sourceExtension != null) {
 						IBaseExtension<?, ?> newSourceExtension = ((IBaseHasExtensions) meta).addExtension();
@@ -605,7 +607,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 					// TODO:  LD: Once 2024-02 it out the door we should consider further refactoring here to move
 					// more of this logic within the calculator and eliminate more local variables
 					changed = myResourceHistoryCalculator.isResourceHistoryChanged(
-							currentHistoryVersion, resourceBinary, resourceText);
+							currentHistoryVersion, resourceBinary, encoding, compressionDictionaryId, resourceText);
 				}
 			}
 		}
@@ -614,6 +616,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		retVal.setEncoding(encoding);
 		retVal.setResourceBinary(resourceBinary);
 		retVal.setResourceText(resourceText);
+		retVal.setCompressionDictionaryId(compressionDictionaryId);
 		retVal.setChanged(changed);
 
 		return retVal;
@@ -1298,11 +1301,14 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			ResourceEncodingEnum encoding = myStorageSettings.getResourceEncoding();
 			List<String> excludeElements = new ArrayList<>(8);
 			getExcludedElements(historyEntity.getResourceType(), excludeElements, theResource.getMeta());
-			String encodedResourceString =
-					myResourceHistoryCalculator.encodeResource(theResource, encoding, excludeElements);
-			byte[] resourceBinary = ResourceHistoryCalculator.getResourceBinary(encoding, encodedResourceString);
+			myResourceHistoryCalculator.populateEncodedResource(
+					encodedResource, theResource, encoding, excludeElements);
 			final boolean changed = myResourceHistoryCalculator.isResourceHistoryChanged(
-					historyEntity, resourceBinary, encodedResourceString);
+					historyEntity,
+					encodedResource.getResourceBinary(),
+					encodedResource.getEncoding(),
+					encodedResource.getCompressionDictionaryId(),
+					encodedResource.getResourceText());
 
 			historyEntity.setUpdated(theTransactionDetails.getTransactionDate());
 
@@ -1313,9 +1319,6 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 				myJpaStorageResourceParser.updateResourceMetadata(historyEntity, theResource);
 				return historyEntity;
 			}
-
-			myResourceHistoryCalculator.populateEncodedResource(
-					encodedResource, encodedResourceString, resourceBinary, encoding);
 		}
 		/*
 		 * Save the resource itself to the resourceHistoryTable
@@ -1324,6 +1327,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		historyEntity.setEncoding(encodedResource.getEncoding());
 		historyEntity.setResource(encodedResource.getResourceBinary());
 		historyEntity.setResourceTextVc(encodedResource.getResourceText());
+		historyEntity.setCompressionDictionaryId(encodedResource.getCompressionDictionaryId());
 		myResourceHistoryTableDao.save(historyEntity);
 
 		myJpaStorageResourceParser.updateResourceMetadata(historyEntity, theResource);
@@ -1339,6 +1343,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		encodedResource.setResourceText(encodedResourceString);
 		encodedResource.setResourceBinary(theResourceBinary);
 		encodedResource.setEncoding(theEncoding);
+		encodedResource.setCompressionDictionaryId(null);
 	}
 
 	private void createHistoryEntry(
@@ -1379,6 +1384,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		historyEntry.setEncoding(theChanged.getEncoding());
 		historyEntry.setResource(theChanged.getResourceBinary());
 		historyEntry.setResourceTextVc(theChanged.getResourceText());
+		historyEntry.setCompressionDictionaryId(theChanged.getCompressionDictionaryId());
 
 		ourLog.debug("Saving history entry ID[{}] for RES_ID[{}]", historyEntry.getId(), historyEntry.getResourceId());
 		myEntityManager.persist(historyEntry);
@@ -1757,6 +1763,13 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		return retVal.toString();
 	}
 
+	/**
+	 * Decodes a resource body which was stored without a compression dictionary.
+	 *
+	 * @deprecated Use {@link ResourceHistoryCalculator#decodeResource(byte[], ResourceEncodingEnum, Long)},
+	 * 		which supports all encodings as well as compression dictionaries
+	 */
+	@Deprecated
 	public static String decodeResource(byte[] theResourceBytes, ResourceEncodingEnum theResourceEncoding) {
 		String resourceText = null;
 		switch (theResourceEncoding) {
@@ -1766,6 +1779,10 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			case JSONC:
 				resourceText = GZipUtil.decompress(theResourceBytes);
 				break;
+			case JZSTD:
+			case JLZ4:
+				throw new InternalErrorException(Msg.code(2813) + "Encoding " + theResourceEncoding
+						+ " must be decoded using ResourceHistoryCalculator#decodeResource");
 			case DEL:
 			case ESR:
 				break;
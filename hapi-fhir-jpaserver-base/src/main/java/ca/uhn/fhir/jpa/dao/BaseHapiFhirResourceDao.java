@@ -1773,11 +1773,10 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 	 * in order to avoid growing the number of resources in memory to be too big
 	 */
 	private void reindexOptimizeStorageHistoryEntity(ResourceTable entity, ResourceHistoryTable historyEntity) {
-		if (historyEntity.getEncoding() == ResourceEncodingEnum.JSONC
-				|| historyEntity.getEncoding() == ResourceEncodingEnum.JSON) {
+		if (historyEntity.getEncoding().isCompressed() || historyEntity.getEncoding() == ResourceEncodingEnum.JSON) {
 			byte[] resourceBytes = historyEntity.getResource();
 			if (resourceBytes != null) {
-				String resourceText = decodeResource(resourceBytes, historyEntity.getEncoding());
+				String resourceText = myResourceHistoryCalculator.decodeResource(historyEntity);
 				myResourceHistoryCalculator.conditionallyAlterHistoryEntity(entity, historyEntity, resourceText);
 			}
 		}
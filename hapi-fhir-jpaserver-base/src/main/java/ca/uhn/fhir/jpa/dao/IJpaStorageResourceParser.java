@@ -39,6 +39,26 @@ public interface IJpaStorageResourceParser extends IStorageResourceParser<JpaPid
 			Collection<BaseTag> theTagList,
 			boolean theForHistoryOperation);
 
+	/**
+	 * Convert a storage entity into a FHIR resource model instance. This method may return null if the entity is not
+	 * completely flushed, including the entities history entries.
+	 *
+	 * @param theSummaryElementsOnly If <code>true</code>, only the elements which are encoded in summary mode
+	 *                               (<code>_summary=true</code>) are parsed from the stored resource body
+	 * @param theParseElements       If not <code>null</code>, only these element paths (in the form accepted by
+	 *                               {@link ca.uhn.fhir.parser.IParser#setParseElements(Collection)}, e.g. the
+	 *                               values of an <code>_elements</code> parameter) are parsed from the stored
+	 *                               resource body. Ignored if <code>theSummaryElementsOnly</code> is set.
+	 * @since 8.4.0
+	 */
+	<R extends IBaseResource> R toResource(
+			Class<R> theResourceType,
+			IBaseResourceEntity<?> theEntity,
+			Collection<BaseTag> theTagList,
+			boolean theForHistoryOperation,
+			boolean theSummaryElementsOnly,
+			@Nullable Collection<String> theParseElements);
+
 	/**
 	 * Populate the metadata (Resource.meta.*) from a storage entity and other related
 	 * objects pulled from the database
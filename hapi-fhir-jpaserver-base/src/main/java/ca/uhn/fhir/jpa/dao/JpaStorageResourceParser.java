@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.dao;
 
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
@@ -73,10 +74,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static ca.uhn.fhir.jpa.dao.BaseHapiFhirDao.decodeResource;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -109,6 +113,11 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 	@Autowired
 	IMetaTagSorter myMetaTagSorter;
 
+	@Autowired
+	private ResourceHistoryCalculator myResourceHistoryCalculator;
+
+	private final Map<RuntimeResourceDefinition, Set<String>> mySummaryParseElements = new ConcurrentHashMap<>();
+
 	@Override
 	public IBaseResource toResource(IBasePersistedResource theEntity, boolean theForHistoryOperation) {
 		RuntimeResourceDefinition type = myFhirContext.getResourceDefinition(theEntity.getResourceType());
@@ -122,11 +131,23 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 			IBaseResourceEntity<?> theEntity,
 			Collection<BaseTag> theTagList,
 			boolean theForHistoryOperation) {
+		return toResource(theResourceType, theEntity, theTagList, theForHistoryOperation, false, null);
+	}
+
+	@Override
+	public <R extends IBaseResource> R toResource(
+			Class<R> theResourceType,
+			IBaseResourceEntity<?> theEntity,
+			Collection<BaseTag> theTagList,
+			boolean theForHistoryOperation,
+			boolean theSummaryElementsOnly,
+			@Nullable Collection<String> theParseElements) {
 
 		// 1. get resource, it's encoding and the tags if any
 		byte[] resourceBytes;
 		String resourceText;
 		ResourceEncodingEnum resourceEncoding;
+		Long compressionDictionaryId;
 		@Nullable Collection<? extends BaseTag> tagList;
 		long version;
 		String provenanceSourceUri = null;
@@ -137,6 +158,7 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 			resourceBytes = history.getResource();
 			resourceText = history.getResourceTextVc();
 			resourceEncoding = history.getEncoding();
+			compressionDictionaryId = history.getCompressionDictionaryId();
 
 			// For search results we get the list of tags passed in because we load it
 			// in bulk for all resources we're going to return, but for read results
@@ -198,6 +220,7 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 
 			resourceBytes = history.getResource();
 			resourceEncoding = history.getEncoding();
+			compressionDictionaryId = history.getCompressionDictionaryId();
 			resourceText = history.getResourceTextVc();
 			switch (myStorageSettings.getTagStorageMode()) {
 				case VERSIONED:
@@ -233,13 +256,20 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		}
 
 		// 2. get The text
-		String decodedResourceText = decodedResourceText(resourceBytes, resourceText, resourceEncoding);
+		String decodedResourceText =
+				decodedResourceText(resourceBytes, resourceText, resourceEncoding, compressionDictionaryId);
 
 		// 3. Use the appropriate custom type if one is specified in the context
 		Class<R> resourceType = determineTypeToParse(theResourceType, tagList);
 
 		// 4. parse the text to FHIR
-		R retVal = parseResource(theEntity, resourceEncoding, decodedResourceText, resourceType);
+		R retVal = parseResource(
+				theEntity,
+				resourceEncoding,
+				decodedResourceText,
+				resourceType,
+				theSummaryElementsOnly,
+				theParseElements);
 
 		// 5. fill MetaData
 		retVal = populateResourceMetadata(theEntity, theForHistoryOperation, tagList, version, retVal);
@@ -277,7 +307,9 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 			IBaseResourceEntity<?> theEntity,
 			ResourceEncodingEnum theResourceEncoding,
 			String theDecodedResourceText,
-			Class<R> theResourceType) {
+			Class<R> theResourceType,
+			boolean theSummaryElementsOnly,
+			@Nullable Collection<String> theParseElements) {
 		R retVal;
 		if (theResourceEncoding == ResourceEncodingEnum.ESR) {
 
@@ -293,8 +325,13 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 
 		} else if (theResourceEncoding != ResourceEncodingEnum.DEL) {
 
-			IParser parser = new TolerantJsonParser(
-					getContext(theEntity.getFhirVersion()), LENIENT_ERROR_HANDLER, theEntity.getResourceId());
+			FhirContext context = getContext(theEntity.getFhirVersion());
+			IParser parser = new TolerantJsonParser(context, LENIENT_ERROR_HANDLER, theEntity.getResourceId());
+			if (theSummaryElementsOnly) {
+				parser.setParseElements(getSummaryParseElements(context, theResourceType));
+			} else if (theParseElements != null) {
+				parser.setParseElements(theParseElements);
+			}
 
 			try {
 				retVal = parser.parseResource(theResourceType, theDecodedResourceText);
@@ -324,6 +361,36 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		return retVal;
 	}
 
+	/**
+	 * Returns the paths of the top level elements of the given resource type which are
+	 * encoded in summary mode, or <code>null</code> if the context is configured to encode
+	 * additional elements in summary mode (in which case the resource is parsed in full).
+	 * The encoder applies the summary rules to the children of these elements too, so
+	 * parsing a superset here is fine.
+	 */
+	@Nullable
+	private Set<String> getSummaryParseElements(
+			FhirContext theContext, Class<? extends IBaseResource> theResourceType) {
+		if (theContext.getParserOptions().getEncodeElementsForSummaryMode() != null) {
+			return null;
+		}
+		RuntimeResourceDefinition definition = theContext.getResourceDefinition(theResourceType);
+		return mySummaryParseElements.computeIfAbsent(definition, t -> {
+			String resourceName = t.getName();
+			Set<String> retVal = new HashSet<>();
+			for (BaseRuntimeChildDefinition next : t.getChildren()) {
+				if (next.isSummary()) {
+					retVal.add(resourceName + "." + next.getElementName());
+				}
+			}
+			// The encoder keeps extensions on these resources in summary mode
+			if ("CapabilityStatement".equals(resourceName) || "Conformance".equals(resourceName)) {
+				retVal.add(resourceName + ".extension");
+			}
+			return retVal;
+		});
+	}
+
 	@SuppressWarnings("unchecked")
 	private <R extends IBaseResource> Class<R> determineTypeToParse(
 			Class<R> theResourceType, @Nullable Collection<? extends BaseTag> tagList) {
@@ -567,13 +634,17 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		return FhirContext.forCached(theVersion);
 	}
 
-	private static String decodedResourceText(
-			byte[] resourceBytes, String resourceText, ResourceEncodingEnum resourceEncoding) {
+	private String decodedResourceText(
+			byte[] resourceBytes,
+			String resourceText,
+			ResourceEncodingEnum resourceEncoding,
+			Long theCompressionDictionaryId) {
 		String decodedResourceText;
 		if (resourceText != null) {
 			decodedResourceText = resourceText;
 		} else {
-			decodedResourceText = decodeResource(resourceBytes, resourceEncoding);
+			decodedResourceText = myResourceHistoryCalculator.decodeResource(
+					resourceBytes, resourceEncoding, theCompressionDictionaryId);
 		}
 		return decodedResourceText;
 	}
@@ -20,16 +20,22 @@
 package ca.uhn.fhir.jpa.dao;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.dao.compression.IResourceCompressionDictionarySvc;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionCodecRegistry;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionDictionary;
 import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.nio.charset.StandardCharsets;
@@ -45,35 +51,92 @@ public class ResourceHistoryCalculator {
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ResourceHistoryCalculator.class);
 	private static final HashFunction SHA_256 = Hashing.sha256();
 
+	private static final ResourceCompressionCodecRegistry ourDefaultCodecRegistry =
+			new ResourceCompressionCodecRegistry();
+
 	private final FhirContext myFhirContext;
 	private final boolean myIsOracleDialect;
+	private final ResourceCompressionCodecRegistry myCodecRegistry;
+
+	@Nullable
+	private final IResourceCompressionDictionarySvc myCompressionDictionarySvc;
 
+	/**
+	 * Constructor which uses the default codecs, and never compresses using a dictionary
+	 */
 	public ResourceHistoryCalculator(FhirContext theFhirContext, boolean theIsOracleDialect) {
+		this(theFhirContext, theIsOracleDialect, ourDefaultCodecRegistry, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theCodecRegistry            The codecs used to compress and decompress binary resource bodies
+	 * @param theCompressionDictionarySvc Supplies trained dictionaries, or <code>null</code> if dictionaries
+	 *                                    should not be used
+	 */
+	public ResourceHistoryCalculator(
+			FhirContext theFhirContext,
+			boolean theIsOracleDialect,
+			ResourceCompressionCodecRegistry theCodecRegistry,
+			@Nullable IResourceCompressionDictionarySvc theCompressionDictionarySvc) {
 		myFhirContext = theFhirContext;
 		myIsOracleDialect = theIsOracleDialect;
+		myCodecRegistry = theCodecRegistry;
+		myCompressionDictionarySvc = theCompressionDictionarySvc;
 	}
 
 	ResourceHistoryState calculateResourceHistoryState(
 			IBaseResource theResource, ResourceEncodingEnum theEncoding, List<String> theExcludeElements) {
-		final String encodedResource = encodeResource(theResource, theEncoding, theExcludeElements);
 		final byte[] resourceBinary;
 		final String resourceText;
 		final ResourceEncodingEnum encoding;
 		final HashCode hashCode;
+		Long compressionDictionaryId = null;
 
 		if (myIsOracleDialect) {
+			ResourceCompressionDictionary dictionary = getActiveDictionary(theResource, theEncoding);
+			byte[] uncompressed = encodeResourceToUncompressedBinary(theResource, theEncoding, theExcludeElements);
 			resourceText = null;
-			resourceBinary = getResourceBinary(theEncoding, encodedResource);
+			resourceBinary = compressForStorage(theEncoding, uncompressed, dictionary);
 			encoding = theEncoding;
-			hashCode = SHA_256.hashBytes(resourceBinary);
+			// The hash is of the uncompressed body, so that it does not depend on how the body is compressed
+			hashCode = SHA_256.hashBytes(uncompressed);
+			if (dictionary != null) {
+				compressionDictionaryId = dictionary.getId();
+			}
 		} else {
+			final String encodedResource = encodeResource(theResource, theEncoding, theExcludeElements);
 			resourceText = encodedResource;
 			resourceBinary = null;
 			encoding = ResourceEncodingEnum.JSON;
 			hashCode = SHA_256.hashUnencodedChars(encodedResource);
 		}
 
-		return new ResourceHistoryState(resourceText, resourceBinary, encoding, hashCode);
+		return new ResourceHistoryState(resourceText, resourceBinary, encoding, hashCode, compressionDictionaryId);
+	}
+
+	/**
+	 * Returns <code>true</code> if the hash stored on the resource differs from the hash of the new resource body.
+	 * <p>
+	 * Before Zstandard and LZ4 support was added, the hash of a binary body was calculated from its compressed
+	 * form. A stored hash which matches the {@link ResourceEncodingEnum#JSONC} compressed form of the new body
+	 * is therefore treated as unchanged, so that existing resources don't get a new version the first time they
+	 * are updated without changes.
+	 * </p>
+	 */
+	boolean isHashChanged(@Nullable String theStoredHash, ResourceHistoryState theNewState) {
+		if (theNewState.getHashCode().toString().equals(theStoredHash)) {
+			return false;
+		}
+		if (theStoredHash != null
+				&& myIsOracleDialect
+				&& theNewState.getEncoding() == ResourceEncodingEnum.JSONC
+				&& theNewState.getResourceBinary() != null) {
+			String legacyHash = SHA_256.hashBytes(theNewState.getResourceBinary()).toString();
+			return !legacyHash.equals(theStoredHash);
+		}
+		return true;
 	}
 
 	boolean conditionallyAlterHistoryEntity(
@@ -86,23 +149,66 @@ public class ResourceHistoryCalculator {
 			theHistoryEntity.setResourceTextVc(theResourceText);
 			theHistoryEntity.setResource(null);
 			theHistoryEntity.setEncoding(ResourceEncodingEnum.JSON);
+			theHistoryEntity.setCompressionDictionaryId(null);
 			return true;
 		}
 
 		return false;
 	}
 
+	/**
+	 * As {@link #isResourceHistoryChanged(ResourceHistoryTable, byte[], ResourceEncodingEnum, Long, String)}, for
+	 * a new binary which was stored using the same encoding and dictionary as the current version.
+	 */
+	boolean isResourceHistoryChanged(
+			ResourceHistoryTable theCurrentHistoryVersion,
+			@Nullable byte[] theResourceBinary,
+			@Nullable String resourceText) {
+		return isResourceHistoryChanged(
+				theCurrentHistoryVersion,
+				theResourceBinary,
+				theCurrentHistoryVersion.getEncoding(),
+				theCurrentHistoryVersion.getCompressionDictionaryId(),
+				resourceText);
+	}
+
+	/**
+	 * Returns <code>true</code> if the new resource body differs from the body stored in the current version.
+	 * Compressed bodies are compared after decompressing them, since the same resource compresses to different
+	 * bytes depending on the encoding and dictionary used (e.g. after the history has been recompressed).
+	 */
 	boolean isResourceHistoryChanged(
 			ResourceHistoryTable theCurrentHistoryVersion,
 			@Nullable byte[] theResourceBinary,
+			@Nullable ResourceEncodingEnum theEncoding,
+			@Nullable Long theCompressionDictionaryId,
 			@Nullable String resourceText) {
 		if (myIsOracleDialect) {
-			return !Arrays.equals(theCurrentHistoryVersion.getResource(), theResourceBinary);
+			byte[] currentBinary = theCurrentHistoryVersion.getResource();
+			if (Arrays.equals(currentBinary, theResourceBinary)) {
+				return false;
+			}
+			ResourceEncodingEnum currentEncoding = theCurrentHistoryVersion.getEncoding();
+			if (currentBinary == null
+					|| theResourceBinary == null
+					|| !isStoredBody(currentEncoding)
+					|| !isStoredBody(theEncoding)
+					|| (currentEncoding == ResourceEncodingEnum.JSON && theEncoding == ResourceEncodingEnum.JSON)) {
+				return true;
+			}
+			String currentText = decodeResource(
+					currentBinary, currentEncoding, theCurrentHistoryVersion.getCompressionDictionaryId());
+			String newText = decodeResource(theResourceBinary, theEncoding, theCompressionDictionaryId);
+			return !StringUtils.equals(currentText, newText);
 		}
 
 		return !StringUtils.equals(theCurrentHistoryVersion.getResourceTextVc(), resourceText);
 	}
 
+	private static boolean isStoredBody(@Nullable ResourceEncodingEnum theEncoding) {
+		return theEncoding != null && (theEncoding == ResourceEncodingEnum.JSON || theEncoding.isCompressed());
+	}
+
 	String encodeResource(
 			IBaseResource theResource, ResourceEncodingEnum theEncoding, List<String> theExcludeElements) {
 		final IParser parser = theEncoding.newParser(myFhirContext);
@@ -110,6 +216,173 @@ public class ResourceHistoryCalculator {
 		return parser.encodeResourceToString(theResource);
 	}
 
+	/**
+	 * Encodes the resource to the byte array which would be stored for the given encoding. The result
+	 * is the same as passing the output of
+	 * {@link #encodeResource(IBaseResource, ResourceEncodingEnum, List)} to
+	 * {@link #getResourceBinary(ResourceEncodingEnum, String)}.
+	 */
+	@Nonnull
+	byte[] encodeResourceToBinary(
+			IBaseResource theResource, ResourceEncodingEnum theEncoding, List<String> theExcludeElements) {
+		return encodeResourceToBinary(theResource, theEncoding, theExcludeElements, null);
+	}
+
+	/**
+	 * As {@link #encodeResourceToBinary(IBaseResource, ResourceEncodingEnum, List)}, but compresses using
+	 * the given dictionary if the encoding is compressed.
+	 */
+	@Nonnull
+	byte[] encodeResourceToBinary(
+			IBaseResource theResource,
+			ResourceEncodingEnum theEncoding,
+			List<String> theExcludeElements,
+			@Nullable ResourceCompressionDictionary theDictionary) {
+		byte[] uncompressed = encodeResourceToUncompressedBinary(theResource, theEncoding, theExcludeElements);
+		return compressForStorage(theEncoding, uncompressed, theDictionary);
+	}
+
+	/**
+	 * Returns the UTF-8 encoded resource body before compression, or an empty array for encodings
+	 * which don't store a body
+	 */
+	@Nonnull
+	private byte[] encodeResourceToUncompressedBinary(
+			IBaseResource theResource, ResourceEncodingEnum theEncoding, List<String> theExcludeElements) {
+		if (!isStoredBody(theEncoding)) {
+			return new byte[0];
+		}
+
+		// Stored bodies are compared byte for byte to detect changes, so they must stay identical to
+		// the UTF-8 form of the encoded String that existing rows hold.
+		return encodeResource(theResource, theEncoding, theExcludeElements).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Nonnull
+	private byte[] compressForStorage(
+			ResourceEncodingEnum theEncoding,
+			byte[] theUncompressed,
+			@Nullable ResourceCompressionDictionary theDictionary) {
+		if (!theEncoding.isCompressed()) {
+			return theUncompressed;
+		}
+		return myCodecRegistry.compress(theEncoding, theUncompressed, theDictionary);
+	}
+
+	/**
+	 * Compresses an already encoded resource body for storage using the given encoding, which must be
+	 * {@link ResourceEncodingEnum#JSON} or a compressed encoding. If the encoding supports dictionaries
+	 * and one has been trained for the resource type, it is used.
+	 *
+	 * @return The stored form of the body, along with the ID of the dictionary used to compress it (if any)
+	 */
+	@Nonnull
+	public ResourceHistoryState encodeTextToBinary(
+			String theResourceType, ResourceEncodingEnum theEncoding, String theEncodedResource) {
+		byte[] encoded = theEncodedResource.getBytes(StandardCharsets.UTF_8);
+		byte[] resourceBinary = encoded;
+		Long compressionDictionaryId = null;
+		if (theEncoding.isCompressed()) {
+			ResourceCompressionDictionary dictionary = getActiveDictionary(theResourceType, theEncoding);
+			resourceBinary = myCodecRegistry.compress(theEncoding, encoded, dictionary);
+			if (dictionary != null) {
+				compressionDictionaryId = dictionary.getId();
+			}
+		} else {
+			Validate.isTrue(theEncoding == ResourceEncodingEnum.JSON, "Can not store using encoding %s", theEncoding);
+		}
+		return new ResourceHistoryState(
+				null, resourceBinary, theEncoding, SHA_256.hashBytes(encoded), compressionDictionaryId);
+	}
+
+	/**
+	 * Decodes a stored resource body, using the dictionary with the given ID if one was
+	 * used to compress it.
+	 *
+	 * @return The JSON resource body, or <code>null</code> for encodings which don't store a body
+	 * 		({@link ResourceEncodingEnum#DEL} and {@link ResourceEncodingEnum#ESR})
+	 */
+	@Nullable
+	public String decodeResource(
+			byte[] theResourceBytes, ResourceEncodingEnum theEncoding, @Nullable Long theCompressionDictionaryId) {
+		if (theEncoding == ResourceEncodingEnum.JSON) {
+			return new String(theResourceBytes, StandardCharsets.UTF_8);
+		}
+		if (!theEncoding.isCompressed()) {
+			return null;
+		}
+
+		ResourceCompressionDictionary dictionary = null;
+		if (theCompressionDictionaryId != null) {
+			if (myCompressionDictionarySvc == null) {
+				throw new InternalErrorException(Msg.code(2812) + "Resource body was compressed using dictionary "
+						+ theCompressionDictionaryId + " but no dictionary service is available");
+			}
+			dictionary = myCompressionDictionarySvc.getDictionary(theCompressionDictionaryId);
+		}
+		return myCodecRegistry.decompressToString(theEncoding, theResourceBytes, dictionary);
+	}
+
+	/**
+	 * Returns the resource body text stored in the given history row, decoding it if it is stored
+	 * in binary form.
+	 */
+	@Nullable
+	public String decodeResource(ResourceHistoryTable theHistoryEntity) {
+		if (theHistoryEntity.getResourceTextVc() != null) {
+			return theHistoryEntity.getResourceTextVc();
+		}
+		if (theHistoryEntity.getResource() == null) {
+			return null;
+		}
+		return decodeResource(
+				theHistoryEntity.getResource(),
+				theHistoryEntity.getEncoding(),
+				theHistoryEntity.getCompressionDictionaryId());
+	}
+
+	@Nullable
+	private ResourceCompressionDictionary getActiveDictionary(
+			IBaseResource theResource, ResourceEncodingEnum theEncoding) {
+		if (myCompressionDictionarySvc == null || !theEncoding.isCompressed()) {
+			return null;
+		}
+		return getActiveDictionary(myFhirContext.getResourceType(theResource), theEncoding);
+	}
+
+	@Nullable
+	private ResourceCompressionDictionary getActiveDictionary(
+			String theResourceType, ResourceEncodingEnum theEncoding) {
+		if (myCompressionDictionarySvc == null) {
+			return null;
+		}
+		return myCompressionDictionarySvc.getActiveDictionary(theResourceType, theEncoding);
+	}
+
+	/**
+	 * Encodes the resource in whichever form this database stores it (inline text, or binary on Oracle)
+	 * and populates the given {@link EncodedResource} with it, as
+	 * {@link #populateEncodedResource(EncodedResource, String, byte[], ResourceEncodingEnum)} would.
+	 */
+	void populateEncodedResource(
+			EncodedResource theEncodedResource,
+			IBaseResource theResource,
+			ResourceEncodingEnum theEncoding,
+			List<String> theExcludeElements) {
+		if (myIsOracleDialect) {
+			ResourceCompressionDictionary dictionary = getActiveDictionary(theResource, theEncoding);
+			byte[] resourceBinary =
+					encodeResourceToBinary(theResource, theEncoding, theExcludeElements, dictionary);
+			populateEncodedResourceInner(theEncodedResource, null, resourceBinary, theEncoding);
+			if (dictionary != null) {
+				theEncodedResource.setCompressionDictionaryId(dictionary.getId());
+			}
+		} else {
+			String resourceText = encodeResource(theResource, theEncoding, theExcludeElements);
+			populateEncodedResourceInner(theEncodedResource, resourceText, null, ResourceEncodingEnum.JSON);
+		}
+	}
+
 	/**
 	 * helper for returning the encoded byte array of the input resource string based on the theEncoding.
 	 *
@@ -124,6 +397,10 @@ public class ResourceHistoryCalculator {
 				return theEncodedResource.getBytes(StandardCharsets.UTF_8);
 			case JSONC:
 				return GZipUtil.compress(theEncodedResource);
+			case JZSTD:
+			case JLZ4:
+				return ourDefaultCodecRegistry.compress(
+						theEncoding, theEncodedResource.getBytes(StandardCharsets.UTF_8), null);
 			default:
 				return new byte[0];
 		}
@@ -149,5 +426,6 @@ public class ResourceHistoryCalculator {
 		encodedResource.setResourceText(encodedResourceString);
 		encodedResource.setResourceBinary(theResourceBinary);
 		encodedResource.setEncoding(theEncoding);
+		encodedResource.setCompressionDictionaryId(null);
 	}
 }
@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.dao.data.IResourceCompressionDictionaryDao;
+import ca.uhn.fhir.jpa.dao.data.IResourceHistoryTableDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.model.entity.ResourceCompressionDictionaryEntity;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
+import ca.uhn.fhir.jpa.util.MemoryCacheService;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public class ResourceCompressionDictionarySvcImpl implements IResourceCompressionDictionarySvc {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(ResourceCompressionDictionarySvcImpl.class);
+	private static final List<ResourceEncodingEnum> SAMPLE_ENCODINGS = List.of(
+			ResourceEncodingEnum.JSON,
+			ResourceEncodingEnum.JSONC,
+			ResourceEncodingEnum.JZSTD,
+			ResourceEncodingEnum.JLZ4);
+
+	private final IHapiTransactionService myTransactionService;
+	private final IResourceCompressionDictionaryDao myResourceCompressionDictionaryDao;
+	private final IResourceHistoryTableDao myResourceHistoryTableDao;
+	private final ResourceCompressionCodecRegistry myCodecRegistry;
+	private final MemoryCacheService myMemoryCacheService;
+
+	public ResourceCompressionDictionarySvcImpl(
+			IHapiTransactionService theTransactionService,
+			IResourceCompressionDictionaryDao theResourceCompressionDictionaryDao,
+			IResourceHistoryTableDao theResourceHistoryTableDao,
+			ResourceCompressionCodecRegistry theCodecRegistry,
+			MemoryCacheService theMemoryCacheService) {
+		myTransactionService = theTransactionService;
+		myResourceCompressionDictionaryDao = theResourceCompressionDictionaryDao;
+		myResourceHistoryTableDao = theResourceHistoryTableDao;
+		myCodecRegistry = theCodecRegistry;
+		myMemoryCacheService = theMemoryCacheService;
+	}
+
+	@Nullable
+	@Override
+	public ResourceCompressionDictionary getActiveDictionary(
+			@Nonnull String theResourceType, @Nonnull ResourceEncodingEnum theEncoding) {
+		if (!myCodecRegistry.hasCodec(theEncoding)
+				|| !myCodecRegistry.getCodec(theEncoding).isDictionarySupported()) {
+			return null;
+		}
+
+		Optional<ResourceCompressionDictionary> retVal = myMemoryCacheService.get(
+				MemoryCacheService.CacheEnum.ACTIVE_COMPRESSION_DICTIONARY,
+				toActiveDictionaryCacheKey(theResourceType, theEncoding),
+				t -> lookupActiveDictionary(theResourceType, theEncoding));
+		return retVal.orElse(null);
+	}
+
+	@Nonnull
+	@Override
+	public ResourceCompressionDictionary getDictionary(long theDictionaryId) {
+		ResourceCompressionDictionary retVal = myMemoryCacheService.get(
+				MemoryCacheService.CacheEnum.COMPRESSION_DICTIONARY_BY_ID, theDictionaryId, this::lookupDictionary);
+		if (retVal == null) {
+			throw new InternalErrorException(
+					Msg.code(2811) + "Unknown resource compression dictionary ID: " + theDictionaryId);
+		}
+		return retVal;
+	}
+
+	@Nullable
+	@Override
+	public ResourceCompressionDictionary trainDictionary(
+			@Nonnull String theResourceType,
+			@Nonnull ResourceEncodingEnum theEncoding,
+			int theSampleCount,
+			int theMaxDictionarySize) {
+		IResourceCompressionCodec codec = myCodecRegistry.getCodec(theEncoding);
+		Validate.isTrue(
+				codec.isDictionarySupported(), "Encoding %s does not support compression dictionaries", theEncoding);
+		Validate.isTrue(
+				theSampleCount >= MINIMUM_SAMPLE_COUNT, "theSampleCount must be at least %s", MINIMUM_SAMPLE_COUNT);
+
+		List<byte[]> samples = myTransactionService
+				.withSystemRequest()
+				.withRequestPartitionId(RequestPartitionId.allPartitions())
+				.readOnly()
+				.execute(() -> loadSamples(theResourceType, theSampleCount));
+		if (samples.size() < MINIMUM_SAMPLE_COUNT) {
+			ourLog.info(
+					"Not training a {} compression dictionary for {}, only found {} samples",
+					theEncoding,
+					theResourceType,
+					samples.size());
+			return null;
+		}
+
+		long start = System.currentTimeMillis();
+		byte[] dictionary = codec.trainDictionary(samples, theMaxDictionarySize);
+
+		ResourceCompressionDictionaryEntity entity = new ResourceCompressionDictionaryEntity();
+		entity.setResourceType(theResourceType);
+		entity.setEncoding(theEncoding);
+		entity.setDictionary(dictionary);
+		entity.setSampleCount(samples.size());
+		entity.setCreated(new Date());
+		ResourceCompressionDictionaryEntity saved = myTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.execute(() -> myResourceCompressionDictionaryDao.save(entity));
+
+		ResourceCompressionDictionary retVal = ResourceCompressionDictionary.fromEntity(saved);
+		myMemoryCacheService.put(MemoryCacheService.CacheEnum.COMPRESSION_DICTIONARY_BY_ID, retVal.getId(), retVal);
+		myMemoryCacheService.put(
+				MemoryCacheService.CacheEnum.ACTIVE_COMPRESSION_DICTIONARY,
+				toActiveDictionaryCacheKey(theResourceType, theEncoding),
+				Optional.of(retVal));
+
+		ourLog.info(
+				"Trained {} compression dictionary {} for {} ({} bytes from {} samples) in {}ms",
+				theEncoding,
+				retVal.getId(),
+				theResourceType,
+				dictionary.length,
+				samples.size(),
+				System.currentTimeMillis() - start);
+		return retVal;
+	}
+
+	private List<byte[]> loadSamples(String theResourceType, int theSampleCount) {
+		List<ResourceHistoryTable> versions = myResourceHistoryTableDao.findNewestForResourceTypeWithEncodings(
+				PageRequest.of(0, theSampleCount), theResourceType, SAMPLE_ENCODINGS);
+
+		List<byte[]> retVal = new ArrayList<>(versions.size());
+		for (ResourceHistoryTable next : versions) {
+			if (next.getResourceTextVc() != null) {
+				retVal.add(next.getResourceTextVc().getBytes(StandardCharsets.UTF_8));
+			} else if (next.getResource() != null) {
+				if (next.getEncoding() == ResourceEncodingEnum.JSON) {
+					retVal.add(next.getResource());
+				} else {
+					ResourceCompressionDictionary dictionary = next.getCompressionDictionaryId() != null
+							? getDictionary(next.getCompressionDictionaryId())
+							: null;
+					retVal.add(myCodecRegistry
+							.getCodec(next.getEncoding())
+							.decompress(next.getResource(), dictionary));
+				}
+			}
+		}
+		return retVal;
+	}
+
+	private Optional<ResourceCompressionDictionary> lookupActiveDictionary(
+			String theResourceType, ResourceEncodingEnum theEncoding) {
+		return myTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.readOnly()
+				.execute(() -> myResourceCompressionDictionaryDao
+						.findNewestForResourceTypeAndEncoding(PageRequest.of(0, 1), theResourceType, theEncoding)
+						.stream()
+						.findFirst()
+						.map(ResourceCompressionDictionary::fromEntity));
+	}
+
+	@Nullable
+	private ResourceCompressionDictionary lookupDictionary(Long theDictionaryId) {
+		return myTransactionService
+				.withSystemRequestOnDefaultPartition()
+				.readOnly()
+				.execute(() -> myResourceCompressionDictionaryDao
+						.findById(theDictionaryId)
+						.map(ResourceCompressionDictionary::fromEntity)
+						.orElse(null));
+	}
+
+	private static String toActiveDictionaryCacheKey(String theResourceType, ResourceEncodingEnum theEncoding) {
+		return theResourceType + "/" + theEncoding.name();
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.svc.IResourceHistoryRecompressionSvc;
+import ca.uhn.fhir.jpa.dao.ResourceHistoryCalculator;
+import ca.uhn.fhir.jpa.dao.ResourceHistoryState;
+import ca.uhn.fhir.jpa.dao.data.IResourceHistoryTableDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ResourceHistoryRecompressionSvcImpl implements IResourceHistoryRecompressionSvc {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(ResourceHistoryRecompressionSvcImpl.class);
+	private static final List<ResourceEncodingEnum> BINARY_ENCODINGS = List.of(
+			ResourceEncodingEnum.JSON,
+			ResourceEncodingEnum.JSONC,
+			ResourceEncodingEnum.JZSTD,
+			ResourceEncodingEnum.JLZ4);
+
+	private final IHapiTransactionService myTransactionService;
+	private final IResourceHistoryTableDao myResourceHistoryTableDao;
+	private final ResourceHistoryCalculator myResourceHistoryCalculator;
+	private final IResourceCompressionDictionarySvc myCompressionDictionarySvc;
+
+	public ResourceHistoryRecompressionSvcImpl(
+			IHapiTransactionService theTransactionService,
+			IResourceHistoryTableDao theResourceHistoryTableDao,
+			ResourceHistoryCalculator theResourceHistoryCalculator,
+			IResourceCompressionDictionarySvc theCompressionDictionarySvc) {
+		myTransactionService = theTransactionService;
+		myResourceHistoryTableDao = theResourceHistoryTableDao;
+		myResourceHistoryCalculator = theResourceHistoryCalculator;
+		myCompressionDictionarySvc = theCompressionDictionarySvc;
+	}
+
+	@Nullable
+	@Override
+	public Long getMinHistoryPid() {
+		return myTransactionService
+				.withSystemRequest()
+				.withRequestPartitionId(RequestPartitionId.allPartitions())
+				.readOnly()
+				.execute(myResourceHistoryTableDao::findMinHistoryPid);
+	}
+
+	@Nullable
+	@Override
+	public Long getMaxHistoryPid() {
+		return myTransactionService
+				.withSystemRequest()
+				.withRequestPartitionId(RequestPartitionId.allPartitions())
+				.readOnly()
+				.execute(myResourceHistoryTableDao::findMaxHistoryPid);
+	}
+
+	@Override
+	public int recompressHistoryPidRange(
+			long theStartPidInclusive,
+			long theEndPidInclusive,
+			@Nullable List<String> theResourceTypes,
+			@Nonnull ResourceEncodingEnum theTargetEncoding) {
+		Validate.isTrue(
+				theTargetEncoding == ResourceEncodingEnum.JSON || theTargetEncoding.isCompressed(),
+				"Can not recompress resource history using encoding %s",
+				theTargetEncoding);
+
+		return myTransactionService
+				.withSystemRequest()
+				.withRequestPartitionId(RequestPartitionId.allPartitions())
+				.execute(() -> recompressHistoryPidRangeInTransaction(
+						theStartPidInclusive, theEndPidInclusive, theResourceTypes, theTargetEncoding));
+	}
+
+	private int recompressHistoryPidRangeInTransaction(
+			long theStartPidInclusive,
+			long theEndPidInclusive,
+			@Nullable List<String> theResourceTypes,
+			ResourceEncodingEnum theTargetEncoding) {
+		List<ResourceHistoryTable> versions;
+		if (theResourceTypes == null || theResourceTypes.isEmpty()) {
+			versions = myResourceHistoryTableDao.findBinaryForHistoryPidRange(
+					theStartPidInclusive, theEndPidInclusive, BINARY_ENCODINGS);
+		} else {
+			versions = myResourceHistoryTableDao.findBinaryForHistoryPidRangeAndResourceTypes(
+					theStartPidInclusive, theEndPidInclusive, BINARY_ENCODINGS, theResourceTypes);
+		}
+
+		int count = 0;
+		for (ResourceHistoryTable next : versions) {
+			if (isAlreadyStoredAs(next, theTargetEncoding)) {
+				continue;
+			}
+
+			String resourceText = myResourceHistoryCalculator.decodeResource(next);
+			ResourceHistoryState newState = myResourceHistoryCalculator.encodeTextToBinary(
+					next.getResourceType(), theTargetEncoding, resourceText);
+			next.setResource(newState.getResourceBinary());
+			next.setEncoding(newState.getEncoding());
+			next.setCompressionDictionaryId(newState.getCompressionDictionaryId());
+			count++;
+		}
+
+		ourLog.debug(
+				"Recompressed {} of {} history rows between PIDs {} and {} using {}",
+				count,
+				versions.size(),
+				theStartPidInclusive,
+				theEndPidInclusive,
+				theTargetEncoding);
+		return count;
+	}
+
+	private boolean isAlreadyStoredAs(ResourceHistoryTable theHistoryEntity, ResourceEncodingEnum theTargetEncoding) {
+		if (theHistoryEntity.getEncoding() != theTargetEncoding) {
+			return false;
+		}
+		ResourceCompressionDictionary activeDictionary =
+				myCompressionDictionarySvc.getActiveDictionary(theHistoryEntity.getResourceType(), theTargetEncoding);
+		Long activeDictionaryId = activeDictionary != null ? activeDictionary.getId() : null;
+		return Objects.equals(theHistoryEntity.getCompressionDictionaryId(), activeDictionaryId);
+	}
+}
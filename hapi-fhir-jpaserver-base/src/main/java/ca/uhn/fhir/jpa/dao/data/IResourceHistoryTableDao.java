@@ -21,6 +21,7 @@ package ca.uhn.fhir.jpa.dao.data;
 
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.dao.JpaPidFk;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTablePk;
 import org.springframework.data.domain.Pageable;
@@ -103,4 +104,41 @@ public interface IResourceHistoryTableDao
 			+ "AND t.myVersion = v.myResourceVersion")
 	List<ResourceHistoryTable> findCurrentVersionsByResourcePidsAndFetchResourceTable(
 			@Param("pids") List<JpaPidFk> theVersionlessPids);
+
+	/**
+	 * Returns the most recently written versions of a given resource type which have
+	 * one of the given encodings. Used to sample resource bodies when training compression
+	 * dictionaries.
+	 */
+	@Query("SELECT t FROM ResourceHistoryTable t "
+			+ "WHERE t.myResourceType = :resType AND t.myEncoding IN (:encodings) "
+			+ "ORDER BY t.myId.myVersionId DESC")
+	List<ResourceHistoryTable> findNewestForResourceTypeWithEncodings(
+			Pageable thePage,
+			@Param("resType") String theResourceType,
+			@Param("encodings") List<ResourceEncodingEnum> theEncodings);
+
+	@Query("SELECT MIN(t.myId.myVersionId) FROM ResourceHistoryTable t")
+	Long findMinHistoryPid();
+
+	@Query("SELECT MAX(t.myId.myVersionId) FROM ResourceHistoryTable t")
+	Long findMaxHistoryPid();
+
+	@Query("SELECT t FROM ResourceHistoryTable t "
+			+ "WHERE t.myId.myVersionId >= :low AND t.myId.myVersionId <= :high "
+			+ "AND t.myResource IS NOT NULL AND t.myEncoding IN (:encodings)")
+	List<ResourceHistoryTable> findBinaryForHistoryPidRange(
+			@Param("low") long theLowPidInclusive,
+			@Param("high") long theHighPidInclusive,
+			@Param("encodings") List<ResourceEncodingEnum> theEncodings);
+
+	@Query("SELECT t FROM ResourceHistoryTable t "
+			+ "WHERE t.myId.myVersionId >= :low AND t.myId.myVersionId <= :high "
+			+ "AND t.myResource IS NOT NULL AND t.myEncoding IN (:encodings) "
+			+ "AND t.myResourceType IN (:resTypes)")
+	List<ResourceHistoryTable> findBinaryForHistoryPidRangeAndResourceTypes(
+			@Param("low") long theLowPidInclusive,
+			@Param("high") long theHighPidInclusive,
+			@Param("encodings") List<ResourceEncodingEnum> theEncodings,
+			@Param("resTypes") List<String> theResourceTypes);
 }
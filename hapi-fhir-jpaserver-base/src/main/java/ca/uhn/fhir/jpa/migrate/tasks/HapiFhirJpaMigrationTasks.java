@@ -169,6 +169,31 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 			resLink.addColumn("20250515.501", "SRC_RES_TYPE_ID").nullable().type(ColumnTypeEnum.SMALLINT);
 			resLink.addColumn("20250515.502", "TARGET_RES_TYPE_ID").nullable().type(ColumnTypeEnum.SMALLINT);
 		}
+
+		{
+			// Add HFJ_RES_COMPRESS_DICT table
+			version.addIdGenerator("20250601.1", "SEQ_RES_COMPRESS_DICT_ID", 1);
+			Builder.BuilderAddTableByColumns compressDict =
+					version.addTableByColumns("20250601.2", "HFJ_RES_COMPRESS_DICT", "DICT_ID");
+
+			compressDict.addColumn("DICT_ID").nonNullable().type(ColumnTypeEnum.LONG);
+			compressDict.addColumn("RES_TYPE").nonNullable().type(ColumnTypeEnum.STRING, 100);
+			compressDict.addColumn("RES_ENCODING").nonNullable().type(ColumnTypeEnum.STRING, 5);
+			compressDict.addColumn("DICT_DATA").nonNullable().type(ColumnTypeEnum.BINARY);
+			compressDict.addColumn("SAMPLE_COUNT").nonNullable().type(ColumnTypeEnum.INT);
+			compressDict.addColumn("CREATED").nonNullable().type(ColumnTypeEnum.DATE_TIMESTAMP);
+
+			compressDict
+					.addIndex("20250601.3", "IDX_RESCOMPDICT_TYPE_ENC")
+					.unique(false)
+					.withColumns("RES_TYPE", "RES_ENCODING", "DICT_ID");
+
+			// Add column COMPRESS_DICT_ID to HFJ_RES_VER
+			version.onTable("HFJ_RES_VER")
+					.addColumn("20250601.4", "COMPRESS_DICT_ID")
+					.nullable()
+					.type(ColumnTypeEnum.LONG);
+		}
 	}
 
 	protected void init820() {
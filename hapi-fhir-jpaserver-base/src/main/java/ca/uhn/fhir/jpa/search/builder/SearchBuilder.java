@@ -88,6 +88,7 @@ import ca.uhn.fhir.rest.api.RestSearchParameterTypeEnum;
 import ca.uhn.fhir.rest.api.SearchContainedModeEnum;
 import ca.uhn.fhir.rest.api.SortOrderEnum;
 import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.api.SummaryEnum;
 import ca.uhn.fhir.rest.api.server.IPreResourceAccessDetails;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.param.BaseParamWithPrefix;
@@ -98,8 +99,10 @@ import ca.uhn.fhir.rest.param.ParameterUtil;
 import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.method.ElementsParameter;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.rest.server.util.CompositeInterceptorBroadcaster;
 import ca.uhn.fhir.rest.server.util.ISearchParamRegistry;
@@ -1202,6 +1205,8 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			Collection<JpaPid> theIncludedPids,
 			List<IBaseResource> theResourceListToPopulate,
 			boolean theForHistoryOperation,
+			boolean theSummaryElementsOnly,
+			@Nullable Set<String> theParseElements,
 			Map<Long, Integer> thePosition) {
 
 		Map<JpaPid, Long> resourcePidToVersion = null;
@@ -1267,7 +1272,12 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 
 			IBaseResource resource;
 			resource = myJpaStorageResourceParser.toResource(
-					resourceType, next, tagMap.get(next.getResourceId()), theForHistoryOperation);
+					resourceType,
+					next,
+					tagMap.get(next.getResourceId()),
+					theForHistoryOperation,
+					theSummaryElementsOnly,
+					theParseElements);
 			if (resource == null) {
 				ourLog.warn(
 						"Unable to find resource {}/{}/_history/{} in database",
@@ -1422,10 +1432,61 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			}
 		}
 
+		boolean summaryElementsOnly = false;
+		Set<String> parseElements = null;
+		if (myStorageSettings.isSummaryOnlyParsingEnabled()) {
+			summaryElementsOnly = isSummaryRequest(theDetails);
+			parseElements = getRequestedElements(theDetails);
+		}
+
 		// We only chunk because some jdbc drivers can't handle long param lists.
 		QueryChunker.chunk(
 				thePids,
-				t -> doLoadPids(t, theIncludedPids, theResourceListToPopulate, theForHistoryOperation, position));
+				t -> doLoadPids(
+						t,
+						theIncludedPids,
+						theResourceListToPopulate,
+						theForHistoryOperation,
+						summaryElementsOnly,
+						parseElements,
+						position));
+	}
+
+	/**
+	 * Returns <code>true</code> if the resources are being loaded for a request which
+	 * will be answered with summary elements only (i.e. <code>_summary=true</code>)
+	 */
+	private static boolean isSummaryRequest(@Nullable RequestDetails theDetails) {
+		if (theDetails == null || theDetails.getParameters() == null) {
+			return false;
+		}
+		return RestfulServerUtils.determineSummaryMode(theDetails).equals(Collections.singleton(SummaryEnum.TRUE));
+	}
+
+	/**
+	 * Returns the element paths requested by the <code>_elements</code> parameter of the
+	 * request, qualified the same way {@link RestfulServerUtils#configureResponseParser} qualifies
+	 * them for encoding, or <code>null</code> if the parameter is absent. Paths which name another
+	 * resource type (e.g. <code>Bundle.total</code>) leave resources of other types unaffected, so
+	 * the parsed elements are always a superset of the encoded ones.
+	 */
+	@Nullable
+	private static Set<String> getRequestedElements(@Nullable RequestDetails theDetails) {
+		if (theDetails == null || theDetails.getParameters() == null || theDetails.getServer() == null) {
+			return null;
+		}
+		Set<String> elements = ElementsParameter.getElementsValueOrNull(theDetails, false);
+		if (elements == null || elements.isEmpty()) {
+			return null;
+		}
+		String elementsAppliesTo = isNotBlank(theDetails.getResourceName()) ? theDetails.getResourceName() : "*";
+		Set<String> retVal = new HashSet<>();
+		for (String next : elements) {
+			if (isNotBlank(next)) {
+				retVal.add(Character.isUpperCase(next.charAt(0)) ? next : elementsAppliesTo + "." + next);
+			}
+		}
+		return retVal;
 	}
 
 	/**
@@ -4,6 +4,7 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
@@ -11,8 +12,10 @@ import org.hl7.fhir.dstu3.hapi.ctx.FhirDstu3;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.hapi.ctx.FhirR4;
 import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.nio.charset.StandardCharsets;
@@ -24,11 +27,13 @@ import java.util.Date;
 import java.util.List;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResourceHistoryCalculatorTest {
@@ -64,7 +69,11 @@ class ResourceHistoryCalculatorTest {
 			Arguments.of(FhirContext.forR4Cached(), true, ResourceEncodingEnum.ESR, EXCLUDED_ELEMENTS_1),
 			Arguments.of(FhirContext.forR4Cached(), false, ResourceEncodingEnum.ESR, EXCLUDED_ELEMENTS_2),
 			Arguments.of(FhirContext.forR4Cached(), true, ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_2),
-			Arguments.of(FhirContext.forR4Cached(), false, ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_1)
+			Arguments.of(FhirContext.forR4Cached(), false, ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_1),
+			Arguments.of(FhirContext.forR4Cached(), true, ResourceEncodingEnum.JZSTD, EXCLUDED_ELEMENTS_1),
+			Arguments.of(FhirContext.forR4Cached(), false, ResourceEncodingEnum.JZSTD, EXCLUDED_ELEMENTS_2),
+			Arguments.of(FhirContext.forR4Cached(), true, ResourceEncodingEnum.JLZ4, EXCLUDED_ELEMENTS_2),
+			Arguments.of(FhirContext.forR4Cached(), false, ResourceEncodingEnum.JLZ4, EXCLUDED_ELEMENTS_1)
 		);
 	}
 
@@ -88,7 +97,10 @@ class ResourceHistoryCalculatorTest {
 			assertNotNull(result.getResourceBinary()); // On Oracle: We use the resource binary to serve up the resource content
 			assertNull(result.getResourceText()); // On Oracle: We do NOT use the resource text to serve up the resource content
 			assertEquals(theResourceEncoding, result.getEncoding()); // On Oracle, the resource encoding is what we used to encode the binary
-			assertEquals(SHA_256.hashBytes(result.getResourceBinary()), result.getHashCode()); // On Oracle, the SHA 256 hash is of the binary
+			final byte[] expectedHashedBytes = theResourceEncoding == ResourceEncodingEnum.JSON || theResourceEncoding.isCompressed()
+				? calculator.encodeResource(patient, theResourceEncoding, theExcludedElements).getBytes(StandardCharsets.UTF_8)
+				: new byte[0];
+			assertEquals(SHA_256.hashBytes(expectedHashedBytes), result.getHashCode()); // On Oracle, the SHA 256 hash is of the binary before it is compressed
 		} else {
 			assertNull(result.getResourceBinary()); // Non-Oracle: We do NOT use the resource binary to serve up the resource content
 			assertNotNull(result.getResourceText()); // Non-Oracle: We use the resource text to serve up the resource content
@@ -165,7 +177,9 @@ class ResourceHistoryCalculatorTest {
 			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.ESR, EXCLUDED_ELEMENTS_1),
 			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.ESR, EXCLUDED_ELEMENTS_2),
 			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_1),
-			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_2)
+			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.JSON, EXCLUDED_ELEMENTS_2),
+			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.JZSTD, EXCLUDED_ELEMENTS_1),
+			Arguments.of(FhirContext.forR4Cached(), ResourceEncodingEnum.JLZ4, EXCLUDED_ELEMENTS_2)
 		);
 	}
 
@@ -181,6 +195,55 @@ class ResourceHistoryCalculatorTest {
 		assertEquals(expectedEncoding, encodedResource);
 	}
 
+	@ParameterizedTest
+	@MethodSource("encodeResourceArguments")
+	void encodeResourceToBinary_matchesStringEncoding(FhirContext theFhirContext, ResourceEncodingEnum theResourceEncoding, List<String> theExcludedElements) {
+		final IBaseResource patient = getPatient(theFhirContext);
+		final ResourceHistoryCalculator calculator = getCalculator(theFhirContext, true);
+
+		final byte[] resourceBinary = calculator.encodeResourceToBinary(patient, theResourceEncoding, theExcludedElements);
+
+		final String expectedEncoding = calculator.encodeResource(patient, theResourceEncoding, theExcludedElements);
+		switch (theResourceEncoding) {
+			case JSON:
+				assertArrayEquals(expectedEncoding.getBytes(StandardCharsets.UTF_8), resourceBinary);
+				break;
+			case JSONC:
+				assertEquals(expectedEncoding, GZipUtil.decompress(resourceBinary));
+				break;
+			case JZSTD:
+			case JLZ4:
+				assertEquals(expectedEncoding, calculator.decodeResource(resourceBinary, theResourceEncoding, null));
+				break;
+			case DEL :
+			case ESR :
+			default:
+				assertArrayEquals(new byte[0], resourceBinary);
+		}
+	}
+
+	/**
+	 * Characters outside the Basic Multilingual Plane must be stored as raw UTF-8, the same as
+	 * existing rows, or an otherwise unchanged resource would be detected as changed
+	 */
+	@ParameterizedTest
+	@EnumSource(value = ResourceEncodingEnum.class, names = {"JSON", "JSONC"})
+	void encodeResourceToBinary_supplementaryCharacter(ResourceEncodingEnum theResourceEncoding) {
+		final Patient patient = getPatientR4();
+		patient.addName().setFamily("Smith \uD83D\uDE00");
+
+		final byte[] resourceBinary = CALCULATOR_ORACLE.encodeResourceToBinary(patient, theResourceEncoding, List.of());
+
+		final String expectedEncoding = CALCULATOR_ORACLE.encodeResource(patient, theResourceEncoding, List.of());
+		assertThat(expectedEncoding).contains("Smith \uD83D\uDE00");
+		final byte[] existingBytes = ResourceHistoryCalculator.getResourceBinary(theResourceEncoding, expectedEncoding);
+		assertArrayEquals(existingBytes, resourceBinary);
+
+		final ResourceHistoryTable resourceHistoryTable = new ResourceHistoryTable();
+		resourceHistoryTable.setResource(existingBytes);
+		assertFalse(CALCULATOR_ORACLE.isResourceHistoryChanged(resourceHistoryTable, resourceBinary, null));
+	}
+
 	private static Stream<Arguments> getResourceBinaryArguments() {
 		return Stream.of(
 			Arguments.of(ResourceEncodingEnum.JSONC, ENCODED_RESOURCE_1),
@@ -190,7 +253,9 @@ class ResourceHistoryCalculatorTest {
 			Arguments.of(ResourceEncodingEnum.ESR, ENCODED_RESOURCE_1),
 			Arguments.of(ResourceEncodingEnum.ESR, ENCODED_RESOURCE_2),
 			Arguments.of(ResourceEncodingEnum.JSON, ENCODED_RESOURCE_1),
-			Arguments.of(ResourceEncodingEnum.JSON, ENCODED_RESOURCE_2)
+			Arguments.of(ResourceEncodingEnum.JSON, ENCODED_RESOURCE_2),
+			Arguments.of(ResourceEncodingEnum.JZSTD, ENCODED_RESOURCE_1),
+			Arguments.of(ResourceEncodingEnum.JLZ4, ENCODED_RESOURCE_2)
 		);
 	}
 
@@ -206,6 +271,10 @@ class ResourceHistoryCalculatorTest {
 			case JSONC:
 				assertArrayEquals(GZipUtil.compress(theEncodedResource), resourceBinary);
 				break;
+			case JZSTD:
+			case JLZ4:
+				assertEquals(theEncodedResource, CALCULATOR_ORACLE.decodeResource(resourceBinary, theResourceEncoding, null));
+				break;
 			case DEL :
 			case ESR :
 			default:
@@ -245,6 +314,39 @@ class ResourceHistoryCalculatorTest {
 		}
 	}
 
+	@ParameterizedTest
+	@EnumSource(value = ResourceEncodingEnum.class, names = {"JSON", "JSONC", "JZSTD", "JLZ4"})
+	void isResourceHistoryChanged_comparesUncompressedBodies(ResourceEncodingEnum theNewEncoding) {
+		final Patient patient = getPatientR4();
+		final ResourceHistoryState current = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, ResourceEncodingEnum.JSONC, List.of());
+		final ResourceHistoryTable resourceHistoryTable = new ResourceHistoryTable();
+		resourceHistoryTable.setResource(current.getResourceBinary());
+		resourceHistoryTable.setEncoding(current.getEncoding());
+
+		final ResourceHistoryState same = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, theNewEncoding, List.of());
+		assertEquals(current.getHashCode(), same.getHashCode());
+		assertFalse(CALCULATOR_ORACLE.isResourceHistoryChanged(resourceHistoryTable, same.getResourceBinary(), same.getEncoding(), same.getCompressionDictionaryId(), null));
+
+		patient.addName().setFamily("Jones");
+		final ResourceHistoryState different = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, theNewEncoding, List.of());
+		assertTrue(CALCULATOR_ORACLE.isResourceHistoryChanged(resourceHistoryTable, different.getResourceBinary(), different.getEncoding(), different.getCompressionDictionaryId(), null));
+	}
+
+	@Test
+	void isHashChanged_acceptsHashOfCompressedJsonc() {
+		final Patient patient = getPatientR4();
+		final ResourceHistoryState state = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, ResourceEncodingEnum.JSONC, List.of());
+		final String legacyHash = SHA_256.hashBytes(state.getResourceBinary()).toString();
+
+		assertFalse(CALCULATOR_ORACLE.isHashChanged(state.getHashCode().toString(), state));
+		assertFalse(CALCULATOR_ORACLE.isHashChanged(legacyHash, state));
+		assertTrue(CALCULATOR_ORACLE.isHashChanged(null, state));
+
+		patient.addName().setFamily("Jones");
+		final ResourceHistoryState changed = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, ResourceEncodingEnum.JSONC, List.of());
+		assertTrue(CALCULATOR_ORACLE.isHashChanged(legacyHash, changed));
+	}
+
 	private static Stream<Arguments> populateEncodedResourceArguments() {
 		return Stream.of(
 			Arguments.of(true, ResourceEncodingEnum.JSONC, ENCODED_RESOURCE_1),
@@ -286,6 +388,32 @@ class ResourceHistoryCalculatorTest {
 		}
 	}
 
+	@ParameterizedTest
+	@EnumSource(value = ResourceEncodingEnum.class, names = {"JSON", "JSONC", "JZSTD", "JLZ4"})
+	void decodeResource_roundTripsEveryStoredEncoding(ResourceEncodingEnum theResourceEncoding) {
+		final IBaseResource patient = getPatientR4();
+		final ResourceHistoryState state = CALCULATOR_ORACLE.calculateResourceHistoryState(patient, theResourceEncoding, List.of());
+
+		final ResourceHistoryTable resourceHistoryTable = new ResourceHistoryTable();
+		resourceHistoryTable.setResource(state.getResourceBinary());
+		resourceHistoryTable.setEncoding(state.getEncoding());
+		resourceHistoryTable.setCompressionDictionaryId(state.getCompressionDictionaryId());
+
+		final String expectedEncoding = CALCULATOR_ORACLE.encodeResource(patient, theResourceEncoding, List.of());
+		assertNull(state.getCompressionDictionaryId());
+		assertEquals(expectedEncoding, CALCULATOR_ORACLE.decodeResource(resourceHistoryTable));
+	}
+
+	@Test
+	void decodeResource_dictionaryWithoutDictionarySvc() {
+		final byte[] resourceBinary = ResourceHistoryCalculator.getResourceBinary(ResourceEncodingEnum.JZSTD, ENCODED_RESOURCE_1);
+
+		InternalErrorException e = assertThrows(
+			InternalErrorException.class,
+			() -> CALCULATOR_ORACLE.decodeResource(resourceBinary, ResourceEncodingEnum.JZSTD, 1L));
+		assertThat(e.getMessage()).contains("HAPI-2812");
+	}
+
 	private ResourceHistoryCalculator getCalculator(boolean theIsOracle) {
 		return theIsOracle ? CALCULATOR_ORACLE : CALCULATOR_NON_ORACLE;
 	}
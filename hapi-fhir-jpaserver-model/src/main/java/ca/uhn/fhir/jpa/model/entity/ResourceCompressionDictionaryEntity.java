@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Model
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hibernate.Length;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * A trained compression dictionary for a given resource type and
+ * {@link ResourceEncodingEnum encoding}. Resource bodies in
+ * {@link ResourceHistoryTable} which were compressed using a dictionary
+ * reference it by PID (see {@link ResourceHistoryTable#getCompressionDictionaryId()}).
+ * <p>
+ * Rows in this table are never modified once they are written, since any
+ * history row compressed with a dictionary can only be read using exactly that
+ * dictionary. When a new dictionary is trained for a resource type it becomes
+ * the one used for new writes, but older ones are kept for reading.
+ * </p>
+ */
+@Entity
+@Table(
+		name = ResourceCompressionDictionaryEntity.HFJ_RES_COMPRESS_DICT,
+		indexes = {
+			@Index(name = "IDX_RESCOMPDICT_TYPE_ENC", columnList = "RES_TYPE,RES_ENCODING,DICT_ID"),
+		})
+public class ResourceCompressionDictionaryEntity implements Serializable {
+
+	public static final String HFJ_RES_COMPRESS_DICT = "HFJ_RES_COMPRESS_DICT";
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_RES_COMPRESS_DICT_ID")
+	@SequenceGenerator(name = "SEQ_RES_COMPRESS_DICT_ID", sequenceName = "SEQ_RES_COMPRESS_DICT_ID")
+	@Column(name = "DICT_ID")
+	private Long myId;
+
+	@Column(name = "RES_TYPE", length = ResourceTable.RESTYPE_LEN, nullable = false, updatable = false)
+	private String myResourceType;
+
+	@Column(
+			name = "RES_ENCODING",
+			length = ResourceHistoryTable.ENCODING_COL_LENGTH,
+			nullable = false,
+			updatable = false)
+	@Enumerated(EnumType.STRING)
+	@JdbcTypeCode(SqlTypes.VARCHAR)
+	private ResourceEncodingEnum myEncoding;
+
+	@Column(name = "DICT_DATA", length = Length.LONG32, nullable = false, updatable = false)
+	private byte[] myDictionary;
+
+	@Column(name = "SAMPLE_COUNT", nullable = false, updatable = false)
+	private int mySampleCount;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "CREATED", nullable = false, updatable = false)
+	private Date myCreated;
+
+	public Long getId() {
+		return myId;
+	}
+
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	public void setResourceType(String theResourceType) {
+		myResourceType = theResourceType;
+	}
+
+	public ResourceEncodingEnum getEncoding() {
+		return myEncoding;
+	}
+
+	public void setEncoding(ResourceEncodingEnum theEncoding) {
+		myEncoding = theEncoding;
+	}
+
+	public byte[] getDictionary() {
+		return myDictionary;
+	}
+
+	public void setDictionary(byte[] theDictionary) {
+		myDictionary = theDictionary;
+	}
+
+	/**
+	 * The number of resource bodies the dictionary was trained from
+	 */
+	public int getSampleCount() {
+		return mySampleCount;
+	}
+
+	public void setSampleCount(int theSampleCount) {
+		mySampleCount = theSampleCount;
+	}
+
+	public Date getCreated() {
+		return myCreated;
+	}
+
+	public void setCreated(Date theCreated) {
+		myCreated = theCreated;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("id", myId)
+				.append("resourceType", myResourceType)
+				.append("encoding", myEncoding)
+				.append("size", myDictionary != null ? myDictionary.length : 0)
+				.append("sampleCount", mySampleCount)
+				.append("created", myCreated)
+				.toString();
+	}
+}
@@ -40,6 +40,17 @@ public enum ResourceEncodingEnum {
 	 */
 	JSONC,
 
+	/**
+	 * Json compressed using Zstandard, optionally with a trained dictionary
+	 * (see {@link ResourceHistoryTable#getCompressionDictionaryId()})
+	 */
+	JZSTD,
+
+	/**
+	 * Json compressed using LZ4
+	 */
+	JLZ4,
+
 	/**
 	 * Resource was deleted - No contents expected
 	 */
@@ -54,4 +65,11 @@ public enum ResourceEncodingEnum {
 	public IParser newParser(FhirContext theContext) {
 		return theContext.newJsonParser();
 	}
+
+	/**
+	 * Returns <code>true</code> if the stored resource body for this encoding is compressed JSON
+	 */
+	public boolean isCompressed() {
+		return this == JSONC || this == JZSTD || this == JLZ4;
+	}
 }
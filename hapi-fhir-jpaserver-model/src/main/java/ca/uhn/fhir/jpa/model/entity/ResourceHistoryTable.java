@@ -146,6 +146,16 @@ public class ResourceHistoryTable extends BaseHasResource<ResourceHistoryTablePk
 	@OptimisticLock(excluded = true)
 	private ResourceEncodingEnum myEncoding;
 
+	/**
+	 * If the resource body was compressed using a trained dictionary, this is the
+	 * PID of the {@link ResourceCompressionDictionaryEntity} which is needed to
+	 * decompress it. This is deliberately not a foreign key, since dictionaries are
+	 * immutable and rows in this table are written far more often than dictionaries.
+	 */
+	@Column(name = "COMPRESS_DICT_ID", nullable = true)
+	@OptimisticLock(excluded = true)
+	private Long myCompressionDictionaryId;
+
 	// TODO: This was added in 6.8.0 - In the future we should drop ResourceHistoryProvenanceEntity
 	@Column(name = "SOURCE_URI", length = SOURCE_URI_LENGTH, nullable = true)
 	private String mySourceUri;
@@ -247,6 +257,15 @@ public class ResourceHistoryTable extends BaseHasResource<ResourceHistoryTablePk
 		myEncoding = theEncoding;
 	}
 
+	@Nullable
+	public Long getCompressionDictionaryId() {
+		return myCompressionDictionaryId;
+	}
+
+	public void setCompressionDictionaryId(@Nullable Long theCompressionDictionaryId) {
+		myCompressionDictionaryId = theCompressionDictionaryId;
+	}
+
 	@Nonnull
 	@Override
 	public ResourceHistoryTablePk getId() {
@@ -0,0 +1,132 @@
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.batch2.api.IJobCoordinator;
+import ca.uhn.fhir.batch2.jobs.recompress.RecompressResourceHistoryAppCtx;
+import ca.uhn.fhir.batch2.jobs.recompress.RecompressResourceHistoryJobParameters;
+import ca.uhn.fhir.batch2.model.JobInstanceStartRequest;
+import ca.uhn.fhir.jpa.api.model.DaoMethodOutcome;
+import ca.uhn.fhir.jpa.batch.models.Batch2JobStartResponse;
+import ca.uhn.fhir.jpa.dao.BaseHapiFhirDao;
+import ca.uhn.fhir.jpa.dao.ResourceHistoryCalculator;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RecompressResourceHistoryJobR4Test extends BaseJpaR4Test {
+
+	private static final int PATIENT_COUNT = 50;
+
+	@Autowired
+	private IJobCoordinator myJobCoordinator;
+	@Autowired
+	private ResourceHistoryCalculator myResourceHistoryCalculator;
+	@Autowired
+	private ResourceCompressionCodecRegistry myResourceCompressionCodecRegistry;
+	@Autowired
+	private IResourceCompressionDictionarySvc myResourceCompressionDictionarySvc;
+
+	@BeforeEach
+	public void beforeUseBinaryStorage() {
+		// H2 stores resource bodies inline, so behave like Oracle in order to
+		// write binary (and therefore recompressible) resource bodies
+		getPatientDaoTarget()
+				.setResourceHistoryCalculator(new ResourceHistoryCalculator(
+						myFhirContext, true, myResourceCompressionCodecRegistry, myResourceCompressionDictionarySvc));
+	}
+
+	@AfterEach
+	public void afterRestoreResourceHistoryCalculator() {
+		getPatientDaoTarget().setResourceHistoryCalculator(myResourceHistoryCalculator);
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"JZSTD, false",
+		"JZSTD, true",
+		"JLZ4,  false"
+	})
+	public void testRecompress(ResourceEncodingEnum theTargetEncoding, boolean theTrainDictionaries) {
+		// Setup
+		List<IIdType> ids = new ArrayList<>();
+		for (int i = 0; i < PATIENT_COUNT; i++) {
+			Patient patient = new Patient();
+			patient.setActive(true);
+			patient.addIdentifier().setSystem("http://foo").setValue("ID" + i);
+			patient.addName().setFamily("Family" + i).addGiven("Given" + i);
+			patient.setGender(Enumerations.AdministrativeGender.FEMALE);
+			ids.add(myPatientDao.create(patient, mySrd).getId().toUnqualifiedVersionless());
+		}
+
+		runInTransaction(() -> {
+			List<ResourceHistoryTable> versions = myResourceHistoryTableDao.findAll();
+			assertThat(versions).hasSize(PATIENT_COUNT);
+			for (ResourceHistoryTable next : versions) {
+				assertEquals(ResourceEncodingEnum.JSONC, next.getEncoding());
+				assertNull(next.getResourceTextVc());
+				assertNotNull(next.getResource());
+			}
+		});
+
+		// Test
+		RecompressResourceHistoryJobParameters parameters = new RecompressResourceHistoryJobParameters()
+				.setTargetEncoding(theTargetEncoding)
+				.addResourceType("Patient")
+				.setTrainDictionaries(theTrainDictionaries)
+				.setDictionarySampleCount(PATIENT_COUNT)
+				.setDictionaryMaxSize(1024)
+				.setPidRangeSize(10);
+		JobInstanceStartRequest startRequest = new JobInstanceStartRequest();
+		startRequest.setJobDefinitionId(RecompressResourceHistoryAppCtx.JOB_RECOMPRESS_RESOURCE_HISTORY);
+		startRequest.setParameters(parameters);
+		Batch2JobStartResponse startResponse = myJobCoordinator.startInstance(mySrd, startRequest);
+		myBatch2JobHelper.awaitJobCompletion(startResponse);
+
+		// Verify
+		runInTransaction(() -> {
+			List<ResourceHistoryTable> versions = myResourceHistoryTableDao.findAll();
+			assertThat(versions).hasSize(PATIENT_COUNT);
+			for (ResourceHistoryTable next : versions) {
+				assertEquals(theTargetEncoding, next.getEncoding());
+				if (theTrainDictionaries) {
+					assertNotNull(next.getCompressionDictionaryId());
+				} else {
+					assertNull(next.getCompressionDictionaryId());
+				}
+			}
+		});
+
+		for (int i = 0; i < PATIENT_COUNT; i++) {
+			Patient patient = myPatientDao.read(ids.get(i), mySrd);
+			assertEquals("1", patient.getIdElement().getVersionIdPart());
+			assertEquals("ID" + i, patient.getIdentifierFirstRep().getValue());
+			assertEquals("Family" + i, patient.getNameFirstRep().getFamily());
+
+			// Updating with identical content must not be detected as a change
+			DaoMethodOutcome outcome = myPatientDao.update(patient, mySrd);
+			assertEquals("1", outcome.getId().getVersionIdPart());
+		}
+
+		runInTransaction(() -> assertEquals(PATIENT_COUNT, myResourceHistoryTableDao.count()));
+	}
+
+	private BaseHapiFhirDao<?> getPatientDaoTarget() {
+		return AopTestUtils.getTargetObject(myPatientDao);
+	}
+}
@@ -1,13 +1,17 @@
 package ca.uhn.fhir.jpa.provider.r4;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.provider.BaseResourceProviderR4Test;
 import ca.uhn.fhir.jpa.search.SearchCoordinatorSvcImpl;
 import ca.uhn.fhir.jpa.util.QueryParameterUtils;
 import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
 import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.api.server.IPreResourceShowDetails;
 import ca.uhn.fhir.rest.gclient.StringClientParam;
 import com.google.common.collect.Lists;
 import org.hl7.fhir.r4.model.Bundle;
@@ -16,8 +20,13 @@ import org.hl7.fhir.r4.model.Patient;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.test.util.AopTestUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SuppressWarnings("Duplicates")
@@ -35,6 +44,7 @@ public class ResourceProviderSummaryModeR4Test extends BaseResourceProviderR4Tes
 		mySearchCoordinatorSvcRaw.setSyncSizeForUnitTests(QueryParameterUtils.DEFAULT_SYNC_SIZE);
 		myStorageSettings.setSearchPreFetchThresholds(new JpaStorageSettings().getSearchPreFetchThresholds());
 		myStorageSettings.setDefaultTotalMode(null);
+		myStorageSettings.setSummaryOnlyParsingEnabled(new JpaStorageSettings().isSummaryOnlyParsingEnabled());
 	}
 
 	@BeforeEach
@@ -132,6 +142,86 @@ public class ResourceProviderSummaryModeR4Test extends BaseResourceProviderR4Tes
 		assertThat(outcome.getEntry()).isEmpty();
 	}
 
+	/**
+	 * Summary only parsing - Resources loaded for a _summary=true search should
+	 * only have their summary elements parsed
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testSearchWithSummaryTrue_SummaryOnlyParsing(boolean theSummaryOnlyParsingEnabled) {
+		myStorageSettings.setSummaryOnlyParsingEnabled(theSummaryOnlyParsingEnabled);
+		List<Patient> loadedResources = new ArrayList<>();
+		myServer.getRestfulServer().getInterceptorService().registerAnonymousInterceptor(Pointcut.STORAGE_PRESHOW_RESOURCES, (thePointcut, theArgs) -> {
+			IPreResourceShowDetails details = theArgs.get(IPreResourceShowDetails.class);
+			for (int i = 0; i < details.size(); i++) {
+				loadedResources.add((Patient) details.getResource(i));
+			}
+		});
+
+		Bundle outcome = myClient
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.ACTIVE.exactly().code("true"))
+			.summaryMode(SummaryEnum.TRUE)
+			.returnBundle(Bundle.class)
+			.execute();
+
+		assertThat(outcome.getEntry()).hasSize(10);
+		for (Bundle.BundleEntryComponent next : outcome.getEntry()) {
+			Patient patient = (Patient) next.getResource();
+			assertThat(patient.getNameFirstRep().getFamily()).startsWith("FAM");
+			assertTrue(patient.getActive());
+			assertFalse(patient.hasText());
+		}
+
+		assertThat(loadedResources).hasSize(10);
+		for (Patient next : loadedResources) {
+			assertThat(next.getNameFirstRep().getFamily()).startsWith("FAM");
+			assertEquals("1", next.getIdElement().getVersionIdPart());
+			assertEquals(!theSummaryOnlyParsingEnabled, next.hasText());
+		}
+	}
+
+	/**
+	 * Summary only parsing - Resources loaded for an _elements search should
+	 * only have the requested elements parsed
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testSearchWithElements_SummaryOnlyParsing(boolean theSummaryOnlyParsingEnabled) {
+		myStorageSettings.setSummaryOnlyParsingEnabled(theSummaryOnlyParsingEnabled);
+		List<Patient> loadedResources = new ArrayList<>();
+		myServer.getRestfulServer().getInterceptorService().registerAnonymousInterceptor(Pointcut.STORAGE_PRESHOW_RESOURCES, (thePointcut, theArgs) -> {
+			IPreResourceShowDetails details = theArgs.get(IPreResourceShowDetails.class);
+			for (int i = 0; i < details.size(); i++) {
+				loadedResources.add((Patient) details.getResource(i));
+			}
+		});
+
+		Bundle outcome = myClient
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.ACTIVE.exactly().code("true"))
+			.elementsSubset("name")
+			.returnBundle(Bundle.class)
+			.execute();
+
+		assertThat(outcome.getEntry()).hasSize(10);
+		for (Bundle.BundleEntryComponent next : outcome.getEntry()) {
+			Patient patient = (Patient) next.getResource();
+			assertThat(patient.getNameFirstRep().getFamily()).startsWith("FAM");
+			assertFalse(patient.hasActive());
+		}
+
+		assertThat(loadedResources).hasSize(10);
+		for (Patient next : loadedResources) {
+			assertThat(next.getNameFirstRep().getFamily()).startsWith("FAM");
+			assertEquals("1", next.getIdElement().getVersionIdPart());
+			assertEquals(!theSummaryOnlyParsingEnabled, next.hasActive());
+			assertEquals(!theSummaryOnlyParsingEnabled, next.hasText());
+		}
+	}
+
 	/**
 	 * No summary mode - Should return the first page of results but not
 	 * have the total available yet
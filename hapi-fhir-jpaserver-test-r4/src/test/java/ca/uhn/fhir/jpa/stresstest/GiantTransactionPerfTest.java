@@ -33,6 +33,7 @@ import ca.uhn.fhir.jpa.esr.ExternallyStoredResourceServiceRegistry;
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.dao.JpaPidFk;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
 import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTablePk;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
@@ -428,6 +429,31 @@ public class GiantTransactionPerfTest {
 			throw new UnsupportedOperationException();
 		}
 
+		@Override
+		public List<ResourceHistoryTable> findNewestForResourceTypeWithEncodings(Pageable thePage, String theResourceType, List<ResourceEncodingEnum> theEncodings) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Long findMinHistoryPid() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Long findMaxHistoryPid() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<ResourceHistoryTable> findBinaryForHistoryPidRange(long theLowPidInclusive, long theHighPidInclusive, List<ResourceEncodingEnum> theEncodings) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<ResourceHistoryTable> findBinaryForHistoryPidRangeAndResourceTypes(long theLowPidInclusive, long theHighPidInclusive, List<ResourceEncodingEnum> theEncodings, List<String> theResourceTypes) {
+			throw new UnsupportedOperationException();
+		}
+
 		@Nonnull
 		@Override
 		public List<ResourceHistoryTable> findAll() {
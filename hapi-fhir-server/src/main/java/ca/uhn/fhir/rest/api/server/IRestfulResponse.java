@@ -63,6 +63,30 @@ public interface IRestfulResponse {
 	Writer getResponseWriter(int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip)
 			throws IOException;
 
+	/**
+	 * Initiate a new textual response whose body will be written as already-encoded bytes in
+	 * the given charset, rather than as characters via {@link #getResponseWriter(int, String, String, boolean)}.
+	 * This lets encoders which produce bytes directly skip the char-to-byte transcoding step.
+	 * The OutputStream returned by this method must be finalized by calling {@link #commitResponse(Closeable)}
+	 * later, as with {@link #getResponseWriter(int, String, String, boolean)}.
+	 * <p>
+	 * Implementations which can not supply such a stream return {@literal null}, in which
+	 * case the caller should fall back to {@link #getResponseWriter(int, String, String, boolean)}.
+	 * </p>
+	 *
+	 * @param theStatusCode  The HTTP status code.
+	 * @param theContentType The HTTP response content type.
+	 * @param theCharset     The HTTP response charset. Bytes written to the stream must use this charset.
+	 * @param theRespondGzip Should the response be GZip encoded?
+	 * @return Returns an {@link OutputStream} that can accept the response body, or {@literal null}
+	 * @since 8.4.0
+	 */
+	@Nullable
+	default OutputStream getResponseTextOutputStream(
+			int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip) throws IOException {
+		return null;
+	}
+
 	/**
 	 * Initiate a new binary response. The OutputStream returned by this method must be finalized by
 	 * calling {@link #commitResponse(Closeable)} later. This method should only be used for non-textual
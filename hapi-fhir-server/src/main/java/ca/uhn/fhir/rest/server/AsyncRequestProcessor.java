@@ -0,0 +1,670 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.rest.api.Constants;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
+import static org.apache.commons.lang3.StringUtils.startsWithIgnoreCase;
+import static org.apache.commons.lang3.StringUtils.strip;
+import static org.apache.commons.lang3.StringUtils.substringBefore;
+
+/**
+ * Processes a single request using the Servlet async API, for servers with an
+ * {@link RestfulServer#setAsyncExecutor(Executor) async executor}. The request body is read
+ * using a non-blocking {@link ReadListener}, the request is then processed on the executor
+ * exactly as it would be on the container thread (but with a buffered response), and the
+ * response is finally written using a non-blocking {@link WriteListener}. The container
+ * thread is released as soon as the request has been handed to the container.
+ * <p>
+ * Request bodies larger than the configured maximum are rejected with
+ * <code>HTTP 413 Payload Too Large</code>, and requests which have not completed within the
+ * configured timeout (e.g. because the client stalled while sending the body) are answered with
+ * <code>HTTP 503 Service Unavailable</code> if nothing has been written yet, and completed.
+ * </p>
+ * <p>
+ * The whole response (including its status and headers) is buffered in memory until processing
+ * is complete, so responses which would otherwise be streamed to the client (see
+ * {@link RestfulServer#setStreamingBundleBatchSize(Integer)}) are fully buffered.
+ * </p>
+ */
+class AsyncRequestProcessor implements ReadListener, WriteListener {
+
+	private static final Logger ourLog = LoggerFactory.getLogger(AsyncRequestProcessor.class);
+	private static final int BUFFER_SIZE = 8192;
+	private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+
+	/**
+	 * Upper bound on the buffer allocated up front for a request body, regardless of the
+	 * <code>Content-Length</code> the client claims. Larger bodies grow the buffer as they arrive.
+	 */
+	private static final int MAX_INITIAL_BODY_BUFFER_SIZE = 64 * 1024;
+
+	private final AsyncContext myAsyncContext;
+	private final HttpServletRequest myRequest;
+	private final HttpServletResponse myResponse;
+	private final Executor myExecutor;
+	private final IRequestHandler myRequestHandler;
+	private final long myMaxRequestBodySize;
+	private final AtomicBoolean myCompleted = new AtomicBoolean();
+	private final byte[] myReadBuffer = new byte[BUFFER_SIZE];
+	private ByteArrayOutputStream myRequestBody;
+	private ServletInputStream myInputStream;
+	private ServletOutputStream myOutputStream;
+	private byte[] myResponseBody;
+	private int myResponseBodyOffset;
+
+	private AsyncRequestProcessor(
+			HttpServletRequest theRequest,
+			HttpServletResponse theResponse,
+			Executor theExecutor,
+			IRequestHandler theRequestHandler,
+			long theTimeoutMillis,
+			long theMaxRequestBodySize) {
+		myRequest = theRequest;
+		myResponse = theResponse;
+		myExecutor = theExecutor;
+		myRequestHandler = theRequestHandler;
+		myMaxRequestBodySize = theMaxRequestBodySize;
+		myAsyncContext = theRequest.startAsync(theRequest, theResponse);
+		myAsyncContext.setTimeout(theTimeoutMillis);
+		myAsyncContext.addListener(new AsyncListener() {
+			@Override
+			public void onComplete(AsyncEvent theEvent) {
+				myCompleted.set(true);
+			}
+
+			@Override
+			public void onTimeout(AsyncEvent theEvent) {
+				ourLog.warn("Async request timed out after {}ms", theTimeoutMillis);
+				completeWithStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			}
+
+			@Override
+			public void onError(AsyncEvent theEvent) {
+				AsyncRequestProcessor.this.onError(theEvent.getThrowable());
+			}
+
+			@Override
+			public void onStartAsync(AsyncEvent theEvent) {
+				// nothing
+			}
+		});
+	}
+
+	/**
+	 * Starts asynchronous processing of the given request. This method returns as soon as
+	 * the request body has started being read.
+	 */
+	static void start(
+			HttpServletRequest theRequest,
+			HttpServletResponse theResponse,
+			Executor theExecutor,
+			IRequestHandler theRequestHandler,
+			long theTimeoutMillis,
+			long theMaxRequestBodySize)
+			throws IOException {
+		AsyncRequestProcessor processor = new AsyncRequestProcessor(
+				theRequest, theResponse, theExecutor, theRequestHandler, theTimeoutMillis, theMaxRequestBodySize);
+		processor.readRequestBody();
+	}
+
+	private void readRequestBody() throws IOException {
+		/*
+		 * Form posts are parsed by the container when the parameters are first
+		 * requested, so the body is left alone for the container to read
+		 */
+		if (startsWithIgnoreCase(myRequest.getContentType(), Constants.CT_X_FORM_URLENCODED)) {
+			submit(myRequest);
+			return;
+		}
+
+		long contentLength = myRequest.getContentLengthLong();
+		if (contentLength > myMaxRequestBodySize) {
+			rejectRequestBodyTooLarge();
+			return;
+		}
+
+		int initialSize = (int) Math.min(Math.max(contentLength, BUFFER_SIZE), MAX_INITIAL_BODY_BUFFER_SIZE);
+		myRequestBody = new ByteArrayOutputStream(initialSize);
+		myInputStream = myRequest.getInputStream();
+		myInputStream.setReadListener(this);
+	}
+
+	@Override
+	public void onDataAvailable() throws IOException {
+		while (!myCompleted.get() && myInputStream.isReady() && !myInputStream.isFinished()) {
+			int count = myInputStream.read(myReadBuffer);
+			if (count > 0) {
+				if (myRequestBody.size() + (long) count > myMaxRequestBodySize) {
+					rejectRequestBodyTooLarge();
+					return;
+				}
+				myRequestBody.write(myReadBuffer, 0, count);
+			}
+		}
+	}
+
+	@Override
+	public void onAllDataRead() {
+		if (myCompleted.get()) {
+			return;
+		}
+		submit(new BufferedBodyRequest(myRequest, myRequestBody.toByteArray()));
+	}
+
+	private void rejectRequestBodyTooLarge() {
+		ourLog.warn("Rejecting async request with a body larger than {} bytes", myMaxRequestBodySize);
+		completeWithStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+	}
+
+	private void submit(HttpServletRequest theRequest) {
+		try {
+			myExecutor.execute(() -> process(theRequest));
+		} catch (RejectedExecutionException e) {
+			ourLog.warn("Async executor rejected request: {}", e.toString());
+			completeWithStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		}
+	}
+
+	private void process(HttpServletRequest theRequest) {
+		BufferedResponse response = new BufferedResponse(myResponse);
+		try {
+			myRequestHandler.handleRequest(theRequest, response);
+		} catch (Throwable e) {
+			ourLog.error("Failure during async request processing", e);
+			response.reset();
+			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		}
+
+		try {
+			/*
+			 * Nothing touches the real response until this point. If the request timed out while
+			 * it was being processed, the real response has already been completed (and may have
+			 * been recycled by the container), so the buffered response is discarded.
+			 */
+			synchronized (this) {
+				if (myCompleted.get()) {
+					return;
+				}
+				myResponseBody = response.getBody();
+				response.copyTo(myResponse, myResponseBody.length);
+			}
+			if (myResponseBody.length == 0) {
+				complete();
+				return;
+			}
+			myOutputStream = myResponse.getOutputStream();
+			myOutputStream.setWriteListener(this);
+		} catch (Exception e) {
+			onError(e);
+		}
+	}
+
+	@Override
+	public void onWritePossible() throws IOException {
+		while (myOutputStream.isReady()) {
+			if (myResponseBodyOffset == myResponseBody.length) {
+				complete();
+				return;
+			}
+			int count = Math.min(BUFFER_SIZE, myResponseBody.length - myResponseBodyOffset);
+			myOutputStream.write(myResponseBody, myResponseBodyOffset, count);
+			myResponseBodyOffset += count;
+		}
+	}
+
+	@Override
+	public void onError(Throwable theThrowable) {
+		ourLog.warn("Failure during async request I/O: {}", theThrowable.toString());
+		complete();
+	}
+
+	/**
+	 * Sets the given status (unless the response has already been committed) and completes
+	 * the request
+	 */
+	private synchronized void completeWithStatus(int theStatus) {
+		if (myCompleted.get()) {
+			return;
+		}
+		if (!myResponse.isCommitted()) {
+			myResponse.reset();
+			myResponse.setStatus(theStatus);
+		}
+		complete();
+	}
+
+	/**
+	 * Completes the async context. Completion can be triggered concurrently by the container
+	 * (timeout, I/O errors) and by the processing thread, so only the first call has any effect.
+	 */
+	private void complete() {
+		if (myCompleted.compareAndSet(false, true)) {
+			try {
+				myAsyncContext.complete();
+			} catch (IllegalStateException e) {
+				ourLog.debug("Async context was already completed: {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Invokes the normal (blocking) request processing
+	 */
+	@FunctionalInterface
+	interface IRequestHandler {
+
+		void handleRequest(HttpServletRequest theRequest, HttpServletResponse theResponse)
+				throws ServletException, IOException;
+	}
+
+	/**
+	 * A request whose body has already been read
+	 */
+	private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] myBody;
+
+		BufferedBodyRequest(HttpServletRequest theRequest, byte[] theBody) {
+			super(theRequest);
+			myBody = theBody;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream body = new ByteArrayInputStream(myBody);
+			return new ServletInputStream() {
+				@Override
+				public boolean isFinished() {
+					return body.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener theReadListener) {
+					throw new IllegalStateException();
+				}
+
+				@Override
+				public int read() {
+					return body.read();
+				}
+
+				@Override
+				public int read(byte[] theBuffer, int theOffset, int theLength) {
+					return body.read(theBuffer, theOffset, theLength);
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			InputStream inputStream = getInputStream();
+			Charset charset = Charset.forName(defaultIfBlank(getCharacterEncoding(), "ISO-8859-1"));
+			return new BufferedReader(new InputStreamReader(inputStream, charset));
+		}
+	}
+
+	/**
+	 * A response whose body, status and headers are collected in memory, so that it can be written
+	 * using non-blocking I/O once processing is complete. Nothing is passed through to the wrapped
+	 * response until {@link #copyTo(HttpServletResponse, int)} is called, since the wrapped response
+	 * must not be modified after the request has been completed (e.g. because it timed out).
+	 */
+	private static class BufferedResponse extends HttpServletResponseWrapper {
+
+		private final ByteArrayOutputStream myBody = new ByteArrayOutputStream();
+		private final Map<String, List<String>> myHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private final List<Cookie> myCookies = new ArrayList<>();
+		private int myStatus = HttpServletResponse.SC_OK;
+		private String myErrorMessage;
+		private boolean myError;
+		private String myContentType;
+		private String myCharacterEncoding;
+		private Locale myLocale;
+		private Supplier<Map<String, String>> myTrailerFields;
+		private ServletOutputStream myOutputStream;
+		private PrintWriter myWriter;
+
+		BufferedResponse(HttpServletResponse theResponse) {
+			super(theResponse);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			if (myOutputStream == null) {
+				myOutputStream = new ServletOutputStream() {
+					@Override
+					public boolean isReady() {
+						return true;
+					}
+
+					@Override
+					public void setWriteListener(WriteListener theWriteListener) {
+						throw new IllegalStateException();
+					}
+
+					@Override
+					public void write(int theByte) {
+						myBody.write(theByte);
+					}
+
+					@Override
+					public void write(byte[] theBytes, int theOffset, int theLength) {
+						myBody.write(theBytes, theOffset, theLength);
+					}
+				};
+			}
+			return myOutputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() {
+			if (myWriter == null) {
+				Charset charset = Charset.forName(getCharacterEncoding());
+				myWriter = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+			}
+			return myWriter;
+		}
+
+		@Override
+		public void setStatus(int theStatus) {
+			myStatus = theStatus;
+		}
+
+		@Override
+		public int getStatus() {
+			return myStatus;
+		}
+
+		@Override
+		public void sendError(int theStatus) {
+			sendError(theStatus, null);
+		}
+
+		@Override
+		public void sendError(int theStatus, String theMessage) {
+			resetBuffer();
+			myStatus = theStatus;
+			myErrorMessage = theMessage;
+			myError = true;
+		}
+
+		@Override
+		public void sendRedirect(String theLocation) {
+			resetBuffer();
+			myStatus = HttpServletResponse.SC_FOUND;
+			setHeader(Constants.HEADER_LOCATION, theLocation);
+		}
+
+		@Override
+		public void setHeader(String theName, String theValue) {
+			if (Constants.HEADER_CONTENT_TYPE.equalsIgnoreCase(theName)) {
+				setContentType(theValue);
+			} else if (!HEADER_CONTENT_LENGTH.equalsIgnoreCase(theName)) {
+				if (theValue == null) {
+					myHeaders.remove(theName);
+				} else {
+					List<String> values = new ArrayList<>(1);
+					values.add(theValue);
+					myHeaders.put(theName, values);
+				}
+			}
+		}
+
+		@Override
+		public void addHeader(String theName, String theValue) {
+			if (Constants.HEADER_CONTENT_TYPE.equalsIgnoreCase(theName)) {
+				setContentType(theValue);
+			} else if (!HEADER_CONTENT_LENGTH.equalsIgnoreCase(theName) && theValue != null) {
+				myHeaders.computeIfAbsent(theName, t -> new ArrayList<>(1)).add(theValue);
+			}
+		}
+
+		@Override
+		public void setIntHeader(String theName, int theValue) {
+			setHeader(theName, Integer.toString(theValue));
+		}
+
+		@Override
+		public void addIntHeader(String theName, int theValue) {
+			addHeader(theName, Integer.toString(theValue));
+		}
+
+		@Override
+		public void setDateHeader(String theName, long theDate) {
+			setHeader(theName, formatDate(theDate));
+		}
+
+		@Override
+		public void addDateHeader(String theName, long theDate) {
+			addHeader(theName, formatDate(theDate));
+		}
+
+		@Override
+		public boolean containsHeader(String theName) {
+			return myHeaders.containsKey(theName);
+		}
+
+		@Override
+		public String getHeader(String theName) {
+			List<String> values = myHeaders.get(theName);
+			return values != null ? values.get(0) : null;
+		}
+
+		@Override
+		public Collection<String> getHeaders(String theName) {
+			List<String> values = myHeaders.get(theName);
+			return values != null ? new ArrayList<>(values) : new ArrayList<>();
+		}
+
+		@Override
+		public Collection<String> getHeaderNames() {
+			return new ArrayList<>(myHeaders.keySet());
+		}
+
+		@Override
+		public void addCookie(Cookie theCookie) {
+			myCookies.add(theCookie);
+		}
+
+		@Override
+		public void setContentType(String theContentType) {
+			myContentType = theContentType;
+			if (theContentType != null) {
+				int charsetIndex = theContentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+				if (charsetIndex != -1) {
+					String charset = theContentType.substring(charsetIndex + "charset=".length());
+					myCharacterEncoding = strip(substringBefore(charset, ";"), " \"");
+				}
+			}
+		}
+
+		@Override
+		public String getContentType() {
+			return myContentType;
+		}
+
+		@Override
+		public void setCharacterEncoding(String theCharacterEncoding) {
+			myCharacterEncoding = theCharacterEncoding;
+		}
+
+		@Override
+		public String getCharacterEncoding() {
+			return defaultIfBlank(myCharacterEncoding, StandardCharsets.UTF_8.name());
+		}
+
+		@Override
+		public void setContentLength(int theContentLength) {
+			// The length is determined from the buffered body
+		}
+
+		@Override
+		public void setContentLengthLong(long theContentLength) {
+			// The length is determined from the buffered body
+		}
+
+		@Override
+		public void setLocale(Locale theLocale) {
+			myLocale = theLocale;
+		}
+
+		@Override
+		public Locale getLocale() {
+			return myLocale != null ? myLocale : super.getLocale();
+		}
+
+		@Override
+		public void setTrailerFields(Supplier<Map<String, String>> theTrailerFields) {
+			myTrailerFields = theTrailerFields;
+		}
+
+		@Override
+		public Supplier<Map<String, String>> getTrailerFields() {
+			return myTrailerFields;
+		}
+
+		@Override
+		public void setBufferSize(int theBufferSize) {
+			// The whole body is buffered
+		}
+
+		@Override
+		public boolean isCommitted() {
+			return false;
+		}
+
+		@Override
+		public void flushBuffer() {
+			if (myWriter != null) {
+				myWriter.flush();
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			flushBuffer();
+			myBody.reset();
+		}
+
+		@Override
+		public void reset() {
+			resetBuffer();
+			myHeaders.clear();
+			myCookies.clear();
+			myStatus = HttpServletResponse.SC_OK;
+			myErrorMessage = null;
+			myError = false;
+			myContentType = null;
+			myCharacterEncoding = null;
+		}
+
+		byte[] getBody() {
+			flushBuffer();
+			return myError ? new byte[0] : myBody.toByteArray();
+		}
+
+		/**
+		 * Copies the status and headers collected by this response to the given response,
+		 * which the body is about to be written to
+		 */
+		void copyTo(HttpServletResponse theResponse, int theBodyLength) throws IOException {
+			if (myLocale != null) {
+				theResponse.setLocale(myLocale);
+			}
+			for (Map.Entry<String, List<String>> next : myHeaders.entrySet()) {
+				for (String nextValue : next.getValue()) {
+					theResponse.addHeader(next.getKey(), nextValue);
+				}
+			}
+			for (Cookie next : myCookies) {
+				theResponse.addCookie(next);
+			}
+			if (myTrailerFields != null) {
+				theResponse.setTrailerFields(myTrailerFields);
+			}
+
+			if (myError) {
+				theResponse.sendError(myStatus, myErrorMessage);
+				return;
+			}
+
+			theResponse.setStatus(myStatus);
+			if (myContentType != null) {
+				theResponse.setContentType(myContentType);
+			}
+			if (myCharacterEncoding != null) {
+				theResponse.setCharacterEncoding(myCharacterEncoding);
+			}
+			if (theBodyLength > 0) {
+				theResponse.setContentLength(theBodyLength);
+			}
+		}
+
+		private static String formatDate(long theDate) {
+			return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(theDate).atZone(ZoneOffset.UTC));
+		}
+	}
+}
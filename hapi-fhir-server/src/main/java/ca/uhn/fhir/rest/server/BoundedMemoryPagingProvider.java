@@ -0,0 +1,274 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import com.google.common.annotations.VisibleForTesting;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * An in-memory paging provider which can be used concurrently without a global lock, and which
+ * limits the results it holds by their estimated weight rather than by the number of searches.
+ * <p>
+ * Each stored {@link IBundleProvider} is assigned a weight by a weigher function. By default this
+ * is the number of resources the provider reports via {@link IBundleProvider#size()} (or 1 if the size
+ * is not known), since plain server bundle providers usually hold all of their resources in memory. When
+ * the total weight exceeds the configured maximum, the least recently used results are evicted. Results
+ * which have not been accessed for longer than the idle timeout are also discarded. Paging requests for
+ * evicted or expired results receive the usual HTTP 410 Gone response.
+ * </p>
+ * <p>
+ * Lookups and stores are lock-free. Eviction is performed by whichever thread stores a result while
+ * the provider is over its limits, and only one thread evicts at a time.
+ * </p>
+ *
+ * @see FifoMemoryPagingProvider
+ * @since 8.4.0
+ */
+public class BoundedMemoryPagingProvider extends BasePagingProvider {
+
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 100_000;
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final Map<String, StoredResult> myResults = new ConcurrentHashMap<>();
+	private final AtomicLong myTotalWeight = new AtomicLong();
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final AtomicLong myEvictionCount = new AtomicLong();
+	private final AtomicLong myExpiryCount = new AtomicLong();
+	private final ReentrantLock myEvictionLock = new ReentrantLock();
+	private final long myMaximumWeight;
+	private long myIdleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+	private ToLongFunction<IBundleProvider> myWeigher = BoundedMemoryPagingProvider::defaultWeight;
+	private LongSupplier myClock = System::currentTimeMillis;
+	private volatile long myLastEvictionMillis;
+
+	/**
+	 * Constructor using a maximum weight of {@link #DEFAULT_MAXIMUM_WEIGHT}
+	 */
+	public BoundedMemoryPagingProvider() {
+		this(DEFAULT_MAXIMUM_WEIGHT);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaximumWeight The maximum total weight of the stored results. With the default
+	 *                         weigher this is the total number of resources held.
+	 */
+	public BoundedMemoryPagingProvider(long theMaximumWeight) {
+		Validate.isTrue(theMaximumWeight > 0, "theMaximumWeight must be greater than 0");
+		myMaximumWeight = theMaximumWeight;
+	}
+
+	public long getMaximumWeight() {
+		return myMaximumWeight;
+	}
+
+	public long getIdleTimeoutMillis() {
+		return myIdleTimeoutMillis;
+	}
+
+	/**
+	 * Results which have not been stored or retrieved for this length of time are discarded. Default
+	 * is {@link #DEFAULT_IDLE_TIMEOUT_MILLIS}.
+	 */
+	public BoundedMemoryPagingProvider setIdleTimeoutMillis(long theIdleTimeoutMillis) {
+		Validate.isTrue(theIdleTimeoutMillis > 0, "theIdleTimeoutMillis must be greater than 0");
+		myIdleTimeoutMillis = theIdleTimeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Sets the function used to estimate the weight of a stored result. The weight is calculated once,
+	 * when the result is stored. Weights of less than 1 are treated as 1.
+	 */
+	public BoundedMemoryPagingProvider setWeigher(@Nonnull ToLongFunction<IBundleProvider> theWeigher) {
+		Validate.notNull(theWeigher, "theWeigher must not be null");
+		myWeigher = theWeigher;
+		return this;
+	}
+
+	@Override
+	public IBundleProvider retrieveResultList(@Nullable RequestDetails theRequestDetails, @Nonnull String theSearchId) {
+		StoredResult result = myResults.get(theSearchId);
+		if (result == null) {
+			myMissCount.incrementAndGet();
+			return null;
+		}
+
+		long now = myClock.getAsLong();
+		if (result.isExpired(now, myIdleTimeoutMillis)) {
+			if (remove(theSearchId, result)) {
+				myExpiryCount.incrementAndGet();
+			}
+			myMissCount.incrementAndGet();
+			return null;
+		}
+
+		result.myLastAccessed = now;
+		myHitCount.incrementAndGet();
+		return result.myBundleProvider;
+	}
+
+	@Override
+	public String storeResultList(@Nullable RequestDetails theRequestDetails, IBundleProvider theList) {
+		String key = UUID.randomUUID().toString();
+		long weight = Math.max(1, myWeigher.applyAsLong(theList));
+		long now = myClock.getAsLong();
+		StoredResult result = new StoredResult(theList, weight, now);
+
+		myResults.put(key, result);
+		long totalWeight = myTotalWeight.addAndGet(weight);
+		if (totalWeight > myMaximumWeight || now - myLastEvictionMillis > myIdleTimeoutMillis) {
+			evict(key);
+		}
+		return key;
+	}
+
+	/**
+	 * Called when the provider is over its maximum weight, or when no expired results have been
+	 * removed for longer than the idle timeout. Removes any expired results, and then removes the least recently used results until the total weight
+	 * is within the maximum. The result which was just stored is never evicted, so a single search which
+	 * exceeds the maximum weight on its own can still be paged through.
+	 */
+	private void evict(String theJustStoredKey) {
+		if (!myEvictionLock.tryLock()) {
+			// Another thread is already evicting
+			return;
+		}
+		try {
+			long now = myClock.getAsLong();
+			myLastEvictionMillis = now;
+			List<Map.Entry<String, StoredResult>> candidates = new ArrayList<>(myResults.entrySet());
+			candidates.removeIf(t -> t.getKey().equals(theJustStoredKey));
+
+			for (Map.Entry<String, StoredResult> next : candidates) {
+				if (next.getValue().isExpired(now, myIdleTimeoutMillis) && remove(next.getKey(), next.getValue())) {
+					myExpiryCount.incrementAndGet();
+				}
+			}
+
+			candidates.sort(Comparator.comparingLong(t -> t.getValue().myLastAccessed));
+			for (Map.Entry<String, StoredResult> next : candidates) {
+				if (myTotalWeight.get() <= myMaximumWeight) {
+					break;
+				}
+				if (remove(next.getKey(), next.getValue())) {
+					myEvictionCount.incrementAndGet();
+				}
+			}
+		} finally {
+			myEvictionLock.unlock();
+		}
+	}
+
+	private boolean remove(String theKey, StoredResult theResult) {
+		if (myResults.remove(theKey, theResult)) {
+			myTotalWeight.addAndGet(-theResult.myWeight);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of results currently stored
+	 */
+	public int getStoredResultCount() {
+		return myResults.size();
+	}
+
+	/**
+	 * Returns the total weight of the results currently stored
+	 */
+	public long getTotalWeight() {
+		return myTotalWeight.get();
+	}
+
+	/**
+	 * Returns the number of paging requests which found their stored result
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of paging requests whose result was unknown, evicted or expired
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the number of results which were removed to stay within the maximum weight
+	 */
+	public long getEvictionCount() {
+		return myEvictionCount.get();
+	}
+
+	/**
+	 * Returns the number of results which were removed because they exceeded the idle timeout
+	 */
+	public long getExpiryCount() {
+		return myExpiryCount.get();
+	}
+
+	@VisibleForTesting
+	void setClockForUnitTest(LongSupplier theClock) {
+		myClock = theClock;
+	}
+
+	private static long defaultWeight(IBundleProvider theBundleProvider) {
+		Integer size = theBundleProvider.size();
+		return size != null ? size : 1;
+	}
+
+	private static class StoredResult {
+
+		private final IBundleProvider myBundleProvider;
+		private final long myWeight;
+		private volatile long myLastAccessed;
+
+		private StoredResult(IBundleProvider theBundleProvider, long theWeight, long theLastAccessed) {
+			myBundleProvider = theBundleProvider;
+			myWeight = theWeight;
+			myLastAccessed = theLastAccessed;
+		}
+
+		private boolean isExpired(long theNow, long theIdleTimeoutMillis) {
+			return theNow - myLastAccessed > theIdleTimeoutMillis;
+		}
+	}
+}
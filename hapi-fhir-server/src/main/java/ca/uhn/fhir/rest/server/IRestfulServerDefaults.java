@@ -87,6 +87,18 @@ public interface IRestfulServerDefaults {
 		return null;
 	}
 
+	/**
+	 * If set, searchset pages containing more than this many resources are streamed to the client:
+	 * the Bundle root properties are written first and the entries are then loaded from the
+	 * {@link ca.uhn.fhir.rest.api.server.IBundleProvider} and encoded this many at a time. Null (the default)
+	 * means that the complete Bundle is built before it is encoded.
+	 *
+	 * @since 8.4.0
+	 */
+	default Integer getStreamingBundleBatchSize() {
+		return null;
+	}
+
 	/**
 	 * Should the server "pretty print" responses by default (requesting clients can always override this default by
 	 * supplying an <code>Accept</code> header in the request, or a <code>_pretty</code>
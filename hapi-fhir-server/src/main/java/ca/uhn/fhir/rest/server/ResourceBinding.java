@@ -19,12 +19,23 @@
  */
 package ca.uhn.fhir.rest.server;
 
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
 import ca.uhn.fhir.rest.server.method.MethodMatchEnum;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IIdType;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
  * Holds all method bindings for an individual resource type
@@ -34,7 +45,8 @@ public class ResourceBinding {
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ResourceBinding.class);
 
 	private String myResourceName;
-	private final LinkedList<BaseMethodBinding> myMethodBindings = new LinkedList<>();
+	private final MethodBindingList myMethodBindings = new MethodBindingList();
+	private volatile DispatchIndex myDispatchIndex;
 
 	/**
 	 * Constructor
@@ -51,6 +63,11 @@ public class ResourceBinding {
 
 		ourLog.debug("Looking for a handler for {}", theRequest);
 
+		List<BaseMethodBinding> candidates = getDispatchIndex().getCandidates(theRequest);
+		if (candidates == null) {
+			candidates = myMethodBindings;
+		}
+
 		/*
 		 * Look for the method with the highest match strength
 		 */
@@ -58,7 +75,7 @@ public class ResourceBinding {
 		BaseMethodBinding matchedMethod = null;
 		MethodMatchEnum matchedMethodStrength = null;
 
-		for (BaseMethodBinding rm : myMethodBindings) {
+		for (BaseMethodBinding rm : candidates) {
 			MethodMatchEnum nextMethodMatch = rm.incomingServerRequestMatchesMethod(theRequest);
 			if (nextMethodMatch != MethodMatchEnum.NONE) {
 				if (matchedMethodStrength == null || matchedMethodStrength.ordinal() < nextMethodMatch.ordinal()) {
@@ -74,6 +91,20 @@ public class ResourceBinding {
 		return matchedMethod;
 	}
 
+	/**
+	 * The index is rebuilt whenever the bindings have been modified since it was last
+	 * built, including modifications made through the list returned by {@link #getMethodBindings()}
+	 */
+	private DispatchIndex getDispatchIndex() {
+		DispatchIndex retVal = myDispatchIndex;
+		int modCount = myMethodBindings.getModCount();
+		if (retVal == null || retVal.myModCount != modCount) {
+			retVal = new DispatchIndex(new ArrayList<>(myMethodBindings), modCount);
+			myDispatchIndex = retVal;
+		}
+		return retVal;
+	}
+
 	public String getResourceName() {
 		return myResourceName;
 	}
@@ -107,4 +138,100 @@ public class ResourceBinding {
 	public int hashCode() {
 		return 0;
 	}
+
+	private static class MethodBindingList extends LinkedList<BaseMethodBinding> {
+
+		int getModCount() {
+			return modCount;
+		}
+	}
+
+	/**
+	 * Groups the method bindings by the request operation, request type and presence of a
+	 * resource ID/version which they could possibly match, so that
+	 * {@link BaseMethodBinding#incomingServerRequestMatchesMethod(RequestDetails)} only needs
+	 * to be called on a few candidates for each request. The candidates for each key are kept
+	 * in registration order, so the result of {@link #getMethod(RequestDetails)} is the same as
+	 * it would be if every binding was tested.
+	 */
+	private static class DispatchIndex {
+
+		private static final int ID_STATES = 3;
+		private final int myModCount;
+		private final Map<String, List<List<BaseMethodBinding>>> myOperationToCandidates = new HashMap<>();
+		private final List<List<BaseMethodBinding>> myOtherOperationCandidates;
+
+		DispatchIndex(List<BaseMethodBinding> theMethodBindings, int theModCount) {
+			myModCount = theModCount;
+
+			Set<String> operations = new HashSet<>();
+			for (BaseMethodBinding next : theMethodBindings) {
+				Set<String> nextOperations = next.getDispatchOperations();
+				if (nextOperations != null) {
+					operations.addAll(nextOperations);
+				}
+			}
+
+			for (String nextOperation : operations) {
+				myOperationToCandidates.put(nextOperation, buildCandidates(theMethodBindings, nextOperation));
+			}
+			myOtherOperationCandidates = buildCandidates(theMethodBindings, null);
+		}
+
+		/**
+		 * @return Returns <code>null</code> if the request can't be indexed, in which case all bindings should be tested
+		 */
+		@Nullable
+		List<BaseMethodBinding> getCandidates(RequestDetails theRequest) {
+			RequestTypeEnum requestType = theRequest.getRequestType();
+			if (requestType == null) {
+				return null;
+			}
+
+			String operation = theRequest.getOperation();
+			if (isBlank(operation)) {
+				operation = "";
+			}
+			List<List<BaseMethodBinding>> candidates =
+					myOperationToCandidates.getOrDefault(operation, myOtherOperationCandidates);
+
+			IIdType id = theRequest.getId();
+			int idState = id == null ? 0 : id.hasVersionIdPart() ? 2 : 1;
+			return candidates.get(requestType.ordinal() * ID_STATES + idState);
+		}
+
+		/**
+		 * @param theOperation The operation, or <code>null</code> for operations which no binding has declared
+		 */
+		private static List<List<BaseMethodBinding>> buildCandidates(
+				List<BaseMethodBinding> theMethodBindings, @Nullable String theOperation) {
+			List<List<BaseMethodBinding>> retVal = new ArrayList<>();
+			for (RequestTypeEnum nextRequestType : RequestTypeEnum.values()) {
+				for (int idState = 0; idState < ID_STATES; idState++) {
+					boolean haveId = idState > 0;
+					boolean haveVersion = idState > 1;
+
+					List<BaseMethodBinding> candidates = new ArrayList<>();
+					for (BaseMethodBinding next : theMethodBindings) {
+						Set<String> operations = next.getDispatchOperations();
+						if (operations != null && (theOperation == null || !operations.contains(theOperation))) {
+							continue;
+						}
+						Set<RequestTypeEnum> requestTypes = next.getDispatchRequestTypes();
+						if (requestTypes != null && !requestTypes.contains(nextRequestType)) {
+							continue;
+						}
+						if (!next.isDispatchCandidate(haveId, haveVersion)) {
+							continue;
+						}
+						candidates.add(next);
+					}
+
+					retVal.add(
+							candidates.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(candidates));
+				}
+			}
+			return retVal;
+		}
+	}
 }
@@ -101,6 +101,7 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.Manifest;
@@ -137,6 +138,14 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	 * Default value for {@link #setDefaultPreferReturn(PreferReturnEnum)}
 	 */
 	public static final PreferReturnEnum DEFAULT_PREFER_RETURN = PreferReturnEnum.REPRESENTATION;
+	/**
+	 * Default value for {@link #setAsyncTimeoutMillis(long)}: 5 minutes
+	 */
+	public static final long DEFAULT_ASYNC_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+	/**
+	 * Default value for {@link #setAsyncMaxRequestBodySize(long)}: 100 MB
+	 */
+	public static final long DEFAULT_ASYNC_MAX_REQUEST_BODY_SIZE = 100 * 1024 * 1024L;
 
 	private static final ExceptionHandlingInterceptor DEFAULT_EXCEPTION_HANDLER = new ExceptionHandlingInterceptor();
 	private static final Logger ourLog = LoggerFactory.getLogger(RestfulServer.class);
@@ -155,6 +164,7 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private IPagingProvider myPagingProvider;
 	private Integer myDefaultPageSize;
 	private Integer myMaximumPageSize;
+	private Integer myStreamingBundleBatchSize;
 	private boolean myStatelessPagingDefault = false;
 	private Lock myProviderRegistrationMutex = new ReentrantLock();
 	private Map<String, ResourceBinding> myResourceNameToBinding = new HashMap<>();
@@ -174,6 +184,9 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 	private ITenantIdentificationStrategy myTenantIdentificationStrategy;
 	private PreferReturnEnum myDefaultPreferReturn = DEFAULT_PREFER_RETURN;
 	private ElementsSupportEnum myElementsSupport = ElementsSupportEnum.EXTENDED;
+	private Executor myAsyncExecutor;
+	private long myAsyncTimeoutMillis = DEFAULT_ASYNC_TIMEOUT_MILLIS;
+	private long myAsyncMaxRequestBodySize = DEFAULT_ASYNC_MAX_REQUEST_BODY_SIZE;
 
 	/**
 	 * Constructor. Note that if no {@link FhirContext} is passed in to the server (either through the constructor, or
@@ -800,6 +813,45 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myMaximumPageSize = theMaximumPageSize;
 	}
 
+	@Override
+	public Integer getStreamingBundleBatchSize() {
+		return myStreamingBundleBatchSize;
+	}
+
+	/**
+	 * Enables streaming of searchset responses. When set, a page of search results containing more
+	 * than the given number of resources is not collected into a single Bundle before it is encoded.
+	 * Instead, the Bundle root properties (id, type, total and paging links) are written first, and
+	 * the entries are then fetched from the {@link ca.uhn.fhir.rest.api.server.IBundleProvider} and
+	 * encoded in batches of this size, so that only one batch is held in memory at a time.
+	 * <p>
+	 * The resources in each batch are passed to
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#STORAGE_PRESHOW_RESOURCES} hooks before they are
+	 * written, so the {@link ca.uhn.fhir.rest.server.interceptor.consent.ConsentInterceptor} applies
+	 * its rules to each batch. Bundle providers which already fire this pointcut when resources are
+	 * loaded (such as the JPA server) will therefore fire it twice for the resources of a streamed page.
+	 * </p>
+	 * <p>
+	 * Streaming is only used for JSON and XML responses to searches and paging requests where the
+	 * total number of results is known, and only when neither the <code>_summary</code> nor the
+	 * <code>_elements</code> parameter is present. It is not used if any
+	 * {@link ca.uhn.fhir.interceptor.api.Pointcut#SERVER_OUTGOING_RESPONSE} hooks other than those of
+	 * the consent interceptor are registered, since those hooks expect to see (and may modify) the
+	 * complete Bundle. Note that once streaming has started the response status can no longer be
+	 * changed, so a failure while loading a later batch results in a truncated response.
+	 * </p>
+	 *
+	 * @param theStreamingBundleBatchSize The number of resources to load and encode at a time, or <code>null</code>
+	 *                                    (which is the default) to disable streaming
+	 * @since 8.4.0
+	 */
+	public void setStreamingBundleBatchSize(@Nullable Integer theStreamingBundleBatchSize) {
+		Validate.isTrue(
+				theStreamingBundleBatchSize == null || theStreamingBundleBatchSize > 0,
+				"theStreamingBundleBatchSize must be a positive number");
+		myStreamingBundleBatchSize = theStreamingBundleBatchSize;
+	}
+
 	/**
 	 * Provides the non-resource specific providers which implement method calls on this server
 	 *
@@ -1612,6 +1664,94 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 		myIgnoreServerParsedRequestParameters = theIgnoreServerParsedRequestParameters;
 	}
 
+	/**
+	 * Returns the executor used to process requests asynchronously, or <code>null</code> (the default)
+	 * if requests are processed on the servlet container thread.
+	 *
+	 * @see #setAsyncExecutor(Executor)
+	 * @since 8.4.0
+	 */
+	@Nullable
+	public Executor getAsyncExecutor() {
+		return myAsyncExecutor;
+	}
+
+	/**
+	 * If set, requests are processed using the Servlet async API instead of holding a servlet
+	 * container thread for the whole request. Request bodies are read using non-blocking I/O,
+	 * the request is then processed by the given executor, and the response is written using
+	 * non-blocking I/O once processing is complete. Interceptors are invoked in the same order
+	 * as they are for synchronous processing (on the executor thread), but since the response
+	 * is buffered in memory until processing is complete, it is only written to the client
+	 * after {@link ca.uhn.fhir.interceptor.api.Pointcut#SERVER_PROCESSING_COMPLETED_NORMALLY}
+	 * has been invoked. Note that this also means that responses which would otherwise be streamed
+	 * to the client in batches (see {@link #setStreamingBundleBatchSize(Integer)}) are held in memory
+	 * in full before they are written, so servers returning very large pages should size their
+	 * heap accordingly or leave this disabled.
+	 * <p>
+	 * Requests are processed synchronously if the servlet (or any filter in front of it) is not
+	 * configured to support async processing. Bodies of form posts
+	 * (<code>application/x-www-form-urlencoded</code>) are left for the container to read.
+	 * If the executor rejects a request, the server responds with <code>HTTP 503 Service Unavailable</code>.
+	 * </p>
+	 *
+	 * @param theAsyncExecutor The executor, or <code>null</code> (the default) to process requests on the servlet container thread
+	 * @since 8.4.0
+	 */
+	public void setAsyncExecutor(@Nullable Executor theAsyncExecutor) {
+		myAsyncExecutor = theAsyncExecutor;
+	}
+
+	/**
+	 * Returns the maximum time a request processed using the {@link #setAsyncExecutor(Executor) async executor}
+	 * may take, including reading the request body and writing the response.
+	 * Defaults to {@link #DEFAULT_ASYNC_TIMEOUT_MILLIS}.
+	 *
+	 * @since 8.4.0
+	 */
+	public long getAsyncTimeoutMillis() {
+		return myAsyncTimeoutMillis;
+	}
+
+	/**
+	 * Sets the maximum time a request processed using the {@link #setAsyncExecutor(Executor) async executor}
+	 * may take, including reading the request body and writing the response. When a request times out
+	 * (e.g. because a client stopped sending its body), it is answered with
+	 * <code>HTTP 503 Service Unavailable</code> if no response has been written yet, and the request is
+	 * completed. Defaults to {@link #DEFAULT_ASYNC_TIMEOUT_MILLIS}.
+	 *
+	 * @param theAsyncTimeoutMillis The timeout in milliseconds, must be greater than 0
+	 * @since 8.4.0
+	 */
+	public void setAsyncTimeoutMillis(long theAsyncTimeoutMillis) {
+		Validate.isTrue(theAsyncTimeoutMillis > 0, "theAsyncTimeoutMillis must be greater than 0");
+		myAsyncTimeoutMillis = theAsyncTimeoutMillis;
+	}
+
+	/**
+	 * Returns the maximum size in bytes of a request body which will be buffered for a request processed
+	 * using the {@link #setAsyncExecutor(Executor) async executor}.
+	 * Defaults to {@link #DEFAULT_ASYNC_MAX_REQUEST_BODY_SIZE}.
+	 *
+	 * @since 8.4.0
+	 */
+	public long getAsyncMaxRequestBodySize() {
+		return myAsyncMaxRequestBodySize;
+	}
+
+	/**
+	 * Sets the maximum size in bytes of a request body which will be buffered for a request processed
+	 * using the {@link #setAsyncExecutor(Executor) async executor}. Requests with a larger body are
+	 * rejected with <code>HTTP 413 Payload Too Large</code>.
+	 * Defaults to {@link #DEFAULT_ASYNC_MAX_REQUEST_BODY_SIZE}.
+	 *
+	 * @since 8.4.0
+	 */
+	public void setAsyncMaxRequestBodySize(long theAsyncMaxRequestBodySize) {
+		Validate.isTrue(theAsyncMaxRequestBodySize > 0, "theAsyncMaxRequestBodySize must be greater than 0");
+		myAsyncMaxRequestBodySize = theAsyncMaxRequestBodySize;
+	}
+
 	/**
 	 * Should the server attempt to decompress incoming request contents (default is <code>true</code>). Typically this
 	 * should be set to <code>true</code> unless the server has other configuration to
@@ -1947,7 +2087,27 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			return;
 		}
 
-		switch (method) {
+		Executor asyncExecutor = myAsyncExecutor;
+		if (asyncExecutor != null) {
+			if (theReq.isAsyncSupported()) {
+				AsyncRequestProcessor.start(
+						theReq,
+						theResp,
+						asyncExecutor,
+						(theRequest, theResponse) -> service(method, theRequest, theResponse),
+						myAsyncTimeoutMillis,
+						myAsyncMaxRequestBodySize);
+				return;
+			}
+			ourLog.debug("Async processing is not supported for this request, processing synchronously");
+		}
+
+		service(method, theReq, theResp);
+	}
+
+	private void service(RequestTypeEnum theMethod, HttpServletRequest theReq, HttpServletResponse theResp)
+			throws ServletException, IOException {
+		switch (theMethod) {
 			case DELETE:
 				doDelete(theReq, theResp);
 				break;
@@ -1969,7 +2129,7 @@ public class RestfulServer extends HttpServlet implements IRestfulServer<Servlet
 			case HEAD:
 			case CONNECT:
 			default:
-				handleRequest(method, theReq, theResp);
+				handleRequest(theMethod, theReq, theResp);
 				break;
 		}
 	}
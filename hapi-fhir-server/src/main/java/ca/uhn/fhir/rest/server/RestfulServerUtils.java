@@ -67,7 +67,9 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -901,6 +903,39 @@ public class RestfulServerUtils {
 			IIdType theOperationResourceId,
 			IPrimitiveType<Date> theOperationResourceLastUpdated)
 			throws IOException {
+		return streamResponseAsResource(
+				theServer,
+				theResource,
+				theSummaryMode,
+				theStatusCode,
+				theAddContentLocationHeader,
+				respondGzip,
+				theRequestDetails,
+				theOperationResourceId,
+				theOperationResourceLastUpdated,
+				null);
+	}
+
+	/**
+	 * Streams a resource to the client
+	 *
+	 * @param theBodyEncoder If not <code>null</code>, this encoder writes the response body using the parser
+	 *                       configured for the request, instead of the parser encoding <code>theResource</code>
+	 *                       directly. Headers are always derived from <code>theResource</code>.
+	 * @since 8.4.0
+	 */
+	public static Object streamResponseAsResource(
+			IRestfulServerDefaults theServer,
+			IBaseResource theResource,
+			Set<SummaryEnum> theSummaryMode,
+			int theStatusCode,
+			boolean theAddContentLocationHeader,
+			boolean respondGzip,
+			RequestDetails theRequestDetails,
+			IIdType theOperationResourceId,
+			IPrimitiveType<Date> theOperationResourceLastUpdated,
+			@Nullable IResponseBodyEncoder theBodyEncoder)
+			throws IOException {
 		IRestfulResponse response = theRequestDetails.getResponse();
 
 		// Determine response encoding
@@ -1026,6 +1061,30 @@ public class RestfulServerUtils {
 		}
 		String charset = Constants.CHARSET_NAME_UTF8;
 
+		/*
+		 * If the body is a plain parser-encoded resource and no interceptor wants to decorate
+		 * the writer, let the parser emit UTF-8 bytes straight onto the response stream
+		 */
+		if (theResource != null
+				&& !encodingDomainResourceAsText
+				&& (theServer.getInterceptorService() == null
+						|| !theServer.getInterceptorService().hasHooks(Pointcut.SERVER_OUTGOING_WRITER_CREATED))) {
+			OutputStream outputStream =
+					response.getResponseTextOutputStream(theStatusCode, contentType, charset, respondGzip);
+			if (outputStream != null) {
+				FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
+				IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
+				if (theBodyEncoder != null) {
+					Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+					theBodyEncoder.encode(parser, writer);
+					writer.flush();
+				} else {
+					parser.encodeResourceToOutputStream(theResource, outputStream);
+				}
+				return response.commitResponse(outputStream);
+			}
+		}
+
 		Writer writer = response.getResponseWriter(theStatusCode, contentType, charset, respondGzip);
 
 		// Interceptor call: SERVER_OUTGOING_WRITER_CREATED
@@ -1058,7 +1117,11 @@ public class RestfulServerUtils {
 		} else {
 			FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
 			IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
-			parser.encodeResourceToWriter(theResource, writer);
+			if (theBodyEncoder != null) {
+				theBodyEncoder.encode(parser, writer);
+			} else {
+				parser.encodeResourceToWriter(theResource, writer);
+			}
 		}
 
 		return response.commitResponse(writer);
@@ -1268,4 +1331,15 @@ public class RestfulServerUtils {
 			return myMaxRounds;
 		}
 	}
+
+	/**
+	 * Writes a response body using a parser which has already been configured for the request
+	 *
+	 * @since 8.4.0
+	 */
+	@FunctionalInterface
+	public interface IResponseBodyEncoder {
+
+		void encode(IParser theParser, Writer theWriter) throws IOException;
+	}
 }
@@ -0,0 +1,85 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.validation.ValidationResult;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * The outcome of validating a request asynchronously
+ *
+ * @see BaseValidatingInterceptor#setAsyncValidationSelector(Predicate)
+ * @since 8.4.0
+ */
+public class AsyncValidationResult {
+
+	private final String myResourceType;
+	private final RestOperationTypeEnum myRestOperationType;
+	private final String myRequestId;
+	private final ValidationResult myValidationResult;
+	private final long myValidationMillis;
+
+	public AsyncValidationResult(
+			String theResourceType,
+			RestOperationTypeEnum theRestOperationType,
+			String theRequestId,
+			ValidationResult theValidationResult,
+			long theValidationMillis) {
+		myResourceType = theResourceType;
+		myRestOperationType = theRestOperationType;
+		myRequestId = theRequestId;
+		myValidationResult = theValidationResult;
+		myValidationMillis = theValidationMillis;
+	}
+
+	/**
+	 * The resource type of the request, if any
+	 */
+	@Nullable
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	@Nullable
+	public RestOperationTypeEnum getRestOperationType() {
+		return myRestOperationType;
+	}
+
+	@Nullable
+	public String getRequestId() {
+		return myRequestId;
+	}
+
+	@Nonnull
+	public ValidationResult getValidationResult() {
+		return myValidationResult;
+	}
+
+	/**
+	 * The time spent validating, in milliseconds
+	 */
+	public long getValidationMillis() {
+		return myValidationMillis;
+	}
+}
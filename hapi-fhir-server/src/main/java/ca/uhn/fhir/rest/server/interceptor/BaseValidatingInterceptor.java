@@ -21,7 +21,11 @@ package ca.uhn.fhir.rest.server.interceptor;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
@@ -34,6 +38,7 @@ import ca.uhn.fhir.validation.IValidatorModule;
 import ca.uhn.fhir.validation.ResultSeverityEnum;
 import ca.uhn.fhir.validation.SingleValidationMessage;
 import ca.uhn.fhir.validation.ValidationResult;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
@@ -43,6 +48,15 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -63,6 +77,7 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 	public static final String DEFAULT_RESPONSE_HEADER_VALUE = "${row}:${col} ${severity} ${message} (${location})";
 
 	private static final Logger ourLog = LoggerFactory.getLogger(BaseValidatingInterceptor.class);
+	private static final String ASYNC_VALIDATION_THREAD_PREFIX = "hapi-fhir-async-validation-";
 
 	private Integer myAddResponseIssueHeaderOnSeverity = null;
 	private Integer myAddResponseOutcomeHeaderOnSeverity = null;
@@ -77,6 +92,16 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 	private List<IValidatorModule> myValidatorModules;
 	private FhirValidator myValidator;
 
+	private Predicate<RequestDetails> myAsyncValidationSelector;
+	private double myAsyncValidationSampleRate = 1.0;
+	private int myAsyncValidationThreadCount = 1;
+	private int myAsyncValidationQueueCapacity = 100;
+	private Consumer<AsyncValidationResult> myAsyncValidationResultConsumer;
+	private ThreadPoolExecutor myAsyncValidationExecutor;
+	private final AtomicLong myAsyncValidationSubmittedCount = new AtomicLong();
+	private final AtomicLong myAsyncValidationDroppedCount = new AtomicLong();
+	private final AtomicLong myAsyncValidationCompletedCount = new AtomicLong();
+
 	private void addResponseIssueHeader(RequestDetails theRequestDetails, SingleValidationMessage theNext) {
 		// Perform any string substitutions from the message format
 		StrLookup<?> lookup = new MyLookup(theNext);
@@ -302,6 +327,151 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 		myResponseIssueHeaderValueNoIssues = theResponseHeaderValueNoIssues;
 	}
 
+	/**
+	 * Selects the requests which are validated asynchronously instead of synchronously. A request
+	 * matching this predicate never blocks on validation and can never be failed by this interceptor.
+	 * Instead, a sample of these requests (see {@link #setAsyncValidationSampleRate(double)}) is
+	 * validated on a bounded background executor, and the results are passed to any hooks registered for
+	 * the {@link Pointcut#VALIDATION_ASYNC_COMPLETED} pointcut and to the consumer supplied to
+	 * {@link #setAsyncValidationResultConsumer(Consumer)}. Requests which do not match the predicate
+	 * are validated synchronously as usual, including failing the request according to
+	 * {@link #setFailOnSeverity(ResultSeverityEnum)}.
+	 * <p>
+	 * The predicate can select requests by any criteria, such as the resource type
+	 * ({@link RequestDetails#getResourceName()}) or the client making the request. Set to
+	 * <code>null</code> (the default) to validate all requests synchronously.
+	 * </p>
+	 *
+	 * @since 8.4.0
+	 */
+	public BaseValidatingInterceptor<T> setAsyncValidationSelector(
+			@Nullable Predicate<RequestDetails> theAsyncValidationSelector) {
+		myAsyncValidationSelector = theAsyncValidationSelector;
+		return this;
+	}
+
+	/**
+	 * The fraction (between 0.0 and 1.0) of the requests selected by {@link #setAsyncValidationSelector(Predicate)}
+	 * which will actually be validated. Default is 1.0, meaning that every selected request is validated.
+	 *
+	 * @since 8.4.0
+	 */
+	public BaseValidatingInterceptor<T> setAsyncValidationSampleRate(double theAsyncValidationSampleRate) {
+		Validate.inclusiveBetween(
+				0.0, 1.0, theAsyncValidationSampleRate, "theAsyncValidationSampleRate must be between 0 and 1");
+		myAsyncValidationSampleRate = theAsyncValidationSampleRate;
+		return this;
+	}
+
+	/**
+	 * @see #setAsyncValidationSampleRate(double)
+	 * @since 8.4.0
+	 */
+	public double getAsyncValidationSampleRate() {
+		return myAsyncValidationSampleRate;
+	}
+
+	/**
+	 * The number of background threads used for asynchronous validation. Default is 1.
+	 *
+	 * @since 8.4.0
+	 */
+	public synchronized BaseValidatingInterceptor<T> setAsyncValidationThreadCount(int theAsyncValidationThreadCount) {
+		Validate.isTrue(theAsyncValidationThreadCount > 0, "theAsyncValidationThreadCount must be > 0");
+		myAsyncValidationThreadCount = theAsyncValidationThreadCount;
+		shutdownAsyncValidationExecutor();
+		return this;
+	}
+
+	/**
+	 * The maximum number of requests which can be waiting for asynchronous validation. When the queue
+	 * is full, further samples are dropped (see {@link #getAsyncValidationDroppedCount()}) so that
+	 * validation never slows down the requests themselves. Default is 100.
+	 *
+	 * @since 8.4.0
+	 */
+	public synchronized BaseValidatingInterceptor<T> setAsyncValidationQueueCapacity(
+			int theAsyncValidationQueueCapacity) {
+		Validate.isTrue(theAsyncValidationQueueCapacity > 0, "theAsyncValidationQueueCapacity must be > 0");
+		myAsyncValidationQueueCapacity = theAsyncValidationQueueCapacity;
+		shutdownAsyncValidationExecutor();
+		return this;
+	}
+
+	/**
+	 * Receives the results of asynchronous validation. This is invoked on the background validation
+	 * thread, after any hooks registered for the {@link Pointcut#VALIDATION_ASYNC_COMPLETED} pointcut.
+	 * If there is no consumer and no such hook, results containing issues at or above the
+	 * {@link #setFailOnSeverity(ResultSeverityEnum) fail severity} are logged.
+	 *
+	 * @since 8.4.0
+	 */
+	public BaseValidatingInterceptor<T> setAsyncValidationResultConsumer(
+			@Nullable Consumer<AsyncValidationResult> theAsyncValidationResultConsumer) {
+		myAsyncValidationResultConsumer = theAsyncValidationResultConsumer;
+		return this;
+	}
+
+	/**
+	 * Returns the number of requests which have been queued for asynchronous validation
+	 *
+	 * @since 8.4.0
+	 */
+	public long getAsyncValidationSubmittedCount() {
+		return myAsyncValidationSubmittedCount.get();
+	}
+
+	/**
+	 * Returns the number of sampled requests which were not validated because the queue was full
+	 *
+	 * @since 8.4.0
+	 */
+	public long getAsyncValidationDroppedCount() {
+		return myAsyncValidationDroppedCount.get();
+	}
+
+	/**
+	 * Returns the number of asynchronous validations which have completed
+	 *
+	 * @since 8.4.0
+	 */
+	public long getAsyncValidationCompletedCount() {
+		return myAsyncValidationCompletedCount.get();
+	}
+
+	/**
+	 * Returns the number of requests currently waiting for asynchronous validation
+	 *
+	 * @since 8.4.0
+	 */
+	public synchronized int getAsyncValidationQueueDepth() {
+		return myAsyncValidationExecutor != null
+				? myAsyncValidationExecutor.getQueue().size()
+				: 0;
+	}
+
+	/**
+	 * Hook for subclasses to provide a copy of the request object which is safe to validate on a background
+	 * thread while the request continues to be processed. The default implementation returns the object as-is.
+	 *
+	 * @since 8.4.0
+	 */
+	protected T copyForAsyncValidation(T theRequest, RequestDetails theRequestDetails) {
+		return theRequest;
+	}
+
+	/**
+	 * Shuts down the executor used for asynchronous validation, if one has been started. Validations which
+	 * are already queued are still completed. This is called automatically when the interceptor is
+	 * unregistered, and a new executor is started if the interceptor is used again.
+	 *
+	 * @since 8.4.0
+	 */
+	@Hook(Pointcut.INTERCEPTOR_UNREGISTERED)
+	public synchronized void shutdownAsyncValidation() {
+		shutdownAsyncValidationExecutor();
+	}
+
 	/**
 	 * Hook for subclasses (e.g. add a tag (coding) to an incoming resource when a given severity appears in the
 	 * ValidationResult).
@@ -343,6 +513,13 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 			}
 		}
 
+		if (myAsyncValidationSelector != null && myAsyncValidationSelector.test(theRequestDetails)) {
+			if (ThreadLocalRandom.current().nextDouble() < myAsyncValidationSampleRate) {
+				submitAsyncValidation(validator, theRequest, theRequestDetails);
+			}
+			return null;
+		}
+
 		ValidationResult validationResult;
 		try {
 			validationResult = doValidate(validator, theRequest);
@@ -419,6 +596,104 @@ public abstract class BaseValidatingInterceptor<T> extends ValidationResultEnric
 		return validationResult;
 	}
 
+	private void submitAsyncValidation(FhirValidator theValidator, T theRequest, RequestDetails theRequestDetails) {
+		// Capture everything needed from the request now, since the request may be
+		// complete (and its objects recycled) by the time validation runs
+		T request = copyForAsyncValidation(theRequest, theRequestDetails);
+		String resourceType = theRequestDetails.getResourceName();
+		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
+		String requestId = theRequestDetails.getRequestId();
+		IInterceptorBroadcaster interceptorBroadcaster = theRequestDetails.getInterceptorBroadcaster();
+
+		Runnable task = () -> {
+			long start = System.nanoTime();
+			try {
+				ValidationResult result = doValidate(theValidator, request);
+				long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				handleAsyncValidationResult(
+						interceptorBroadcaster,
+						new AsyncValidationResult(resourceType, operationType, requestId, result, millis));
+			} catch (Exception e) {
+				ourLog.warn("Failure during asynchronous validation of request {}", requestId, e);
+			} finally {
+				myAsyncValidationCompletedCount.incrementAndGet();
+			}
+		};
+
+		try {
+			getOrCreateAsyncValidationExecutor().execute(task);
+			myAsyncValidationSubmittedCount.incrementAndGet();
+		} catch (RejectedExecutionException e) {
+			myAsyncValidationDroppedCount.incrementAndGet();
+			ourLog.debug("Asynchronous validation queue is full, dropping sample for request {}", requestId);
+		}
+	}
+
+	private void handleAsyncValidationResult(
+			@Nullable IInterceptorBroadcaster theInterceptorBroadcaster, AsyncValidationResult theResult) {
+		boolean handled = false;
+
+		// Interceptor call: VALIDATION_ASYNC_COMPLETED
+		if (theInterceptorBroadcaster != null
+				&& theInterceptorBroadcaster.hasHooks(Pointcut.VALIDATION_ASYNC_COMPLETED)) {
+			HookParams params = new HookParams()
+					.add(AsyncValidationResult.class, theResult)
+					.add(ValidationResult.class, theResult.getValidationResult());
+			theInterceptorBroadcaster.callHooks(Pointcut.VALIDATION_ASYNC_COMPLETED, params);
+			handled = true;
+		}
+
+		if (myAsyncValidationResultConsumer != null) {
+			myAsyncValidationResultConsumer.accept(theResult);
+			handled = true;
+		}
+
+		if (handled) {
+			return;
+		}
+
+		if (myFailOnSeverity != null) {
+			for (SingleValidationMessage next : theResult.getValidationResult().getMessages()) {
+				if (next.getSeverity().ordinal() >= myFailOnSeverity) {
+					ourLog.warn(
+							"Asynchronous validation of {} request {} found issues: {}",
+							theResult.getResourceType(),
+							theResult.getRequestId(),
+							next.getMessage());
+					break;
+				}
+			}
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getOrCreateAsyncValidationExecutor() {
+		if (myAsyncValidationExecutor == null) {
+			ThreadFactory threadFactory = r -> {
+				Thread t = new Thread(r);
+				t.setName(ASYNC_VALIDATION_THREAD_PREFIX + t.getId());
+				t.setDaemon(true);
+				return t;
+			};
+			myAsyncValidationExecutor = new ThreadPoolExecutor(
+					myAsyncValidationThreadCount,
+					myAsyncValidationThreadCount,
+					60,
+					TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(myAsyncValidationQueueCapacity),
+					threadFactory,
+					new ThreadPoolExecutor.AbortPolicy());
+			myAsyncValidationExecutor.allowCoreThreadTimeOut(true);
+		}
+		return myAsyncValidationExecutor;
+	}
+
+	private void shutdownAsyncValidationExecutor() {
+		if (myAsyncValidationExecutor != null) {
+			myAsyncValidationExecutor.shutdown();
+			myAsyncValidationExecutor = null;
+		}
+	}
+
 	private static class MyLookup extends StrLookup<String> {
 
 		private SingleValidationMessage myMessage;
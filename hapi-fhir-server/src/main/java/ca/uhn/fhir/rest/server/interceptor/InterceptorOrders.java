@@ -28,6 +28,9 @@ public class InterceptorOrders {
 	public static final int RESPONSE_TERMINOLOGY_TRANSLATION_INTERCEPTOR = 100;
 	public static final int RESPONSE_TERMINOLOGY_DISPLAY_POPULATION_INTERCEPTOR = 110;
 
+	public static final int READ_RESPONSE_CACHE_INTERCEPTOR = 9000;
+	public static final int REQUEST_COALESCING_INTERCEPTOR = 9500;
+
 	/**
 	 * Non instantiable
 	 */
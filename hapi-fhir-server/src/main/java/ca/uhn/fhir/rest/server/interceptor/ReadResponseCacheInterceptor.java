@@ -0,0 +1,557 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.IRestfulResponse;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.ResponseDetails;
+import ca.uhn.fhir.rest.param.ParameterUtil;
+import ca.uhn.fhir.rest.server.ETagSupportEnum;
+import ca.uhn.fhir.rest.server.IRestfulServerDefaults;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.rest.server.exceptions.NotModifiedException;
+import ca.uhn.fhir.util.DateUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBaseBinary;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * This interceptor caches the encoded response bodies of FHIR
+ * <a href="http://hl7.org/fhir/http.html#read">read</a> and
+ * <a href="http://hl7.org/fhir/http.html#vread">vread</a> operations, and
+ * uses an index of the current version of each resource it has seen in order
+ * to answer conditional reads (<code>If-None-Match</code>) with a
+ * <code>304 Not Modified</code> without invoking the resource provider at all.
+ * <p>
+ * Cached bodies are keyed by the resource ID and version, the response content type,
+ * the pretty-print setting, and the <code>_summary</code> and <code>_elements</code>
+ * parameters, so a cached body is only ever served to a request which would have
+ * produced exactly the same bytes. Requests carrying any other parameter, requests
+ * for HTML (e.g. from a browser) and Binary resources are never cached. This
+ * interceptor only acts when {@link ETagSupportEnum#ENABLED ETag support} is enabled
+ * on the server.
+ * </p>
+ * <p>
+ * The version index is kept up to date by the {@link Pointcut#STORAGE_PRECOMMIT_RESOURCE_UPDATED}
+ * and {@link Pointcut#STORAGE_PRECOMMIT_RESOURCE_DELETED} pointcuts, which are invoked
+ * by the JPA server. Plain servers should call {@link #resourceUpdated(RequestDetails, IIdType)}
+ * and {@link #resourceDeleted(RequestDetails, IIdType)} from their update and delete
+ * methods instead. Versions observed while serving reads never move the index backwards,
+ * so a read which races with an update can not resurrect an older version. An update or
+ * delete which is not tied to a tenant (e.g. one performed by a system request) applies to
+ * the resource ID in every tenant. Cached bodies are dropped when the
+ * {@link Pointcut#STORAGE_PRESTORAGE_EXPUNGE_RESOURCE} and {@link Pointcut#STORAGE_PRESTORAGE_EXPUNGE_EVERYTHING}
+ * pointcuts report that resources are being expunged.
+ * </p>
+ * <p>
+ * <b>Note on security:</b> Cached and <code>304</code> responses are produced in the
+ * {@link Pointcut#SERVER_INCOMING_REQUEST_POST_PROCESSED} pointcut, before any authorization
+ * or consent checks would run. This interceptor therefore neither serves nor stores responses
+ * while any hook is registered for the {@link Pointcut#SERVER_INCOMING_REQUEST_PRE_HANDLED},
+ * {@link Pointcut#STORAGE_PREACCESS_RESOURCES} or {@link Pointcut#STORAGE_PRESHOW_RESOURCES}
+ * pointcuts, which is where the <code>AuthorizationInterceptor</code>, the <code>ConsentInterceptor</code>
+ * and similar interceptors make their decisions. This also applies to interceptors which only
+ * observe these pointcuts (such as the <code>ServerMetricsInterceptor</code>). Hooks on
+ * {@link Pointcut#SERVER_OUTGOING_RESPONSE} and {@link Pointcut#SERVER_OUTGOING_WRITER_CREATED}
+ * are still not invoked for cached responses.
+ * </p>
+ * <p>
+ * <b>Note on clustering:</b> The version index only sees writes made through the server process
+ * it is registered in. When several processes share the same storage, a process can answer a
+ * conditional read with a <code>304</code> for a version which has since been replaced on another
+ * process, and can serve the body of a version which was expunged on another process, until the
+ * entry expires. Entries expire {@link #DEFAULT_EXPIRE_AFTER_WRITE_MILLIS five minutes} after they
+ * are written by default; clustered deployments should use a short expiry, or call
+ * {@link #resourceUpdated(RequestDetails, IIdType)} and {@link #resourceDeleted(RequestDetails, IIdType)}
+ * when they are notified of writes made on other processes.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+@Interceptor
+public class ReadResponseCacheInterceptor {
+
+	public static final long DEFAULT_MAXIMUM_CACHED_BYTES = 64L * 1024 * 1024;
+	public static final long DEFAULT_MAXIMUM_INDEXED_RESOURCES = 100_000;
+	public static final long DEFAULT_EXPIRE_AFTER_WRITE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private static final String DELETED = "";
+	private static final Set<String> CACHEABLE_PARAMETERS = Set.of(
+			Constants.PARAM_FORMAT,
+			Constants.PARAM_PRETTY,
+			Constants.PARAM_SUMMARY,
+			Constants.PARAM_ELEMENTS,
+			Constants.PARAM_ELEMENTS + Constants.PARAM_ELEMENTS_EXCLUDE_MODIFIER);
+
+	private static final Pointcut[] ACCESS_CONTROL_POINTCUTS = {
+		Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED,
+		Pointcut.STORAGE_PREACCESS_RESOURCES,
+		Pointcut.STORAGE_PRESHOW_RESOURCES
+	};
+
+	/**
+	 * Keyed by resource type and ID, with the current version for each tenant as the value
+	 */
+	private final Cache<String, ConcurrentMap<String, String>> myCurrentVersions;
+	private final Cache<String, CachedResponse> myCachedResponses;
+	private final AtomicLong myHitCount = new AtomicLong();
+	private final AtomicLong myMissCount = new AtomicLong();
+	private final AtomicLong myNotModifiedCount = new AtomicLong();
+
+	/**
+	 * Constructor which uses {@link #DEFAULT_MAXIMUM_CACHED_BYTES}, {@link #DEFAULT_MAXIMUM_INDEXED_RESOURCES}
+	 * and {@link #DEFAULT_EXPIRE_AFTER_WRITE_MILLIS}
+	 */
+	public ReadResponseCacheInterceptor() {
+		this(DEFAULT_MAXIMUM_CACHED_BYTES, DEFAULT_MAXIMUM_INDEXED_RESOURCES);
+	}
+
+	/**
+	 * Constructor which uses {@link #DEFAULT_EXPIRE_AFTER_WRITE_MILLIS}
+	 *
+	 * @param theMaximumCachedBytes       The maximum total size of the cached response bodies, in bytes
+	 * @param theMaximumIndexedResources The maximum number of resources whose current version is tracked
+	 */
+	public ReadResponseCacheInterceptor(long theMaximumCachedBytes, long theMaximumIndexedResources) {
+		this(theMaximumCachedBytes, theMaximumIndexedResources, DEFAULT_EXPIRE_AFTER_WRITE_MILLIS);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaximumCachedBytes       The maximum total size of the cached response bodies, in bytes
+	 * @param theMaximumIndexedResources The maximum number of resources whose current version is tracked
+	 * @param theExpireAfterWriteMillis   The time after which indexed versions and cached bodies are discarded
+	 */
+	public ReadResponseCacheInterceptor(
+			long theMaximumCachedBytes, long theMaximumIndexedResources, long theExpireAfterWriteMillis) {
+		Validate.isTrue(theMaximumCachedBytes > 0, "theMaximumCachedBytes must be greater than 0");
+		Validate.isTrue(theMaximumIndexedResources > 0, "theMaximumIndexedResources must be greater than 0");
+		Validate.isTrue(theExpireAfterWriteMillis > 0, "theExpireAfterWriteMillis must be greater than 0");
+		myCurrentVersions = CacheBuilder.newBuilder()
+				.maximumSize(theMaximumIndexedResources)
+				.expireAfterWrite(theExpireAfterWriteMillis, TimeUnit.MILLISECONDS)
+				.build();
+		myCachedResponses = CacheBuilder.newBuilder()
+				.maximumWeight(theMaximumCachedBytes)
+				.expireAfterWrite(theExpireAfterWriteMillis, TimeUnit.MILLISECONDS)
+				.weigher((String theKey, CachedResponse theValue) -> theKey.length() + theValue.myBody.length)
+				.build();
+	}
+
+	@Hook(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails) throws IOException {
+		if (!isCacheable(theRequestDetails)) {
+			return true;
+		}
+
+		IIdType id = theRequestDetails.getId();
+		String version;
+		if (theRequestDetails.getRestOperationType() == RestOperationTypeEnum.VREAD) {
+			version = id.getVersionIdPart();
+		} else {
+			Map<String, String> versions = myCurrentVersions.getIfPresent(toResourceKey(theRequestDetails, id));
+			version = versions != null ? versions.get(toTenantKey(theRequestDetails)) : null;
+			if (version == null || DELETED.equals(version)) {
+				myMissCount.incrementAndGet();
+				return true;
+			}
+		}
+
+		CachedResponse cachedResponse = myCachedResponses.getIfPresent(toResponseKey(theRequestDetails, id, version));
+
+		String ifNoneMatch = theRequestDetails.getHeader(Constants.HEADER_IF_NONE_MATCH_LC);
+		if (isNotBlank(ifNoneMatch)) {
+			// A vread is only answered from the cache if we know that the version exists
+			boolean versionKnown =
+					theRequestDetails.getRestOperationType() == RestOperationTypeEnum.READ || cachedResponse != null;
+			if (versionKnown && version.equals(ParameterUtil.parseETagValue(ifNoneMatch))) {
+				myNotModifiedCount.incrementAndGet();
+				throw new NotModifiedException(Msg.code(2785) + "Not Modified");
+			}
+		}
+
+		if (cachedResponse == null) {
+			myMissCount.incrementAndGet();
+			return true;
+		}
+
+		myHitCount.incrementAndGet();
+		writeCachedResponse(theRequestDetails, version, cachedResponse);
+		return false;
+	}
+
+	@Hook(value = Pointcut.SERVER_OUTGOING_RESPONSE, order = InterceptorOrders.READ_RESPONSE_CACHE_INTERCEPTOR)
+	public void outgoingResponse(
+			RequestDetails theRequestDetails, IBaseResource theResource, ResponseDetails theResponseDetails) {
+		if (theResource == null
+				|| theResource instanceof IBaseBinary
+				|| theResponseDetails.getResponseCode() != Constants.STATUS_HTTP_200_OK
+				|| !isCacheable(theRequestDetails)) {
+			return;
+		}
+
+		IBaseResource resource = theResponseDetails.getResponseResource();
+		if (resource == null) {
+			resource = theResource;
+		}
+		String version = resource.getIdElement().getVersionIdPart();
+		if (isBlank(version) && resource.getMeta() != null) {
+			version = resource.getMeta().getVersionId();
+		}
+		if (isBlank(version)) {
+			return;
+		}
+
+		IIdType id = theRequestDetails.getId();
+		recordObservedVersion(theRequestDetails, id, version);
+
+		IRestfulServerDefaults server = theRequestDetails.getServer();
+		IParser parser = RestfulServerUtils.getNewParser(
+				server.getFhirContext(), resource.getStructureFhirVersionEnum(), theRequestDetails);
+		byte[] body = parser.encodeResourceToString(resource).getBytes(StandardCharsets.UTF_8);
+
+		IIdType contentLocation = RestfulServerUtils.fullyQualifyResourceIdOrReturnNull(
+				server, resource, theRequestDetails.getFhirServerBase(), resource.getIdElement());
+		IPrimitiveType<Date> lastUpdated = RestfulServerUtils.extractLastUpdatedFromResource(resource);
+		String lastModified = null;
+		if (lastUpdated != null && !lastUpdated.isEmpty()) {
+			lastModified = DateUtils.formatDate(lastUpdated.getValue());
+		}
+
+		CachedResponse cachedResponse = new CachedResponse(
+				RestfulServerUtils.determineResponseEncodingWithDefault(theRequestDetails)
+						.getResourceContentType(),
+				contentLocation != null ? contentLocation.getValue() : null,
+				lastModified,
+				body);
+		myCachedResponses.put(toResponseKey(theRequestDetails, id, version), cachedResponse);
+	}
+
+	@Hook(Pointcut.STORAGE_PRECOMMIT_RESOURCE_UPDATED)
+	public void storagePrecommitResourceUpdated(
+			@Nullable RequestDetails theRequestDetails, IBaseResource theNewResource) {
+		resourceUpdated(theRequestDetails, theNewResource.getIdElement());
+	}
+
+	@Hook(Pointcut.STORAGE_PRECOMMIT_RESOURCE_DELETED)
+	public void storagePrecommitResourceDeleted(@Nullable RequestDetails theRequestDetails, IBaseResource theResource) {
+		resourceDeleted(theRequestDetails, theResource.getIdElement());
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_EXPUNGE_RESOURCE)
+	public void storagePrestorageExpungeResource(@Nullable RequestDetails theRequestDetails, IIdType theId) {
+		resourceExpunged(theRequestDetails, theId);
+	}
+
+	@Hook(Pointcut.STORAGE_PRESTORAGE_EXPUNGE_EVERYTHING)
+	public void storagePrestorageExpungeEverything() {
+		clear();
+	}
+
+	/**
+	 * Records that a resource has been updated. If the given ID carries a version, that version
+	 * becomes the current version of the resource. Otherwise the resource is removed from the
+	 * version index, and conditional reads will be passed to the resource provider until it has
+	 * been read again.
+	 *
+	 * @param theRequestDetails The request which performed the update, used to determine the tenant. If this is
+	 *                          <code>null</code> or has no tenant, the update applies to the resource in every tenant.
+	 * @param theId             The resource ID, which must include the resource type
+	 */
+	public void resourceUpdated(@Nullable RequestDetails theRequestDetails, IIdType theId) {
+		String key = toResourceKey(theRequestDetails, theId);
+		String tenantId = theRequestDetails != null ? theRequestDetails.getTenantId() : null;
+		if (tenantId == null) {
+			// We can't tell which tenant the resource belongs to, so forget it in all of them
+			if (theId.hasVersionIdPart()) {
+				ConcurrentMap<String, String> versions = new ConcurrentHashMap<>();
+				versions.put(toTenantKey(null), theId.getVersionIdPart());
+				myCurrentVersions.put(key, versions);
+			} else {
+				myCurrentVersions.invalidate(key);
+			}
+		} else if (theId.hasVersionIdPart()) {
+			getVersions(key).put(tenantId, theId.getVersionIdPart());
+		} else {
+			ConcurrentMap<String, String> versions = myCurrentVersions.getIfPresent(key);
+			if (versions != null) {
+				versions.remove(tenantId);
+			}
+		}
+	}
+
+	/**
+	 * Records that a resource has been deleted. Conditional reads for the resource will be passed to the
+	 * resource provider, and versions observed while serving reads will not be indexed, until the resource
+	 * is updated again.
+	 *
+	 * @param theRequestDetails The request which performed the delete, used to determine the tenant. If this is
+	 *                          <code>null</code> or has no tenant, the delete applies to the resource in every tenant.
+	 * @param theId             The resource ID, which must include the resource type
+	 */
+	public void resourceDeleted(@Nullable RequestDetails theRequestDetails, IIdType theId) {
+		ConcurrentMap<String, String> versions = getVersions(toResourceKey(theRequestDetails, theId));
+		String tenantId = theRequestDetails != null ? theRequestDetails.getTenantId() : null;
+		if (tenantId == null) {
+			versions.replaceAll((k, v) -> DELETED);
+		}
+		versions.put(toTenantKey(theRequestDetails), DELETED);
+	}
+
+	/**
+	 * Records that a resource, or one version of it, has been expunged. The resource is removed from the
+	 * version index, and its cached response bodies are discarded, in every tenant.
+	 *
+	 * @param theRequestDetails The request which performed the expunge (may be <code>null</code>)
+	 * @param theId             The resource ID, which must include the resource type. If it carries a version,
+	 *                          only the response bodies for that version are discarded.
+	 */
+	public void resourceExpunged(@Nullable RequestDetails theRequestDetails, IIdType theId) {
+		String key = toResourceKey(theRequestDetails, theId);
+		myCurrentVersions.invalidate(key);
+
+		String prefix = theId.hasVersionIdPart() ? key + "|" + theId.getVersionIdPart() + "|" : key + "|";
+		myCachedResponses.asMap().keySet().removeIf(t -> t.startsWith(prefix));
+	}
+
+	/**
+	 * Removes all cached responses and indexed versions
+	 */
+	public void clear() {
+		myCurrentVersions.invalidateAll();
+		myCachedResponses.invalidateAll();
+	}
+
+	/**
+	 * Returns the number of requests which were answered with a cached response body
+	 */
+	public long getHitCount() {
+		return myHitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests which had to be passed to the resource provider
+	 */
+	public long getMissCount() {
+		return myMissCount.get();
+	}
+
+	/**
+	 * Returns the number of conditional requests which were answered with <code>304 Not Modified</code>
+	 */
+	public long getNotModifiedCount() {
+		return myNotModifiedCount.get();
+	}
+
+	/**
+	 * A version observed while serving a read may be older than the version already in the
+	 * index if the read raced with an update, so numeric versions are only ever moved forward
+	 * and deleted resources are left alone.
+	 */
+	private void recordObservedVersion(RequestDetails theRequestDetails, IIdType theId, String theVersion) {
+		ConcurrentMap<String, String> versions = getVersions(toResourceKey(theRequestDetails, theId));
+		versions.compute(toTenantKey(theRequestDetails), (k, existing) -> {
+			if (existing == null) {
+				return theVersion;
+			}
+			if (DELETED.equals(existing)) {
+				return existing;
+			}
+			if (StringUtils.isNumeric(existing) && StringUtils.isNumeric(theVersion)) {
+				return Long.parseLong(theVersion) > Long.parseLong(existing) ? theVersion : existing;
+			}
+			return existing;
+		});
+	}
+
+	@Nonnull
+	private ConcurrentMap<String, String> getVersions(String theResourceKey) {
+		return myCurrentVersions.asMap().computeIfAbsent(theResourceKey, k -> new ConcurrentHashMap<>());
+	}
+
+	private void writeCachedResponse(RequestDetails theRequestDetails, String theVersion, CachedResponse theResponse)
+			throws IOException {
+		IRestfulResponse response = theRequestDetails.getResponse();
+		if (theResponse.myContentLocation != null) {
+			response.addHeader(Constants.HEADER_CONTENT_LOCATION, theResponse.myContentLocation);
+		}
+		response.addHeader(Constants.HEADER_ETAG, RestfulServerUtils.createEtag(theVersion));
+		if (theResponse.myLastModified != null) {
+			response.addHeader(Constants.HEADER_LAST_MODIFIED, theResponse.myLastModified);
+		}
+
+		boolean respondGzip = theRequestDetails.isRespondGzip();
+		OutputStream outputStream = response.getResponseTextOutputStream(
+				Constants.STATUS_HTTP_200_OK, theResponse.myContentType, Constants.CHARSET_NAME_UTF8, respondGzip);
+		if (outputStream != null) {
+			outputStream.write(theResponse.myBody);
+			response.commitResponse(outputStream);
+		} else {
+			// Not every response type supports writing bytes directly (e.g. JAX-RS)
+			Writer writer = response.getResponseWriter(
+					Constants.STATUS_HTTP_200_OK, theResponse.myContentType, Constants.CHARSET_NAME_UTF8, respondGzip);
+			writer.write(new String(theResponse.myBody, StandardCharsets.UTF_8));
+			response.commitResponse(writer);
+		}
+	}
+
+	private static boolean isCacheable(RequestDetails theRequestDetails) {
+		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
+		if (operationType != RestOperationTypeEnum.READ && operationType != RestOperationTypeEnum.VREAD) {
+			return false;
+		}
+		if (theRequestDetails.getServer() == null
+				|| theRequestDetails.getServer().getETagSupport() != ETagSupportEnum.ENABLED) {
+			return false;
+		}
+		if (hasAccessControlHooks(theRequestDetails)) {
+			return false;
+		}
+		IIdType id = theRequestDetails.getId();
+		if (id == null || !id.hasIdPart() || isBlank(theRequestDetails.getResourceName())) {
+			return false;
+		}
+		if (operationType == RestOperationTypeEnum.VREAD && !id.hasVersionIdPart()) {
+			return false;
+		}
+
+		for (Map.Entry<String, String[]> next :
+				theRequestDetails.getParameters().entrySet()) {
+			if (!CACHEABLE_PARAMETERS.contains(next.getKey())) {
+				return false;
+			}
+			for (String nextValue : next.getValue()) {
+				if (StringUtils.startsWithIgnoreCase(nextValue, "html")
+						|| StringUtils.containsIgnoreCase(nextValue, Constants.CT_HTML)
+						|| (Constants.PARAM_SUMMARY.equals(next.getKey()) && "text".equalsIgnoreCase(nextValue))) {
+					return false;
+				}
+			}
+		}
+
+		// Browsers get an HTML rendering from the ResponseHighlighterInterceptor
+		String accept = theRequestDetails.getHeader(Constants.HEADER_ACCEPT);
+		return !StringUtils.containsIgnoreCase(accept, Constants.CT_HTML);
+	}
+
+	/**
+	 * Cached responses are produced before authorization and consent decisions are made, so they
+	 * can't be used at all while any interceptor which could make such a decision is registered
+	 */
+	private static boolean hasAccessControlHooks(RequestDetails theRequestDetails) {
+		IInterceptorBroadcaster broadcaster = theRequestDetails.getInterceptorBroadcaster();
+		if (broadcaster == null) {
+			return false;
+		}
+		for (Pointcut next : ACCESS_CONTROL_POINTCUTS) {
+			if (broadcaster.hasHooks(next)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nonnull
+	private static String toResourceKey(@Nullable RequestDetails theRequestDetails, IIdType theId) {
+		Validate.isTrue(theId.hasResourceType() || theRequestDetails != null, "Resource ID must include a type");
+		String resourceType = theId.hasResourceType() ? theId.getResourceType() : theRequestDetails.getResourceName();
+		return resourceType + "/" + theId.getIdPart();
+	}
+
+	@Nonnull
+	private static String toTenantKey(@Nullable RequestDetails theRequestDetails) {
+		return defaultString(theRequestDetails != null ? theRequestDetails.getTenantId() : null);
+	}
+
+	@Nonnull
+	private static String toResponseKey(RequestDetails theRequestDetails, IIdType theId, String theVersion) {
+		StringBuilder b = new StringBuilder();
+		b.append(toResourceKey(theRequestDetails, theId));
+		b.append("|").append(theVersion);
+		b.append("|").append(toTenantKey(theRequestDetails));
+		b.append("|").append(theRequestDetails.getFhirServerBase());
+		b.append("|")
+				.append(RestfulServerUtils.determineResponseEncodingWithDefault(theRequestDetails)
+						.getResourceContentType());
+		b.append("|").append(RestfulServerUtils.prettyPrintResponse(theRequestDetails.getServer(), theRequestDetails));
+		for (String next : new String[] {
+			Constants.PARAM_SUMMARY,
+			Constants.PARAM_ELEMENTS,
+			Constants.PARAM_ELEMENTS + Constants.PARAM_ELEMENTS_EXCLUDE_MODIFIER
+		}) {
+			String[] values = theRequestDetails.getParameters().get(next);
+			if (values != null) {
+				String[] sorted = values.clone();
+				Arrays.sort(sorted);
+				b.append("|").append(next).append("=").append(String.join(",", sorted));
+			}
+		}
+		return b.toString();
+	}
+
+	private static class CachedResponse {
+
+		private final String myContentType;
+		private final String myContentLocation;
+		private final String myLastModified;
+		private final byte[] myBody;
+
+		private CachedResponse(
+				String theContentType, String theContentLocation, String theLastModified, byte[] theBody) {
+			myContentType = theContentType;
+			myContentLocation = theContentLocation;
+			myLastModified = theLastModified;
+			myBody = theBody;
+		}
+	}
+}
@@ -0,0 +1,537 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.IRestfulResponse;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.defaultString;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * This interceptor coalesces identical <code>GET</code> read, vread and search requests which
+ * arrive while an earlier one is still being processed. The first such request (the <i>leader</i>)
+ * is processed normally, and a copy of the response it writes is kept. Requests which arrive
+ * while the leader is in flight (the <i>followers</i>) wait for the leader to finish and are
+ * answered with the same encoded response body and headers, without invoking the resource
+ * provider again. Responses are not kept once the leader has finished, so this is not a cache:
+ * it only removes duplicate work for requests that are actually concurrent, such as a dashboard
+ * being refreshed by many clients at once.
+ * <p>
+ * Two requests are considered identical if they have the same tenant, server base, request path,
+ * parameters, <code>Accept</code> and <code>Prefer</code> headers, and identity. By default the
+ * identity is the value of the <code>Authorization</code> header. Servers which identify clients
+ * in some other way (e.g. with a session cookie or a client certificate) must supply a function
+ * which returns a value identifying the client using {@link #setIdentityFunction(Function)}.
+ * Requests without an identity are never coalesced.
+ * </p>
+ * <p>
+ * Only successful (<code>2xx</code>) responses are shared. If the leader fails, or its response is
+ * larger than {@link #setMaximumResponseBytes(int) the maximum size}, or a follower waits longer
+ * than {@link #setMaximumWaitMillis(long) the maximum wait time}, the follower is simply processed
+ * on its own. Response compression is negotiated separately for each follower.
+ * </p>
+ * <p>
+ * <b>Note on security:</b> Followers are answered in the {@link Pointcut#SERVER_INCOMING_REQUEST_POST_PROCESSED}
+ * pointcut, before any authorization, consent or audit checks would run. This interceptor therefore does
+ * not coalesce any request while a hook is registered for the {@link Pointcut#SERVER_INCOMING_REQUEST_PRE_HANDLED},
+ * {@link Pointcut#STORAGE_PREACCESS_RESOURCES} or {@link Pointcut#STORAGE_PRESHOW_RESOURCES} pointcuts, which
+ * is where the <code>AuthorizationInterceptor</code>, the <code>ConsentInterceptor</code>, the
+ * <code>SearchNarrowingInterceptor</code> and the BALP audit interceptor do their work. This also applies
+ * to interceptors which only observe these pointcuts (such as the <code>ServerMetricsInterceptor</code>).
+ * Hooks on {@link Pointcut#SERVER_OUTGOING_RESPONSE} are still only invoked for the leader.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+@Interceptor
+public class RequestCoalescingInterceptor {
+
+	public static final int DEFAULT_MAXIMUM_RESPONSE_BYTES = 10 * 1024 * 1024;
+	public static final long DEFAULT_MAXIMUM_WAIT_MILLIS = 30_000;
+
+	private static final String IN_FLIGHT_KEY = RequestCoalescingInterceptor.class.getName() + "_IN_FLIGHT";
+	private static final Set<RestOperationTypeEnum> COALESCED_OPERATIONS = Set.of(
+			RestOperationTypeEnum.READ,
+			RestOperationTypeEnum.VREAD,
+			RestOperationTypeEnum.SEARCH_TYPE,
+			RestOperationTypeEnum.SEARCH_SYSTEM);
+	private static final Pointcut[] ACCESS_CONTROL_POINTCUTS = {
+		Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED,
+		Pointcut.STORAGE_PREACCESS_RESOURCES,
+		Pointcut.STORAGE_PRESHOW_RESOURCES
+	};
+
+	private final ConcurrentHashMap<String, InFlightRequest> myInFlightRequests = new ConcurrentHashMap<>();
+	private final AtomicLong myLeaderCount = new AtomicLong();
+	private final AtomicLong myCoalescedCount = new AtomicLong();
+	private final AtomicLong myFallbackCount = new AtomicLong();
+	private Function<RequestDetails, String> myIdentityFunction = t -> t.getHeader(Constants.HEADER_AUTHORIZATION);
+	private int myMaximumResponseBytes = DEFAULT_MAXIMUM_RESPONSE_BYTES;
+	private long myMaximumWaitMillis = DEFAULT_MAXIMUM_WAIT_MILLIS;
+
+	/**
+	 * Sets the function used to determine the identity of the client making a request. Only requests
+	 * with the same identity are coalesced. The function may return <code>null</code> if the client can't
+	 * be identified, in which case the request is never coalesced. By default the value of the
+	 * <code>Authorization</code> header is used.
+	 */
+	public void setIdentityFunction(@Nonnull Function<RequestDetails, String> theIdentityFunction) {
+		Validate.notNull(theIdentityFunction, "theIdentityFunction must not be null");
+		myIdentityFunction = theIdentityFunction;
+	}
+
+	public int getMaximumResponseBytes() {
+		return myMaximumResponseBytes;
+	}
+
+	/**
+	 * Sets the largest response body (in bytes, before any compression) which will be kept
+	 * in order to be shared with followers. Defaults to {@link #DEFAULT_MAXIMUM_RESPONSE_BYTES}.
+	 */
+	public void setMaximumResponseBytes(int theMaximumResponseBytes) {
+		Validate.isTrue(theMaximumResponseBytes > 0, "theMaximumResponseBytes must be greater than 0");
+		myMaximumResponseBytes = theMaximumResponseBytes;
+	}
+
+	public long getMaximumWaitMillis() {
+		return myMaximumWaitMillis;
+	}
+
+	/**
+	 * Sets the longest time that a follower will wait for the leader to finish before it is
+	 * processed on its own. Defaults to {@link #DEFAULT_MAXIMUM_WAIT_MILLIS}.
+	 */
+	public void setMaximumWaitMillis(long theMaximumWaitMillis) {
+		Validate.isTrue(theMaximumWaitMillis > 0, "theMaximumWaitMillis must be greater than 0");
+		myMaximumWaitMillis = theMaximumWaitMillis;
+	}
+
+	/**
+	 * Returns the number of requests which were processed as a leader
+	 */
+	public long getLeaderCount() {
+		return myLeaderCount.get();
+	}
+
+	/**
+	 * Returns the number of requests which were answered with the response of a leader
+	 */
+	public long getCoalescedCount() {
+		return myCoalescedCount.get();
+	}
+
+	/**
+	 * Returns the number of requests which waited for a leader but had to be processed on their own
+	 */
+	public long getFallbackCount() {
+		return myFallbackCount.get();
+	}
+
+	/**
+	 * Returns the number of requests currently being processed as a leader
+	 */
+	public int getInFlightCount() {
+		return myInFlightRequests.size();
+	}
+
+	@Hook(
+			value = Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED,
+			order = InterceptorOrders.REQUEST_COALESCING_INTERCEPTOR)
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails) throws IOException {
+		if (!isCoalescable(theRequestDetails)) {
+			return true;
+		}
+
+		// Requests which can't be told apart by their identity must never share a response
+		String identity = myIdentityFunction.apply(theRequestDetails);
+		if (isBlank(identity)) {
+			return true;
+		}
+
+		String key = toKey(theRequestDetails, identity);
+		InFlightRequest newRequest = new InFlightRequest(key);
+		InFlightRequest leader = myInFlightRequests.putIfAbsent(key, newRequest);
+		if (leader == null) {
+			myLeaderCount.incrementAndGet();
+			theRequestDetails.getUserData().put(IN_FLIGHT_KEY, newRequest);
+			theRequestDetails.setResponse(
+					new CapturingRestfulResponse(theRequestDetails.getResponse(), newRequest, myMaximumResponseBytes));
+			return true;
+		}
+
+		CapturedResponse response = awaitLeader(leader);
+		if (response == null) {
+			myFallbackCount.incrementAndGet();
+			return true;
+		}
+
+		myCoalescedCount.incrementAndGet();
+		writeResponse(theRequestDetails, response);
+		return false;
+	}
+
+	/**
+	 * Exceptions are never shared, so the leader's own response is restored before the
+	 * exception is written in order to avoid capturing it.
+	 */
+	@Hook(value = Pointcut.SERVER_HANDLE_EXCEPTION, order = Integer.MIN_VALUE)
+	public boolean handleException(RequestDetails theRequestDetails) {
+		if (theRequestDetails.getResponse() instanceof CapturingRestfulResponse) {
+			CapturingRestfulResponse response = (CapturingRestfulResponse) theRequestDetails.getResponse();
+			theRequestDetails.setResponse(response.myDelegate);
+			release(response.myInFlightRequest, null);
+		}
+		return true;
+	}
+
+	@Hook(Pointcut.SERVER_PROCESSING_COMPLETED)
+	public void processingCompleted(RequestDetails theRequestDetails) {
+		InFlightRequest inFlightRequest =
+				(InFlightRequest) theRequestDetails.getUserData().remove(IN_FLIGHT_KEY);
+		if (inFlightRequest != null) {
+			release(inFlightRequest, null);
+		}
+	}
+
+	private void release(InFlightRequest theInFlightRequest, @Nullable CapturedResponse theResponse) {
+		// Requests arriving from now on start a new leader rather than sharing this response
+		myInFlightRequests.remove(theInFlightRequest.myKey, theInFlightRequest);
+		theInFlightRequest.myResponse.complete(theResponse);
+	}
+
+	@Nullable
+	private CapturedResponse awaitLeader(InFlightRequest theLeader) {
+		try {
+			return theLeader.myResponse.get(myMaximumWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException | TimeoutException e) {
+			return null;
+		}
+	}
+
+	private static void writeResponse(RequestDetails theRequestDetails, CapturedResponse theResponse)
+			throws IOException {
+		IRestfulResponse response = theRequestDetails.getResponse();
+		for (Map.Entry<String, List<String>> next : theResponse.myHeaders.entrySet()) {
+			// Headers such as the request ID are specific to each request
+			boolean alreadyPresent =
+					response.getHeaders().keySet().stream().anyMatch(t -> t.equalsIgnoreCase(next.getKey()));
+			if (!alreadyPresent) {
+				next.getValue().forEach(t -> response.addHeader(next.getKey(), t));
+			}
+		}
+
+		if (theResponse.myCharset == null) {
+			OutputStream outputStream = response.getResponseOutputStream(
+					theResponse.myStatusCode, theResponse.myContentType, theResponse.myBody.length);
+			outputStream.write(theResponse.myBody);
+			response.commitResponse(outputStream);
+			return;
+		}
+
+		boolean respondGzip = theRequestDetails.isRespondGzip();
+		OutputStream outputStream = response.getResponseTextOutputStream(
+				theResponse.myStatusCode, theResponse.myContentType, theResponse.myCharset, respondGzip);
+		if (outputStream != null) {
+			outputStream.write(theResponse.myBody);
+			response.commitResponse(outputStream);
+		} else {
+			Writer writer = response.getResponseWriter(
+					theResponse.myStatusCode, theResponse.myContentType, theResponse.myCharset, respondGzip);
+			writer.write(new String(theResponse.myBody, toCharset(theResponse.myCharset)));
+			response.commitResponse(writer);
+		}
+	}
+
+	private static boolean isCoalescable(RequestDetails theRequestDetails) {
+		return theRequestDetails.getRequestType() == RequestTypeEnum.GET
+				&& COALESCED_OPERATIONS.contains(theRequestDetails.getRestOperationType())
+				&& theRequestDetails.getResponse() != null
+				&& !hasAccessControlHooks(theRequestDetails);
+	}
+
+	/**
+	 * Followers are answered before authorization, consent and audit decisions are made, so no
+	 * request can be coalesced while any interceptor which could make such a decision is registered
+	 */
+	private static boolean hasAccessControlHooks(RequestDetails theRequestDetails) {
+		IInterceptorBroadcaster broadcaster = theRequestDetails.getInterceptorBroadcaster();
+		if (broadcaster == null) {
+			return false;
+		}
+		for (Pointcut next : ACCESS_CONTROL_POINTCUTS) {
+			if (broadcaster.hasHooks(next)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Nonnull
+	private static String toKey(RequestDetails theRequestDetails, String theIdentity) {
+		StringBuilder b = new StringBuilder();
+		b.append(defaultString(theRequestDetails.getTenantId()));
+		b.append('|').append(theRequestDetails.getFhirServerBase());
+		b.append('|').append(theRequestDetails.getRequestPath());
+
+		// Parameter names are sorted, but the order of repeated values is kept since it can be significant (e.g. _sort)
+		Map<String, String[]> parameters = new TreeMap<>(theRequestDetails.getParameters());
+		for (Map.Entry<String, String[]> next : parameters.entrySet()) {
+			b.append('|').append(next.getKey()).append('=');
+			for (String nextValue : next.getValue()) {
+				b.append(nextValue).append(',');
+			}
+		}
+
+		b.append('|').append(defaultString(theRequestDetails.getHeader(Constants.HEADER_ACCEPT)));
+		b.append('|').append(defaultString(theRequestDetails.getHeader(Constants.HEADER_PREFER)));
+		b.append('|').append(theIdentity);
+		return b.toString();
+	}
+
+	private static Charset toCharset(String theCharset) {
+		return isNotBlank(theCharset) ? Charset.forName(theCharset) : StandardCharsets.UTF_8;
+	}
+
+	private static class InFlightRequest {
+
+		private final String myKey;
+		private final CompletableFuture<CapturedResponse> myResponse = new CompletableFuture<>();
+
+		private InFlightRequest(String theKey) {
+			myKey = theKey;
+		}
+	}
+
+	private static class CapturedResponse {
+
+		private final int myStatusCode;
+		private final String myContentType;
+		private final String myCharset;
+		private final Map<String, List<String>> myHeaders;
+		private final byte[] myBody;
+
+		private CapturedResponse(
+				int theStatusCode,
+				String theContentType,
+				@Nullable String theCharset,
+				Map<String, List<String>> theHeaders,
+				byte[] theBody) {
+			myStatusCode = theStatusCode;
+			myContentType = theContentType;
+			myCharset = theCharset;
+			myHeaders = theHeaders;
+			myBody = theBody;
+		}
+	}
+
+	/**
+	 * Passes everything through to the real response, while keeping a copy of the body
+	 * written by the leader so that it can be published to followers when the response
+	 * is committed.
+	 */
+	private class CapturingRestfulResponse implements IRestfulResponse {
+
+		private final IRestfulResponse myDelegate;
+		private final InFlightRequest myInFlightRequest;
+		private final int myMaximumBytes;
+		private int myStatusCode;
+		private String myContentType;
+		private String myCharset;
+		private Map<String, List<String>> myHeaders;
+		private ByteArrayOutputStream myCapturedBytes;
+		private CharArrayWriter myCapturedChars;
+		private boolean myOverflowed;
+
+		private CapturingRestfulResponse(
+				IRestfulResponse theDelegate, InFlightRequest theInFlightRequest, int theMaximumBytes) {
+			myDelegate = theDelegate;
+			myInFlightRequest = theInFlightRequest;
+			myMaximumBytes = theMaximumBytes;
+		}
+
+		@Nonnull
+		@Override
+		public Writer getResponseWriter(
+				int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip)
+				throws IOException {
+			Writer writer = myDelegate.getResponseWriter(theStatusCode, theContentType, theCharset, theRespondGzip);
+			start(theStatusCode, theContentType, defaultString(theCharset, Constants.CHARSET_NAME_UTF8));
+			myCapturedChars = new CharArrayWriter();
+			return new FilterWriter(writer) {
+				@Override
+				public void write(int c) throws IOException {
+					super.write(c);
+					captureChars(String.valueOf((char) c));
+				}
+
+				@Override
+				public void write(@Nonnull char[] cbuf, int off, int len) throws IOException {
+					super.write(cbuf, off, len);
+					captureChars(new String(cbuf, off, len));
+				}
+
+				@Override
+				public void write(@Nonnull String str, int off, int len) throws IOException {
+					super.write(str, off, len);
+					captureChars(str.substring(off, off + len));
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public OutputStream getResponseTextOutputStream(
+				int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip)
+				throws IOException {
+			OutputStream outputStream =
+					myDelegate.getResponseTextOutputStream(theStatusCode, theContentType, theCharset, theRespondGzip);
+			if (outputStream == null) {
+				return null;
+			}
+			start(theStatusCode, theContentType, defaultString(theCharset, Constants.CHARSET_NAME_UTF8));
+			return capture(outputStream);
+		}
+
+		@Nonnull
+		@Override
+		public OutputStream getResponseOutputStream(
+				int theStatusCode, String theContentType, @Nullable Integer theContentLength) throws IOException {
+			OutputStream outputStream =
+					myDelegate.getResponseOutputStream(theStatusCode, theContentType, theContentLength);
+			start(theStatusCode, theContentType, null);
+			return capture(outputStream);
+		}
+
+		@Override
+		public Object commitResponse(@Nonnull Closeable theWriterOrOutputStream) throws IOException {
+			Object retVal = myDelegate.commitResponse(theWriterOrOutputStream);
+
+			CapturedResponse response = null;
+			if (!myOverflowed && myStatusCode >= 200 && myStatusCode < 300) {
+				byte[] body;
+				if (myCapturedChars != null) {
+					body = myCapturedChars.toString().getBytes(toCharset(myCharset));
+				} else {
+					body = myCapturedBytes.toByteArray();
+				}
+				response = new CapturedResponse(myStatusCode, myContentType, myCharset, myHeaders, body);
+			}
+			release(myInFlightRequest, response);
+			return retVal;
+		}
+
+		@Override
+		public void addHeader(String theHeaderKey, String theHeaderValue) {
+			myDelegate.addHeader(theHeaderKey, theHeaderValue);
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaders() {
+			return myDelegate.getHeaders();
+		}
+
+		private void start(int theStatusCode, String theContentType, @Nullable String theCharset) {
+			myStatusCode = theStatusCode;
+			myContentType = theContentType;
+			myCharset = theCharset;
+			myHeaders = new LinkedHashMap<>();
+			myDelegate.getHeaders().forEach((k, v) -> myHeaders.put(k, new ArrayList<>(v)));
+		}
+
+		private OutputStream capture(OutputStream theOutputStream) {
+			myCapturedBytes = new ByteArrayOutputStream();
+			return new FilterOutputStream(theOutputStream) {
+				@Override
+				public void write(int b) throws IOException {
+					out.write(b);
+					if (hasRoomFor(1)) {
+						myCapturedBytes.write(b);
+					}
+				}
+
+				@Override
+				public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+					if (hasRoomFor(len)) {
+						myCapturedBytes.write(b, off, len);
+					}
+				}
+			};
+		}
+
+		private void captureChars(String theChars) {
+			if (hasRoomFor(theChars.length())) {
+				myCapturedChars.write(theChars, 0, theChars.length());
+			}
+		}
+
+		private boolean hasRoomFor(int theLength) {
+			if (myOverflowed) {
+				return false;
+			}
+			int captured = myCapturedChars != null ? myCapturedChars.size() : myCapturedBytes.size();
+			if (captured + (long) theLength > myMaximumBytes) {
+				myOverflowed = true;
+				myCapturedBytes = null;
+				myCapturedChars = null;
+			}
+			return !myOverflowed;
+		}
+	}
+}
@@ -78,7 +78,7 @@ public class RequestValidatingInterceptor extends BaseValidatingInterceptor<Stri
 
 		ValidationResult validationResult = validate(requestText, theRequestDetails);
 
-		if (myAddValidationResultsToResponseOperationOutcome) {
+		if (validationResult != null && myAddValidationResultsToResponseOperationOutcome) {
 			addValidationResultToRequestDetails(theRequestDetails, validationResult);
 		}
 
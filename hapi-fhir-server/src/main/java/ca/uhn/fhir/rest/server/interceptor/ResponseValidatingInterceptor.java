@@ -65,6 +65,14 @@ public class ResponseValidatingInterceptor extends BaseValidatingInterceptor<IBa
 		return theValidator.validateWithResult(theRequest);
 	}
 
+	/**
+	 * The response resource may still be modified by other interceptors, so a copy is validated
+	 */
+	@Override
+	protected IBaseResource copyForAsyncValidation(IBaseResource theRequest, RequestDetails theRequestDetails) {
+		return theRequestDetails.getFhirContext().newTerser().clone(theRequest);
+	}
+
 	@Hook(Pointcut.SERVER_OUTGOING_RESPONSE)
 	public boolean outgoingResponse(RequestDetails theRequestDetails, IBaseResource theResponseObject) {
 		RestOperationTypeEnum operationType = theRequestDetails.getRestOperationType();
@@ -53,12 +53,17 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
@@ -87,8 +92,10 @@ public class AuthorizationInterceptor implements IRuleApplier {
 	private final int myInstanceIndex = ourInstanceCount.incrementAndGet();
 	private final String myRequestSeenResourcesKey =
 			AuthorizationInterceptor.class.getName() + "_" + myInstanceIndex + "_SEENRESOURCES";
-	private final String myRequestRuleListKey =
-			AuthorizationInterceptor.class.getName() + "_" + myInstanceIndex + "_RULELIST";
+	private final String myRequestRuleIndexKey =
+			AuthorizationInterceptor.class.getName() + "_" + myInstanceIndex + "_RULEINDEX";
+	private final Map<String, RuleTiming> myRuleTimings = new ConcurrentHashMap<>();
+	private volatile boolean myRuleTimingsEnabled;
 	private PolicyEnum myDefaultPolicy = PolicyEnum.DENY;
 	private Set<AuthorizationFlagsEnum> myFlags = Collections.emptySet();
 	public static final List<RestOperationTypeEnum> REST_OPERATIONS_TO_EXCLUDE_SECURITY_FOR_OPERATION_OUTCOME = List.of(
@@ -152,13 +159,21 @@ public class AuthorizationInterceptor implements IRuleApplier {
 			IIdType theInputResourceId,
 			IBaseResource theOutputResource,
 			Pointcut thePointcut) {
-		@SuppressWarnings("unchecked")
-		List<IAuthRule> rules =
-				(List<IAuthRule>) theRequestDetails.getUserData().get(myRequestRuleListKey);
-		if (rules == null) {
-			rules = buildRuleList(theRequestDetails);
-			theRequestDetails.getUserData().put(myRequestRuleListKey, rules);
+		AuthorizationRuleIndex ruleIndex =
+				(AuthorizationRuleIndex) theRequestDetails.getUserData().get(myRequestRuleIndexKey);
+		if (ruleIndex == null) {
+			ruleIndex = new AuthorizationRuleIndex(buildRuleList(theRequestDetails));
+			theRequestDetails.getUserData().put(myRequestRuleIndexKey, ruleIndex);
+			// Make sure that later rule evaluations only read the user data map, since they
+			// may happen concurrently (see RuleFilteringConsentService)
+			RuleImplOp.getCompartmentMembershipCache(theRequestDetails);
 		}
+		List<IAuthRule> rules = ruleIndex.getCandidateRules(
+				theRequestDetails.getFhirContext(),
+				theOperation,
+				theInputResource,
+				theInputResourceId,
+				theOutputResource);
 		Set<AuthorizationFlagsEnum> flags = getFlags();
 
 		ourLog.trace(
@@ -172,6 +187,7 @@ public class AuthorizationInterceptor implements IRuleApplier {
 		Verdict verdict = null;
 		for (IAuthRule nextRule : rules) {
 			ourLog.trace("Rule being applied - {}", nextRule);
+			long start = myRuleTimingsEnabled ? System.nanoTime() : 0;
 			verdict = nextRule.applyRule(
 					theOperation,
 					theRequestDetails,
@@ -181,6 +197,13 @@ public class AuthorizationInterceptor implements IRuleApplier {
 					this,
 					flags,
 					thePointcut);
+			if (myRuleTimingsEnabled) {
+				String ruleName =
+						defaultIfBlank(nextRule.getName(), nextRule.getClass().getSimpleName());
+				myRuleTimings
+						.computeIfAbsent(ruleName, t -> new RuleTiming())
+						.record(System.nanoTime() - start, verdict != null);
+			}
 			if (verdict != null) {
 				ourLog.trace("Rule {} returned decision {}", nextRule, verdict.getDecision());
 				break;
@@ -655,6 +678,99 @@ public class AuthorizationInterceptor implements IRuleApplier {
 		return false;
 	}
 
+	/**
+	 * If enabled, the time spent evaluating each rule is recorded and made available through
+	 * {@link #getRuleTimings()}. This is intended to help find expensive rules, and adds
+	 * a small amount of overhead to every rule evaluation so it is disabled by default.
+	 *
+	 * @since 8.4.0
+	 */
+	public AuthorizationInterceptor setRuleTimingsEnabled(boolean theRuleTimingsEnabled) {
+		myRuleTimingsEnabled = theRuleTimingsEnabled;
+		return this;
+	}
+
+	/**
+	 * @see #setRuleTimingsEnabled(boolean)
+	 * @since 8.4.0
+	 */
+	public boolean isRuleTimingsEnabled() {
+		return myRuleTimingsEnabled;
+	}
+
+	/**
+	 * Returns the evaluation timings recorded for each rule since timings were enabled or last
+	 * {@link #clearRuleTimings() cleared}, keyed by rule name. Rules which share a name share a timing.
+	 * Timings for rules which evaluate nested requests (e.g. transaction rules) include the time spent
+	 * evaluating the rules for the nested requests.
+	 *
+	 * @see #setRuleTimingsEnabled(boolean)
+	 * @since 8.4.0
+	 */
+	public Map<String, RuleTiming> getRuleTimings() {
+		return Collections.unmodifiableMap(new TreeMap<>(myRuleTimings));
+	}
+
+	/**
+	 * Discards any recorded rule timings
+	 *
+	 * @since 8.4.0
+	 */
+	public void clearRuleTimings() {
+		myRuleTimings.clear();
+	}
+
+	/**
+	 * Evaluation statistics for a single rule
+	 *
+	 * @see AuthorizationInterceptor#getRuleTimings()
+	 * @since 8.4.0
+	 */
+	public static class RuleTiming {
+
+		private final LongAdder myEvaluationCount = new LongAdder();
+		private final LongAdder myVerdictCount = new LongAdder();
+		private final LongAdder myTotalNanos = new LongAdder();
+
+		void record(long theNanos, boolean theReturnedVerdict) {
+			myEvaluationCount.increment();
+			myTotalNanos.add(theNanos);
+			if (theReturnedVerdict) {
+				myVerdictCount.increment();
+			}
+		}
+
+		/**
+		 * The number of times the rule was evaluated
+		 */
+		public long getEvaluationCount() {
+			return myEvaluationCount.sum();
+		}
+
+		/**
+		 * The number of evaluations in which the rule returned a verdict
+		 */
+		public long getVerdictCount() {
+			return myVerdictCount.sum();
+		}
+
+		/**
+		 * The total time spent evaluating the rule, in nanoseconds
+		 */
+		public long getTotalNanos() {
+			return myTotalNanos.sum();
+		}
+
+		@Override
+		public String toString() {
+			ToStringBuilder b = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+			b.append("evaluations", getEvaluationCount());
+			b.append("verdicts", getVerdictCount());
+			b.append("totalMillis", getTotalNanos() / 1_000_000.0);
+			return b.build();
+		}
+	}
+
 	public static class Verdict {
 
 		private final IAuthRule myDecidingRule;
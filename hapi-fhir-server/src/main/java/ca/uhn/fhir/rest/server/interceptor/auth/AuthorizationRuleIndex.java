@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.auth;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compiled form of the rule list for a single request. Rather than asking every rule
+ * for a verdict, the {@link AuthorizationInterceptor} asks this index for the rules which
+ * could possibly return a verdict for the operation and resource types being examined.
+ * Candidate lists are computed once per distinct combination and retain the original rule
+ * order, so the first rule returning a verdict is the same one that would have been found
+ * by walking the whole list.
+ * <p>
+ * Only {@link RuleImplOp} rules are ever skipped (see {@link RuleImplOp#isCandidate}); any
+ * other rule is a candidate for every request.
+ * </p>
+ */
+class AuthorizationRuleIndex {
+
+	private final List<IAuthRule> myRules;
+	private final Map<String, List<IAuthRule>> myCandidateRules = new ConcurrentHashMap<>();
+
+	AuthorizationRuleIndex(@Nonnull List<IAuthRule> theRules) {
+		myRules = Collections.unmodifiableList(new ArrayList<>(theRules));
+	}
+
+	List<IAuthRule> getRules() {
+		return myRules;
+	}
+
+	/**
+	 * Returns the rules, in order, which may return a verdict for the given request
+	 */
+	List<IAuthRule> getCandidateRules(
+			FhirContext theFhirContext,
+			@Nullable RestOperationTypeEnum theOperation,
+			@Nullable IBaseResource theInputResource,
+			@Nullable IIdType theInputResourceId,
+			@Nullable IBaseResource theOutputResource) {
+		if (theOperation == null) {
+			return myRules;
+		}
+
+		String outputResourceType =
+				theOutputResource != null ? theFhirContext.getResourceType(theOutputResource) : null;
+		String inputIdType = theInputResourceId != null && theInputResourceId.hasResourceType()
+				? theInputResourceId.getResourceType()
+				: null;
+		String inputResourceType =
+				theInputResource != null ? theFhirContext.getResourceType(theInputResource) : inputIdType;
+
+		String key = theOperation.name() + "|" + outputResourceType + "|" + inputResourceType + "|" + inputIdType;
+		return myCandidateRules.computeIfAbsent(
+				key, t -> compile(theOperation, outputResourceType, inputResourceType, inputIdType));
+	}
+
+	private List<IAuthRule> compile(
+			RestOperationTypeEnum theOperation,
+			String theOutputResourceType,
+			String theInputResourceType,
+			String theInputIdType) {
+		List<IAuthRule> retVal = new ArrayList<>(myRules.size());
+		for (IAuthRule next : myRules) {
+			if (next instanceof RuleImplOp
+					&& !((RuleImplOp) next)
+							.isCandidate(theOperation, theOutputResourceType, theInputResourceType, theInputIdType)) {
+				continue;
+			}
+			retVal.add(next);
+		}
+		return retVal.size() == myRules.size() ? myRules : Collections.unmodifiableList(retVal);
+	}
+}
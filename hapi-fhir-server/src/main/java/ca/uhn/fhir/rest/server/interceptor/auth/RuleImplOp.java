@@ -51,10 +51,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.defaultString;
@@ -67,6 +70,25 @@ class RuleImplOp extends BaseRule /* implements IAuthRule */ {
 	private static final Logger ourLog = LoggerFactory.getLogger(RuleImplOp.class);
 	private static final String PARAMETERS = "Parameters";
 	private static final String BUNDLE = "Bundle";
+	private static final String COMPARTMENT_MEMBERSHIP_CACHE_KEY =
+			RuleImplOp.class.getName() + "_COMPARTMENT_MEMBERSHIP_CACHE";
+	private static final Set<RestOperationTypeEnum> READ_OPERATIONS_CHECKED_ON_INPUT = EnumSet.of(
+			RestOperationTypeEnum.READ,
+			RestOperationTypeEnum.VREAD,
+			RestOperationTypeEnum.SEARCH_SYSTEM,
+			RestOperationTypeEnum.SEARCH_TYPE,
+			RestOperationTypeEnum.HISTORY_SYSTEM,
+			RestOperationTypeEnum.HISTORY_TYPE,
+			RestOperationTypeEnum.HISTORY_INSTANCE,
+			RestOperationTypeEnum.GET_PAGE);
+	private static final Set<RestOperationTypeEnum> WRITE_OPERATIONS = EnumSet.of(
+			RestOperationTypeEnum.CREATE,
+			RestOperationTypeEnum.UPDATE,
+			RestOperationTypeEnum.ADD_TAGS,
+			RestOperationTypeEnum.DELETE_TAGS,
+			RestOperationTypeEnum.META_ADD,
+			RestOperationTypeEnum.META_DELETE,
+			RestOperationTypeEnum.PATCH);
 
 	private AppliesTypeEnum myAppliesTo;
 	private Set<String> myAppliesToTypes;
@@ -551,8 +573,8 @@ class RuleImplOp extends BaseRule /* implements IAuthRule */ {
 							myAdditionalCompartmentSearchParamMap.getSearchParamNamesForResourceType(
 									ctx.getResourceType(target.resource));
 				}
-				if (t.isSourceInCompartmentForTarget(
-						myClassifierCompartmentName, target.resource, next, additionalSearchParamNames)) {
+				if (isSourceInCompartmentForTarget(
+						theRequestDetails, t, target.resource, theOutputResource, next, additionalSearchParamNames)) {
 					foundMatch = true;
 					break;
 				}
@@ -669,6 +691,122 @@ class RuleImplOp extends BaseRule /* implements IAuthRule */ {
 				theRuleApplier);
 	}
 
+	/**
+	 * Compartment membership of an outgoing resource doesn't change while it is being examined, and
+	 * with many compartment rules the same resource is checked against the same owner over and over,
+	 * so results for outgoing resources are cached for the duration of the request.
+	 */
+	private boolean isSourceInCompartmentForTarget(
+			RequestDetails theRequestDetails,
+			FhirTerser theTerser,
+			IBaseResource theSource,
+			IBaseResource theOutputResource,
+			IIdType theOwner,
+			Set<String> theAdditionalSearchParamNames) {
+		if (theSource != theOutputResource) {
+			return theTerser.isSourceInCompartmentForTarget(
+					myClassifierCompartmentName, theSource, theOwner, theAdditionalSearchParamNames);
+		}
+
+		Map<IBaseResource, Map<String, Boolean>> cache = getCompartmentMembershipCache(theRequestDetails);
+		String key = myClassifierCompartmentName + "|"
+				+ theOwner.toUnqualifiedVersionless().getValue() + "|" + theAdditionalSearchParamNames;
+		return cache.computeIfAbsent(theSource, t -> new ConcurrentHashMap<>())
+				.computeIfAbsent(
+						key,
+						t -> theTerser.isSourceInCompartmentForTarget(
+								myClassifierCompartmentName, theSource, theOwner, theAdditionalSearchParamNames));
+	}
+
+	/**
+	 * Returns the per-request compartment membership cache, creating it if needed. The cache itself is
+	 * thread-safe, but the request user data map is not, so {@link AuthorizationInterceptor} creates it
+	 * up front before any rules are evaluated.
+	 */
+	@SuppressWarnings("unchecked")
+	static Map<IBaseResource, Map<String, Boolean>> getCompartmentMembershipCache(RequestDetails theRequestDetails) {
+		return (Map<IBaseResource, Map<String, Boolean>>) theRequestDetails
+				.getUserData()
+				.computeIfAbsent(
+						COMPARTMENT_MEMBERSHIP_CACHE_KEY, t -> Collections.synchronizedMap(new IdentityHashMap<>()));
+	}
+
+	/**
+	 * Returns <code>false</code> if this rule can not return a verdict for a request with the given
+	 * characteristics, regardless of the rest of the request. This is used by {@link AuthorizationRuleIndex}
+	 * to skip rules, so it must only ever return <code>false</code> where {@link #applyRule} would
+	 * return <code>null</code>.
+	 *
+	 * @param theOperation          The operation being authorized
+	 * @param theOutputResourceType The type of the output resource, or <code>null</code> if there is none
+	 * @param theInputResourceType  The type of the input resource or, if there is none, of the input resource ID
+	 * @param theInputIdType        The type of the input resource ID, or <code>null</code> if it has none
+	 */
+	boolean isCandidate(
+			@Nonnull RestOperationTypeEnum theOperation,
+			@Nullable String theOutputResourceType,
+			@Nullable String theInputResourceType,
+			@Nullable String theInputIdType) {
+		if (myOp == null) {
+			return true;
+		}
+		boolean haveOutput = theOutputResourceType != null;
+		switch (myOp) {
+			case READ:
+				if (!haveOutput && !READ_OPERATIONS_CHECKED_ON_INPUT.contains(theOperation)) {
+					return false;
+				}
+				break;
+			case WRITE:
+				if (!WRITE_OPERATIONS.contains(theOperation)) {
+					return false;
+				}
+				break;
+			case CREATE:
+				return theOperation == RestOperationTypeEnum.CREATE && isCandidateType(theInputResourceType);
+			case DELETE:
+				return theOperation == RestOperationTypeEnum.DELETE;
+			case GRAPHQL:
+				return theOperation == RestOperationTypeEnum.GRAPHQL_REQUEST;
+			case TRANSACTION:
+				return theOperation == RestOperationTypeEnum.TRANSACTION;
+			case METADATA:
+				return theOperation == RestOperationTypeEnum.METADATA;
+			case ALL:
+			default:
+				return true;
+		}
+
+		if (myOp == RuleOpEnum.WRITE) {
+			// The body of a patch is not the target resource
+			if (theOperation == RestOperationTypeEnum.PATCH) {
+				return isCandidateType(theInputIdType);
+			}
+			return isCandidateType(theInputResourceType);
+		}
+		if (haveOutput) {
+			return isCandidateType(theOutputResourceType);
+		}
+		if (theOperation == RestOperationTypeEnum.READ || theOperation == RestOperationTypeEnum.VREAD) {
+			return isCandidateType(theInputIdType);
+		}
+		return true;
+	}
+
+	/**
+	 * A rule that applies to specific resource types with any ID always rejects
+	 * a target of a different type
+	 */
+	private boolean isCandidateType(@Nullable String theResourceType) {
+		if (theResourceType == null
+				|| myAppliesTo != AppliesTypeEnum.TYPES
+				|| myClassifierType != ClassifierTypeEnum.ANY_ID
+				|| myAppliesToTypes == null) {
+			return true;
+		}
+		return myAppliesToTypes.contains(theResourceType);
+	}
+
 	@Nullable
 	private Verdict applyRuleToInstances(
 			RestOperationTypeEnum theOperation,
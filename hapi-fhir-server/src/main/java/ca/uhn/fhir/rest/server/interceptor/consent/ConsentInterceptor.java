@@ -41,6 +41,7 @@ import ca.uhn.fhir.rest.server.util.ICachedSearchDetails;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.IModelVisitor2;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.MoreExecutors;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
@@ -56,11 +57,13 @@ import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.rest.api.Constants.URL_TOKEN_METADATA;
 import static ca.uhn.fhir.rest.server.provider.ProviderConstants.OPERATION_META;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 /**
  * The ConsentInterceptor can be used to apply arbitrary consent rules and data access policies
@@ -83,6 +86,7 @@ public class ConsentInterceptor {
 
 	private volatile List<IConsentService> myConsentService = Collections.emptyList();
 	private IConsentContextServices myContextConsentServices = IConsentContextServices.NULL_IMPL;
+	private Executor myConsentEvaluationExecutor = MoreExecutors.directExecutor();
 
 	/**
 	 * Constructor
@@ -116,6 +120,31 @@ public class ConsentInterceptor {
 		myContextConsentServices = theContextConsentServices;
 	}
 
+	/**
+	 * Sets an executor which is passed to {@link IConsentService#canSeeResources(RequestDetails, List, IConsentContextServices, Executor)}
+	 * and {@link IConsentService#willSeeResources(RequestDetails, List, IConsentContextServices, Executor)}, allowing
+	 * consent services to evaluate the resources on a page of results in parallel. By default (or if this is set to
+	 * <code>null</code>) tasks are executed on the calling thread.
+	 * <p>
+	 * Consent services which are not batch-aware ignore the executor and evaluate the resources one at a time, so
+	 * setting an executor never changes the outcome of consent evaluation.
+	 * </p>
+	 *
+	 * @since 8.4.0
+	 */
+	public void setConsentEvaluationExecutor(@Nullable Executor theConsentEvaluationExecutor) {
+		myConsentEvaluationExecutor = defaultIfNull(theConsentEvaluationExecutor, MoreExecutors.directExecutor());
+	}
+
+	/**
+	 * @see #setConsentEvaluationExecutor(Executor)
+	 * @since 8.4.0
+	 */
+	@Nonnull
+	public Executor getConsentEvaluationExecutor() {
+		return myConsentEvaluationExecutor;
+	}
+
 	/**
 	 * @deprecated Use {@link #registerConsentService(IConsentService)} instead
 	 */
@@ -233,44 +262,68 @@ public class ConsentInterceptor {
 
 		IdentityHashMap<IBaseResource, ConsentOperationStatusEnum> alreadySeenResources =
 				getAlreadySeenResourcesMap(theRequestDetails);
+
+		// Each service sees all of the resources which have not yet been decided by an earlier
+		// service in a single batch, which gives the same outcomes as asking each service in
+		// turn about each resource
+		List<Integer> pendingIndexes = new ArrayList<>(thePreResourceAccessDetails.size());
 		for (int resourceIdx = 0; resourceIdx < thePreResourceAccessDetails.size(); resourceIdx++) {
-			IBaseResource nextResource = thePreResourceAccessDetails.getResource(resourceIdx);
-			for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size(); consentSvcIdx++) {
-				IConsentService nextService = myConsentService.get(consentSvcIdx);
+			pendingIndexes.add(resourceIdx);
+		}
 
-				if (!processConsentSvcs[consentSvcIdx]) {
-					continue;
-				}
+		for (int consentSvcIdx = 0; consentSvcIdx < myConsentService.size(); consentSvcIdx++) {
+			if (pendingIndexes.isEmpty()) {
+				break;
+			}
+			if (!processConsentSvcs[consentSvcIdx]) {
+				continue;
+			}
+			IConsentService nextService = myConsentService.get(consentSvcIdx);
 
-				ConsentOutcome outcome =
-						nextService.canSeeResource(theRequestDetails, nextResource, myContextConsentServices);
+			List<IBaseResource> resources = new ArrayList<>(pendingIndexes.size());
+			for (Integer nextIndex : pendingIndexes) {
+				resources.add(thePreResourceAccessDetails.getResource(nextIndex));
+			}
+			List<ConsentOutcome> outcomes = nextService.canSeeResources(
+					theRequestDetails, resources, myContextConsentServices, myConsentEvaluationExecutor);
+			validateOutcomeCount(resources, outcomes);
+
+			List<Integer> stillPendingIndexes = new ArrayList<>(pendingIndexes.size());
+			for (int i = 0; i < pendingIndexes.size(); i++) {
+				int resourceIdx = pendingIndexes.get(i);
+				IBaseResource nextResource = resources.get(i);
+				ConsentOutcome outcome = outcomes.get(i);
 				Validate.notNull(outcome, "Consent service returned null outcome");
 				Validate.isTrue(
 						outcome.getResource() == null,
 						"Consent service returned a resource in its outcome. This is not permitted in canSeeResource(..)");
 
-				boolean skipSubsequentServices = false;
 				switch (outcome.getStatus()) {
 					case PROCEED:
+						stillPendingIndexes.add(resourceIdx);
 						break;
 					case AUTHORIZED:
 						alreadySeenResources.put(nextResource, ConsentOperationStatusEnum.AUTHORIZED);
-						skipSubsequentServices = true;
 						break;
 					case REJECT:
 						alreadySeenResources.put(nextResource, ConsentOperationStatusEnum.REJECT);
 						thePreResourceAccessDetails.setDontReturnResourceAtIndex(resourceIdx);
-						skipSubsequentServices = true;
 						break;
 				}
-
-				if (skipSubsequentServices) {
-					break;
-				}
 			}
+			pendingIndexes = stillPendingIndexes;
 		}
 	}
 
+	private static void validateOutcomeCount(List<IBaseResource> theResources, List<ConsentOutcome> theOutcomes) {
+		Validate.notNull(theOutcomes, "Consent service returned null outcomes");
+		Validate.isTrue(
+				theOutcomes.size() == theResources.size(),
+				"Consent service returned %d outcomes for %d resources",
+				theOutcomes.size(),
+				theResources.size());
+	}
+
 	/**
 	 * Is canSeeResource() active in any services?
 	 * @param theProcessConsentSvcsFlags filled in with the responses from shouldProcessCanSeeResource each service
@@ -322,24 +375,43 @@ public class ConsentInterceptor {
 		IdentityHashMap<IBaseResource, ConsentOperationStatusEnum> alreadySeenResources =
 				getAlreadySeenResourcesMap(theRequestDetails);
 
+		List<Integer> indexes = new ArrayList<>(thePreResourceShowDetails.size());
+		List<IBaseResource> resources = new ArrayList<>(thePreResourceShowDetails.size());
 		for (int i = 0; i < thePreResourceShowDetails.size(); i++) {
-
 			IBaseResource resource = thePreResourceShowDetails.getResource(i);
 			if (resource == null
 					|| alreadySeenResources.putIfAbsent(resource, ConsentOperationStatusEnum.PROCEED) != null) {
 				continue;
 			}
+			indexes.add(i);
+			resources.add(resource);
+		}
 
-			for (IConsentService nextService : myConsentService) {
-				ConsentOutcome nextOutcome =
-						nextService.willSeeResource(theRequestDetails, resource, myContextConsentServices);
+		if (indexes.isEmpty()) {
+			return;
+		}
+
+		// Every service sees every resource, so each one is handed the whole batch. A resource
+		// which has been rejected by an earlier service without a replacement is passed as null.
+		for (IConsentService nextService : myConsentService) {
+			List<ConsentOutcome> outcomes = nextService.willSeeResources(
+					theRequestDetails,
+					Collections.unmodifiableList(new ArrayList<>(resources)),
+					myContextConsentServices,
+					myConsentEvaluationExecutor);
+			validateOutcomeCount(resources, outcomes);
+
+			for (int j = 0; j < indexes.size(); j++) {
+				int i = indexes.get(j);
+				IBaseResource resource = resources.get(j);
+				ConsentOutcome nextOutcome = outcomes.get(j);
 				IBaseResource newResource = nextOutcome.getResource();
 
 				switch (nextOutcome.getStatus()) {
 					case PROCEED:
 						if (newResource != null) {
 							thePreResourceShowDetails.setResource(i, newResource);
-							resource = newResource;
+							resources.set(j, newResource);
 						}
 						continue;
 					case AUTHORIZED:
@@ -355,7 +427,7 @@ public class ConsentInterceptor {
 							thePreResourceShowDetails.setResource(i, newOperationOutcome);
 							alreadySeenResources.put(newOperationOutcome, ConsentOperationStatusEnum.PROCEED);
 						} else {
-							resource = null;
+							resources.set(j, null);
 							thePreResourceShowDetails.setResource(i, null);
 						}
 						continue;
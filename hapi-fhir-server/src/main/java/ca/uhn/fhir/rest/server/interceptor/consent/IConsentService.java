@@ -19,10 +19,19 @@
  */
 package ca.uhn.fhir.rest.server.interceptor.consent;
 
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
 /**
  * This interface is intended to be implemented as the user-defined contract for
  * the {@link ConsentInterceptor}.
@@ -176,6 +185,111 @@ public interface IConsentService {
 		return ConsentOutcome.PROCEED;
 	}
 
+	/**
+	 * Batch form of {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}, which
+	 * is called by the {@link ConsentInterceptor} with all of the resources for a page of results at once.
+	 * Services which make their decisions by consulting an external system can override this method in
+	 * order to look up several resources at once, or to evaluate them in parallel using the supplied
+	 * executor (see {@link #evaluateInParallel(List, Function, Executor)}).
+	 * <p>
+	 * The default implementation invokes {@link #canSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}
+	 * for each resource in turn on the calling thread.
+	 * </p>
+	 *
+	 * @param theRequestDetails  The current request. Note that {@link RequestDetails#getUserData()} is not
+	 *                           thread-safe, so it should not be modified from tasks submitted to the executor.
+	 * @param theResources       The resources that may be exposed
+	 * @param theContextServices An object passed in by the consent framework that
+	 *                           provides utility functions relevant to acting on
+	 *                           consent directives.
+	 * @param theExecutor        An executor which may be used to evaluate resources in parallel. If the
+	 *                           {@link ConsentInterceptor} has not been configured with an executor, this
+	 *                           executor runs tasks on the calling thread.
+	 * @return A list containing one outcome for each resource, in the same order as <code>theResources</code>
+	 * @since 8.4.0
+	 */
+	default List<ConsentOutcome> canSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices,
+			Executor theExecutor) {
+		List<ConsentOutcome> retVal = new ArrayList<>(theResources.size());
+		for (IBaseResource next : theResources) {
+			retVal.add(canSeeResource(theRequestDetails, next, theContextServices));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Batch form of {@link #willSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}, which
+	 * is called by the {@link ConsentInterceptor} with all of the resources for a page of results at once.
+	 * The outcomes are applied exactly as if they had been returned by
+	 * {@link #willSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}.
+	 * <p>
+	 * The default implementation invokes {@link #willSeeResource(RequestDetails, IBaseResource, IConsentContextServices)}
+	 * for each resource in turn on the calling thread.
+	 * </p>
+	 *
+	 * @param theRequestDetails  The current request. Note that {@link RequestDetails#getUserData()} is not
+	 *                           thread-safe, so it should not be modified from tasks submitted to the executor.
+	 * @param theResources       The resources that will be exposed. An entry may be <code>null</code> if a
+	 *                           previous consent service rejected the resource.
+	 * @param theContextServices An object passed in by the consent framework that
+	 *                           provides utility functions relevant to acting on
+	 *                           consent directives.
+	 * @param theExecutor        An executor which may be used to evaluate resources in parallel. If the
+	 *                           {@link ConsentInterceptor} has not been configured with an executor, this
+	 *                           executor runs tasks on the calling thread.
+	 * @return A list containing one outcome for each resource, in the same order as <code>theResources</code>
+	 * @since 8.4.0
+	 */
+	default List<ConsentOutcome> willSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices,
+			Executor theExecutor) {
+		List<ConsentOutcome> retVal = new ArrayList<>(theResources.size());
+		for (IBaseResource next : theResources) {
+			retVal.add(willSeeResource(theRequestDetails, next, theContextServices));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Utility for implementations of {@link #canSeeResources(RequestDetails, List, IConsentContextServices, Executor)}
+	 * and {@link #willSeeResources(RequestDetails, List, IConsentContextServices, Executor)} which evaluates each
+	 * resource as a separate task on the given executor, and waits for all of them to complete.
+	 *
+	 * @param theResources The resources to evaluate
+	 * @param theEvaluator The function producing an outcome for a single resource. This is invoked from the executor's threads.
+	 * @param theExecutor  The executor
+	 * @return A list containing one outcome for each resource, in the same order as <code>theResources</code>
+	 * @since 8.4.0
+	 */
+	static List<ConsentOutcome> evaluateInParallel(
+			List<IBaseResource> theResources,
+			Function<IBaseResource, ConsentOutcome> theEvaluator,
+			Executor theExecutor) {
+		List<CompletableFuture<ConsentOutcome>> futures = new ArrayList<>(theResources.size());
+		for (IBaseResource next : theResources) {
+			futures.add(CompletableFuture.supplyAsync(() -> theEvaluator.apply(next), theExecutor));
+		}
+
+		List<ConsentOutcome> retVal = new ArrayList<>(futures.size());
+		try {
+			for (CompletableFuture<ConsentOutcome> next : futures) {
+				retVal.add(next.join());
+			}
+		} catch (CompletionException e) {
+			futures.forEach(t -> t.cancel(false));
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new InternalErrorException(Msg.code(2786) + "Failed to evaluate consent: " + e.getCause(), e);
+		}
+		return retVal;
+	}
+
 	/**
 	 * This method is called when an operation is complete. It can be used to perform
 	 * any necessary cleanup, flush audit events, etc.
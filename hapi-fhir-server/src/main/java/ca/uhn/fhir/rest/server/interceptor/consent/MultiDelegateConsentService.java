@@ -21,10 +21,14 @@ package ca.uhn.fhir.rest.server.interceptor.consent;
 
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -34,13 +38,14 @@ import java.util.stream.Stream;
 public class MultiDelegateConsentService implements IConsentService {
 	private final Collection<IConsentService> myDelegates;
 	private final Function<Stream<ConsentOutcome>, ConsentOutcome> myVoteCombiner;
+	private final boolean myStopAtFirstActiveVote;
 
 	/**
 	 * Combine several consent services allowing any to veto.
 	 */
 	public static @Nonnull MultiDelegateConsentService withParallelVoting(
 			@Nonnull List<IConsentService> theDelegateConsentServices) {
-		return new MultiDelegateConsentService(ConsentOutcome::parallelReduce, theDelegateConsentServices);
+		return new MultiDelegateConsentService(ConsentOutcome::parallelReduce, false, theDelegateConsentServices);
 	}
 
 	/**
@@ -48,13 +53,15 @@ public class MultiDelegateConsentService implements IConsentService {
 	 */
 	public static @Nonnull MultiDelegateConsentService withSerialVoting(
 			@Nonnull List<IConsentService> theDelegateConsentServices) {
-		return new MultiDelegateConsentService(ConsentOutcome::serialReduce, theDelegateConsentServices);
+		return new MultiDelegateConsentService(ConsentOutcome::serialReduce, true, theDelegateConsentServices);
 	}
 
 	private MultiDelegateConsentService(
 			Function<Stream<ConsentOutcome>, ConsentOutcome> theVoteCombiner,
+			boolean theStopAtFirstActiveVote,
 			Collection<IConsentService> theDelegates) {
 		myVoteCombiner = theVoteCombiner;
+		myStopAtFirstActiveVote = theStopAtFirstActiveVote;
 		myDelegates = theDelegates;
 	}
 
@@ -91,6 +98,81 @@ public class MultiDelegateConsentService implements IConsentService {
 				.map(nextDelegate -> nextDelegate.willSeeResource(theRequestDetails, theResource, theContextServices)));
 	}
 
+	/**
+	 * Passes the batch to each delegate in turn. With serial voting, a delegate only sees the resources for
+	 * which all earlier delegates have abstained, just as it would when evaluating one resource at a time.
+	 */
+	@Override
+	public List<ConsentOutcome> canSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices,
+			Executor theExecutor) {
+		return combineBatch(
+				theResources,
+				(nextDelegate, nextResources) -> nextDelegate.canSeeResources(
+						theRequestDetails, nextResources, theContextServices, theExecutor));
+	}
+
+	/**
+	 * Passes the batch to each delegate in turn. With serial voting, a delegate only sees the resources for
+	 * which all earlier delegates have abstained, just as it would when evaluating one resource at a time.
+	 */
+	@Override
+	public List<ConsentOutcome> willSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices,
+			Executor theExecutor) {
+		return combineBatch(
+				theResources,
+				(nextDelegate, nextResources) -> nextDelegate.willSeeResources(
+						theRequestDetails, nextResources, theContextServices, theExecutor));
+	}
+
+	private List<ConsentOutcome> combineBatch(
+			List<IBaseResource> theResources,
+			BiFunction<IConsentService, List<IBaseResource>, List<ConsentOutcome>> theBatchEvaluator) {
+		List<List<ConsentOutcome>> votes = new ArrayList<>(theResources.size());
+		List<Integer> pendingIndexes = new ArrayList<>(theResources.size());
+		for (int i = 0; i < theResources.size(); i++) {
+			votes.add(new ArrayList<>(myDelegates.size()));
+			pendingIndexes.add(i);
+		}
+
+		for (IConsentService nextDelegate : myDelegates) {
+			if (pendingIndexes.isEmpty()) {
+				break;
+			}
+
+			List<IBaseResource> resources = new ArrayList<>(pendingIndexes.size());
+			for (Integer nextIndex : pendingIndexes) {
+				resources.add(theResources.get(nextIndex));
+			}
+			List<ConsentOutcome> outcomes = theBatchEvaluator.apply(nextDelegate, resources);
+			Validate.isTrue(
+					outcomes != null && outcomes.size() == resources.size(),
+					"Consent service must return exactly one outcome per resource");
+
+			List<Integer> stillPendingIndexes = new ArrayList<>(pendingIndexes.size());
+			for (int i = 0; i < pendingIndexes.size(); i++) {
+				int resourceIndex = pendingIndexes.get(i);
+				ConsentOutcome outcome = outcomes.get(i);
+				votes.get(resourceIndex).add(outcome);
+				if (!myStopAtFirstActiveVote || !outcome.getStatus().isActiveVote()) {
+					stillPendingIndexes.add(resourceIndex);
+				}
+			}
+			pendingIndexes = stillPendingIndexes;
+		}
+
+		List<ConsentOutcome> retVal = new ArrayList<>(theResources.size());
+		for (List<ConsentOutcome> nextVotes : votes) {
+			retVal.add(myVoteCombiner.apply(nextVotes.stream()));
+		}
+		return retVal;
+	}
+
 	public Collection<IConsentService> getDelegates() {
 		return myDelegates;
 	}
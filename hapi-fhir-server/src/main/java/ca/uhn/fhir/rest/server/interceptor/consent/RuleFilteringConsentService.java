@@ -28,6 +28,10 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * Implement rule based search result filtering as a ConsentService.
  *
@@ -72,4 +76,32 @@ public class RuleFilteringConsentService implements IConsentService {
 			return ConsentOutcome.REJECT;
 		}
 	}
+
+	/**
+	 * Apply the rules to a page of resources. The first resource is checked on the calling thread so that
+	 * the per-request rule state is initialized, and the remaining resources are checked using the
+	 * supplied executor. Note that any {@link ca.uhn.fhir.rest.server.interceptor.auth.IAuthRuleTester}
+	 * used by the rules must be thread-safe if the {@link ConsentInterceptor} is configured with an executor.
+	 *
+	 * @return REJECT for each resource where the rules don't ALLOW, PROCEED otherwise.
+	 */
+	@Override
+	public List<ConsentOutcome> canSeeResources(
+			RequestDetails theRequestDetails,
+			List<IBaseResource> theResources,
+			IConsentContextServices theContextServices,
+			Executor theExecutor) {
+		if (theResources.size() <= 1) {
+			return IConsentService.super.canSeeResources(
+					theRequestDetails, theResources, theContextServices, theExecutor);
+		}
+
+		List<ConsentOutcome> retVal = new ArrayList<>(theResources.size());
+		retVal.add(canSeeResource(theRequestDetails, theResources.get(0), theContextServices));
+		retVal.addAll(IConsentService.evaluateInParallel(
+				theResources.subList(1, theResources.size()),
+				t -> canSeeResource(theRequestDetails, t, theContextServices),
+				theExecutor));
+		return retVal;
+	}
 }
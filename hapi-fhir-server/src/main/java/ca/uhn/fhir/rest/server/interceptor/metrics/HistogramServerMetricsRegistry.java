@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link IServerMetricsRegistry} which keeps a {@link LatencyHistogram} in memory for each
+ * combination of {@link ServerMetricsKey} and {@link ServerMetricsPhaseEnum}.
+ * <p>
+ * Keys include the tenant and resource type supplied by the client, so the number of keys is
+ * capped. Once the cap is reached, timings for any new key are recorded against an overflow key
+ * which has the same operation type and outcome, and {@link ServerMetricsKey#OVERFLOW} as its
+ * tenant and resource type. Since there are only a few operation types and outcomes, the overflow
+ * keys can exceed the cap by a small, fixed amount.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public class HistogramServerMetricsRegistry implements IServerMetricsRegistry {
+
+	public static final int DEFAULT_MAXIMUM_KEYS = 1000;
+
+	private final ConcurrentHashMap<ServerMetricsKey, Map<ServerMetricsPhaseEnum, LatencyHistogram>> myHistograms =
+			new ConcurrentHashMap<>();
+	private final int myMaximumKeys;
+
+	/**
+	 * Constructor which uses {@link #DEFAULT_MAXIMUM_KEYS}
+	 */
+	public HistogramServerMetricsRegistry() {
+		this(DEFAULT_MAXIMUM_KEYS);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaximumKeys The number of keys after which new keys are folded into overflow keys
+	 */
+	public HistogramServerMetricsRegistry(int theMaximumKeys) {
+		Validate.isTrue(theMaximumKeys > 0, "theMaximumKeys must be greater than 0");
+		myMaximumKeys = theMaximumKeys;
+	}
+
+	@Override
+	public void recordTiming(
+			@Nonnull ServerMetricsKey theKey, @Nonnull ServerMetricsPhaseEnum thePhase, long theDurationNanos) {
+		Map<ServerMetricsPhaseEnum, LatencyHistogram> phases = myHistograms.get(theKey);
+		if (phases == null) {
+			ServerMetricsKey key = theKey;
+			if (myHistograms.size() >= myMaximumKeys) {
+				key = new ServerMetricsKey(
+						theKey.getRestOperationType(),
+						ServerMetricsKey.OVERFLOW,
+						ServerMetricsKey.OVERFLOW,
+						theKey.getOutcome());
+			}
+			phases = myHistograms.computeIfAbsent(key, t -> newPhaseMap());
+		}
+		phases.get(thePhase).recordValue(TimeUnit.NANOSECONDS.toMicros(theDurationNanos));
+	}
+
+	/**
+	 * Returns the histogram for the given key and phase, or <code>null</code> if nothing has been recorded for the key
+	 */
+	@Nullable
+	public LatencyHistogram getHistogram(@Nonnull ServerMetricsKey theKey, @Nonnull ServerMetricsPhaseEnum thePhase) {
+		Map<ServerMetricsPhaseEnum, LatencyHistogram> phases = myHistograms.get(theKey);
+		return phases != null ? phases.get(thePhase) : null;
+	}
+
+	/**
+	 * Returns all of the histograms recorded so far
+	 */
+	@Nonnull
+	public Map<ServerMetricsKey, Map<ServerMetricsPhaseEnum, LatencyHistogram>> getHistograms() {
+		return Collections.unmodifiableMap(myHistograms);
+	}
+
+	/**
+	 * Discards all recorded values
+	 */
+	public void clear() {
+		myHistograms.clear();
+	}
+
+	private static Map<ServerMetricsPhaseEnum, LatencyHistogram> newPhaseMap() {
+		Map<ServerMetricsPhaseEnum, LatencyHistogram> retVal = new EnumMap<>(ServerMetricsPhaseEnum.class);
+		for (ServerMetricsPhaseEnum next : ServerMetricsPhaseEnum.values()) {
+			retVal.put(next, new LatencyHistogram());
+		}
+		return Collections.unmodifiableMap(retVal);
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Receives the timings recorded by the {@link ServerMetricsInterceptor}. Implementations may store the
+ * timings in memory (see {@link HistogramServerMetricsRegistry}) or pass them to a metrics library. For
+ * example, a Micrometer binding would look up (or lazily register) a <code>Timer</code> tagged with
+ * the dimensions of the key and the phase, and record the duration on it.
+ * <p>
+ * Implementations must be thread-safe, and should avoid blocking since they are invoked on the
+ * request thread.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public interface IServerMetricsRegistry {
+
+	/**
+	 * Records the time spent in one phase of a request
+	 *
+	 * @param theKey      The dimensions of the request
+	 * @param thePhase    The phase of request processing being timed
+	 * @param theDurationNanos The duration of the phase, in nanoseconds
+	 */
+	void recordTiming(
+			@Nonnull ServerMetricsKey theKey, @Nonnull ServerMetricsPhaseEnum thePhase, long theDurationNanos);
+}
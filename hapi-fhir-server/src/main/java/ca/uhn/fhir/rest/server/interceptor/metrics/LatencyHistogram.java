@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free histogram of latencies in microseconds. Values are recorded into
+ * log-linear buckets in the style of an HDR histogram: values below 64 are counted exactly, and
+ * larger values fall into one of 32 buckets per power of two, which bounds the error of any
+ * reported percentile to roughly 3%. Values above {@link #MAX_TRACKABLE_MICROS} (about 71 minutes)
+ * are counted in the highest bucket.
+ * <p>
+ * Recording a value never allocates, so histograms can be updated on the request thread.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The highest value which is tracked with full precision
+	 */
+	public static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT * 2;
+	private static final int LINEAR_LIMIT_BITS = SUB_BUCKET_BITS + 1;
+	private static final int BUCKET_COUNT = indexFor(MAX_TRACKABLE_MICROS) + 1;
+
+	private final AtomicLongArray myCounts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder myTotalCount = new LongAdder();
+	private final LongAdder myTotalMicros = new LongAdder();
+	private final AtomicLong myMaxMicros = new AtomicLong();
+
+	/**
+	 * Records a single value
+	 *
+	 * @param theMicros The latency in microseconds. Negative values are recorded as 0.
+	 */
+	public void recordValue(long theMicros) {
+		long value = Math.max(0, theMicros);
+		myCounts.incrementAndGet(indexFor(Math.min(value, MAX_TRACKABLE_MICROS)));
+		myTotalCount.increment();
+		myTotalMicros.add(value);
+		if (value > myMaxMicros.get()) {
+			myMaxMicros.accumulateAndGet(value, Math::max);
+		}
+	}
+
+	/**
+	 * Returns the number of recorded values
+	 */
+	public long getCount() {
+		return myTotalCount.sum();
+	}
+
+	/**
+	 * Returns the sum of all recorded values, in microseconds
+	 */
+	public long getTotalMicros() {
+		return myTotalMicros.sum();
+	}
+
+	/**
+	 * Returns the largest recorded value, in microseconds
+	 */
+	public long getMaxMicros() {
+		return myMaxMicros.get();
+	}
+
+	/**
+	 * Returns the mean of the recorded values, in microseconds, or 0 if no values have been recorded
+	 */
+	public double getMeanMicros() {
+		long count = getCount();
+		return count > 0 ? (double) getTotalMicros() / count : 0;
+	}
+
+	/**
+	 * Returns the value (in microseconds) at or below which the given percentage of recorded
+	 * values fall. The returned value is the upper bound of the bucket containing the percentile,
+	 * but never exceeds {@link #getMaxMicros()}.
+	 *
+	 * @param thePercentile The percentile, between 0 and 100 (e.g. <code>99.0</code>)
+	 * @return The value at the percentile, or 0 if no values have been recorded
+	 */
+	public long getValueAtPercentile(double thePercentile) {
+		Validate.inclusiveBetween(0.0, 100.0, thePercentile, "thePercentile must be between 0 and 100");
+
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = myCounts.get(i);
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(thePercentile / 100.0 * total));
+		long cumulative = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulative += counts[i];
+			if (cumulative >= target) {
+				return Math.min(highestValueInBucket(i), getMaxMicros());
+			}
+		}
+		return getMaxMicros();
+	}
+
+	static int indexFor(long theValue) {
+		if (theValue < LINEAR_LIMIT) {
+			return (int) theValue;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(theValue);
+		int subBucket = (int) (theValue >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return LINEAR_LIMIT + (exponent - LINEAR_LIMIT_BITS) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long highestValueInBucket(int theIndex) {
+		if (theIndex < LINEAR_LIMIT) {
+			return theIndex;
+		}
+		int offset = theIndex - LINEAR_LIMIT;
+		int exponent = LINEAR_LIMIT_BITS + offset / SUB_BUCKET_COUNT;
+		long subBucket = offset % SUB_BUCKET_COUNT;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long lowest = (SUB_BUCKET_COUNT + subBucket) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * This interceptor records the latency of each request handled by the server, broken down into
+ * {@link ServerMetricsPhaseEnum phases}, and keyed by the operation type, resource type, tenant and
+ * outcome of the request (see {@link ServerMetricsKey}). Timings are passed to an
+ * {@link IServerMetricsRegistry}, which defaults to a {@link HistogramServerMetricsRegistry} that
+ * can be queried for percentiles.
+ * <p>
+ * Phases are measured between the invocations of this interceptor's own hooks, so (for example) the
+ * time spent in other interceptors registered against {@link Pointcut#SERVER_OUTGOING_RESPONSE} is
+ * reported as {@link ServerMetricsPhaseEnum#OUTGOING_INTERCEPTORS}. Note that because this
+ * interceptor hooks into {@link Pointcut#SERVER_OUTGOING_RESPONSE}, search results are not streamed
+ * to the client in batches while it is registered (see
+ * {@link ca.uhn.fhir.rest.server.RestfulServer#setStreamingBundleBatchSize(Integer)}).
+ * </p>
+ * <p>
+ * When {@link #setEnabled(boolean) disabled}, every hook returns immediately without allocating.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+@Interceptor
+public class ServerMetricsInterceptor {
+
+	private static final String TIMINGS_KEY = ServerMetricsInterceptor.class.getName() + "_TIMINGS";
+
+	private final IServerMetricsRegistry myRegistry;
+	private volatile boolean myEnabled = true;
+
+	/**
+	 * Constructor which records into a new {@link HistogramServerMetricsRegistry}
+	 */
+	public ServerMetricsInterceptor() {
+		this(new HistogramServerMetricsRegistry());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theRegistry The registry to record timings into
+	 */
+	public ServerMetricsInterceptor(@Nonnull IServerMetricsRegistry theRegistry) {
+		Validate.notNull(theRegistry, "theRegistry must not be null");
+		myRegistry = theRegistry;
+	}
+
+	@Nonnull
+	public IServerMetricsRegistry getRegistry() {
+		return myRegistry;
+	}
+
+	public boolean isEnabled() {
+		return myEnabled;
+	}
+
+	/**
+	 * Enables or disables recording (default is enabled). This can be toggled while the server is running.
+	 */
+	public void setEnabled(boolean theEnabled) {
+		myEnabled = theEnabled;
+	}
+
+	@Hook(value = Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED, order = Integer.MIN_VALUE)
+	public boolean requestStarted(RequestDetails theRequestDetails) {
+		if (myEnabled) {
+			theRequestDetails.getUserData().put(TIMINGS_KEY, new RequestTimings(System.nanoTime()));
+		}
+		return true;
+	}
+
+	@Hook(value = Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, order = Integer.MAX_VALUE)
+	public void requestPreHandled(RequestDetails theRequestDetails) {
+		RequestTimings timings = getTimings(theRequestDetails);
+		if (timings != null) {
+			timings.myHandlerStarted = System.nanoTime();
+		}
+	}
+
+	@Hook(value = Pointcut.SERVER_OUTGOING_RESPONSE, order = Integer.MIN_VALUE)
+	public boolean outgoingResponseStarted(RequestDetails theRequestDetails) {
+		RequestTimings timings = getTimings(theRequestDetails);
+		if (timings != null) {
+			timings.myOutgoingInterceptorsStarted = System.nanoTime();
+		}
+		return true;
+	}
+
+	@Hook(value = Pointcut.SERVER_OUTGOING_RESPONSE, order = Integer.MAX_VALUE)
+	public boolean outgoingResponseFinished(RequestDetails theRequestDetails) {
+		RequestTimings timings = getTimings(theRequestDetails);
+		if (timings != null) {
+			timings.myEncodingStarted = System.nanoTime();
+		}
+		return true;
+	}
+
+	@Hook(value = Pointcut.SERVER_HANDLE_EXCEPTION, order = Integer.MIN_VALUE)
+	public boolean handleException(RequestDetails theRequestDetails, BaseServerResponseException theException) {
+		RequestTimings timings = getTimings(theRequestDetails);
+		if (timings != null) {
+			timings.myStatusCode = theException.getStatusCode();
+		}
+		return true;
+	}
+
+	@Hook(value = Pointcut.SERVER_PROCESSING_COMPLETED, order = Integer.MIN_VALUE)
+	public void processingCompleted(RequestDetails theRequestDetails) {
+		RequestTimings timings = getTimings(theRequestDetails);
+		if (timings == null) {
+			return;
+		}
+		theRequestDetails.getUserData().remove(TIMINGS_KEY);
+
+		long now = System.nanoTime();
+		ServerMetricsKey key = new ServerMetricsKey(
+				theRequestDetails.getRestOperationType(),
+				theRequestDetails.getResourceName(),
+				theRequestDetails.getTenantId(),
+				ServerMetricsKey.OutcomeEnum.forStatusCode(timings.myStatusCode));
+
+		recordPhase(key, ServerMetricsPhaseEnum.INCOMING, timings.myStarted, timings.myHandlerStarted);
+		recordPhase(
+				key, ServerMetricsPhaseEnum.HANDLER, timings.myHandlerStarted, timings.myOutgoingInterceptorsStarted);
+		recordPhase(
+				key,
+				ServerMetricsPhaseEnum.OUTGOING_INTERCEPTORS,
+				timings.myOutgoingInterceptorsStarted,
+				timings.myEncodingStarted);
+		recordPhase(key, ServerMetricsPhaseEnum.ENCODING, timings.myEncodingStarted, now);
+
+		// Recorded last, so anyone who sees the total for a request also sees its phases
+		myRegistry.recordTiming(key, ServerMetricsPhaseEnum.TOTAL, now - timings.myStarted);
+	}
+
+	private void recordPhase(ServerMetricsKey theKey, ServerMetricsPhaseEnum thePhase, long theStart, long theEnd) {
+		if (theStart != 0 && theEnd != 0) {
+			myRegistry.recordTiming(theKey, thePhase, theEnd - theStart);
+		}
+	}
+
+	private RequestTimings getTimings(RequestDetails theRequestDetails) {
+		if (!myEnabled) {
+			return null;
+		}
+		return (RequestTimings) theRequestDetails.getUserData().get(TIMINGS_KEY);
+	}
+
+	/**
+	 * The {@link System#nanoTime()} at each phase boundary, or 0 if the boundary was not reached
+	 */
+	private static class RequestTimings {
+		private final long myStarted;
+		private long myHandlerStarted;
+		private long myOutgoingInterceptorsStarted;
+		private long myEncodingStarted;
+		private int myStatusCode = 200;
+
+		private RequestTimings(long theStarted) {
+			myStarted = theStarted;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Objects;
+
+/**
+ * The dimensions which timings recorded by the {@link ServerMetricsInterceptor} are keyed by
+ *
+ * @since 8.4.0
+ */
+public final class ServerMetricsKey {
+
+	/**
+	 * The tenant and resource type of the keys which timings are recorded against once a
+	 * registry has reached its maximum number of keys
+	 *
+	 * @see HistogramServerMetricsRegistry
+	 */
+	public static final String OVERFLOW = "(other)";
+
+	private final RestOperationTypeEnum myRestOperationType;
+	private final String myResourceType;
+	private final String myTenantId;
+	private final OutcomeEnum myOutcome;
+	private final int myHashCode;
+
+	public ServerMetricsKey(
+			@Nullable RestOperationTypeEnum theRestOperationType,
+			@Nullable String theResourceType,
+			@Nullable String theTenantId,
+			@Nonnull OutcomeEnum theOutcome) {
+		myRestOperationType = theRestOperationType;
+		myResourceType = theResourceType;
+		myTenantId = theTenantId;
+		myOutcome = theOutcome;
+		myHashCode = Objects.hash(theRestOperationType, theResourceType, theTenantId, theOutcome);
+	}
+
+	/**
+	 * The operation type, or <code>null</code> if the request did not resolve to an operation
+	 */
+	@Nullable
+	public RestOperationTypeEnum getRestOperationType() {
+		return myRestOperationType;
+	}
+
+	@Nullable
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	@Nullable
+	public String getTenantId() {
+		return myTenantId;
+	}
+
+	@Nonnull
+	public OutcomeEnum getOutcome() {
+		return myOutcome;
+	}
+
+	@Override
+	public boolean equals(Object theO) {
+		if (this == theO) {
+			return true;
+		}
+		if (!(theO instanceof ServerMetricsKey)) {
+			return false;
+		}
+		ServerMetricsKey that = (ServerMetricsKey) theO;
+		return myRestOperationType == that.myRestOperationType
+				&& Objects.equals(myResourceType, that.myResourceType)
+				&& Objects.equals(myTenantId, that.myTenantId)
+				&& myOutcome == that.myOutcome;
+	}
+
+	@Override
+	public int hashCode() {
+		return myHashCode;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("operation", myRestOperationType)
+				.append("resourceType", myResourceType)
+				.append("tenant", myTenantId)
+				.append("outcome", myOutcome)
+				.toString();
+	}
+
+	public enum OutcomeEnum {
+		/**
+		 * The request completed with a status code below 400
+		 */
+		SUCCESS,
+		/**
+		 * The request failed with a 4xx status code
+		 */
+		CLIENT_ERROR,
+		/**
+		 * The request failed with a 5xx status code
+		 */
+		SERVER_ERROR;
+
+		public static OutcomeEnum forStatusCode(int theStatusCode) {
+			if (theStatusCode >= 500) {
+				return SERVER_ERROR;
+			} else if (theStatusCode >= 400) {
+				return CLIENT_ERROR;
+			}
+			return SUCCESS;
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import ca.uhn.fhir.interceptor.api.Pointcut;
+
+/**
+ * The phases of request processing timed by the {@link ServerMetricsInterceptor}. Each phase
+ * is bounded by pointcut invocations, so a phase is only recorded if the request reached both
+ * of its boundaries.
+ *
+ * @since 8.4.0
+ */
+public enum ServerMetricsPhaseEnum {
+
+	/**
+	 * From {@link Pointcut#SERVER_INCOMING_REQUEST_POST_PROCESSED} until {@link Pointcut#SERVER_PROCESSING_COMPLETED}
+	 */
+	TOTAL,
+
+	/**
+	 * Parsing the request (including the request body) and running the incoming request interceptors,
+	 * up until the last {@link Pointcut#SERVER_INCOMING_REQUEST_PRE_HANDLED} hook.
+	 */
+	INCOMING,
+
+	/**
+	 * Running the resource provider method (e.g. the DAO), up until the first
+	 * {@link Pointcut#SERVER_OUTGOING_RESPONSE} hook.
+	 */
+	HANDLER,
+
+	/**
+	 * Running the {@link Pointcut#SERVER_OUTGOING_RESPONSE} interceptors
+	 */
+	OUTGOING_INTERCEPTORS,
+
+	/**
+	 * Encoding and writing the response, from the last {@link Pointcut#SERVER_OUTGOING_RESPONSE} hook until
+	 * {@link Pointcut#SERVER_PROCESSING_COMPLETED}
+	 */
+	ENCODING
+}
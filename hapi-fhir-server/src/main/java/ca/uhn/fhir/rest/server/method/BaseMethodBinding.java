@@ -41,6 +41,7 @@ import ca.uhn.fhir.rest.annotation.Transaction;
 import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.annotation.Validate;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.api.server.IRestfulServer;
@@ -51,6 +52,7 @@ import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.ReflectionUtil;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
@@ -244,6 +246,47 @@ public abstract class BaseMethodBinding {
 
 	public abstract MethodMatchEnum incomingServerRequestMatchesMethod(RequestDetails theRequest);
 
+	/**
+	 * Returns the request operations (e.g. <code>$everything</code>, <code>_history</code>, or an
+	 * empty string for requests with no operation) which could possibly be matched by
+	 * {@link #incomingServerRequestMatchesMethod(RequestDetails)}, or <code>null</code> if this
+	 * method can handle any operation. This is used to index the method bindings when they
+	 * are registered, so that only plausible candidates need to be tested against each request.
+	 * Implementations may return more operations than they actually match, but never fewer.
+	 *
+	 * @since 8.4.0
+	 */
+	@Nullable
+	public Set<String> getDispatchOperations() {
+		return null;
+	}
+
+	/**
+	 * Returns the request types which could possibly be matched by
+	 * {@link #incomingServerRequestMatchesMethod(RequestDetails)}, or <code>null</code> if this
+	 * method can handle any request type.
+	 *
+	 * @see #getDispatchOperations()
+	 * @since 8.4.0
+	 */
+	@Nullable
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return null;
+	}
+
+	/**
+	 * Returns <code>false</code> if this method could never match a request which does
+	 * (or does not) have a resource ID and version.
+	 *
+	 * @param theHaveId      Does the request URL include a resource ID
+	 * @param theHaveVersion Does the request URL include a version ID
+	 * @see #getDispatchOperations()
+	 * @since 8.4.0
+	 */
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return true;
+	}
+
 	public abstract Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest)
 			throws BaseServerResponseException, IOException;
 
@@ -159,6 +159,16 @@ abstract class BaseOutcomeReturningMethodBinding extends BaseMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		return Collections.singleton(defaultIfNull(getMatchingOperation(), ""));
+	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return provideAllowableRequestTypes();
+	}
+
 	@Override
 	public Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest)
 			throws BaseServerResponseException, IOException {
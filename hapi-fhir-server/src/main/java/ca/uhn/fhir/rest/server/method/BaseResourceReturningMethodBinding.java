@@ -24,12 +24,14 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
 import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.model.valueset.BundleTypeEnum;
 import ca.uhn.fhir.rest.api.BundleLinks;
 import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.SummaryEnum;
@@ -42,8 +44,10 @@ import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.interceptor.consent.ConsentInterceptor;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.util.ReflectionUtil;
+import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.Validate;
@@ -56,6 +60,7 @@ import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
 
@@ -141,6 +146,16 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 	}
 
 	public IBaseResource doInvokeServer(IRestfulServer<?> theServer, RequestDetails theRequest) {
+		return doInvokeServer(theServer, theRequest, null);
+	}
+
+	/**
+	 * @param theStreamingBatchSize If not <code>null</code>, a searchset page may be returned as a bundle
+	 *                              containing only the root properties, with a {@link StreamingResponseBundle}
+	 *                              attached which loads and encodes the entries in batches of this size
+	 */
+	protected IBaseResource doInvokeServer(
+			IRestfulServer<?> theServer, RequestDetails theRequest, @Nullable Integer theStreamingBatchSize) {
 		Object[] params = createMethodParams(theRequest);
 
 		Object resultObj = invokeServer(theServer, theRequest, params);
@@ -198,7 +213,8 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 							count,
 							responseBundleType,
 							linkSelf);
-					responseObject = myResponseBundleBuilder.buildResponseBundle(responseBundleRequest);
+					responseObject =
+							myResponseBundleBuilder.buildResponseBundle(responseBundleRequest, theStreamingBatchSize);
 				}
 				break;
 			}
@@ -272,7 +288,8 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 	@Override
 	public Object invokeServer(IRestfulServer<?> theServer, RequestDetails theRequest)
 			throws BaseServerResponseException, IOException {
-		IBaseResource response = doInvokeServer(theServer, theRequest);
+		IBaseResource response =
+				doInvokeServer(theServer, theRequest, determineStreamingBatchSize(theServer, theRequest));
 		/*
 		When we write directly to an HttpServletResponse, the invocation returns null. However, we still want to invoke
 		the SERVER_OUTGOING_RESPONSE pointcut.
@@ -302,17 +319,71 @@ public abstract class BaseResourceReturningMethodBinding extends BaseMethodBindi
 				return null;
 			}
 
+			IBaseResource responseResource = responseDetails.getResponseResource();
+			StreamingResponseBundle streamingResponseBundle = StreamingResponseBundle.fromBundle(responseResource);
+			RestfulServerUtils.IResponseBodyEncoder bodyEncoder = null;
+			if (streamingResponseBundle != null) {
+				bodyEncoder = (theParser, theWriter) ->
+						streamingResponseBundle.encode((IBaseBundle) responseResource, theParser, theWriter);
+			}
+
 			return RestfulServerUtils.streamResponseAsResource(
 					theServer,
-					responseDetails.getResponseResource(),
+					responseResource,
 					summaryMode,
 					responseDetails.getResponseCode(),
 					isAddContentLocationHeader(),
 					theRequest.isRespondGzip(),
 					theRequest,
 					null,
-					null);
+					null,
+					bodyEncoder);
+		}
+	}
+
+	/**
+	 * Streaming is only possible if nothing needs to see the complete response bundle
+	 * before it is written, and if the response is encoded with a parser which can write
+	 * individual bundle entries.
+	 *
+	 * @see ca.uhn.fhir.rest.server.IRestfulServerDefaults#getStreamingBundleBatchSize()
+	 */
+	@Nullable
+	private Integer determineStreamingBatchSize(IRestfulServer<?> theServer, RequestDetails theRequest) {
+		Integer retVal = theServer.getStreamingBundleBatchSize();
+		if (retVal == null || getReturnType() != ReturnTypeEnum.BUNDLE) {
+			return null;
+		}
+		if (!isStreamingCompatibleWithOutgoingResponseHooks(theRequest.getInterceptorBroadcaster())) {
+			return null;
+		}
+		if (!RestfulServerUtils.determineSummaryMode(theRequest).equals(Collections.singleton(SummaryEnum.FALSE))
+				|| ElementsParameter.getElementsValueOrNull(theRequest, false) != null
+				|| ElementsParameter.getElementsValueOrNull(theRequest, true) != null) {
+			return null;
+		}
+		EncodingEnum encoding = RestfulServerUtils.determineResponseEncodingWithDefault(theRequest)
+				.getEncoding();
+		if (encoding != EncodingEnum.JSON && encoding != EncodingEnum.XML) {
+			return null;
+		}
+		return retVal;
+	}
+
+	/**
+	 * {@link Pointcut#SERVER_OUTGOING_RESPONSE} hooks only see the root properties of a streamed Bundle.
+	 * The {@link ConsentInterceptor} copes with that, since the entries of a streamed page are passed to
+	 * its {@link Pointcut#STORAGE_PRESHOW_RESOURCES} hook batch by batch, but any other hook expects to
+	 * see the complete Bundle.
+	 */
+	private static boolean isStreamingCompatibleWithOutgoingResponseHooks(
+			@Nullable IInterceptorBroadcaster theInterceptorBroadcaster) {
+		if (theInterceptorBroadcaster == null
+				|| !theInterceptorBroadcaster.hasHooks(Pointcut.SERVER_OUTGOING_RESPONSE)) {
+			return true;
 		}
+		return theInterceptorBroadcaster.getInvokersForPointcut(Pointcut.SERVER_OUTGOING_RESPONSE).stream()
+				.allMatch(t -> t.getInterceptor() instanceof ConsentInterceptor);
 	}
 
 	public abstract Object invokeServer(
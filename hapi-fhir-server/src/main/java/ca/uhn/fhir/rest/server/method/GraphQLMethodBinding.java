@@ -121,6 +121,21 @@ public class GraphQLMethodBinding extends OperationMethodBinding {
 		return MethodMatchEnum.NONE;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		return Collections.singleton(Constants.OPERATION_NAME_GRAPHQL);
+	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return Collections.singleton(myMethodRequestType);
+	}
+
+	@Override
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return true;
+	}
+
 	private String getQueryValue(Object[] methodParams) {
 		switch (myMethodRequestType) {
 			case POST:
@@ -44,6 +44,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -141,6 +142,16 @@ public class HistoryMethodBinding extends BaseResourceReturningMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		return Set.of(Constants.PARAM_HISTORY);
+	}
+
+	@Override
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return !theHaveVersion;
+	}
+
 	@Override
 	public IBundleProvider invokeServer(
 			IRestfulServer<?> theServer, RequestDetails theRequest, Object[] theMethodParams)
@@ -51,6 +51,7 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -311,6 +312,24 @@ public class OperationMethodBinding extends BaseResourceReturningMethodBinding {
 		return myCanOperateAtServerLevel ? MethodMatchEnum.EXACT : MethodMatchEnum.NONE;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		if (WILDCARD_NAME.equals(myName)) {
+			return null;
+		}
+		return Collections.singleton(myName);
+	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return Set.of(RequestTypeEnum.GET, RequestTypeEnum.POST, RequestTypeEnum.DELETE);
+	}
+
+	@Override
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return !theHaveId || myCanOperateAtInstanceLevel;
+	}
+
 	@Override
 	public RestOperationTypeEnum getRestOperationType(RequestDetails theRequestDetails) {
 		RestOperationTypeEnum retVal = super.getRestOperationType(theRequestDetails);
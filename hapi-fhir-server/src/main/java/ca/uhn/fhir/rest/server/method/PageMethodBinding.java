@@ -39,6 +39,7 @@ import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import ca.uhn.fhir.util.ReflectionUtil;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.lang.reflect.Method;
@@ -78,13 +79,25 @@ public class PageMethodBinding extends BaseResourceReturningMethodBinding {
 	}
 
 	@Override
-	public IBaseResource doInvokeServer(IRestfulServer<?> theServer, RequestDetails theRequest) {
+	protected IBaseResource doInvokeServer(
+			IRestfulServer<?> theServer, RequestDetails theRequest, @Nullable Integer theStreamingBatchSize) {
 		return handlePagingRequest(
-				theServer, theRequest, theRequest.getParameters().get(Constants.PARAM_PAGINGACTION)[0]);
+				theServer,
+				theRequest,
+				theRequest.getParameters().get(Constants.PARAM_PAGINGACTION)[0],
+				theStreamingBatchSize);
 	}
 
 	private IBaseResource handlePagingRequest(
 			IRestfulServer<?> theServer, RequestDetails theRequest, String thePagingAction) {
+		return handlePagingRequest(theServer, theRequest, thePagingAction, null);
+	}
+
+	private IBaseResource handlePagingRequest(
+			IRestfulServer<?> theServer,
+			RequestDetails theRequest,
+			String thePagingAction,
+			@Nullable Integer theStreamingBatchSize) {
 		IPagingProvider pagingProvider = theServer.getPagingProvider();
 		if (pagingProvider == null) {
 			throw new InvalidRequestException(Msg.code(416) + "This server does not support paging");
@@ -96,7 +109,7 @@ public class PageMethodBinding extends BaseResourceReturningMethodBinding {
 
 		ResponseBundleRequest responseBundleRequest =
 				buildResponseBundleRequest(theServer, theRequest, thePagingAction, pagingProvider);
-		return myResponseBundleBuilder.buildResponseBundle(responseBundleRequest);
+		return myResponseBundleBuilder.buildResponseBundle(responseBundleRequest, theStreamingBatchSize);
 	}
 
 	private ResponseBundleRequest buildResponseBundleRequest(
@@ -207,4 +220,9 @@ public class PageMethodBinding extends BaseResourceReturningMethodBinding {
 
 		return MethodMatchEnum.EXACT;
 	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return Set.of(RequestTypeEnum.GET, RequestTypeEnum.POST);
+	}
 }
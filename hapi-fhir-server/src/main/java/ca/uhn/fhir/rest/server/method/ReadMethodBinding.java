@@ -160,6 +160,21 @@ public class ReadMethodBinding extends BaseResourceReturningMethodBinding {
 		return MethodMatchEnum.EXACT;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		return Set.of("", Constants.PARAM_HISTORY);
+	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return Set.of(RequestTypeEnum.GET, RequestTypeEnum.HEAD);
+	}
+
+	@Override
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return theHaveId && (mySupportsVersion || !theHaveVersion);
+	}
+
 	@Override
 	public IBundleProvider invokeServer(
 			IRestfulServer<?> theServer, RequestDetails theRequest, Object[] theMethodParams)
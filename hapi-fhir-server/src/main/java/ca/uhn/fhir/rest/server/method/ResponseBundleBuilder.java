@@ -29,6 +29,7 @@ import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.server.IPagingProvider;
 import ca.uhn.fhir.rest.server.RestfulServerUtils;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseOperationOutcome;
@@ -54,6 +55,25 @@ public class ResponseBundleBuilder {
 	}
 
 	IBaseBundle buildResponseBundle(ResponseBundleRequest theResponseBundleRequest) {
+		return buildResponseBundle(theResponseBundleRequest, null);
+	}
+
+	/**
+	 * Builds the response bundle. If <code>theStreamingBatchSize</code> is provided and the requested page
+	 * can be streamed, the returned bundle only contains the root properties and a {@link StreamingResponseBundle}
+	 * which loads and encodes the entries is attached to it.
+	 *
+	 * @see StreamingResponseBundle#fromBundle(IBaseResource)
+	 */
+	IBaseBundle buildResponseBundle(
+			ResponseBundleRequest theResponseBundleRequest, @Nullable Integer theStreamingBatchSize) {
+		if (theStreamingBatchSize != null) {
+			IBaseBundle retVal = buildStreamingResponseBundle(theResponseBundleRequest, theStreamingBatchSize);
+			if (retVal != null) {
+				return retVal;
+			}
+		}
+
 		final ResponsePage responsePage = buildResponsePage(theResponseBundleRequest);
 
 		removeNulls(responsePage.getResourceList());
@@ -83,6 +103,56 @@ public class ResponseBundleBuilder {
 		return (IBaseBundle) bundleFactory.getResourceBundle();
 	}
 
+	/**
+	 * Streaming is only supported for pages where the paging links can be calculated before any resources
+	 * are loaded, which means that the total is known and the bundle provider does not manage its own pages.
+	 * Pages which fit into a single batch are not worth streaming.
+	 */
+	@Nullable
+	private IBaseBundle buildStreamingResponseBundle(ResponseBundleRequest theResponseBundleRequest, int theBatchSize) {
+		final IRestfulServer<?> server = theResponseBundleRequest.server;
+		final IBundleProvider bundleProvider = theResponseBundleRequest.bundleProvider;
+		final RequestedPage requestedPage = theResponseBundleRequest.requestedPage;
+
+		Integer size = bundleProvider.size();
+		if (size == null
+				|| requestedPage.offset != null
+				|| !server.canStoreSearchResults()
+				|| bundleProvider.getCurrentPageId() != null
+				|| bundleProvider.getCurrentPageOffset() != null) {
+			return null;
+		}
+
+		int pageSize = pagingCalculatePageSize(requestedPage, server.getPagingProvider());
+		int numToReturn = Math.min(pageSize, size - theResponseBundleRequest.offset);
+		if (numToReturn <= theBatchSize) {
+			return null;
+		}
+
+		String searchId = pagingBuildSearchId(theResponseBundleRequest, numToReturn, size);
+		ResponsePage responsePage = new ResponsePage.ResponsePageBuilder()
+				.setSearchId(searchId)
+				.setPageSize(pageSize)
+				.setNumToReturn(numToReturn)
+				.setBundleProvider(bundleProvider)
+				.setResources(Collections.emptyList())
+				.build();
+		BundleLinks links = buildLinks(theResponseBundleRequest, responsePage);
+
+		IVersionSpecificBundleFactory bundleFactory = server.getFhirContext().newBundleFactory();
+		bundleFactory.addRootPropertiesToBundle(bundleProvider.getUuid(), links, size, bundleProvider.getPublished());
+		IBaseBundle retVal = (IBaseBundle) bundleFactory.getResourceBundle();
+
+		StreamingResponseBundle streamingResponseBundle = new StreamingResponseBundle(
+				theResponseBundleRequest,
+				links,
+				theResponseBundleRequest.offset,
+				theResponseBundleRequest.offset + numToReturn,
+				theBatchSize);
+		streamingResponseBundle.attachTo(retVal);
+		return retVal;
+	}
+
 	private ResponsePage buildResponsePage(ResponseBundleRequest theResponseBundleRequest) {
 		final IRestfulServer<?> server = theResponseBundleRequest.server;
 		final IBundleProvider bundleProvider = theResponseBundleRequest.bundleProvider;
@@ -212,7 +282,7 @@ public class ResponseBundleBuilder {
 		return retval;
 	}
 
-	private static void validateIds(List<IBaseResource> theResourceList) {
+	static void validateIds(List<IBaseResource> theResourceList) {
 		/*
 		 * Make sure all returned resources have an ID (if not, this is a bug
 		 * in the user server code)
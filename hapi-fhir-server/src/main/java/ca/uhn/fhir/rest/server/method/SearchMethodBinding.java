@@ -265,6 +265,21 @@ public class SearchMethodBinding extends BaseResourceReturningMethodBinding {
 		return retVal;
 	}
 
+	@Override
+	public Set<String> getDispatchOperations() {
+		return Set.of("", Constants.PARAM_SEARCH);
+	}
+
+	@Override
+	public Set<RequestTypeEnum> getDispatchRequestTypes() {
+		return Set.of(RequestTypeEnum.GET, RequestTypeEnum.POST);
+	}
+
+	@Override
+	public boolean isDispatchCandidate(boolean theHaveId, boolean theHaveVersion) {
+		return !theHaveId || myIdParamIndex != null;
+	}
+
 	/**
 	 * Is this request a request for a normal search - Ie. not a named search, nor a compartment
 	 * search, just a plain old search.
@@ -0,0 +1,271 @@
+/*
+ * #%L
+ * HAPI FHIR - Server Framework
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.rest.server.method;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.HookParams;
+import ca.uhn.fhir.interceptor.api.IInterceptorBroadcaster;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.BundleLinks;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.IPreResourceShowDetails;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.SimplePreResourceShowDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import jakarta.annotation.Nullable;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A page of search results whose entries are loaded from the {@link IBundleProvider} and encoded
+ * in batches while the response is being written, instead of being collected into a single Bundle
+ * before encoding. The bundle built by {@link ResponseBundleBuilder} contains only the root properties
+ * (id, type, total and links) and carries this object as user data.
+ * <p>
+ * The root properties are encoded by the parser as usual, and the entries are spliced in before the
+ * closing tag or brace. Each batch is passed through the version specific bundle factory so entries
+ * look exactly as they would in a non-streamed Bundle, except that resources included by reference
+ * are written after the batch which referenced them rather than at the end of the page. Every resource
+ * is written at most once per page: a resource which was already written in an earlier batch (as a
+ * match or as an include) is skipped, even if it is a search match in a later batch.
+ * </p>
+ * <p>
+ * The resources of each batch are passed to {@link Pointcut#STORAGE_PRESHOW_RESOURCES} hooks before
+ * they are written, which is how consent rules are applied to a streamed page. Entries whose resource
+ * is removed by a hook are left out, and replaced resources are written in place of the originals.
+ * </p>
+ *
+ * @since 8.4.0
+ */
+class StreamingResponseBundle {
+
+	private static final String USER_DATA_KEY = StreamingResponseBundle.class.getName();
+	private static final String JSON_BUNDLE_END = "}";
+	private static final String XML_BUNDLE_END = "</Bundle>";
+	private static final String XML_ELEMENT_START = "<element>";
+	private static final String XML_ELEMENT_END = "</element>";
+
+	private final ResponseBundleRequest myRequest;
+	private final BundleLinks myLinks;
+	private final int myFromIndex;
+	private final int myToIndex;
+	private final int myBatchSize;
+
+	StreamingResponseBundle(
+			ResponseBundleRequest theRequest,
+			BundleLinks theLinks,
+			int theFromIndex,
+			int theToIndex,
+			int theBatchSize) {
+		myRequest = theRequest;
+		myLinks = theLinks;
+		myFromIndex = theFromIndex;
+		myToIndex = theToIndex;
+		myBatchSize = theBatchSize;
+	}
+
+	void attachTo(IBaseBundle theBundle) {
+		theBundle.setUserData(USER_DATA_KEY, this);
+	}
+
+	/**
+	 * Encodes the given bundle (which must contain only the root properties) followed by
+	 * all of the entries in this page.
+	 */
+	void encode(IBaseBundle theBundle, IParser theParser, Writer theWriter) throws IOException {
+		boolean json = theParser.getEncoding() == EncodingEnum.JSON;
+		String envelope = theParser.encodeResourceToString(theBundle);
+		int envelopeEnd = envelope.lastIndexOf(json ? JSON_BUNDLE_END : XML_BUNDLE_END);
+		if (envelopeEnd == -1) {
+			throw new InternalErrorException(
+					Msg.code(2783) + "Unable to stream bundle entries in encoding: " + theParser.getEncoding());
+		}
+		theWriter.write(envelope, 0, envelopeEnd);
+
+		FhirContext context = myRequest.server.getFhirContext();
+		BaseRuntimeChildDefinition entryChild =
+				context.getResourceDefinition(theBundle).getChildByName("entry");
+		BaseRuntimeChildDefinition entryResourceChild = ((BaseRuntimeElementCompositeDefinition<?>)
+						entryChild.getChildByName("entry"))
+				.getChildByName("resource");
+
+		Set<String> writtenResourceIds = new HashSet<>();
+		boolean firstEntry = true;
+		for (int from = myFromIndex; from < myToIndex; from += myBatchSize) {
+			int to = Math.min(from + myBatchSize, myToIndex);
+			List<IBaseResource> resources = loadBatch(from, to);
+
+			// The root properties are needed by some factories to build the entry full URLs
+			IVersionSpecificBundleFactory bundleFactory = context.newBundleFactory();
+			bundleFactory.addRootPropertiesToBundle(null, myLinks, null, null);
+			bundleFactory.addResourcesToBundle(
+					resources,
+					myRequest.bundleType,
+					myLinks.serverBase,
+					myRequest.server.getBundleInclusionRule(),
+					myRequest.includes);
+			IBaseResource batchBundle = bundleFactory.getResourceBundle();
+
+			List<IBase> entries = new ArrayList<>();
+			for (IBase nextEntry : entryChild.getAccessor().getValues(batchBundle)) {
+				IBaseResource resource = getEntryResource(entryResourceChild, nextEntry);
+				if (resource != null) {
+					// Entries which have already been written can't be replaced, so any repeat is skipped
+					String resourceId = toResourceId(context, resource);
+					if (resourceId != null && !writtenResourceIds.add(resourceId)) {
+						continue;
+					}
+				}
+				entries.add(nextEntry);
+			}
+
+			for (IBase nextEntry : applyPreShowHooks(entries, entryResourceChild)) {
+				String encodedEntry = theParser.encodeToString(nextEntry);
+				if (json) {
+					theWriter.write(firstEntry ? ",\"entry\":[" : ",");
+					theWriter.write(encodedEntry);
+				} else {
+					theWriter.write("<entry>");
+					theWriter.write(stripXmlElementWrapper(encodedEntry));
+					theWriter.write("</entry>");
+				}
+				firstEntry = false;
+			}
+
+			theWriter.flush();
+		}
+
+		if (json && !firstEntry) {
+			theWriter.write("]");
+		}
+		theWriter.write(envelope, envelopeEnd, envelope.length() - envelopeEnd);
+	}
+
+	/**
+	 * Fires {@link Pointcut#STORAGE_PRESHOW_RESOURCES} for the resources in the given entries, and
+	 * returns the entries which should still be written
+	 */
+	private List<IBase> applyPreShowHooks(List<IBase> theEntries, BaseRuntimeChildDefinition theEntryResourceChild) {
+		IInterceptorBroadcaster broadcaster = myRequest.requestDetails.getInterceptorBroadcaster();
+		if (broadcaster == null || !broadcaster.hasHooks(Pointcut.STORAGE_PRESHOW_RESOURCES)) {
+			return theEntries;
+		}
+
+		List<IBase> entries = new ArrayList<>();
+		List<IBaseResource> resources = new ArrayList<>();
+		for (IBase nextEntry : theEntries) {
+			IBaseResource resource = getEntryResource(theEntryResourceChild, nextEntry);
+			if (resource != null) {
+				entries.add(nextEntry);
+				resources.add(resource);
+			}
+		}
+		if (resources.isEmpty()) {
+			return theEntries;
+		}
+
+		SimplePreResourceShowDetails showDetails = new SimplePreResourceShowDetails(resources);
+		HookParams params = new HookParams()
+				.add(IPreResourceShowDetails.class, showDetails)
+				.add(RequestDetails.class, myRequest.requestDetails)
+				.addIfMatchesType(ServletRequestDetails.class, myRequest.requestDetails);
+		broadcaster.callHooks(Pointcut.STORAGE_PRESHOW_RESOURCES, params);
+
+		List<IBase> retVal = new ArrayList<>(theEntries.size());
+		int resourceIndex = 0;
+		for (IBase nextEntry : theEntries) {
+			if (resourceIndex < entries.size() && entries.get(resourceIndex) == nextEntry) {
+				IBaseResource resource = showDetails.getResource(resourceIndex++);
+				if (resource == null) {
+					continue;
+				}
+				theEntryResourceChild.getMutator().setValue(nextEntry, resource);
+			}
+			retVal.add(nextEntry);
+		}
+		return retVal;
+	}
+
+	@Nullable
+	private static IBaseResource getEntryResource(BaseRuntimeChildDefinition theEntryResourceChild, IBase theEntry) {
+		return (IBaseResource) theEntryResourceChild
+				.getAccessor()
+				.getFirstValueOrNull(theEntry)
+				.orElse(null);
+	}
+
+	private List<IBaseResource> loadBatch(int theFromIndex, int theToIndex) {
+		List<IBaseResource> retVal = new ArrayList<>(myRequest.bundleProvider.getResources(theFromIndex, theToIndex));
+		retVal.removeIf(Objects::isNull);
+		ResponseBundleBuilder.validateIds(retVal);
+		return retVal;
+	}
+
+	@Nullable
+	private static String toResourceId(FhirContext theContext, IBaseResource theResource) {
+		IIdType id = theResource.getIdElement();
+		if (id == null || !id.hasIdPart()) {
+			return null;
+		}
+		String resourceType = id.hasResourceType() ? id.getResourceType() : theContext.getResourceType(theResource);
+		return resourceType + "/" + id.getIdPart();
+	}
+
+	/**
+	 * The XML parser wraps non-resource elements in an <code>&lt;element&gt;</code> tag
+	 */
+	private static String stripXmlElementWrapper(String theEncodedEntry) {
+		String retVal = theEncodedEntry.trim();
+		if (!retVal.startsWith(XML_ELEMENT_START) || !retVal.endsWith(XML_ELEMENT_END)) {
+			throw new InternalErrorException(Msg.code(2784) + "Unexpected encoding of bundle entry");
+		}
+		return retVal.substring(XML_ELEMENT_START.length(), retVal.length() - XML_ELEMENT_END.length());
+	}
+
+	/**
+	 * Returns the {@link StreamingResponseBundle} attached to the given response resource, or
+	 * <code>null</code> if the response is not streamed
+	 */
+	@Nullable
+	static StreamingResponseBundle fromBundle(@Nullable IBaseResource theResource) {
+		if (!(theResource instanceof IBaseBundle)) {
+			return null;
+		}
+		Object retVal = theResource.getUserData(USER_DATA_KEY);
+		return retVal instanceof StreamingResponseBundle ? (StreamingResponseBundle) retVal : null;
+	}
+}
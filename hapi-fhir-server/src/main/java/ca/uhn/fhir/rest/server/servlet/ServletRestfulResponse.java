@@ -91,6 +91,27 @@ public class ServletRestfulResponse extends BaseRestfulResponse<ServletRequestDe
 		return myWriter;
 	}
 
+	@Override
+	public OutputStream getResponseTextOutputStream(
+			int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip) throws IOException {
+		Validate.isTrue(myWriter == null, "getResponseTextOutputStream() called after getResponseWriter()");
+		Validate.isTrue(myOutputStream == null, "getResponseTextOutputStream() called multiple times");
+
+		addHeaders();
+		HttpServletResponse httpResponse = getRequestDetails().getServletResponse();
+		httpResponse.setCharacterEncoding(theCharset);
+		httpResponse.setStatus(theStatusCode);
+		httpResponse.setContentType(theContentType);
+		ServletOutputStream outputStream = httpResponse.getOutputStream();
+		if (theRespondGzip) {
+			httpResponse.addHeader(Constants.HEADER_CONTENT_ENCODING, Constants.ENCODING_GZIP);
+			myOutputStream = new GZIPOutputStream(outputStream);
+		} else {
+			myOutputStream = outputStream;
+		}
+		return myOutputStream;
+	}
+
 	private void addHeaders() {
 		HttpServletResponse httpResponse = getRequestDetails().getServletResponse();
 		getRequestDetails().getServer().addHeadersToResponse(httpResponse);
@@ -0,0 +1,148 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class BoundedMemoryPagingProviderTest {
+
+	private final AtomicLong myNow = new AtomicLong(1000);
+	private BoundedMemoryPagingProvider mySvc;
+
+	@BeforeEach
+	public void before() {
+		mySvc = new BoundedMemoryPagingProvider(100);
+		mySvc.setIdleTimeoutMillis(1000);
+		mySvc.setClockForUnitTest(myNow::get);
+	}
+
+	@Test
+	public void testStoreAndRetrieve() {
+		IBundleProvider provider = newProvider(10);
+
+		String id = mySvc.storeResultList(null, provider);
+
+		assertSame(provider, mySvc.retrieveResultList(null, id));
+		assertNull(mySvc.retrieveResultList(null, "FOO"));
+		assertEquals(10, mySvc.getTotalWeight());
+		assertEquals(1, mySvc.getHitCount());
+		assertEquals(1, mySvc.getMissCount());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsedWhenOverWeight() {
+		String id0 = mySvc.storeResultList(null, newProvider(40));
+		myNow.addAndGet(10);
+		String id1 = mySvc.storeResultList(null, newProvider(40));
+		myNow.addAndGet(10);
+
+		// Touch the first result so that the second is the least recently used
+		mySvc.retrieveResultList(null, id0);
+		myNow.addAndGet(10);
+		String id2 = mySvc.storeResultList(null, newProvider(40));
+
+		assertThat(mySvc.retrieveResultList(null, id0)).isNotNull();
+		assertNull(mySvc.retrieveResultList(null, id1));
+		assertThat(mySvc.retrieveResultList(null, id2)).isNotNull();
+		assertEquals(80, mySvc.getTotalWeight());
+		assertEquals(1, mySvc.getEvictionCount());
+	}
+
+	@Test
+	public void testResultLargerThanMaximumWeightIsKept() {
+		String id0 = mySvc.storeResultList(null, newProvider(10));
+		String id1 = mySvc.storeResultList(null, newProvider(500));
+
+		assertNull(mySvc.retrieveResultList(null, id0));
+		assertThat(mySvc.retrieveResultList(null, id1)).isNotNull();
+		assertEquals(1, mySvc.getStoredResultCount());
+		assertEquals(500, mySvc.getTotalWeight());
+	}
+
+	@Test
+	public void testIdleResultsExpire() {
+		String id0 = mySvc.storeResultList(null, newProvider(10));
+		String id1 = mySvc.storeResultList(null, newProvider(10));
+
+		myNow.addAndGet(600);
+		assertThat(mySvc.retrieveResultList(null, id0)).isNotNull();
+		myNow.addAndGet(600);
+
+		assertThat(mySvc.retrieveResultList(null, id0)).isNotNull();
+		assertNull(mySvc.retrieveResultList(null, id1));
+		assertEquals(1, mySvc.getExpiryCount());
+		assertEquals(10, mySvc.getTotalWeight());
+	}
+
+	@Test
+	public void testExpiredResultsAreRemovedWhenStoring() {
+		mySvc.storeResultList(null, newProvider(10));
+		mySvc.storeResultList(null, newProvider(10));
+
+		myNow.addAndGet(2000);
+		mySvc.storeResultList(null, newProvider(10));
+
+		assertEquals(1, mySvc.getStoredResultCount());
+		assertEquals(2, mySvc.getExpiryCount());
+		assertEquals(10, mySvc.getTotalWeight());
+	}
+
+	@Test
+	public void testCustomWeigher() {
+		mySvc.setWeigher(t -> 0);
+
+		for (int i = 0; i < 150; i++) {
+			mySvc.storeResultList(null, newProvider(10));
+		}
+
+		assertEquals(100, mySvc.getStoredResultCount());
+		assertEquals(50, mySvc.getEvictionCount());
+	}
+
+	@Test
+	public void testConcurrentStoreAndRetrieve() throws Exception {
+		mySvc = new BoundedMemoryPagingProvider(1000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 500; j++) {
+						String id = mySvc.storeResultList(null, newProvider(10));
+						mySvc.retrieveResultList(null, id);
+					}
+				}));
+			}
+			for (Future<?> next : futures) {
+				next.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// The total weight must be consistent with the stored results
+		assertEquals(mySvc.getStoredResultCount() * 10L, mySvc.getTotalWeight());
+		assertEquals(4000, mySvc.getHitCount() + mySvc.getMissCount());
+		assertEquals(4000, mySvc.getStoredResultCount() + mySvc.getEvictionCount());
+	}
+
+	private static IBundleProvider newProvider(int theSize) {
+		List<IBaseResource> resources = new ArrayList<>(Collections.nCopies(theSize, null));
+		return new SimpleBundleProvider(resources);
+	}
+}
@@ -1,18 +1,37 @@
 package ca.uhn.fhir.rest.server;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.rest.server.method.BaseMethodBinding;
+import ca.uhn.fhir.rest.server.method.MethodMatchEnum;
 import ca.uhn.fhir.rest.server.method.PageMethodBinding;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
 
 import java.lang.reflect.Method;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 class ResourceBindingTest {
@@ -38,4 +57,90 @@ class ResourceBindingTest {
 		assertEquals(second, list.get(0));
 		assertEquals(first, list.get(1));
 	}
+
+	@Test
+	public void testGetMethod_OnlyCandidatesAreTested() {
+		BaseMethodBinding operation = newMethodBinding(Set.of("$foo"), null, MethodMatchEnum.EXACT);
+		BaseMethodBinding anyOperation = newMethodBinding(null, null, MethodMatchEnum.APPROXIMATE);
+		BaseMethodBinding create = newMethodBinding(Set.of(""), Set.of(RequestTypeEnum.POST), MethodMatchEnum.EXACT);
+		myResourceBinding.addMethod(create);
+		myResourceBinding.addMethod(anyOperation);
+		myResourceBinding.addMethod(operation);
+
+		assertSame(operation, myResourceBinding.getMethod(newRequest(RequestTypeEnum.GET, "$foo")));
+		assertSame(anyOperation, myResourceBinding.getMethod(newRequest(RequestTypeEnum.GET, "$bar")));
+		assertSame(anyOperation, myResourceBinding.getMethod(newRequest(RequestTypeEnum.GET, null)));
+		assertSame(create, myResourceBinding.getMethod(newRequest(RequestTypeEnum.POST, null)));
+
+		verify(operation, times(1)).incomingServerRequestMatchesMethod(any());
+		verify(create, times(1)).incomingServerRequestMatchesMethod(any());
+	}
+
+	@Test
+	public void testGetMethod_IdAndVersion() {
+		BaseMethodBinding read = newMethodBinding(null, null, MethodMatchEnum.EXACT);
+		doReturn(false).when(read).isDispatchCandidate(eq(false), anyBoolean());
+		doReturn(false).when(read).isDispatchCandidate(true, true);
+		myResourceBinding.addMethod(read);
+
+		SystemRequestDetails request = newRequest(RequestTypeEnum.GET, null);
+		assertNull(myResourceBinding.getMethod(request));
+		request.setId(new IdDt("Patient/123"));
+		assertSame(read, myResourceBinding.getMethod(request));
+		request.setId(new IdDt("Patient/123/_history/2"));
+		assertNull(myResourceBinding.getMethod(request));
+
+		verify(read, times(1)).incomingServerRequestMatchesMethod(any());
+	}
+
+	@Test
+	public void testGetMethod_FirstRegisteredMatchWins() {
+		BaseMethodBinding first = newMethodBinding(Set.of("$foo"), null, MethodMatchEnum.EXACT);
+		BaseMethodBinding second = newMethodBinding(null, null, MethodMatchEnum.EXACT);
+		myResourceBinding.addMethod(second);
+		myResourceBinding.addMethod(first);
+
+		assertSame(first, myResourceBinding.getMethod(newRequest(RequestTypeEnum.GET, "$foo")));
+		verify(second, never()).incomingServerRequestMatchesMethod(any());
+	}
+
+	@Test
+	public void testGetMethod_IndexIsUpdatedWhenBindingsChange() {
+		BaseMethodBinding first = newMethodBinding(Set.of("$foo"), null, MethodMatchEnum.EXACT);
+		BaseMethodBinding second = newMethodBinding(Set.of("$foo"), null, MethodMatchEnum.EXACT);
+		myResourceBinding.addMethod(first);
+		SystemRequestDetails request = newRequest(RequestTypeEnum.GET, "$foo");
+		assertSame(first, myResourceBinding.getMethod(request));
+
+		myResourceBinding.addMethod(second);
+		assertSame(second, myResourceBinding.getMethod(request));
+
+		Iterator<BaseMethodBinding> iterator = myResourceBinding.getMethodBindings().iterator();
+		iterator.next();
+		iterator.remove();
+		assertSame(first, myResourceBinding.getMethod(request));
+
+		myResourceBinding.getMethodBindings().clear();
+		myResourceBinding.getMethodBindings().add(second);
+		assertSame(second, myResourceBinding.getMethod(request));
+	}
+
+	private static BaseMethodBinding newMethodBinding(
+			Set<String> theOperations, Set<RequestTypeEnum> theRequestTypes, MethodMatchEnum theMatch) {
+		BaseMethodBinding retVal = mock(
+				BaseMethodBinding.class,
+				withSettings().defaultAnswer(CALLS_REAL_METHODS).strictness(Strictness.LENIENT));
+		doReturn(theOperations).when(retVal).getDispatchOperations();
+		doReturn(theRequestTypes).when(retVal).getDispatchRequestTypes();
+		doReturn(theMatch).when(retVal).incomingServerRequestMatchesMethod(any());
+		doReturn(ResourceBindingTest.class.getMethods()[0]).when(retVal).getMethod();
+		return retVal;
+	}
+
+	private static SystemRequestDetails newRequest(RequestTypeEnum theRequestType, String theOperation) {
+		SystemRequestDetails retVal = new SystemRequestDetails();
+		retVal.setRequestType(theRequestType);
+		retVal.setOperation(theOperation);
+		return retVal;
+	}
 }
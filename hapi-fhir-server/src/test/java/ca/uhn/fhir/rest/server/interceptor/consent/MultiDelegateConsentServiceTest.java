@@ -2,13 +2,21 @@ package ca.uhn.fhir.rest.server.interceptor.consent;
 
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import jakarta.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static ca.uhn.fhir.rest.server.interceptor.consent.MultiDelegateConsentService.withParallelVoting;
 import static ca.uhn.fhir.rest.server.interceptor.consent.MultiDelegateConsentService.withSerialVoting;
@@ -17,6 +25,7 @@ import static ca.uhn.fhir.rest.server.interceptor.consent.IConsentVoteTest.SERIA
 import static ca.uhn.fhir.rest.server.interceptor.consent.IConsentVoteTest.splitEnumsToStream;
 import static org.apache.commons.lang3.StringUtils.defaultString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
 
 class MultiDelegateConsentServiceTest {
 	SystemRequestDetails mySrd = new SystemRequestDetails();
@@ -154,6 +163,64 @@ class MultiDelegateConsentServiceTest {
 		}
 	}
 
+	/**
+	 * The batch path must give the same outcomes as evaluating each resource on its own, and must
+	 * call the delegates for the same resources.
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	void testBatchMatchesSingleResourceEvaluation(boolean theSerial) {
+		// given - one resource per row of the vote table, with each delegate voting per resource
+		List<ConsentOperationStatusEnum[]> rows = SERIAL_STREAM_EXPECTATION.lines()
+			.filter(StringUtils::isNotBlank)
+			.map(t -> splitEnumsToStream(t.split(",")[0].strip()).toArray(ConsentOperationStatusEnum[]::new))
+			.toList();
+		List<IBaseResource> resources = new ArrayList<>();
+		Map<IBaseResource, ConsentOperationStatusEnum[]> votes = new IdentityHashMap<>();
+		for (ConsentOperationStatusEnum[] next : rows) {
+			IBaseResource resource = mock(IBaseResource.class);
+			resources.add(resource);
+			votes.put(resource, next);
+		}
+		List<AtomicInteger> callCounts = new ArrayList<>();
+		List<IConsentService> delegates = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			delegates.add(buildPerResourceConsentService(votes, i, callCounts));
+		}
+		MultiDelegateConsentService service = theSerial ? withSerialVoting(delegates) : withParallelVoting(delegates);
+
+		// when
+		List<ConsentOutcome> singleOutcomes = resources.stream()
+			.map(t -> service.canSeeResource(mySrd, t, IConsentContextServices.NULL_IMPL))
+			.toList();
+		List<Integer> singleCallCounts = callCounts.stream().map(t -> t.getAndSet(0)).toList();
+		List<ConsentOutcome> batchCanSeeOutcomes = service.canSeeResources(mySrd, resources, IConsentContextServices.NULL_IMPL, MoreExecutors.directExecutor());
+		List<Integer> batchCallCounts = callCounts.stream().map(t -> t.getAndSet(0)).toList();
+		List<ConsentOutcome> batchWillSeeOutcomes = service.willSeeResources(mySrd, resources, IConsentContextServices.NULL_IMPL, MoreExecutors.directExecutor());
+
+		// then
+		assertEquals(singleOutcomes.stream().map(ConsentOutcome::getStatus).toList(), batchCanSeeOutcomes.stream().map(ConsentOutcome::getStatus).toList());
+		assertEquals(singleOutcomes.stream().map(ConsentOutcome::getStatus).toList(), batchWillSeeOutcomes.stream().map(ConsentOutcome::getStatus).toList());
+		assertEquals(singleCallCounts, batchCallCounts);
+	}
+
+	private static @Nonnull IConsentService buildPerResourceConsentService(Map<IBaseResource, ConsentOperationStatusEnum[]> theVotes, int theDelegateIndex, List<AtomicInteger> theCallCounts) {
+		AtomicInteger callCount = new AtomicInteger();
+		theCallCounts.add(callCount);
+		return new IConsentService() {
+			@Override
+			public ConsentOutcome canSeeResource(RequestDetails theRequestDetails, IBaseResource theResource, IConsentContextServices theContextServices) {
+				callCount.incrementAndGet();
+				return new ConsentOutcome(theVotes.get(theResource)[theDelegateIndex]);
+			}
+
+			@Override
+			public ConsentOutcome willSeeResource(RequestDetails theRequestDetails, IBaseResource theResource, IConsentContextServices theContextServices) {
+				return canSeeResource(theRequestDetails, theResource, theContextServices);
+			}
+		};
+	}
+
 	private static @Nonnull IConsentService buildConsentShouldProcessCanSee(boolean result) {
 		return new IConsentService() {
 			@Override
@@ -5,14 +5,24 @@ import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.auth.IRuleApplier;
 import ca.uhn.fhir.rest.server.interceptor.auth.PolicyEnum;
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -52,4 +62,38 @@ class RuleFilteringConsentServiceTest {
 
 		assertEquals(ConsentOperationStatusEnum.REJECT, consentDecision.getStatus());
 	}
+
+	@Test
+	void batchUsesExecutorAndKeepsOrder() {
+		List<IBaseResource> resources = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			resources.add(mock(IBaseResource.class));
+		}
+		Set<IBaseResource> denied = Set.of(resources.get(0), resources.get(3), resources.get(7));
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		when(myRuleApplier.applyRulesAndReturnDecision(any(), any(), any(), any(), any(), any()))
+			.thenAnswer(t -> {
+				threadNames.add(Thread.currentThread().getName());
+				PolicyEnum decision = denied.contains(t.getArgument(4, IBaseResource.class)) ? PolicyEnum.DENY : PolicyEnum.ALLOW;
+				return new AuthorizationInterceptor.Verdict(decision, null);
+			});
+		ExecutorService executor = Executors.newFixedThreadPool(4, r -> new Thread(r, "consent-executor"));
+
+		List<ConsentOutcome> outcomes;
+		try {
+			outcomes = myRuleFilteringConsentService.canSeeResources(myRequestDetails, resources, null, executor);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(outcomes).hasSize(10);
+		for (int i = 0; i < 10; i++) {
+			ConsentOperationStatusEnum expected = denied.contains(resources.get(i)) ? ConsentOperationStatusEnum.REJECT : ConsentOperationStatusEnum.PROCEED;
+			assertEquals(expected, outcomes.get(i).getStatus(), "Resource " + i);
+		}
+		// The first resource is always checked on the calling thread
+		assertThat(threadNames).hasSize(10);
+		assertThat(threadNames).containsOnlyOnce(Thread.currentThread().getName());
+		assertThat(threadNames).contains("consent-executor");
+	}
 }
@@ -0,0 +1,51 @@
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HistogramServerMetricsRegistryTest {
+
+	@Test
+	public void testRecordTiming() {
+		HistogramServerMetricsRegistry registry = new HistogramServerMetricsRegistry();
+		ServerMetricsKey key = newKey("Patient", "TENANT-A");
+
+		registry.recordTiming(key, ServerMetricsPhaseEnum.TOTAL, TimeUnit.MILLISECONDS.toNanos(5));
+		registry.recordTiming(key, ServerMetricsPhaseEnum.TOTAL, TimeUnit.MILLISECONDS.toNanos(7));
+
+		assertEquals(2, registry.getHistogram(key, ServerMetricsPhaseEnum.TOTAL).getCount());
+		assertEquals(0, registry.getHistogram(key, ServerMetricsPhaseEnum.HANDLER).getCount());
+		assertNull(registry.getHistogram(newKey("Observation", "TENANT-A"), ServerMetricsPhaseEnum.TOTAL));
+	}
+
+	@Test
+	public void testKeysBeyondMaximumAreFoldedIntoOverflowKey() {
+		HistogramServerMetricsRegistry registry = new HistogramServerMetricsRegistry(10);
+
+		for (int i = 0; i < 100; i++) {
+			registry.recordTiming(newKey("Patient", "TENANT-" + i), ServerMetricsPhaseEnum.TOTAL, 1000);
+		}
+
+		// The first keys are kept, and all later ones share one overflow key
+		assertThat(registry.getHistograms()).hasSize(11);
+		assertEquals(1, registry.getHistogram(newKey("Patient", "TENANT-9"), ServerMetricsPhaseEnum.TOTAL).getCount());
+		assertNull(registry.getHistogram(newKey("Patient", "TENANT-10"), ServerMetricsPhaseEnum.TOTAL));
+		ServerMetricsKey overflowKey = newKey(ServerMetricsKey.OVERFLOW, ServerMetricsKey.OVERFLOW);
+		assertEquals(90, registry.getHistogram(overflowKey, ServerMetricsPhaseEnum.TOTAL).getCount());
+
+		// Keys which already exist keep being recorded
+		registry.recordTiming(newKey("Patient", "TENANT-0"), ServerMetricsPhaseEnum.TOTAL, 1000);
+		assertEquals(2, registry.getHistogram(newKey("Patient", "TENANT-0"), ServerMetricsPhaseEnum.TOTAL).getCount());
+	}
+
+	private static ServerMetricsKey newKey(String theResourceType, String theTenantId) {
+		return new ServerMetricsKey(
+			RestOperationTypeEnum.READ, theResourceType, theTenantId, ServerMetricsKey.OutcomeEnum.SUCCESS);
+	}
+}
@@ -0,0 +1,113 @@
+package ca.uhn.fhir.rest.server.interceptor.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMaxMicros());
+		assertEquals(0.0, histogram.getMeanMicros());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+	}
+
+	@Test
+	public void testSmallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 50; i++) {
+			histogram.recordValue(i);
+		}
+
+		assertEquals(50, histogram.getCount());
+		assertEquals(1275, histogram.getTotalMicros());
+		assertEquals(25.5, histogram.getMeanMicros());
+		assertEquals(50, histogram.getMaxMicros());
+		assertEquals(25, histogram.getValueAtPercentile(50));
+		assertEquals(45, histogram.getValueAtPercentile(90));
+		assertEquals(50, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testPercentilesWithinRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100_000; i++) {
+			histogram.recordValue(i);
+		}
+
+		for (double percentile : new double[] {50, 90, 99, 99.9}) {
+			long expected = (long) (percentile * 1000);
+			long actual = histogram.getValueAtPercentile(percentile);
+			assertThat(actual).isBetween(expected, (long) (expected * 1.04));
+		}
+		assertEquals(100_000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void testBucketBoundaries() {
+		long previousHighest = -1;
+		for (int i = 0; i < LatencyHistogram.indexFor(LatencyHistogram.MAX_TRACKABLE_MICROS); i++) {
+			long highest = LatencyHistogram.highestValueInBucket(i);
+			assertEquals(i, LatencyHistogram.indexFor(highest));
+			assertEquals(i + 1, LatencyHistogram.indexFor(highest + 1));
+			assertThat(highest).isGreaterThan(previousHighest);
+			previousHighest = highest;
+		}
+	}
+
+	@Test
+	public void testValuesAboveMaximumAreClamped() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.recordValue(Long.MAX_VALUE);
+		histogram.recordValue(-5);
+
+		assertEquals(2, histogram.getCount());
+		assertEquals(Long.MAX_VALUE, histogram.getMaxMicros());
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		assertThat(histogram.getValueAtPercentile(100)).isGreaterThanOrEqualTo(LatencyHistogram.MAX_TRACKABLE_MICROS);
+	}
+
+	@Test
+	public void testInvalidPercentile() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(() -> {
+					for (int j = 1; j <= 10_000; j++) {
+						histogram.recordValue(j);
+					}
+				}));
+			}
+			for (Future<?> next : futures) {
+				next.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(80_000, histogram.getCount());
+		assertEquals(8 * 50_005_000L, histogram.getTotalMicros());
+		assertEquals(10_000, histogram.getMaxMicros());
+	}
+}
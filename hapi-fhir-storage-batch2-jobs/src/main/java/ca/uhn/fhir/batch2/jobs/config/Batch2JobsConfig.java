@@ -23,6 +23,7 @@ import ca.uhn.fhir.batch2.jobs.export.BulkExportAppCtx;
 import ca.uhn.fhir.batch2.jobs.expunge.DeleteExpungeAppCtx;
 import ca.uhn.fhir.batch2.jobs.importpull.BulkImportPullConfig;
 import ca.uhn.fhir.batch2.jobs.imprt.BulkImportAppCtx;
+import ca.uhn.fhir.batch2.jobs.recompress.RecompressResourceHistoryAppCtx;
 import ca.uhn.fhir.batch2.jobs.reindex.ReindexAppCtx;
 import ca.uhn.fhir.batch2.jobs.termcodesystem.TermCodeSystemJobConfig;
 import org.springframework.context.annotation.Configuration;
@@ -37,6 +38,7 @@ import org.springframework.context.annotation.Import;
 	DeleteExpungeAppCtx.class,
 	BulkExportAppCtx.class,
 	TermCodeSystemJobConfig.class,
-	BulkImportPullConfig.class
+	BulkImportPullConfig.class,
+	RecompressResourceHistoryAppCtx.class
 })
 public class Batch2JobsConfig {}
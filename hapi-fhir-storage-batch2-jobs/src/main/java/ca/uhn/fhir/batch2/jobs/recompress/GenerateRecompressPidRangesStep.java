@@ -0,0 +1,110 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.recompress;
+
+import ca.uhn.fhir.batch2.api.IFirstJobStepWorker;
+import ca.uhn.fhir.batch2.api.IJobDataSink;
+import ca.uhn.fhir.batch2.api.JobExecutionFailedException;
+import ca.uhn.fhir.batch2.api.RunOutcome;
+import ca.uhn.fhir.batch2.api.StepExecutionDetails;
+import ca.uhn.fhir.batch2.api.VoidModel;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.api.svc.IResourceHistoryRecompressionSvc;
+import ca.uhn.fhir.jpa.dao.compression.IResourceCompressionDictionarySvc;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionDictionary;
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optionally trains a new compression dictionary for each resource type, and then
+ * splits the resource history table into ranges of history PIDs to recompress.
+ * Dictionaries are trained before any range is emitted so that every range is
+ * rewritten using the new dictionaries.
+ */
+public class GenerateRecompressPidRangesStep
+		implements IFirstJobStepWorker<RecompressResourceHistoryJobParameters, RecompressPidRangeJson> {
+	private static final Logger ourLog = LoggerFactory.getLogger(GenerateRecompressPidRangesStep.class);
+
+	private final FhirContext myFhirContext;
+	private final IResourceHistoryRecompressionSvc myRecompressionSvc;
+	private final IResourceCompressionDictionarySvc myCompressionDictionarySvc;
+
+	public GenerateRecompressPidRangesStep(
+			FhirContext theFhirContext,
+			IResourceHistoryRecompressionSvc theRecompressionSvc,
+			IResourceCompressionDictionarySvc theCompressionDictionarySvc) {
+		myFhirContext = theFhirContext;
+		myRecompressionSvc = theRecompressionSvc;
+		myCompressionDictionarySvc = theCompressionDictionarySvc;
+	}
+
+	@Nonnull
+	@Override
+	public RunOutcome run(
+			@Nonnull StepExecutionDetails<RecompressResourceHistoryJobParameters, VoidModel> theStepExecutionDetails,
+			@Nonnull IJobDataSink<RecompressPidRangeJson> theDataSink)
+			throws JobExecutionFailedException {
+		RecompressResourceHistoryJobParameters parameters = theStepExecutionDetails.getParameters();
+
+		if (parameters.isTrainDictionaries()) {
+			List<String> resourceTypes = parameters.getResourceTypes();
+			if (resourceTypes.isEmpty()) {
+				resourceTypes = new ArrayList<>(myFhirContext.getResourceTypes());
+			}
+			for (String next : resourceTypes) {
+				ResourceCompressionDictionary dictionary = myCompressionDictionarySvc.trainDictionary(
+						next,
+						parameters.getTargetEncoding(),
+						parameters.getDictionarySampleCount(),
+						parameters.getDictionaryMaxSize());
+				if (dictionary != null) {
+					ourLog.info("Trained compression dictionary {}", dictionary);
+				}
+			}
+		}
+
+		Long minPid = myRecompressionSvc.getMinHistoryPid();
+		Long maxPid = myRecompressionSvc.getMaxHistoryPid();
+		if (minPid == null || maxPid == null) {
+			ourLog.info("No resource history found, nothing to recompress");
+			return RunOutcome.SUCCESS;
+		}
+
+		int rangeSize = parameters.getPidRangeSize();
+		int chunkCount = 0;
+		for (long start = minPid; start <= maxPid; start += rangeSize) {
+			long end = Math.min(start + rangeSize - 1, maxPid);
+			theDataSink.accept(new RecompressPidRangeJson(start, end));
+			chunkCount++;
+		}
+
+		ourLog.info(
+				"Submitted {} chunks to recompress history PIDs {} to {} using {}",
+				chunkCount,
+				minPid,
+				maxPid,
+				parameters.getTargetEncoding());
+		return RunOutcome.SUCCESS;
+	}
+}
@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.recompress;
+
+import ca.uhn.fhir.batch2.api.IJobDataSink;
+import ca.uhn.fhir.batch2.api.ILastJobStepWorker;
+import ca.uhn.fhir.batch2.api.JobExecutionFailedException;
+import ca.uhn.fhir.batch2.api.RunOutcome;
+import ca.uhn.fhir.batch2.api.StepExecutionDetails;
+import ca.uhn.fhir.batch2.api.VoidModel;
+import ca.uhn.fhir.jpa.api.svc.IResourceHistoryRecompressionSvc;
+import jakarta.annotation.Nonnull;
+
+public class RecompressPidRangeStep
+		implements ILastJobStepWorker<RecompressResourceHistoryJobParameters, RecompressPidRangeJson> {
+
+	private final IResourceHistoryRecompressionSvc myRecompressionSvc;
+
+	public RecompressPidRangeStep(IResourceHistoryRecompressionSvc theRecompressionSvc) {
+		myRecompressionSvc = theRecompressionSvc;
+	}
+
+	@Nonnull
+	@Override
+	public RunOutcome run(
+			@Nonnull
+					StepExecutionDetails<RecompressResourceHistoryJobParameters, RecompressPidRangeJson>
+							theStepExecutionDetails,
+			@Nonnull IJobDataSink<VoidModel> theDataSink)
+			throws JobExecutionFailedException {
+		RecompressResourceHistoryJobParameters parameters = theStepExecutionDetails.getParameters();
+		RecompressPidRangeJson range = theStepExecutionDetails.getData();
+
+		int count = myRecompressionSvc.recompressHistoryPidRange(
+				range.getStartPid(),
+				range.getEndPid(),
+				parameters.getResourceTypes(),
+				parameters.getTargetEncoding());
+
+		return new RunOutcome(count);
+	}
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.recompress;
+
+import ca.uhn.fhir.batch2.model.JobDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.api.svc.IResourceHistoryRecompressionSvc;
+import ca.uhn.fhir.jpa.dao.compression.IResourceCompressionDictionarySvc;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionCodecRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RecompressResourceHistoryAppCtx {
+
+	public static final String JOB_RECOMPRESS_RESOURCE_HISTORY = "RECOMPRESS_RESOURCE_HISTORY";
+
+	@Bean
+	public JobDefinition<RecompressResourceHistoryJobParameters> recompressResourceHistoryJobDefinition(
+			FhirContext theFhirContext,
+			ResourceCompressionCodecRegistry theCodecRegistry,
+			IResourceHistoryRecompressionSvc theRecompressionSvc,
+			IResourceCompressionDictionarySvc theCompressionDictionarySvc) {
+		return JobDefinition.newBuilder()
+				.setJobDefinitionId(JOB_RECOMPRESS_RESOURCE_HISTORY)
+				.setJobDescription("Recompress stored resource history")
+				.setJobDefinitionVersion(1)
+				.setParametersType(RecompressResourceHistoryJobParameters.class)
+				.setParametersValidator(
+						recompressResourceHistoryJobParametersValidator(theFhirContext, theCodecRegistry))
+				.gatedExecution()
+				.addFirstStep(
+						"generate-ranges",
+						"Train compression dictionaries and generate history PID ranges to recompress",
+						RecompressPidRangeJson.class,
+						generateRecompressPidRangesStep(
+								theFhirContext, theRecompressionSvc, theCompressionDictionarySvc))
+				.addLastStep(
+						"recompress",
+						"Recompress the resource history in a PID range",
+						recompressPidRangeStep(theRecompressionSvc))
+				.build();
+	}
+
+	@Bean
+	public RecompressResourceHistoryJobParametersValidator recompressResourceHistoryJobParametersValidator(
+			FhirContext theFhirContext, ResourceCompressionCodecRegistry theCodecRegistry) {
+		return new RecompressResourceHistoryJobParametersValidator(theFhirContext, theCodecRegistry);
+	}
+
+	@Bean
+	public GenerateRecompressPidRangesStep generateRecompressPidRangesStep(
+			FhirContext theFhirContext,
+			IResourceHistoryRecompressionSvc theRecompressionSvc,
+			IResourceCompressionDictionarySvc theCompressionDictionarySvc) {
+		return new GenerateRecompressPidRangesStep(theFhirContext, theRecompressionSvc, theCompressionDictionarySvc);
+	}
+
+	@Bean
+	public RecompressPidRangeStep recompressPidRangeStep(IResourceHistoryRecompressionSvc theRecompressionSvc) {
+		return new RecompressPidRangeStep(theRecompressionSvc);
+	}
+}
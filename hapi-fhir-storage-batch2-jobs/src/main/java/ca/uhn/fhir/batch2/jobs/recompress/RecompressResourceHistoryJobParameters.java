@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.recompress;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.model.api.IModelJson;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecompressResourceHistoryJobParameters implements IModelJson {
+
+	public static final int DEFAULT_DICTIONARY_SAMPLE_COUNT = 1000;
+	public static final int DEFAULT_DICTIONARY_MAX_SIZE = 112640;
+	public static final int DEFAULT_PID_RANGE_SIZE = 1000;
+
+	/**
+	 * The encoding to rewrite stored resource bodies with
+	 */
+	@JsonProperty("targetEncoding")
+	private ResourceEncodingEnum myTargetEncoding;
+
+	/**
+	 * If not empty, only history for these resource types is rewritten
+	 */
+	@JsonProperty("resourceTypes")
+	private List<String> myResourceTypes;
+
+	/**
+	 * If true, a new compression dictionary is trained for each resource type before
+	 * any history is rewritten
+	 */
+	@JsonProperty("trainDictionaries")
+	private boolean myTrainDictionaries;
+
+	@JsonProperty("dictionarySampleCount")
+	private int myDictionarySampleCount = DEFAULT_DICTIONARY_SAMPLE_COUNT;
+
+	@JsonProperty("dictionaryMaxSize")
+	private int myDictionaryMaxSize = DEFAULT_DICTIONARY_MAX_SIZE;
+
+	/**
+	 * The number of history PIDs processed in each work chunk
+	 */
+	@JsonProperty("pidRangeSize")
+	private int myPidRangeSize = DEFAULT_PID_RANGE_SIZE;
+
+	public ResourceEncodingEnum getTargetEncoding() {
+		return myTargetEncoding;
+	}
+
+	public RecompressResourceHistoryJobParameters setTargetEncoding(ResourceEncodingEnum theTargetEncoding) {
+		myTargetEncoding = theTargetEncoding;
+		return this;
+	}
+
+	public List<String> getResourceTypes() {
+		if (myResourceTypes == null) {
+			myResourceTypes = new ArrayList<>();
+		}
+		return myResourceTypes;
+	}
+
+	public RecompressResourceHistoryJobParameters addResourceType(String theResourceType) {
+		getResourceTypes().add(theResourceType);
+		return this;
+	}
+
+	public boolean isTrainDictionaries() {
+		return myTrainDictionaries;
+	}
+
+	public RecompressResourceHistoryJobParameters setTrainDictionaries(boolean theTrainDictionaries) {
+		myTrainDictionaries = theTrainDictionaries;
+		return this;
+	}
+
+	public int getDictionarySampleCount() {
+		return myDictionarySampleCount;
+	}
+
+	public RecompressResourceHistoryJobParameters setDictionarySampleCount(int theDictionarySampleCount) {
+		myDictionarySampleCount = theDictionarySampleCount;
+		return this;
+	}
+
+	public int getDictionaryMaxSize() {
+		return myDictionaryMaxSize;
+	}
+
+	public RecompressResourceHistoryJobParameters setDictionaryMaxSize(int theDictionaryMaxSize) {
+		myDictionaryMaxSize = theDictionaryMaxSize;
+		return this;
+	}
+
+	public int getPidRangeSize() {
+		return myPidRangeSize;
+	}
+
+	public RecompressResourceHistoryJobParameters setPidRangeSize(int thePidRangeSize) {
+		myPidRangeSize = thePidRangeSize;
+		return this;
+	}
+}
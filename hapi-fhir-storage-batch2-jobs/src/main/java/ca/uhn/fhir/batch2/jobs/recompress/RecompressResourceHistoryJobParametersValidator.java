@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * hapi-fhir-storage-batch2-jobs
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.batch2.jobs.recompress;
+
+import ca.uhn.fhir.batch2.api.IJobParametersValidator;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.dao.compression.IResourceCompressionDictionarySvc;
+import ca.uhn.fhir.jpa.dao.compression.ResourceCompressionCodecRegistry;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecompressResourceHistoryJobParametersValidator
+		implements IJobParametersValidator<RecompressResourceHistoryJobParameters> {
+
+	private final FhirContext myFhirContext;
+	private final ResourceCompressionCodecRegistry myCodecRegistry;
+
+	public RecompressResourceHistoryJobParametersValidator(
+			FhirContext theFhirContext, ResourceCompressionCodecRegistry theCodecRegistry) {
+		myFhirContext = theFhirContext;
+		myCodecRegistry = theCodecRegistry;
+	}
+
+	@Nullable
+	@Override
+	public List<String> validate(
+			RequestDetails theRequestDetails, @Nonnull RecompressResourceHistoryJobParameters theParameters) {
+		List<String> errors = new ArrayList<>();
+
+		ResourceEncodingEnum targetEncoding = theParameters.getTargetEncoding();
+		if (targetEncoding == null) {
+			errors.add("A target encoding must be specified");
+		} else if (targetEncoding != ResourceEncodingEnum.JSON && !targetEncoding.isCompressed()) {
+			errors.add("Can not recompress resource history using encoding " + targetEncoding);
+		} else if (targetEncoding.isCompressed() && !myCodecRegistry.hasCodec(targetEncoding)) {
+			errors.add("No compression codec is registered for encoding " + targetEncoding);
+		} else if (theParameters.isTrainDictionaries()
+				&& (!targetEncoding.isCompressed()
+						|| !myCodecRegistry.getCodec(targetEncoding).isDictionarySupported())) {
+			errors.add("Encoding " + targetEncoding + " does not support compression dictionaries");
+		}
+
+		if (theParameters.isTrainDictionaries()) {
+			if (theParameters.getDictionarySampleCount() < IResourceCompressionDictionarySvc.MINIMUM_SAMPLE_COUNT) {
+				errors.add("The dictionary sample count must be at least "
+						+ IResourceCompressionDictionarySvc.MINIMUM_SAMPLE_COUNT);
+			}
+			if (theParameters.getDictionaryMaxSize() <= 0) {
+				errors.add("The maximum dictionary size must be greater than 0");
+			}
+		}
+
+		for (String next : theParameters.getResourceTypes()) {
+			if (!myFhirContext.getResourceTypes().contains(next)) {
+				errors.add("Invalid resource type: " + next);
+			}
+		}
+
+		if (theParameters.getPidRangeSize() <= 0) {
+			errors.add("The PID range size must be greater than 0");
+		}
+
+		return errors;
+	}
+}
@@ -438,6 +438,11 @@ public class JpaStorageSettings extends StorageSettings {
 	 */
 	private boolean myWriteToSearchParamIdentityTable = true;
 
+	/**
+	 * @since 8.4.0
+	 */
+	private boolean mySummaryOnlyParsingEnabled = false;
+
 	/**
 	 * Constructor
 	 */
@@ -1092,10 +1097,38 @@ public class JpaStorageSettings extends StorageSettings {
 		myExpungeThreadCount = Math.max(myExpungeThreadCount, 1); // Minimum of 1
 	}
 
+	/**
+	 * The encoding used when storing resource bodies in binary form (which is currently only
+	 * done on Oracle - other databases store the body as inline JSON text).
+	 * <p>
+	 * Any encoding with a registered codec may be used here, e.g. {@link ResourceEncodingEnum#JSONC} (GZip),
+	 * {@link ResourceEncodingEnum#JZSTD} (Zstandard) or {@link ResourceEncodingEnum#JLZ4} (LZ4). Changing this
+	 * setting only affects newly written versions, since rows are always read using the encoding they were
+	 * written with. Existing history can be rewritten using the
+	 * <code>RECOMPRESS_RESOURCE_HISTORY</code> batch job.
+	 * </p>
+	 * <p>
+	 * The default value for this setting is {@link ResourceEncodingEnum#JSONC}
+	 * </p>
+	 */
 	public ResourceEncodingEnum getResourceEncoding() {
 		return myResourceEncoding;
 	}
 
+	/**
+	 * The encoding used when storing resource bodies in binary form (which is currently only
+	 * done on Oracle - other databases store the body as inline JSON text).
+	 * <p>
+	 * Any encoding with a registered codec may be used here, e.g. {@link ResourceEncodingEnum#JSONC} (GZip),
+	 * {@link ResourceEncodingEnum#JZSTD} (Zstandard) or {@link ResourceEncodingEnum#JLZ4} (LZ4). Changing this
+	 * setting only affects newly written versions, since rows are always read using the encoding they were
+	 * written with. Existing history can be rewritten using the
+	 * <code>RECOMPRESS_RESOURCE_HISTORY</code> batch job.
+	 * </p>
+	 * <p>
+	 * The default value for this setting is {@link ResourceEncodingEnum#JSONC}
+	 * </p>
+	 */
 	public void setResourceEncoding(ResourceEncodingEnum theResourceEncoding) {
 		myResourceEncoding = theResourceEncoding;
 	}
@@ -2756,6 +2789,36 @@ public class JpaStorageSettings extends StorageSettings {
 		myWriteToSearchParamIdentityTable = theWriteToSearchParamIdentityTable;
 	}
 
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), search results which
+	 * are being returned for a request with <code>_summary=true</code> will only have their
+	 * summary elements parsed when they are loaded from the database, and results for a request
+	 * with an <code>_elements</code> parameter will only have the requested elements (plus
+	 * <code>id</code> and <code>meta</code>) parsed. Skipping the other elements
+	 * makes loading large pages of results considerably cheaper, but interceptors which inspect
+	 * the loaded resources (e.g. consent rules) will only see the summary elements.
+	 *
+	 * @since 8.4.0
+	 */
+	public boolean isSummaryOnlyParsingEnabled() {
+		return mySummaryOnlyParsingEnabled;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), search results which
+	 * are being returned for a request with <code>_summary=true</code> will only have their
+	 * summary elements parsed when they are loaded from the database, and results for a request
+	 * with an <code>_elements</code> parameter will only have the requested elements (plus
+	 * <code>id</code> and <code>meta</code>) parsed. Skipping the other elements
+	 * makes loading large pages of results considerably cheaper, but interceptors which inspect
+	 * the loaded resources (e.g. consent rules) will only see the summary elements.
+	 *
+	 * @since 8.4.0
+	 */
+	public void setSummaryOnlyParsingEnabled(boolean theSummaryOnlyParsingEnabled) {
+		mySummaryOnlyParsingEnabled = theSummaryOnlyParsingEnabled;
+	}
+
 	public enum StoreMetaSourceInformationEnum {
 		NONE(false, false),
 		SOURCE_URI(true, false),
@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.api.svc;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Rewrites stored resource history bodies using a different compression encoding. This
+ * is used by the <code>RECOMPRESS_RESOURCE_HISTORY</code> batch job, which works through
+ * the history table in ranges of history PIDs.
+ */
+public interface IResourceHistoryRecompressionSvc {
+
+	/**
+	 * Returns the lowest history PID, or <code>null</code> if there is no resource history
+	 */
+	@Nullable
+	Long getMinHistoryPid();
+
+	/**
+	 * Returns the highest history PID, or <code>null</code> if there is no resource history
+	 */
+	@Nullable
+	Long getMaxHistoryPid();
+
+	/**
+	 * Rewrites every binary resource body with a history PID in the given range which is not already
+	 * stored using the target encoding (and, if the target encoding supports dictionaries, the currently
+	 * active dictionary for its resource type). Rows stored as inline text, deleted rows, and externally
+	 * stored resources are left untouched.
+	 *
+	 * @param theStartPidInclusive The first history PID in the range
+	 * @param theEndPidInclusive   The last history PID in the range
+	 * @param theResourceTypes     If not empty, only rows for these resource types are rewritten
+	 * @param theTargetEncoding    The encoding to rewrite rows with
+	 * @return The number of rows which were rewritten
+	 */
+	int recompressHistoryPidRange(
+			long theStartPidInclusive,
+			long theEndPidInclusive,
+			@Nullable List<String> theResourceTypes,
+			@Nonnull ResourceEncodingEnum theTargetEncoding);
+}
@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.dao.GZipUtil;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.parser.DataFormatException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codec for {@link ResourceEncodingEnum#JSONC}. This produces exactly the same bytes as
+ * {@link GZipUtil}, which is what has historically been used for this encoding.
+ */
+public class GZipResourceCompressionCodec implements IResourceCompressionCodec {
+
+	@Nonnull
+	@Override
+	public ResourceEncodingEnum getEncoding() {
+		return ResourceEncodingEnum.JSONC;
+	}
+
+	@Nonnull
+	@Override
+	public byte[] compress(@Nonnull byte[] theUncompressed, @Nullable ResourceCompressionDictionary theDictionary) {
+		try {
+			ByteArrayOutputStream os = new ByteArrayOutputStream(theUncompressed.length / 4 + 64);
+			try (GZIPOutputStream gos = new GZIPOutputStream(os)) {
+				gos.write(theUncompressed);
+			}
+			return os.toByteArray();
+		} catch (IOException e) {
+			throw new DataFormatException(Msg.code(2799) + "Failed to compress contents", e);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public byte[] decompress(@Nonnull byte[] theCompressed, @Nullable ResourceCompressionDictionary theDictionary) {
+		try (GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(theCompressed))) {
+			return IOUtils.toByteArray(is);
+		} catch (IOException e) {
+			throw new DataFormatException(Msg.code(2800) + "Failed to decompress contents", e);
+		}
+	}
+}
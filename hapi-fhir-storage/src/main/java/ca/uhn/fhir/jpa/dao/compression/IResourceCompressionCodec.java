@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * A codec which compresses and decompresses stored resource bodies for a single
+ * {@link ResourceEncodingEnum}. Codecs are looked up by encoding in the
+ * {@link ResourceCompressionCodecRegistry}, so every encoding stored in the
+ * database must have a registered codec in order for it to be read.
+ * <p>
+ * Implementations must be thread safe.
+ * </p>
+ */
+public interface IResourceCompressionCodec {
+
+	/**
+	 * The encoding which identifies this codec in the <code>RES_ENCODING</code> column
+	 */
+	@Nonnull
+	ResourceEncodingEnum getEncoding();
+
+	/**
+	 * Compresses a UTF-8 encoded resource body
+	 *
+	 * @param theUncompressed The resource body
+	 * @param theDictionary   A trained dictionary, or <code>null</code>. Must be <code>null</code> if
+	 *                        {@link #isDictionarySupported()} returns <code>false</code>.
+	 */
+	@Nonnull
+	byte[] compress(@Nonnull byte[] theUncompressed, @Nullable ResourceCompressionDictionary theDictionary);
+
+	/**
+	 * Decompresses a resource body previously produced by {@link #compress(byte[], ResourceCompressionDictionary)}
+	 *
+	 * @param theCompressed The compressed resource body
+	 * @param theDictionary The dictionary which was used to compress the body, or <code>null</code> if none was used
+	 * @return The UTF-8 encoded resource body
+	 */
+	@Nonnull
+	byte[] decompress(@Nonnull byte[] theCompressed, @Nullable ResourceCompressionDictionary theDictionary);
+
+	/**
+	 * Does this codec support compressing with a trained dictionary?
+	 */
+	default boolean isDictionarySupported() {
+		return false;
+	}
+
+	/**
+	 * Trains a dictionary from a collection of sample resource bodies. Only called if
+	 * {@link #isDictionarySupported()} returns <code>true</code>.
+	 *
+	 * @param theSamples           UTF-8 encoded resource bodies, ideally all of a single resource type
+	 * @param theMaxDictionarySize The maximum size of the resulting dictionary, in bytes
+	 * @return The raw dictionary bytes
+	 */
+	@Nonnull
+	default byte[] trainDictionary(@Nonnull List<byte[]> theSamples, int theMaxDictionarySize) {
+		throw new UnsupportedOperationException(
+				Msg.code(2798) + "Codec for encoding " + getEncoding() + " does not support dictionaries");
+	}
+}
@@ -0,0 +1,77 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Stores, trains and caches the per-resource-type dictionaries used by
+ * {@link IResourceCompressionCodec codecs} which support them.
+ */
+public interface IResourceCompressionDictionarySvc {
+
+	/**
+	 * Training a dictionary from fewer samples than this produces a dictionary which
+	 * is not worth the cost of storing and loading it
+	 */
+	int MINIMUM_SAMPLE_COUNT = 10;
+
+	/**
+	 * Returns the dictionary which should be used to compress newly written resource bodies
+	 * of the given type, which is the most recently trained one. Returns <code>null</code> if
+	 * no dictionary has been trained for the given type and encoding.
+	 * <p>
+	 * This is called on every write, so implementations are expected to cache the result.
+	 * </p>
+	 */
+	@Nullable
+	ResourceCompressionDictionary getActiveDictionary(
+			@Nonnull String theResourceType, @Nonnull ResourceEncodingEnum theEncoding);
+
+	/**
+	 * Returns the dictionary with the given ID. This is called for every read of a resource
+	 * body compressed using a dictionary, so implementations are expected to cache the result.
+	 *
+	 * @throws ca.uhn.fhir.rest.server.exceptions.InternalErrorException If no dictionary exists with the given ID
+	 */
+	@Nonnull
+	ResourceCompressionDictionary getDictionary(long theDictionaryId);
+
+	/**
+	 * Trains a new dictionary from a sample of the most recently written versions of the
+	 * given resource type, stores it, and makes it the active dictionary for that type.
+	 * Existing dictionaries are kept so that resource bodies compressed with them remain readable.
+	 *
+	 * @param theResourceType      The resource type
+	 * @param theEncoding          The encoding, which must have a codec that supports dictionaries
+	 * @param theSampleCount       The maximum number of resource bodies to sample, which must be at
+	 *                             least {@link #MINIMUM_SAMPLE_COUNT}
+	 * @param theMaxDictionarySize The maximum dictionary size, in bytes
+	 * @return The new dictionary, or <code>null</code> if there were not enough resources of the given type to train one
+	 */
+	@Nullable
+	ResourceCompressionDictionary trainDictionary(
+			@Nonnull String theResourceType,
+			@Nonnull ResourceEncodingEnum theEncoding,
+			int theSampleCount,
+			int theMaxDictionarySize);
+}
@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.parser.DataFormatException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+
+/**
+ * Codec for {@link ResourceEncodingEnum#JLZ4}, which compresses resource bodies using the
+ * LZ4 block format. LZ4 compresses less than GZip or Zstandard, but decompresses faster
+ * than either, so it is a good fit for read-heavy servers where storage is cheap.
+ * <p>
+ * Each stored body is the 4 byte (big-endian) length of the uncompressed body, followed
+ * by a single LZ4 block. Dictionaries are not supported.
+ * </p>
+ */
+public class Lz4ResourceCompressionCodec implements IResourceCompressionCodec {
+
+	/**
+	 * The default largest uncompressed body which will be decompressed (256 MiB)
+	 */
+	public static final int DEFAULT_MAX_UNCOMPRESSED_LENGTH = 256 * 1024 * 1024;
+
+	private static final int LENGTH_PREFIX_BYTES = 4;
+
+	/**
+	 * An LZ4 block can not expand to more than this many times its own size, so a length prefix
+	 * claiming more than this is corrupt and must not be used to size the output buffer
+	 */
+	private static final int MAX_COMPRESSION_RATIO = 255;
+
+	private final LZ4Compressor myCompressor;
+	private final LZ4SafeDecompressor myDecompressor;
+	private final int myMaxUncompressedLength;
+
+	/**
+	 * Constructor which uses {@link #DEFAULT_MAX_UNCOMPRESSED_LENGTH}
+	 */
+	public Lz4ResourceCompressionCodec() {
+		this(DEFAULT_MAX_UNCOMPRESSED_LENGTH);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaxUncompressedLength The largest uncompressed body, in bytes, which will be decompressed.
+	 *                                 Stored bodies claiming a larger length are rejected before any
+	 *                                 memory is allocated for them.
+	 * @since 8.4.0
+	 */
+	public Lz4ResourceCompressionCodec(int theMaxUncompressedLength) {
+		Validate.isTrue(theMaxUncompressedLength > 0, "theMaxUncompressedLength must be positive");
+		myMaxUncompressedLength = theMaxUncompressedLength;
+		LZ4Factory factory = LZ4Factory.fastestInstance();
+		myCompressor = factory.fastCompressor();
+		myDecompressor = factory.safeDecompressor();
+	}
+
+	@Nonnull
+	@Override
+	public ResourceEncodingEnum getEncoding() {
+		return ResourceEncodingEnum.JLZ4;
+	}
+
+	@Nonnull
+	@Override
+	public byte[] compress(@Nonnull byte[] theUncompressed, @Nullable ResourceCompressionDictionary theDictionary) {
+		int length = theUncompressed.length;
+		byte[] output = new byte[LENGTH_PREFIX_BYTES + myCompressor.maxCompressedLength(length)];
+		output[0] = (byte) (length >>> 24);
+		output[1] = (byte) (length >>> 16);
+		output[2] = (byte) (length >>> 8);
+		output[3] = (byte) length;
+		try {
+			int compressedLength = myCompressor.compress(
+					theUncompressed, 0, length, output, LENGTH_PREFIX_BYTES, output.length - LENGTH_PREFIX_BYTES);
+			return Arrays.copyOf(output, LENGTH_PREFIX_BYTES + compressedLength);
+		} catch (LZ4Exception e) {
+			throw new DataFormatException(Msg.code(2805) + "Failed to compress contents: " + e.getMessage(), e);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public byte[] decompress(@Nonnull byte[] theCompressed, @Nullable ResourceCompressionDictionary theDictionary) {
+		if (theCompressed.length < LENGTH_PREFIX_BYTES) {
+			throw new DataFormatException(Msg.code(2806) + "Invalid LZ4 contents, length: " + theCompressed.length);
+		}
+		int length = ((theCompressed[0] & 0xFF) << 24)
+				| ((theCompressed[1] & 0xFF) << 16)
+				| ((theCompressed[2] & 0xFF) << 8)
+				| (theCompressed[3] & 0xFF);
+		if (length < 0) {
+			throw new DataFormatException(Msg.code(2807) + "Invalid LZ4 uncompressed length: " + length);
+		}
+		long maxLength = Math.min(
+				myMaxUncompressedLength, (long) (theCompressed.length - LENGTH_PREFIX_BYTES) * MAX_COMPRESSION_RATIO);
+		if (length > maxLength) {
+			throw new DataFormatException(Msg.code(2814) + "Invalid LZ4 uncompressed length " + length
+					+ " for " + theCompressed.length + " bytes of contents, the maximum is " + maxLength);
+		}
+
+		byte[] output = new byte[length];
+		try {
+			int actualLength = myDecompressor.decompress(
+					theCompressed, LENGTH_PREFIX_BYTES, theCompressed.length - LENGTH_PREFIX_BYTES, output, 0);
+			if (actualLength != length) {
+				throw new DataFormatException(Msg.code(2808) + "Invalid LZ4 contents, expected " + length
+						+ " bytes but decompressed " + actualLength);
+			}
+			return output;
+		} catch (LZ4Exception e) {
+			throw new DataFormatException(Msg.code(2809) + "Failed to decompress contents: " + e.getMessage(), e);
+		}
+	}
+}
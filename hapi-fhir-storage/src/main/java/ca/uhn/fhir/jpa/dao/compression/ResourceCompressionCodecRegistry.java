@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import com.google.common.base.Suppliers;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link IResourceCompressionCodec codecs} used to read and write compressed
+ * resource bodies, keyed by {@link ResourceEncodingEnum}. Codecs for
+ * {@link ResourceEncodingEnum#JSONC}, {@link ResourceEncodingEnum#JZSTD} and
+ * {@link ResourceEncodingEnum#JLZ4} are registered by default, and any of these may be
+ * replaced (e.g. to use a different compression level) by calling {@link #registerCodec(IResourceCompressionCodec)}.
+ * <p>
+ * Because every history row records the encoding it was written with, rows using
+ * different encodings may coexist in the same table and are all readable as long as their
+ * codecs are registered.
+ * </p>
+ * <p>
+ * The default codecs are only created the first time they are used. The Zstandard and LZ4
+ * libraries are optional dependencies (and Zstandard loads a native library), so servers
+ * which never use {@link ResourceEncodingEnum#JZSTD} or {@link ResourceEncodingEnum#JLZ4}
+ * do not need them on the classpath.
+ * </p>
+ */
+public class ResourceCompressionCodecRegistry {
+
+	/**
+	 * This is read on every resource read and write, so it is replaced rather than modified
+	 * when codecs are registered in order to avoid locking on lookups
+	 */
+	private volatile Map<ResourceEncodingEnum, Supplier<IResourceCompressionCodec>> myCodecs =
+			new EnumMap<>(ResourceEncodingEnum.class);
+
+	/**
+	 * Constructor
+	 */
+	public ResourceCompressionCodecRegistry() {
+		registerCodec(ResourceEncodingEnum.JSONC, () -> new GZipResourceCompressionCodec());
+		registerCodec(ResourceEncodingEnum.JZSTD, () -> new ZstdResourceCompressionCodec());
+		registerCodec(ResourceEncodingEnum.JLZ4, () -> new Lz4ResourceCompressionCodec());
+	}
+
+	/**
+	 * Registers a codec, replacing any existing codec for the same encoding. This should only
+	 * be called during startup.
+	 */
+	public void registerCodec(@Nonnull IResourceCompressionCodec theCodec) {
+		Validate.notNull(theCodec, "theCodec must not be null");
+		registerCodec(theCodec.getEncoding(), () -> theCodec);
+	}
+
+	/**
+	 * Registers a codec which is created the first time it is needed, replacing any existing
+	 * codec for the same encoding. This should only be called during startup.
+	 *
+	 * @param theEncoding     The encoding, which must be the one returned by the codec's
+	 *                        {@link IResourceCompressionCodec#getEncoding()}
+	 * @param theCodecFactory Creates the codec. It is called at most once unless it fails.
+	 * @since 8.4.0
+	 */
+	public synchronized void registerCodec(
+			@Nonnull ResourceEncodingEnum theEncoding, @Nonnull Supplier<IResourceCompressionCodec> theCodecFactory) {
+		Validate.notNull(theEncoding, "theEncoding must not be null");
+		Validate.notNull(theCodecFactory, "theCodecFactory must not be null");
+		Validate.isTrue(theEncoding.isCompressed(), "Encoding %s is not a compressed encoding", theEncoding);
+		Map<ResourceEncodingEnum, Supplier<IResourceCompressionCodec>> codecs = new EnumMap<>(myCodecs);
+		codecs.put(theEncoding, Suppliers.memoize(theCodecFactory::get));
+		myCodecs = codecs;
+	}
+
+	/**
+	 * Returns <code>true</code> if a codec is registered for the given encoding. This does not
+	 * create the codec, so it does not check that the libraries it needs are available.
+	 */
+	public boolean hasCodec(@Nonnull ResourceEncodingEnum theEncoding) {
+		return myCodecs.containsKey(theEncoding);
+	}
+
+	/**
+	 * @throws InternalErrorException If no codec is registered for the given encoding, or if the
+	 *                                codec can not be created
+	 */
+	@Nonnull
+	public IResourceCompressionCodec getCodec(@Nonnull ResourceEncodingEnum theEncoding) {
+		Supplier<IResourceCompressionCodec> codecSupplier = myCodecs.get(theEncoding);
+		if (codecSupplier == null) {
+			throw new InternalErrorException(
+					Msg.code(2810) + "No resource compression codec is registered for encoding: " + theEncoding);
+		}
+		IResourceCompressionCodec retVal;
+		try {
+			retVal = codecSupplier.get();
+		} catch (LinkageError e) {
+			throw new InternalErrorException(
+					Msg.code(2815) + "Unable to load the resource compression codec for encoding " + theEncoding
+							+ ", check that the library it requires is on the classpath: " + e,
+					e);
+		}
+		Validate.isTrue(
+				retVal.getEncoding() == theEncoding,
+				"Codec for encoding %s reports encoding %s",
+				theEncoding,
+				retVal.getEncoding());
+		return retVal;
+	}
+
+	/**
+	 * Compresses an encoded resource body using the codec for the given encoding
+	 */
+	@Nonnull
+	public byte[] compress(
+			@Nonnull ResourceEncodingEnum theEncoding,
+			@Nonnull byte[] theUncompressed,
+			@Nullable ResourceCompressionDictionary theDictionary) {
+		return getCodec(theEncoding).compress(theUncompressed, theDictionary);
+	}
+
+	/**
+	 * Decompresses a stored resource body using the codec for the given encoding
+	 *
+	 * @return The JSON resource body
+	 */
+	@Nonnull
+	public String decompressToString(
+			@Nonnull ResourceEncodingEnum theEncoding,
+			@Nonnull byte[] theCompressed,
+			@Nullable ResourceCompressionDictionary theDictionary) {
+		byte[] decompressed = getCodec(theEncoding).decompress(theCompressed, theDictionary);
+		return new String(decompressed, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2025 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceCompressionDictionaryEntity;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * An immutable, detached copy of a {@link ResourceCompressionDictionaryEntity}. Dictionaries
+ * never change once they are stored, so instances of this class are safe to cache
+ * indefinitely and share between threads.
+ */
+public class ResourceCompressionDictionary {
+
+	private final long myId;
+	private final String myResourceType;
+	private final ResourceEncodingEnum myEncoding;
+	private final byte[] myDictionary;
+
+	public ResourceCompressionDictionary(
+			long theId,
+			@Nonnull String theResourceType,
+			@Nonnull ResourceEncodingEnum theEncoding,
+			@Nonnull byte[] theDictionary) {
+		Validate.notBlank(theResourceType, "theResourceType must not be blank");
+		Validate.notNull(theEncoding, "theEncoding must not be null");
+		Validate.notNull(theDictionary, "theDictionary must not be null");
+		myId = theId;
+		myResourceType = theResourceType;
+		myEncoding = theEncoding;
+		myDictionary = theDictionary;
+	}
+
+	/**
+	 * The PID of the dictionary, which is stored in the history row of every resource body compressed with it
+	 */
+	public long getId() {
+		return myId;
+	}
+
+	@Nonnull
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	@Nonnull
+	public ResourceEncodingEnum getEncoding() {
+		return myEncoding;
+	}
+
+	/**
+	 * The raw dictionary bytes. Callers must not modify the returned array.
+	 */
+	@Nonnull
+	public byte[] getDictionary() {
+		return myDictionary;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+				.append("id", myId)
+				.append("resourceType", myResourceType)
+				.append("encoding", myEncoding)
+				.append("size", myDictionary.length)
+				.toString();
+	}
+
+	@Nonnull
+	public static ResourceCompressionDictionary fromEntity(@Nonnull ResourceCompressionDictionaryEntity theEntity) {
+		return new ResourceCompressionDictionary(
+				theEntity.getId(), theEntity.getResourceType(), theEntity.getEncoding(), theEntity.getDictionary());
+	}
+}
@@ -76,6 +76,10 @@ public class MemoryCacheService {
 				case RES_TYPE_TO_RES_TYPE_ID:
 					nextCache = CacheFactory.buildEternal(250, 500);
 					break;
+				case COMPRESSION_DICTIONARY_BY_ID:
+					// Dictionaries are immutable, so entries never need to expire
+					nextCache = CacheFactory.buildEternal(50, 1000);
+					break;
 				case HASH_IDENTITY_TO_SEARCH_PARAM_IDENTITY:
 					nextCache = CacheFactory.buildEternal(5_000, 50_000);
 					break;
@@ -88,6 +92,7 @@ public class MemoryCacheService {
 				case TAG_DEFINITION:
 				case RESOURCE_CONDITIONAL_CREATE_VERSION:
 				case FHIRPATH_EXPRESSION:
+				case ACTIVE_COMPRESSION_DICTIONARY:
 				default:
 					timeoutSeconds = SECONDS.convert(1, MINUTES);
 					maximumSize = 10000;
@@ -223,7 +228,17 @@ public class MemoryCacheService {
 		NAME_TO_PARTITION(String.class),
 		ID_TO_PARTITION(Integer.class),
 		HASH_IDENTITY_TO_SEARCH_PARAM_IDENTITY(Long.class),
-		RES_TYPE_TO_RES_TYPE_ID(String.class);
+		RES_TYPE_TO_RES_TYPE_ID(String.class),
+		/**
+		 * Key type: {@literal Long}
+		 * Value type: {@literal ResourceCompressionDictionary}
+		 */
+		COMPRESSION_DICTIONARY_BY_ID(Long.class),
+		/**
+		 * Key type: {@literal String} (resource type and encoding)
+		 * Value type: {@literal Optional<ResourceCompressionDictionary>}
+		 */
+		ACTIVE_COMPRESSION_DICTIONARY(String.class);
 
 		private final Class<?> myKeyType;
 
@@ -0,0 +1,168 @@
+package ca.uhn.fhir.jpa.dao.compression;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceCompressionCodecRegistryTest {
+
+	private final ResourceCompressionCodecRegistry mySvc = new ResourceCompressionCodecRegistry();
+
+	@ParameterizedTest
+	@EnumSource(value = ResourceEncodingEnum.class, names = {"JSONC", "JZSTD", "JLZ4"})
+	void testRoundTrip(ResourceEncodingEnum theEncoding) {
+		String resource = newPatient(1);
+
+		byte[] compressed = mySvc.compress(theEncoding, resource.getBytes(StandardCharsets.UTF_8), null);
+
+		assertEquals(resource, mySvc.decompressToString(theEncoding, compressed, null));
+	}
+
+	@Test
+	void testDictionarySupport() {
+		assertFalse(mySvc.getCodec(ResourceEncodingEnum.JSONC).isDictionarySupported());
+		assertTrue(mySvc.getCodec(ResourceEncodingEnum.JZSTD).isDictionarySupported());
+		assertFalse(mySvc.getCodec(ResourceEncodingEnum.JLZ4).isDictionarySupported());
+	}
+
+	@Test
+	void testZstdWithDictionary() {
+		IResourceCompressionCodec codec = mySvc.getCodec(ResourceEncodingEnum.JZSTD);
+		List<byte[]> samples = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			samples.add(newPatient(i).getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] dictionaryBytes = codec.trainDictionary(samples, 4096);
+		ResourceCompressionDictionary dictionary =
+				new ResourceCompressionDictionary(1L, "Patient", ResourceEncodingEnum.JZSTD, dictionaryBytes);
+
+		byte[] resource = newPatient(5000).getBytes(StandardCharsets.UTF_8);
+		byte[] withDictionary = codec.compress(resource, dictionary);
+		byte[] withoutDictionary = codec.compress(resource, null);
+
+		assertThat(withDictionary.length).isLessThan(withoutDictionary.length);
+		assertEquals(
+				new String(resource, StandardCharsets.UTF_8),
+				mySvc.decompressToString(ResourceEncodingEnum.JZSTD, withDictionary, dictionary));
+	}
+
+	@Test
+	void testUnknownEncoding() {
+		assertFalse(mySvc.hasCodec(ResourceEncodingEnum.JSON));
+		InternalErrorException e =
+				assertThrows(InternalErrorException.class, () -> mySvc.getCodec(ResourceEncodingEnum.JSON));
+		assertThat(e.getMessage()).contains("HAPI-2810");
+	}
+
+	@Test
+	void testLz4TrainDictionaryNotSupported() {
+		IResourceCompressionCodec codec = mySvc.getCodec(ResourceEncodingEnum.JLZ4);
+		UnsupportedOperationException e =
+				assertThrows(UnsupportedOperationException.class, () -> codec.trainDictionary(List.of(), 1024));
+		assertThat(e.getMessage()).contains("HAPI-2798");
+	}
+
+	@Test
+	void testLz4RejectsLengthPrefixLargerThanPossible() {
+		IResourceCompressionCodec codec = mySvc.getCodec(ResourceEncodingEnum.JLZ4);
+		byte[] compressed = codec.compress(newPatient(1).getBytes(StandardCharsets.UTF_8), null);
+
+		// Claim an uncompressed length of just under 2 GiB
+		compressed[0] = (byte) 0x7F;
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> codec.decompress(compressed, null));
+		assertThat(e.getMessage()).contains("HAPI-2814");
+	}
+
+	@Test
+	void testLz4RejectsLengthPrefixLargerThanMaximum() {
+		Lz4ResourceCompressionCodec codec = new Lz4ResourceCompressionCodec(100);
+		byte[] compressed = codec.compress(newPatient(1).getBytes(StandardCharsets.UTF_8), null);
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> codec.decompress(compressed, null));
+		assertThat(e.getMessage()).contains("HAPI-2814");
+	}
+
+	@Test
+	void testZstdRejectsContentSizeLargerThanMaximum() {
+		ZstdResourceCompressionCodec codec = new ZstdResourceCompressionCodec(1, 100);
+		byte[] compressed = codec.compress(newPatient(1).getBytes(StandardCharsets.UTF_8), null);
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> codec.decompress(compressed, null));
+		assertThat(e.getMessage()).contains("HAPI-2825");
+	}
+
+	@Test
+	void testZstdDictionaryCacheIsBounded() {
+		ZstdResourceCompressionCodec codec = new ZstdResourceCompressionCodec(1);
+		List<byte[]> samples = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			samples.add(newPatient(i).getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] dictionaryBytes = codec.trainDictionary(samples, 4096);
+		byte[] resource = newPatient(5000).getBytes(StandardCharsets.UTF_8);
+
+		int dictionaryCount = ZstdResourceCompressionCodec.MAX_CACHED_DICTIONARIES + 10;
+		for (long id = 0; id < dictionaryCount; id++) {
+			ResourceCompressionDictionary dictionary =
+					new ResourceCompressionDictionary(id, "Patient", ResourceEncodingEnum.JZSTD, dictionaryBytes);
+			byte[] compressed = codec.compress(resource, dictionary);
+			assertThat(codec.decompress(compressed, dictionary)).isEqualTo(resource);
+		}
+		assertEquals(ZstdResourceCompressionCodec.MAX_CACHED_DICTIONARIES, codec.getCachedDictionaryCount());
+
+		// Evicted dictionaries are recreated when they are used again
+		ResourceCompressionDictionary first =
+				new ResourceCompressionDictionary(0L, "Patient", ResourceEncodingEnum.JZSTD, dictionaryBytes);
+		assertThat(codec.decompress(codec.compress(resource, first), first)).isEqualTo(resource);
+		assertEquals(ZstdResourceCompressionCodec.MAX_CACHED_DICTIONARIES, codec.getCachedDictionaryCount());
+	}
+
+	@Test
+	void testCodecsAreCreatedWhenFirstUsed() {
+		AtomicInteger created = new AtomicInteger();
+		mySvc.registerCodec(ResourceEncodingEnum.JZSTD, () -> {
+			created.incrementAndGet();
+			return new ZstdResourceCompressionCodec(1);
+		});
+		assertTrue(mySvc.hasCodec(ResourceEncodingEnum.JZSTD));
+		assertEquals(0, created.get());
+
+		mySvc.getCodec(ResourceEncodingEnum.JZSTD);
+		mySvc.getCodec(ResourceEncodingEnum.JZSTD);
+		assertEquals(1, created.get());
+	}
+
+	@Test
+	void testCodecWhichCanNotBeLoaded() {
+		mySvc.registerCodec(ResourceEncodingEnum.JLZ4, () -> {
+			throw new NoClassDefFoundError("net/jpountz/lz4/LZ4Factory");
+		});
+
+		InternalErrorException e =
+				assertThrows(InternalErrorException.class, () -> mySvc.getCodec(ResourceEncodingEnum.JLZ4));
+		assertThat(e.getMessage()).contains("HAPI-2815");
+	}
+
+	private static String newPatient(int theIndex) {
+		return "{\"resourceType\":\"Patient\",\"id\":\"" + theIndex + "\",\"meta\":{\"versionId\":\"1\"},"
+				+ "\"identifier\":[{\"system\":\"http://example.com/mrn\",\"value\":\"MRN" + theIndex + "\"}],"
+				+ "\"name\":[{\"family\":\"Family" + theIndex + "\",\"given\":[\"Given" + (theIndex * 7) + "\"]}],"
+				+ "\"gender\":\"" + (theIndex % 2 == 0 ? "male" : "female") + "\",\"birthDate\":\"19"
+				+ (10 + theIndex % 90) + "-01-01\"}";
+	}
+}
@@ -0,0 +1,29 @@
+package ca.uhn.fhir.context;
+
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FhirContextStartupR4Test {
+	@Test
+	public void testExtensionChildrenAreSealedConsistently() {
+		FhirContext ctx = new FhirContext(FhirVersionEnum.R4);
+
+		BaseRuntimeChildDefinition patientExtension = ctx.getResourceDefinition(Patient.class).getChildByName("extension");
+		BaseRuntimeChildDefinition nameExtension = ((BaseRuntimeElementCompositeDefinition<?>) ctx.getElementDefinition(HumanName.class)).getChildByName("extension");
+		BaseRuntimeChildDefinition observationModifierExtension = ctx.getResourceDefinition(Observation.class).getChildByName("modifierExtension");
+
+		assertThat(patientExtension.getChildNameByDatatype(Extension.class)).isEqualTo("extension");
+		assertThat(nameExtension.getChildNameByDatatype(Extension.class)).isEqualTo("extension");
+		assertThat(observationModifierExtension.getChildNameByDatatype(Extension.class)).isEqualTo("modifierExtension");
+		assertThat(patientExtension.getChildByName("extension")).isSameAs(nameExtension.getChildByName("extension"));
+
+		BaseRuntimeChildDefinition extensionValue = ((BaseRuntimeElementCompositeDefinition<?>) ctx.getElementDefinition(Extension.class)).getChildByName("value[x]");
+		assertThat(extensionValue.getChildNameByDatatype(StringType.class)).isEqualTo("valueString");
+	}
+}
@@ -0,0 +1,161 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.util.bundle.BundleEntryParts;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Signature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BundleEntryIteratorR4Test {
+	private static final FhirContext ourCtx = FhirContext.forR4();
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testIterateEntries(EncodingEnum theEncoding) {
+		Bundle input = createBundle(5);
+		input.setSignature(new Signature().setSigFormat("application/jose"));
+		String encoded = theEncoding.newParser(ourCtx).encodeResourceToString(input);
+
+		IParser parser = theEncoding.newParser(ourCtx);
+		try (IBundleEntryIterator<Bundle> iterator = parser.parseBundleEntries(Bundle.class, new StringReader(encoded))) {
+			Bundle envelope = iterator.getEnvelope();
+			assertEquals(Bundle.BundleType.TRANSACTION, envelope.getType());
+			assertEquals("BUNDLE-ID", envelope.getIdElement().getIdPart());
+			assertEquals(0, envelope.getEntry().size());
+			assertNull(envelope.getSignature().getSigFormat());
+
+			List<BundleEntryParts> entries = new ArrayList<>();
+			while (iterator.hasNext()) {
+				entries.add(iterator.next());
+			}
+
+			assertEquals(5, entries.size());
+			for (int i = 0; i < 5; i++) {
+				BundleEntryParts next = entries.get(i);
+				assertEquals(RequestTypeEnum.POST, next.getRequestType());
+				assertEquals("Observation", next.getUrl());
+				assertEquals(toFullUrl(i), next.getFullUrl());
+				Observation obs = (Observation) next.getResource();
+				assertEquals(toFullUrl(i), obs.getIdElement().getValue());
+				assertEquals("code" + i, obs.getCode().getCodingFirstRep().getCode());
+				assertEquals("FAM" + i, ((Patient) obs.getContained().get(0)).getNameFirstRep().getFamily());
+			}
+
+			assertFalse(iterator.hasNext());
+			assertEquals(0, envelope.getEntry().size());
+			assertEquals("application/jose", envelope.getSignature().getSigFormat());
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML", "RDF"})
+	public void testStream(EncodingEnum theEncoding) {
+		String encoded = theEncoding.newParser(ourCtx).encodeResourceToString(createBundle(3));
+
+		IParser parser = theEncoding.newParser(ourCtx);
+		List<String> codes;
+		try (IBundleEntryIterator<Bundle> iterator = parser.parseBundleEntries(Bundle.class, new StringReader(encoded))) {
+			codes = iterator
+				.stream()
+				.map(t -> ((Observation) t.getResource()).getCode().getCodingFirstRep().getCode())
+				.collect(Collectors.toList());
+		}
+
+		assertThat(codes).containsExactly("code0", "code1", "code2");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testNoEntries(EncodingEnum theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.SEARCHSET);
+		input.setTotal(0);
+		String encoded = theEncoding.newParser(ourCtx).encodeResourceToString(input);
+
+		IParser parser = theEncoding.newParser(ourCtx);
+		try (IBundleEntryIterator<Bundle> iterator = parser.parseBundleEntries(Bundle.class, new StringReader(encoded))) {
+			assertEquals(Bundle.BundleType.SEARCHSET, iterator.getEnvelope().getType());
+			assertEquals(0, iterator.getEnvelope().getTotal());
+			assertFalse(iterator.hasNext());
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testInvalidEntryFailsDuringIteration(EncodingEnum theEncoding) {
+		String encoded = theEncoding.newParser(ourCtx).encodeResourceToString(createBundle(2));
+		encoded = encoded.replace("code1", "code1\"").replace("<code value=\"code1\\\"\"", "<code value=\"code1\"<");
+
+		IParser parser = theEncoding.newParser(ourCtx);
+		try (IBundleEntryIterator<Bundle> iterator = parser.parseBundleEntries(Bundle.class, new StringReader(encoded))) {
+			assertTrue(iterator.hasNext());
+			assertEquals("code0", ((Observation) iterator.next().getResource()).getCode().getCodingFirstRep().getCode());
+			assertThrows(DataFormatException.class, iterator::hasNext);
+		}
+	}
+
+	@Test
+	public void testDefaultImplementationParsesWholeBundle() {
+		// Parsers which don't implement parseBundleEntries themselves inherit the default
+		IParser parser = mock(IParser.class);
+		StringReader reader = new StringReader("");
+		when(parser.parseResource(Bundle.class, reader)).thenReturn(createBundle(3));
+		when(parser.parseBundleEntries(Bundle.class, reader)).thenCallRealMethod();
+
+		try (IBundleEntryIterator<Bundle> iterator = parser.parseBundleEntries(Bundle.class, reader)) {
+			assertEquals(Bundle.BundleType.TRANSACTION, iterator.getEnvelope().getType());
+			assertEquals(0, iterator.getEnvelope().getEntry().size());
+			List<String> fullUrls = iterator.stream().map(BundleEntryParts::getFullUrl).collect(Collectors.toList());
+			assertThat(fullUrls).containsExactly(toFullUrl(0), toFullUrl(1), toFullUrl(2));
+		}
+	}
+
+	private Bundle createBundle(int theEntryCount) {
+		Bundle retVal = new Bundle();
+		retVal.setId("BUNDLE-ID");
+		retVal.setType(Bundle.BundleType.TRANSACTION);
+		for (int i = 0; i < theEntryCount; i++) {
+			Patient patient = new Patient();
+			patient.setId("#pt");
+			patient.addName().setFamily("FAM" + i);
+
+			Observation obs = new Observation();
+			obs.getCode().addCoding().setSystem("http://foo").setCode("code" + i);
+			obs.getContained().add(patient);
+			obs.getSubject().setReference("#pt");
+
+			retVal
+				.addEntry()
+				.setFullUrl(toFullUrl(i))
+				.setResource(obs)
+				.getRequest()
+				.setMethod(Bundle.HTTPVerb.POST)
+				.setUrl("Observation");
+		}
+		return retVal;
+	}
+
+	private static String toFullUrl(int theIndex) {
+		return String.format("urn:uuid:00000000-0000-0000-0000-%012d", theIndex);
+	}
+}
@@ -0,0 +1,88 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EncodeResourceToOutputStreamR4Test {
+	private static final FhirContext ourCtx = FhirContext.forR4();
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML", "RDF"})
+	public void testEncodeMatchesStringEncoding(EncodingEnum theEncoding) throws IOException {
+		Patient patient = createPatient();
+
+		for (boolean prettyPrint : List.of(false, true)) {
+			String expected = theEncoding.newParser(ourCtx).setPrettyPrint(prettyPrint).encodeResourceToString(patient);
+
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			theEncoding.newParser(ourCtx).setPrettyPrint(prettyPrint).encodeResourceToOutputStream(patient, os);
+
+			assertEquals(expected, os.toString(StandardCharsets.UTF_8));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML", "NDJSON"})
+	public void testEncodeBundleMatchesStringEncoding(EncodingEnum theEncoding) throws IOException {
+		Bundle bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.COLLECTION);
+		for (int i = 0; i < 3; i++) {
+			Observation obs = new Observation();
+			obs.setId("Observation/" + i);
+			obs.getCode().setText("Ünïcödé 漢字 " + i);
+			obs.getContained().add(createPatient());
+			bundle.addEntry().setResource(obs);
+		}
+
+		String expected = theEncoding.newParser(ourCtx).encodeResourceToString(bundle);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		theEncoding.newParser(ourCtx).encodeResourceToOutputStream(bundle, os);
+
+		assertEquals(expected, os.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Characters outside the BMP must be written as raw UTF-8, exactly as in the String encoding,
+	 * and not as escaped surrogate pairs
+	 */
+	@ParameterizedTest
+	@EnumSource(value = EncodingEnum.class, names = {"JSON", "XML"})
+	public void testEncodeSupplementaryCharacters(EncodingEnum theEncoding) throws IOException {
+		Patient patient = new Patient();
+		patient.addName().setFamily("😀 family 𝄞");
+		String expected = theEncoding.newParser(ourCtx).encodeResourceToString(patient);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		theEncoding.newParser(ourCtx).encodeResourceToOutputStream(patient, os);
+
+		assertEquals(expected, os.toString(StandardCharsets.UTF_8));
+		assertThat(os.toString(StandardCharsets.UTF_8)).contains("😀 family 𝄞").doesNotContain("\\u");
+	}
+
+	private static Patient createPatient() {
+		Patient patient = new Patient();
+		patient.setId("Patient/123");
+		patient.getMeta().setVersionId("2");
+		patient.addName().setFamily("Müller").addGiven("José");
+		patient.getText().setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">Grüße &amp; <b>bold</b></div>");
+		patient.addExtension("http://example.com/ext", new StringType("a \"quoted\" <value> é"));
+		patient.getBirthDateElement().setValueAsString("1980-01-02");
+		patient.getBirthDateElement().addExtension("http://example.com/time", new StringType("12:00"));
+		return patient;
+	}
+}
@@ -0,0 +1,146 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonParserStreamingR4Test {
+	private static final Logger ourLog = LoggerFactory.getLogger(JsonParserStreamingR4Test.class);
+	private static final FhirContext ourCtx = FhirContext.forR4();
+
+	@BeforeEach
+	public void before() {
+		ourCtx.getParserOptions().setUseStreamingJsonParser(true);
+	}
+
+	@AfterEach
+	public void after() {
+		ourCtx.getParserOptions().setUseStreamingJsonParser(false);
+	}
+
+	@Test
+	public void testParseBundle_SameAsTreeParser() {
+		String input = ourCtx.newJsonParser().encodeResourceToString(createBigBundle(10));
+
+		Bundle streamed = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+		ourCtx.getParserOptions().setUseStreamingJsonParser(false);
+		Bundle tree = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+
+		assertEquals(10, streamed.getEntry().size());
+		assertEquals(ourCtx.newJsonParser().encodeResourceToString(tree), ourCtx.newJsonParser().encodeResourceToString(streamed));
+	}
+
+	@Test
+	public void testParsePrimitiveExtensionBeforeValue() {
+		String input = """
+			{
+			  "resourceType": "Patient",
+			  "_birthDate": { "extension": [ { "url": "http://foo", "valueString": "bar" } ] },
+			  "name": [ { "family": "Smith" } ],
+			  "birthDate": "2020-01-01"
+			}""";
+
+		Patient patient = ourCtx.newJsonParser().parseResource(Patient.class, input);
+
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+		assertEquals("2020-01-01", patient.getBirthDateElement().getValueAsString());
+		Extension ext = patient.getBirthDateElement().getExtensionByUrl("http://foo");
+		assertEquals("bar", ((StringType) ext.getValue()).getValue());
+	}
+
+	@Test
+	public void testParseResourceTypeNotFirst() {
+		String input = """
+			{
+			  "type": "collection",
+			  "resourceType": "Bundle",
+			  "entry": [ {
+			    "resource": {
+			      "active": true,
+			      "resourceType": "Patient",
+			      "name": [ { "family": "Smith" } ]
+			    }
+			  } ]
+			}""";
+
+		Bundle bundle = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+
+		assertEquals(Bundle.BundleType.COLLECTION, bundle.getType());
+		Patient patient = (Patient) bundle.getEntryFirstRep().getResource();
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+		assertEquals(true, patient.getActive());
+	}
+
+	@Test
+	public void testParseEntryResourceMissingResourceType() {
+		String input = """
+			{
+			  "resourceType": "Bundle",
+			  "entry": [ { "resource": { "active": true } } ]
+			}""";
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(Bundle.class, input));
+		assertThat(e.getMessage()).contains("HAPI-2819");
+	}
+
+	@Test
+	public void testParseTrailingContent() {
+		String input = "{ \"resourceType\": \"Patient\", \"active\": true } { }";
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(Patient.class, input));
+		assertThat(e.getMessage()).contains("HAPI-2820", "Trailing token");
+	}
+
+	@Test
+	public void testParseInvalidJson() {
+		String input = "{ \"resourceType\": \"Patient\", \"active\": true, \"name\": [ { \"family\": \"Smith\" ] }";
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(Patient.class, input));
+		assertThat(e.getMessage()).contains("HAPI-1861");
+	}
+
+	private Bundle createBigBundle(int theEntryCount) {
+		Bundle b = new Bundle();
+		b.setType(Bundle.BundleType.TRANSACTION);
+
+		for (int i = 0; i < theEntryCount; i++) {
+			Observation obs = new Observation();
+			obs.setId("Observation/" + i);
+
+			Patient pt = new Patient();
+			pt.addName().setFamily("FAM" + i).addGiven("GIVEN");
+			pt.getBirthDateElement().setValueAsString("2000-01-01");
+			pt.getBirthDateElement().addExtension("http://foo", new StringType("bar"));
+			obs.getSubject().setResource(pt);
+
+			Encounter enc = new Encounter();
+			enc.setId("#1");
+			enc.setStatus(Encounter.EncounterStatus.ARRIVED);
+			obs.getEncounter().setReference("#1");
+			obs.getContained().add(enc);
+			obs.setEffective(new DateTimeType(new Date()));
+			obs.addIdentifier().setSystem("http://foo").setValue("blah" + i);
+			obs.setValue(new Quantity().setSystem("UCUM").setCode("mg/L").setUnit("mg/L").setValue(123.567d));
+
+			b.addEntry().setResource(obs).getRequest().setMethod(Bundle.HTTPVerb.POST).setUrl("Observation");
+		}
+		return b;
+	}
+}
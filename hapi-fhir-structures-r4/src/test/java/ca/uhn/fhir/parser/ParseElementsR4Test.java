@@ -0,0 +1,183 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParseElementsR4Test {
+	private static final FhirContext ourCtx = FhirContext.forR4();
+
+	@AfterEach
+	public void after() {
+		ourCtx.getParserOptions().setUseStreamingJsonParser(false);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testParseTopLevelElements(String theEncoding) {
+		IParser parser = newParser(theEncoding).setParseElements("Patient.name", "Patient.gender");
+
+		Patient patient = parser.parseResource(Patient.class, encode(theEncoding, createPatient()));
+
+		assertEquals("Patient/123/_history/2", patient.getIdElement().getValue());
+		assertEquals("http://profile", patient.getMeta().getProfile().get(0).getValue());
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+		assertEquals("John", patient.getNameFirstRep().getGivenAsSingleString());
+		assertEquals(Enumerations.AdministrativeGender.MALE, patient.getGender());
+		assertFalse(patient.hasBirthDate());
+		assertFalse(patient.hasText());
+		assertFalse(patient.hasAddress());
+		assertFalse(patient.hasExtension());
+		assertFalse(patient.hasContained());
+		assertFalse(patient.hasManagingOrganization());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testParseNestedElements(String theEncoding) {
+		IParser parser = newParser(theEncoding).setParseElements("Patient.name.family", "Patient.extension");
+
+		Patient patient = parser.parseResource(Patient.class, encode(theEncoding, createPatient()));
+
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+		assertFalse(patient.getNameFirstRep().hasGiven());
+		assertEquals("bar", ((StringType) patient.getExtensionByUrl("http://foo").getValue()).getValue());
+		assertFalse(patient.hasBirthDate());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testParseWildcardAndChoiceElements(String theEncoding) {
+		Observation input = new Observation();
+		input.setStatus(Observation.ObservationStatus.FINAL);
+		input.setSubject(new Reference("Patient/123"));
+		input.setValue(new Quantity().setValue(123).setUnit("mg"));
+		input.getCode().setText("Glucose");
+		input.addNote().setText("A note");
+
+		IParser parser = newParser(theEncoding).setParseElements("*.subject", "Observation.value");
+
+		Observation observation = parser.parseResource(Observation.class, encode(theEncoding, input));
+
+		assertEquals("Patient/123", observation.getSubject().getReference());
+		assertEquals("mg", observation.getValueQuantity().getUnit());
+		assertFalse(observation.hasStatus());
+		assertFalse(observation.hasCode());
+		assertFalse(observation.hasNote());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testParseElementsForOtherResourceType(String theEncoding) {
+		Patient input = createPatient();
+		IParser parser = newParser(theEncoding).setParseElements("Observation.subject");
+
+		Patient patient = parser.parseResource(Patient.class, encode(theEncoding, input));
+
+		assertEquals(encode("JSON", input), encode("JSON", patient));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testParseElementsAppliesToTopLevelResourceOnly(String theEncoding) {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.SEARCHSET);
+		input.setTotal(1);
+		input.addEntry().setFullUrl("http://example.com/Patient/123").setResource(createPatient());
+		input.addLink().setRelation("self").setUrl("http://example.com/Patient");
+
+		IParser parser = newParser(theEncoding).setParseElements("Bundle.entry.resource");
+
+		Bundle bundle = parser.parseResource(Bundle.class, encode(theEncoding, input));
+
+		assertFalse(bundle.hasTotal());
+		assertFalse(bundle.hasLink());
+		assertFalse(bundle.getEntryFirstRep().hasFullUrl());
+		Patient patient = (Patient) bundle.getEntryFirstRep().getResource();
+		assertTrue(patient.hasBirthDate());
+		assertTrue(patient.hasText());
+		assertThat(patient.getContained()).hasSize(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"JSON", "JSON_STREAMING", "XML"})
+	public void testClearParseElements(String theEncoding) {
+		Patient input = createPatient();
+		IParser parser = newParser(theEncoding).setParseElements("Patient.name");
+		parser.setParseElements((Collection<String>) null);
+
+		Patient patient = parser.parseResource(Patient.class, encode(theEncoding, input));
+
+		assertEquals(encode("JSON", input), encode("JSON", patient));
+	}
+
+	@Test
+	public void testDefaultImplementationIsIgnored() {
+		// Parsers which don't implement setParseElements themselves inherit the default
+		IParser parser = mock(IParser.class);
+		when(parser.setParseElements(anyCollection())).thenCallRealMethod();
+
+		assertSame(parser, parser.setParseElements(List.of("Patient.name")));
+	}
+
+	private static IParser newParser(String theEncoding) {
+		switch (theEncoding) {
+			case "XML":
+				return ourCtx.newXmlParser();
+			case "JSON_STREAMING":
+				ourCtx.getParserOptions().setUseStreamingJsonParser(true);
+				return ourCtx.newJsonParser();
+			default:
+				return ourCtx.newJsonParser();
+		}
+	}
+
+	private static String encode(String theEncoding, IBaseResource theResource) {
+		IParser parser = "XML".equals(theEncoding) ? ourCtx.newXmlParser() : ourCtx.newJsonParser();
+		return parser.encodeResourceToString(theResource);
+	}
+
+	private static Patient createPatient() {
+		Organization org = new Organization();
+		org.setId("#org");
+		org.setName("An Organization");
+
+		Patient patient = new Patient();
+		patient.setId("Patient/123/_history/2");
+		patient.getMeta().addProfile("http://profile");
+		patient.getText().setStatus(Narrative.NarrativeStatus.GENERATED);
+		patient.getText().setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">John Smith</div>");
+		patient.addExtension("http://foo", new StringType("bar"));
+		patient.addName().setFamily("Smith").addGiven("John");
+		patient.setGender(Enumerations.AdministrativeGender.MALE);
+		patient.getBirthDateElement().setValueAsString("2000-01-01");
+		patient.addAddress().setCity("Toronto");
+		patient.getContained().add(org);
+		patient.setManagingOrganization(new Reference("#org"));
+		return patient;
+	}
+}
@@ -0,0 +1,77 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class XmlParserStreamReaderR4Test {
+	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(XmlParserStreamReaderR4Test.class);
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testParseNarrativeWithNestedMarkup() {
+		String input = """
+			<Patient xmlns="http://hl7.org/fhir">
+			   <text>
+			      <status value="generated"/>
+			      <div xmlns="http://www.w3.org/1999/xhtml" xmlns:x="urn:other"><p class="a" x:b="c">Hello <b>World</b> &amp; <!-- note --> &lt;raw&gt;</p><br/></div>
+			   </text>
+			   <active value="true"/>
+			</Patient>""";
+
+		Patient patient = ourCtx.newXmlParser().parseResource(Patient.class, input);
+
+		String div = patient.getText().getDivAsString();
+		assertThat(div).startsWith("<div xmlns=\"http://www.w3.org/1999/xhtml\"");
+		assertThat(div).contains("xmlns:x=\"urn:other\"", "<p x:b=\"c\" class=\"a\">Hello <b>World</b> &amp;", "<!-- note --> &lt;raw&gt;</p><br/></div>");
+		assertThat(patient.getActive()).isTrue();
+	}
+
+	@Test
+	public void testParseCommentsAndExtensions() {
+		String input = """
+			<Patient xmlns="http://hl7.org/fhir">
+			   <!-- before -->
+			   <extension url="http://foo">
+			      <valueString value="bar"/>
+			   </extension>
+			   <modifierExtension url="http://baz">
+			      <valueBoolean value="true"/>
+			   </modifierExtension>
+			   <active value="true"/>
+			   <!-- after -->
+			</Patient>""";
+
+		Patient patient = ourCtx.newXmlParser().parseResource(Patient.class, input);
+
+		assertEquals("bar", ((StringType) patient.getExtensionByUrl("http://foo").getValue()).getValue());
+		assertThat(patient.getModifierExtension()).hasSize(1);
+		assertThat(patient.getExtension().get(0).getFormatCommentsPre()).containsExactly(" before ");
+		assertThat(patient.getActiveElement().getFormatCommentsPost()).containsExactly(" after ");
+	}
+
+	@Test
+	public void testParseInvalidXmlReportsLocation() {
+		String input = """
+			<Patient xmlns="http://hl7.org/fhir">
+			   <active value="yes"/>
+			</Patient>""";
+
+		IParser parser = ourCtx.newXmlParser().setParserErrorHandler(new StrictErrorHandler());
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.parseResource(Patient.class, input));
+		assertThat(e.getMessage()).contains("HAPI-1851", "[2,4]", "HAPI-1821");
+	}
+
+	@Test
+	public void testParseMalformedXml() {
+		String input = "<Patient xmlns=\"http://hl7.org/fhir\"><active value=\"true\"></Patient>";
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> ourCtx.newXmlParser().parseResource(Patient.class, input));
+		assertThat(e.getMessage()).contains("HAPI-1852");
+	}
+}
@@ -0,0 +1,248 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.Create;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.ResourceParam;
+import ca.uhn.fhir.rest.annotation.Transaction;
+import ca.uhn.fhir.rest.annotation.TransactionParam;
+import ca.uhn.fhir.rest.annotation.Update;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.client.impl.ClientRequestBatcher;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.OperationOutcome;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClientRequestBatcherR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private static final Map<String, Patient> ourPatients = new ConcurrentHashMap<>();
+	private static final List<Integer> ourBatchSizes = Collections.synchronizedList(new ArrayList<>());
+	private static final AtomicInteger ourIndividualRequestCount = new AtomicInteger();
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.registerProvider(new SystemProvider())
+		.setDefaultPrettyPrint(false);
+
+	private IGenericClient myClient;
+	private ClientRequestBatcher myBatcher;
+
+	@BeforeEach
+	public void before() {
+		ourPatients.clear();
+		ourBatchSizes.clear();
+		ourIndividualRequestCount.set(0);
+		for (int i = 0; i < 10; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/" + i + "/_history/1");
+			patient.addName().setFamily("FAMILY" + i);
+			ourPatients.put(Integer.toString(i), patient);
+		}
+
+		ourCtx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ourCtx.newRestfulGenericClient(myServer.getBaseUrl());
+		myBatcher = new ClientRequestBatcher(myClient).setMaxDelayMillis(10_000).setMaxBatchSize(5);
+	}
+
+	@AfterEach
+	public void after() {
+		myBatcher.close();
+	}
+
+	@Test
+	public void testReadsAreBatchedBySize() throws Exception {
+		List<CompletableFuture<Patient>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(myBatcher.read(Patient.class, Integer.toString(i)));
+		}
+
+		for (int i = 0; i < 10; i++) {
+			Patient patient = futures.get(i).get(10, TimeUnit.SECONDS);
+			assertEquals("FAMILY" + i, patient.getNameFirstRep().getFamily());
+		}
+		assertThat(ourBatchSizes).containsExactly(5, 5);
+		assertEquals(0, ourIndividualRequestCount.get());
+		assertEquals(2, myBatcher.getBatchCount());
+	}
+
+	@Test
+	public void testBatchIsSentWhenDelayExpires() throws Exception {
+		myBatcher.setMaxDelayMillis(50);
+
+		CompletableFuture<Patient> first = myBatcher.read(Patient.class, "Patient/1");
+		CompletableFuture<Patient> second = myBatcher.read(Patient.class, new IdType("2"));
+
+		assertEquals("FAMILY1", first.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals("FAMILY2", second.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertThat(ourBatchSizes).containsExactly(2);
+	}
+
+	@Test
+	public void testEntryErrorMapsToSameException() throws Exception {
+		ResourceNotFoundException expected = assertThrows(ResourceNotFoundException.class,
+			() -> myClient.read().resource(Patient.class).withId("999").execute());
+		ourIndividualRequestCount.set(0);
+
+		CompletableFuture<Patient> missing = myBatcher.read(Patient.class, "999");
+		CompletableFuture<Patient> found = myBatcher.read(Patient.class, "1");
+		myBatcher.flush();
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> missing.get(10, TimeUnit.SECONDS));
+		assertThat(e.getCause()).isInstanceOf(ResourceNotFoundException.class);
+		assertEquals(expected.getMessage(), e.getCause().getMessage());
+		assertThat(((ResourceNotFoundException) e.getCause()).getOperationOutcome()).isNotNull();
+		assertEquals("FAMILY1", found.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertThat(ourBatchSizes).containsExactly(2);
+		assertEquals(0, ourIndividualRequestCount.get());
+	}
+
+	@Test
+	public void testCreateAndUpdate() throws Exception {
+		Patient newPatient = new Patient();
+		newPatient.addName().setFamily("NEW");
+		Patient updatedPatient = ourPatients.get("3").copy();
+		updatedPatient.setIdElement(updatedPatient.getIdElement().toVersionless());
+		updatedPatient.getNameFirstRep().setFamily("UPDATED");
+
+		CompletableFuture<MethodOutcome> created = myBatcher.create(newPatient);
+		CompletableFuture<MethodOutcome> updated = myBatcher.update(updatedPatient);
+		myBatcher.flush();
+
+		MethodOutcome createOutcome = created.get(10, TimeUnit.SECONDS);
+		assertTrue(createOutcome.getCreated());
+		assertEquals(myServer.getBaseUrl() + "/Patient/100/_history/1", createOutcome.getId().getValue());
+		MethodOutcome updateOutcome = updated.get(10, TimeUnit.SECONDS);
+		assertEquals(200, updateOutcome.getResponseStatusCode());
+		assertEquals("Patient/3/_history/2", updateOutcome.getId().toUnqualified().getValue());
+		assertEquals("UPDATED", ourPatients.get("3").getNameFirstRep().getFamily());
+		assertThat(ourBatchSizes).containsExactly(2);
+	}
+
+	@Test
+	public void testSingleRequestIsSentIndividually() throws Exception {
+		CompletableFuture<Patient> future = myBatcher.read(Patient.class, "4");
+		myBatcher.flush();
+
+		assertEquals("FAMILY4", future.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertThat(ourBatchSizes).isEmpty();
+		assertEquals(1, ourIndividualRequestCount.get());
+	}
+
+	@Test
+	public void testCloseSendsWaitingRequestsAndRejectsNewOnes() throws Exception {
+		CompletableFuture<Patient> first = myBatcher.read(Patient.class, "1");
+		CompletableFuture<Patient> second = myBatcher.read(Patient.class, "2");
+
+		myBatcher.close();
+
+		assertEquals("FAMILY1", first.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertEquals("FAMILY2", second.get(10, TimeUnit.SECONDS).getNameFirstRep().getFamily());
+		assertThrows(IllegalStateException.class, () -> myBatcher.read(Patient.class, "3"));
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) {
+			ourIndividualRequestCount.incrementAndGet();
+			Patient retVal = ourPatients.get(theId.getIdPart());
+			if (retVal == null) {
+				throw new ResourceNotFoundException(theId);
+			}
+			return retVal;
+		}
+
+		@Create
+		public MethodOutcome create(@ResourceParam Patient thePatient) {
+			ourIndividualRequestCount.incrementAndGet();
+			throw new UnsupportedOperationException();
+		}
+
+		@Update
+		public MethodOutcome update(@IdParam IdType theId, @ResourceParam Patient thePatient) {
+			ourIndividualRequestCount.incrementAndGet();
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * A minimal batch implementation which processes each entry independently
+	 */
+	public static class SystemProvider {
+
+		@Transaction
+		public Bundle batch(@TransactionParam Bundle theRequest) {
+			assertEquals(Bundle.BundleType.BATCH, theRequest.getType());
+			ourBatchSizes.add(theRequest.getEntry().size());
+
+			Bundle retVal = new Bundle();
+			retVal.setType(Bundle.BundleType.BATCHRESPONSE);
+			for (Bundle.BundleEntryComponent next : theRequest.getEntry()) {
+				Bundle.BundleEntryComponent responseEntry = retVal.addEntry();
+				Bundle.BundleEntryResponseComponent response = responseEntry.getResponse();
+				IdType id = new IdType(next.getRequest().getUrl());
+				switch (next.getRequest().getMethod()) {
+					case GET -> {
+						Patient patient = ourPatients.get(id.getIdPart());
+						if (patient == null) {
+							response.setStatus("404 Not Found");
+							OperationOutcome outcome = new OperationOutcome();
+							outcome.addIssue().setDiagnostics(new ResourceNotFoundException(id).getMessage());
+							response.setOutcome(outcome);
+						} else {
+							response.setStatus("200 OK");
+							responseEntry.setResource(patient);
+						}
+					}
+					case POST -> {
+						response.setStatus("201 Created");
+						response.setLocation("Patient/100/_history/1");
+					}
+					case PUT -> {
+						Patient patient = (Patient) next.getResource();
+						patient.setId("Patient/" + id.getIdPart() + "/_history/2");
+						ourPatients.put(id.getIdPart(), patient);
+						response.setStatus("200 OK");
+						response.setLocation("Patient/" + id.getIdPart() + "/_history/2");
+						response.setEtag("W/\"2\"");
+					}
+					default -> throw new IllegalArgumentException();
+				}
+			}
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.client.exceptions.FhirClientConnectionException;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Parameters;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GenericClientAsyncR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private static final String EXECUTOR_THREAD_NAME = "client-async-executor";
+	private static final ExecutorService ourExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, EXECUTOR_THREAD_NAME));
+	private static CountDownLatch ourSlowReadStarted;
+	private static CountDownLatch ourSlowReadRelease;
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withPagingProvider(new FifoMemoryPagingProvider(10).setDefaultPageSize(10))
+		.setDefaultPrettyPrint(false);
+
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		ourCtx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ourCtx.newRestfulGenericClient(myServer.getBaseUrl());
+		ourSlowReadStarted = new CountDownLatch(1);
+		ourSlowReadRelease = new CountDownLatch(1);
+	}
+
+	@AfterAll
+	public static void afterAll() {
+		ourExecutor.shutdown();
+	}
+
+	@Test
+	public void testRead() throws Exception {
+		Patient patient = myClient.read().resource(Patient.class).withId("123").executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("Patient/123/_history/2", patient.getIdElement().toUnqualified().getValue());
+		assertEquals("SMITH", patient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testReadNotFound() {
+		ResourceNotFoundException expected = assertThrows(ResourceNotFoundException.class,
+			() -> myClient.read().resource(Patient.class).withId("999").execute());
+
+		CompletableFuture<Patient> future = myClient.read().resource(Patient.class).withId("999").executeAsync();
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+
+		assertThat(e.getCause()).isInstanceOf(ResourceNotFoundException.class);
+		assertEquals(expected.getMessage(), e.getCause().getMessage());
+	}
+
+	@Test
+	public void testReadNotModifiedReturnsNull() throws Exception {
+		Patient patient = myClient
+			.read()
+			.resource(Patient.class)
+			.withId("123")
+			.ifVersionMatches("2")
+			.returnNull()
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+
+		assertNull(patient);
+	}
+
+	@Test
+	public void testSearchAndLoadNextPage() throws Exception {
+		Bundle secondPage = myClient
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.NAME.matches().value("SMITH"))
+			.returnBundle(Bundle.class)
+			.executeAsync()
+			.thenCompose(firstPage -> {
+				assertThat(firstPage.getEntry()).hasSize(10);
+				return myClient.loadPage().next(firstPage).executeAsync();
+			})
+			.get(10, TimeUnit.SECONDS);
+
+		assertThat(secondPage.getEntry()).hasSize(10);
+		assertEquals("Patient/10", secondPage.getEntry().get(0).getResource().getIdElement().toUnqualifiedVersionless().getValue());
+	}
+
+	@Test
+	public void testOperationResultIsWrappedInParameters() throws Exception {
+		Parameters expected = myClient
+			.operation()
+			.onInstance(new IdType("Patient/123"))
+			.named("$summary")
+			.withNoParameters(Parameters.class)
+			.useHttpGet()
+			.execute();
+
+		Parameters actual = myClient
+			.operation()
+			.onInstance(new IdType("Patient/123"))
+			.named("$summary")
+			.withNoParameters(Parameters.class)
+			.useHttpGet()
+			.executeAsync()
+			.get(10, TimeUnit.SECONDS);
+
+		assertThat(actual.getParameterFirstRep().getResource()).isInstanceOf(Patient.class);
+		assertEquals(ourCtx.newJsonParser().encodeResourceToString(expected), ourCtx.newJsonParser().encodeResourceToString(actual));
+	}
+
+	@Test
+	public void testInterceptorsAndCustomExecutor() throws Exception {
+		List<String> calls = Collections.synchronizedList(new ArrayList<>());
+		myClient.getInterceptorService().registerAnonymousInterceptor(Pointcut.CLIENT_REQUEST,
+			(thePointcut, theArgs) -> calls.add(thePointcut + " " + Thread.currentThread().getName()));
+		myClient.getInterceptorService().registerAnonymousInterceptor(Pointcut.CLIENT_RESPONSE,
+			(thePointcut, theArgs) -> calls.add(thePointcut + " " + Thread.currentThread().getName()));
+		myClient.setAsyncExecutor(ourExecutor);
+
+		String callingThread = Thread.currentThread().getName();
+		Patient patient = myClient.read().resource(Patient.class).withId("123").executeAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals("123", patient.getIdElement().getIdPart());
+		assertThat(calls).containsExactly(
+			Pointcut.CLIENT_REQUEST + " " + callingThread,
+			Pointcut.CLIENT_RESPONSE + " " + EXECUTOR_THREAD_NAME);
+	}
+
+	@Test
+	public void testCancelledRequestReleasesConnection() throws Exception {
+		// A pool with a single connection, so a leaked connection would block the next request
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		ctx.getRestfulClientFactory().setPoolMaxTotal(1);
+		ctx.getRestfulClientFactory().setPoolMaxPerRoute(1);
+		ctx.getRestfulClientFactory().setConnectionRequestTimeout(5000);
+		IGenericClient client = ctx.newRestfulGenericClient(myServer.getBaseUrl());
+
+		CompletableFuture<Patient> future = client.read().resource(Patient.class).withId("slow").executeAsync();
+		assertTrue(ourSlowReadStarted.await(10, TimeUnit.SECONDS));
+		assertTrue(future.cancel(true));
+
+		// The response arrives after the caller has given up on it
+		ourSlowReadRelease.countDown();
+
+		Patient patient = client.read().resource(Patient.class).withId("123").executeAsync().get(10, TimeUnit.SECONDS);
+		assertEquals("123", patient.getIdElement().getIdPart());
+		patient = client.read().resource(Patient.class).withId("123").execute();
+		assertEquals("123", patient.getIdElement().getIdPart());
+	}
+
+	@Test
+	public void testConnectionFailure() {
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://localhost:1/fhir");
+
+		CompletableFuture<Patient> future = client.read().resource(Patient.class).withId("123").executeAsync();
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+
+		assertThat(e.getCause()).isInstanceOf(FhirClientConnectionException.class);
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read(version = true)
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			if ("slow".equals(theId.getIdPart())) {
+				ourSlowReadStarted.countDown();
+				ourSlowReadRelease.await(10, TimeUnit.SECONDS);
+				theId = new IdType("Patient/123");
+			}
+			if (!"123".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			Patient retVal = new Patient();
+			retVal.setId("Patient/123/_history/2");
+			retVal.addName().setFamily("SMITH");
+			return retVal;
+		}
+
+		@Search
+		public List<Patient> search(@RequiredParam(name = Patient.SP_NAME) StringParam theName) {
+			List<Patient> retVal = new ArrayList<>();
+			for (int i = 0; i < 30; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue());
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+
+		@Operation(name = "$summary", idempotent = true)
+		public Patient summary(@IdParam IdType theId) throws InterruptedException {
+			return read(theId);
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package ca.uhn.fhir.rest.client;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.PrefetchingSearchIterator;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ResourceGoneException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrefetchingSearchIteratorR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private final List<Integer> myRequestedOffsets = Collections.synchronizedList(new ArrayList<>());
+	private final CountDownLatch myPageRequestStarted = new CountDownLatch(1);
+	private volatile CountDownLatch myPageRequestRelease;
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withPagingProvider(new FifoMemoryPagingProvider(10).setDefaultPageSize(10))
+		.setDefaultPrettyPrint(false);
+
+	private IGenericClient myClient;
+
+	@BeforeEach
+	public void before() {
+		ourCtx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ourCtx.newRestfulGenericClient(myServer.getBaseUrl());
+		myServer.registerAnonymousInterceptor(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, (thePointcut, theArgs) -> {
+			String[] offset = theArgs.get(RequestDetails.class).getParameters().get(Constants.PARAM_PAGINGOFFSET);
+			if (offset != null) {
+				myRequestedOffsets.add(Integer.parseInt(offset[0]));
+				CountDownLatch release = myPageRequestRelease;
+				if (release != null) {
+					myPageRequestStarted.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		});
+	}
+
+	@Test
+	public void testIterateAllPages() {
+		Bundle firstPage = searchForPatients();
+
+		List<String> ids;
+		try (PrefetchingSearchIterator iterator = new PrefetchingSearchIterator(myClient, firstPage).setMaxPrefetchPages(3)) {
+			ids = iterator.stream().map(t -> t.getIdElement().getIdPart()).toList();
+		}
+
+		assertThat(ids).hasSize(95);
+		for (int i = 0; i < 95; i++) {
+			assertEquals(Integer.toString(i), ids.get(i));
+		}
+		// Offsets beyond the end may be requested speculatively, but every page is requested
+		assertThat(myRequestedOffsets).contains(10, 20, 30, 40, 50, 60, 70, 80, 90);
+		assertThat(myRequestedOffsets).doesNotHaveDuplicates();
+	}
+
+	@Test
+	public void testPrefetchIsBounded() throws InterruptedException {
+		Bundle firstPage = searchForPatients();
+
+		PrefetchingSearchIterator iterator = new PrefetchingSearchIterator(myClient, firstPage).setMaxPrefetchPages(3);
+		for (int i = 0; i < 10; i++) {
+			iterator.next();
+		}
+
+		// While the caller is still on the first page, three pages are requested ahead of it
+		await().until(() -> myRequestedOffsets.size() == 3);
+		Thread.sleep(200);
+		assertThat(myRequestedOffsets).containsExactlyInAnyOrder(10, 20, 30);
+
+		// Moving to the second page makes room for one more
+		iterator.next();
+		await().until(() -> myRequestedOffsets.size() == 4);
+		assertThat(myRequestedOffsets).contains(40);
+
+		iterator.close();
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseReleasesConnections() throws InterruptedException {
+		// A pool with a single connection, so a leaked connection would block the next request
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		ctx.getRestfulClientFactory().setPoolMaxTotal(1);
+		ctx.getRestfulClientFactory().setPoolMaxPerRoute(1);
+		ctx.getRestfulClientFactory().setConnectionRequestTimeout(5000);
+		IGenericClient client = ctx.newRestfulGenericClient(myServer.getBaseUrl());
+		Bundle firstPage = client
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.NAME.matches().value("SMITH"))
+			.returnBundle(Bundle.class)
+			.execute();
+
+		myPageRequestRelease = new CountDownLatch(1);
+		PrefetchingSearchIterator iterator = new PrefetchingSearchIterator(client, firstPage).setMaxPrefetchPages(1);
+		iterator.next();
+		assertTrue(myPageRequestStarted.await(10, TimeUnit.SECONDS));
+
+		// Abandon the page request while the server is still working on it
+		iterator.close();
+		myPageRequestRelease.countDown();
+		myPageRequestRelease = null;
+
+		Bundle secondPage = client.loadPage().next(firstPage).execute();
+		assertThat(secondPage.getEntry()).hasSize(10);
+		secondPage = client.loadPage().next(firstPage).executeAsync().join();
+		assertThat(secondPage.getEntry()).hasSize(10);
+	}
+
+	@Test
+	public void testFollowsLinksWithoutOffset() {
+		Bundle firstPage = new Bundle();
+		firstPage.addEntry().setResource(new Patient().setId("Patient/A"));
+		firstPage.addLink().setRelation(Bundle.LINK_NEXT).setUrl(myServer.getBaseUrl() + "/Patient?name=SMITH&_count=10");
+
+		List<IBaseResource> resources = new ArrayList<>();
+		new PrefetchingSearchIterator(myClient, firstPage).forEachRemaining(resources::add);
+
+		assertThat(resources).hasSize(96);
+		assertEquals("A", resources.get(0).getIdElement().getIdPart());
+		assertEquals("94", resources.get(95).getIdElement().getIdPart());
+	}
+
+	@Test
+	public void testFailedPageIsThrown() {
+		Bundle firstPage = new Bundle();
+		firstPage.addLink().setRelation(Bundle.LINK_NEXT).setUrl(myServer.getBaseUrl() + "?_getpages=FOO&_getpagesoffset=10&_count=10");
+
+		PrefetchingSearchIterator iterator = new PrefetchingSearchIterator(myClient, firstPage);
+
+		assertThrows(ResourceGoneException.class, iterator::hasNext);
+		assertFalse(iterator.hasNext());
+	}
+
+	private Bundle searchForPatients() {
+		return myClient
+			.search()
+			.forResource(Patient.class)
+			.where(Patient.NAME.matches().value("SMITH"))
+			.returnBundle(Bundle.class)
+			.execute();
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Search
+		public List<Patient> search(@RequiredParam(name = Patient.SP_NAME) StringParam theName) {
+			List<Patient> retVal = new ArrayList<>();
+			for (int i = 0; i < 95; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue());
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+	}
+}
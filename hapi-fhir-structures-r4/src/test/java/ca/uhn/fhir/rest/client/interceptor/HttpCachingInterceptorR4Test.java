@@ -0,0 +1,240 @@
+package ca.uhn.fhir.rest.client.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.ResourceParam;
+import ca.uhn.fhir.rest.annotation.Update;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.ServerValidationModeEnum;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HttpCachingInterceptorR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4();
+	private static final Map<String, Patient> ourPatients = new ConcurrentHashMap<>();
+	private static final List<String> ourReceivedIfNoneMatch = Collections.synchronizedList(new ArrayList<>());
+	private static volatile String ourCacheControl;
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.setDefaultPrettyPrint(false);
+
+	private final AtomicLong myNow = new AtomicLong(1_000_000);
+	private IGenericClient myClient;
+	private HttpCachingInterceptor myInterceptor;
+
+	@BeforeEach
+	public void before() {
+		ourPatients.clear();
+		ourReceivedIfNoneMatch.clear();
+		ourCacheControl = null;
+		for (int i = 0; i < 5; i++) {
+			putPatient(Integer.toString(i), "1", "FAMILY" + i);
+		}
+
+		ourCtx.getRestfulClientFactory().setServerValidationMode(ServerValidationModeEnum.NEVER);
+		myClient = ourCtx.newRestfulGenericClient(myServer.getBaseUrl());
+		myInterceptor = new HttpCachingInterceptor();
+		myInterceptor.setClockForUnitTest(myNow::get);
+		myClient.registerInterceptor(myInterceptor);
+	}
+
+	@Test
+	public void testFreshResponseIsServedFromCache() {
+		ourCacheControl = "max-age=60";
+
+		Patient first = read("1");
+		Patient second = read("1");
+
+		assertEquals("FAMILY1", second.getNameFirstRep().getFamily());
+		assertEquals("Patient/1/_history/1", second.getIdElement().toUnqualified().getValue());
+		assertNotSame(first, second);
+		assertThat(ourReceivedIfNoneMatch).hasSize(1);
+		assertEquals(1, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getMissCount());
+
+		// Once the response is stale it is revalidated
+		myNow.addAndGet(61_000);
+		Patient third = read("1");
+
+		assertEquals("FAMILY1", third.getNameFirstRep().getFamily());
+		assertThat(ourReceivedIfNoneMatch).containsExactly("", "W/\"1\"");
+		assertEquals(1, myInterceptor.getRevalidatedHitCount());
+
+		// The 304 response renewed the freshness
+		read("1");
+		assertThat(ourReceivedIfNoneMatch).hasSize(2);
+		assertEquals(2, myInterceptor.getHitCount());
+		assertEquals(0.75, myInterceptor.getHitRate());
+	}
+
+	@Test
+	public void testResponseWithoutMaxAgeIsRevalidated() {
+		read("1");
+		Patient second = read("1");
+
+		assertEquals("FAMILY1", second.getNameFirstRep().getFamily());
+		assertThat(ourReceivedIfNoneMatch).containsExactly("", "W/\"1\"");
+		assertEquals(0, myInterceptor.getHitCount());
+		assertEquals(1, myInterceptor.getRevalidatedHitCount());
+
+		// A changed resource replaces the stored response
+		putPatient("1", "2", "CHANGED");
+		Patient third = read("1");
+		Patient fourth = read("1");
+
+		assertEquals("CHANGED", third.getNameFirstRep().getFamily());
+		assertEquals("CHANGED", fourth.getNameFirstRep().getFamily());
+		assertEquals("2", fourth.getIdElement().getVersionIdPart());
+		assertThat(ourReceivedIfNoneMatch).containsExactly("", "W/\"1\"", "W/\"1\"", "W/\"2\"");
+		assertEquals(2, myInterceptor.getMissCount());
+		assertEquals(2, myInterceptor.getRevalidatedHitCount());
+	}
+
+	@Test
+	public void testCallerConditionalRequestIsNotAnsweredFromCache() {
+		ourCacheControl = "max-age=60";
+		read("1");
+
+		Patient patient = myClient
+			.read()
+			.resource(Patient.class)
+			.withId("1")
+			.ifVersionMatches("1")
+			.returnNull()
+			.execute();
+
+		assertNull(patient);
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testCacheControlDirectives() {
+		// A no-cache request is revalidated even if the stored response is fresh
+		ourCacheControl = "max-age=60";
+		read("1");
+		myClient.read().resource(Patient.class).withId("1").withAdditionalHeader(Constants.HEADER_CACHE_CONTROL, Constants.CACHE_CONTROL_NO_CACHE).execute();
+		assertThat(ourReceivedIfNoneMatch).containsExactly("", "W/\"1\"");
+		assertEquals(0, myInterceptor.getHitCount());
+
+		// A no-store response is never stored
+		ourCacheControl = "no-store";
+		read("2");
+		read("2");
+		assertThat(ourReceivedIfNoneMatch).containsExactly("", "W/\"1\"", "", "");
+		assertEquals(1, myInterceptor.getEntryCount());
+	}
+
+	@Test
+	public void testUpdateInvalidatesStoredResponse() {
+		ourCacheControl = "max-age=60";
+		read("1");
+		read("2");
+
+		Patient patient = new Patient();
+		patient.setId("Patient/1");
+		patient.addName().setFamily("UPDATED");
+		myClient.update().resource(patient).execute();
+
+		assertEquals("UPDATED", read("1").getNameFirstRep().getFamily());
+		assertEquals("FAMILY2", read("2").getNameFirstRep().getFamily());
+		assertEquals(1, myInterceptor.getHitCount());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		ourCacheControl = "max-age=60";
+		myInterceptor.setMaxEntries(2);
+
+		read("1");
+		read("2");
+		read("1");
+		read("3");
+
+		assertEquals(2, myInterceptor.getEntryCount());
+		assertEquals(1, myInterceptor.getEvictionCount());
+
+		read("1");
+		read("2");
+		assertEquals(2, myInterceptor.getHitCount());
+		assertEquals(4, myInterceptor.getMissCount());
+	}
+
+	@Test
+	public void testLargeResponseIsNotStored() {
+		ourCacheControl = "max-age=60";
+		myInterceptor.setMaxEntrySizeBytes(10);
+
+		assertEquals("FAMILY1", read("1").getNameFirstRep().getFamily());
+		assertEquals("FAMILY1", read("1").getNameFirstRep().getFamily());
+
+		assertEquals(0, myInterceptor.getEntryCount());
+		assertEquals(0, myInterceptor.getHitCount());
+	}
+
+	private Patient read(String theId) {
+		return myClient.read().resource(Patient.class).withId(theId).execute();
+	}
+
+	private static void putPatient(String theId, String theVersion, String theFamily) {
+		Patient patient = new Patient();
+		patient.setId("Patient/" + theId + "/_history/" + theVersion);
+		patient.getMeta().setLastUpdated(new Date(1_700_000_000_000L + Long.parseLong(theVersion) * 1000));
+		patient.addName().setFamily(theFamily);
+		ourPatients.put(theId, patient);
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read(version = true)
+		public Patient read(@IdParam IdType theId, HttpServletRequest theServletRequest, HttpServletResponse theServletResponse) {
+			String ifNoneMatch = theServletRequest.getHeader(Constants.HEADER_IF_NONE_MATCH);
+			ourReceivedIfNoneMatch.add(ifNoneMatch != null ? ifNoneMatch : "");
+			if (ourCacheControl != null) {
+				theServletResponse.addHeader(Constants.HEADER_CACHE_CONTROL, ourCacheControl);
+			}
+			Patient retVal = ourPatients.get(theId.getIdPart());
+			if (retVal == null) {
+				throw new ResourceNotFoundException(theId);
+			}
+			return retVal;
+		}
+
+		@Update
+		public MethodOutcome update(@IdParam IdType theId, @ResourceParam Patient thePatient) {
+			putPatient(theId.getIdPart(), "2", thePatient.getNameFirstRep().getFamily());
+			return new MethodOutcome(theId.withVersion("2"));
+		}
+	}
+}
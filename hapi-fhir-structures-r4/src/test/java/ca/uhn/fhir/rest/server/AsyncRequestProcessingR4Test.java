@@ -0,0 +1,283 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.Create;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.ResourceParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicNameValuePair;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AsyncRequestProcessingR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final String EXECUTOR_THREAD_NAME = "async-request-executor";
+	private static final ExecutorService ourExecutor = Executors.newFixedThreadPool(2, r -> new Thread(r, EXECUTOR_THREAD_NAME));
+	private static final List<String> ourThreadNames = Collections.synchronizedList(new ArrayList<>());
+	private static volatile CountDownLatch ourSlowReadFinished = new CountDownLatch(1);
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withPagingProvider(new FifoMemoryPagingProvider(10))
+		.setDefaultPrettyPrint(false);
+
+	@RegisterExtension
+	private HttpClientExtension myClient = new HttpClientExtension();
+
+	@BeforeEach
+	public void before() {
+		ourThreadNames.clear();
+		ourSlowReadFinished = new CountDownLatch(1);
+		myServer.getRestfulServer().setAsyncExecutor(ourExecutor);
+	}
+
+	@AfterEach
+	public void after() {
+		myServer.getRestfulServer().setAsyncExecutor(null);
+		myServer.getRestfulServer().setAsyncTimeoutMillis(RestfulServer.DEFAULT_ASYNC_TIMEOUT_MILLIS);
+		myServer.getRestfulServer().setAsyncMaxRequestBodySize(RestfulServer.DEFAULT_ASYNC_MAX_REQUEST_BODY_SIZE);
+	}
+
+	@AfterAll
+	public static void afterAll() {
+		ourExecutor.shutdown();
+	}
+
+	@Test
+	public void testRead() throws IOException {
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/123"))) {
+			String responseContent = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, response.getStatusLine().getStatusCode());
+			Patient patient = ourCtx.newJsonParser().parseResource(Patient.class, responseContent);
+			assertEquals("Patient/123", patient.getIdElement().toUnqualifiedVersionless().getValue());
+		}
+
+		assertThat(ourThreadNames).containsExactly(EXECUTOR_THREAD_NAME);
+	}
+
+	@Test
+	public void testReadNotFound() throws IOException {
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/999"))) {
+			String responseContent = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(404, response.getStatusLine().getStatusCode());
+			assertThat(responseContent).contains("Patient/999 is not known");
+		}
+	}
+
+	@Test
+	public void testCreateReadsRequestBody() throws IOException {
+		Patient patient = new Patient();
+		patient.addName().setFamily(createLongString());
+		HttpPost post = new HttpPost(myServer.getBaseUrl() + "/Patient");
+		post.setEntity(new StringEntity(ourCtx.newJsonParser().encodeResourceToString(patient), ContentType.parse(Constants.CT_FHIR_JSON_NEW + ";charset=utf-8")));
+
+		try (CloseableHttpResponse response = myClient.execute(post)) {
+			assertEquals(201, response.getStatusLine().getStatusCode());
+			assertThat(response.getFirstHeader(Constants.HEADER_LOCATION).getValue()).contains("Patient/" + patient.getNameFirstRep().getFamily().length());
+		}
+
+		assertThat(ourThreadNames).containsExactly(EXECUTOR_THREAD_NAME);
+	}
+
+	@Test
+	public void testSearchUsingFormPost() throws IOException {
+		HttpPost post = new HttpPost(myServer.getBaseUrl() + "/Patient/_search");
+		List<NameValuePair> parameters = List.of(new BasicNameValuePair("name", "SMITH"), new BasicNameValuePair("_count", "50"));
+		post.setEntity(new UrlEncodedFormEntity(parameters));
+
+		try (CloseableHttpResponse response = myClient.execute(post)) {
+			String responseContent = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, response.getStatusLine().getStatusCode());
+			Bundle bundle = ourCtx.newJsonParser().parseResource(Bundle.class, responseContent);
+			assertThat(bundle.getEntry()).hasSize(50);
+			assertThat(bundle.getLink(Bundle.LINK_NEXT)).isNotNull();
+			assertEquals("SMITH", ((Patient) bundle.getEntry().get(49).getResource()).getNameFirstRep().getFamily());
+		}
+	}
+
+	@Test
+	public void testInterceptorOrderIsUnchanged() throws IOException {
+		List<Pointcut> pointcuts = Collections.synchronizedList(new ArrayList<>());
+		for (Pointcut next : new Pointcut[]{
+			Pointcut.SERVER_INCOMING_REQUEST_PRE_PROCESSED,
+			Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED,
+			Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED,
+			Pointcut.SERVER_OUTGOING_RESPONSE,
+			Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY,
+			Pointcut.SERVER_PROCESSING_COMPLETED}) {
+			myServer.registerAnonymousInterceptor(next, (thePointcut, theArgs) -> pointcuts.add((Pointcut) thePointcut));
+		}
+
+		myServer.getRestfulServer().setAsyncExecutor(null);
+		readPatient();
+		// The completion hooks may still be running when the client receives the response
+		await().until(() -> pointcuts.contains(Pointcut.SERVER_PROCESSING_COMPLETED));
+		List<Pointcut> synchronousPointcuts = new ArrayList<>(pointcuts);
+		pointcuts.clear();
+
+		myServer.getRestfulServer().setAsyncExecutor(ourExecutor);
+		readPatient();
+		await().until(() -> pointcuts.contains(Pointcut.SERVER_PROCESSING_COMPLETED));
+
+		assertThat(synchronousPointcuts).contains(Pointcut.SERVER_OUTGOING_RESPONSE, Pointcut.SERVER_PROCESSING_COMPLETED_NORMALLY);
+		assertEquals(synchronousPointcuts, pointcuts);
+		assertThat(ourThreadNames).hasSize(2);
+		assertThat(ourThreadNames.get(0)).isNotEqualTo(EXECUTOR_THREAD_NAME);
+		assertEquals(EXECUTOR_THREAD_NAME, ourThreadNames.get(1));
+	}
+
+	@Test
+	public void testExecutorRejectsRequest() throws IOException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		myServer.getRestfulServer().setAsyncExecutor(executor);
+
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/123"))) {
+			assertEquals(503, response.getStatusLine().getStatusCode());
+		}
+		assertThat(ourThreadNames).isEmpty();
+	}
+
+	@Test
+	public void testRequestBodyTooLarge() throws IOException {
+		myServer.getRestfulServer().setAsyncMaxRequestBodySize(1000);
+
+		Patient patient = new Patient();
+		patient.addName().setFamily(createLongString());
+		HttpPost post = new HttpPost(myServer.getBaseUrl() + "/Patient");
+		post.setEntity(new StringEntity(ourCtx.newJsonParser().encodeResourceToString(patient), ContentType.parse(Constants.CT_FHIR_JSON_NEW + ";charset=utf-8")));
+
+		try (CloseableHttpResponse response = myClient.execute(post)) {
+			assertEquals(413, response.getStatusLine().getStatusCode());
+		}
+		assertThat(ourThreadNames).isEmpty();
+	}
+
+	@Test
+	public void testTimeout() throws IOException {
+		myServer.getRestfulServer().setAsyncTimeoutMillis(500);
+
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/slow"))) {
+			assertEquals(503, response.getStatusLine().getStatusCode());
+		}
+
+		// The server keeps working normally afterwards
+		myServer.getRestfulServer().setAsyncTimeoutMillis(RestfulServer.DEFAULT_ASYNC_TIMEOUT_MILLIS);
+		readPatient();
+	}
+
+	@Test
+	public void testTimedOutRequestDoesNotModifyLaterResponses() throws IOException {
+		myServer.getRestfulServer().setAsyncTimeoutMillis(500);
+
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/slow"))) {
+			assertEquals(503, response.getStatusLine().getStatusCode());
+		}
+		myServer.getRestfulServer().setAsyncTimeoutMillis(RestfulServer.DEFAULT_ASYNC_TIMEOUT_MILLIS);
+
+		// The timed out request finishes processing (with a 404) while these are being served
+		while (ourSlowReadFinished.getCount() > 0) {
+			readPatient();
+		}
+		for (int i = 0; i < 5; i++) {
+			readPatient();
+		}
+	}
+
+	private void readPatient() throws IOException {
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/123"))) {
+			String responseContent = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, response.getStatusLine().getStatusCode());
+			assertThat(response.getFirstHeader(Constants.HEADER_CONTENT_TYPE).getValue()).startsWith(Constants.CT_FHIR_JSON_NEW);
+			assertThat(responseContent).contains("SMITH");
+		}
+	}
+
+	private static String createLongString() {
+		return "A".repeat(100_000);
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) {
+			ourThreadNames.add(Thread.currentThread().getName());
+			if ("slow".equals(theId.getIdPart())) {
+				try {
+					Thread.sleep(2000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				ourSlowReadFinished.countDown();
+			}
+			if (!"123".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			retVal.addName().setFamily("SMITH");
+			return retVal;
+		}
+
+		@Create
+		public MethodOutcome create(@ResourceParam Patient thePatient) {
+			ourThreadNames.add(Thread.currentThread().getName());
+			return new MethodOutcome(new IdType("Patient/" + thePatient.getNameFirstRep().getFamily().length()), true);
+		}
+
+		@Search
+		public List<Patient> search(@RequiredParam(name = Patient.SP_NAME) StringParam theName) {
+			List<Patient> retVal = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue()).addGiven(createLongString().substring(0, 1000));
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+	}
+}
@@ -6,6 +6,7 @@ import ca.uhn.fhir.model.primitive.InstantDt;
 import ca.uhn.fhir.rest.annotation.IdParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.client.MyPatientWithExtensions;
 import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
 import ca.uhn.fhir.util.DateUtils;
@@ -25,6 +26,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -258,6 +261,44 @@ public class ReadR4Test {
 
 	}
 
+	@ParameterizedTest
+	@ValueSource(strings = {"json", "xml"})
+	public void testReadSupplementaryCharacters(String theFormat) throws Exception {
+		myRestfulServerExtension.getRestfulServer().registerProvider(new SupplementaryCharacterPatientProvider());
+
+		HttpGet httpGet = new HttpGet("http://localhost:" + myPort + "/Patient/2?_format=" + theFormat);
+		try (CloseableHttpResponse status = ourClient.execute(httpGet)) {
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
+			ourLog.info("Response was:\n{}", responseContent);
+
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			// Written as raw UTF-8 rather than as escaped surrogate pairs
+			assertThat(responseContent).contains("😀 Smith 𝄞").doesNotContainIgnoringCase("\\uD83D");
+
+			Patient patient = EncodingEnum.forContentType(status.getEntity().getContentType().getValue())
+				.newParser(myCtx)
+				.parseResource(Patient.class, responseContent);
+			assertEquals("😀 Smith 𝄞", patient.getNameFirstRep().getFamily());
+		}
+	}
+
+	public static class SupplementaryCharacterPatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theIdParam) {
+			Patient retVal = new Patient();
+			retVal.setId(theIdParam);
+			retVal.addName().setFamily("😀 Smith 𝄞");
+			return retVal;
+		}
+
+	}
+
 	public static class PatientProvider implements IResourceProvider {
 
 		@Override
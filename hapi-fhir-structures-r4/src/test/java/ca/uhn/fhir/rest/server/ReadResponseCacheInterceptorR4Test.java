@@ -0,0 +1,317 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.interceptor.ReadResponseCacheInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.auth.PolicyEnum;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletRestfulResponse;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.InstantType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReadResponseCacheInterceptorR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final AtomicInteger ourReadCount = new AtomicInteger();
+	private static final AtomicInteger ourCurrentVersion = new AtomicInteger();
+
+	private final ReadResponseCacheInterceptor mySvc = new ReadResponseCacheInterceptor();
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withServer(t -> t.setETagSupport(ETagSupportEnum.ENABLED))
+		.setDefaultPrettyPrint(false);
+
+	@RegisterExtension
+	private HttpClientExtension myClient = new HttpClientExtension();
+
+	@BeforeEach
+	public void before() {
+		ourReadCount.set(0);
+		ourCurrentVersion.set(1);
+		myServer.registerInterceptor(mySvc);
+	}
+
+	@AfterEach
+	public void after() {
+		myServer.unregisterInterceptor(mySvc);
+	}
+
+	@Test
+	public void testReadServedFromCache() throws IOException {
+		String first = executeAndReturnBody("/Patient/123", null, 200);
+		String second = executeAndReturnBody("/Patient/123", null, 200);
+
+		assertEquals(1, ourReadCount.get());
+		assertEquals(first, second);
+		assertEquals(1, mySvc.getHitCount());
+		assertEquals("Patient/123/_history/1", ourCtx.newJsonParser().parseResource(Patient.class, second).getIdElement().toUnqualified().getValue());
+	}
+
+	@Test
+	public void testCachedResponseHeaders() throws IOException {
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + "/Patient/123"))) {
+			IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals("W/\"1\"", response.getFirstHeader(Constants.HEADER_ETAG).getValue());
+			assertEquals(myServer.getBaseUrl() + "/Patient/123/_history/1", response.getFirstHeader(Constants.HEADER_CONTENT_LOCATION).getValue());
+			assertThat(response.getFirstHeader(Constants.HEADER_CONTENT_TYPE).getValue()).contains(Constants.CT_FHIR_JSON_NEW);
+			assertThat(response.getFirstHeader(Constants.HEADER_LAST_MODIFIED)).isNotNull();
+		}
+		assertEquals(1, ourReadCount.get());
+	}
+
+	@Test
+	public void testCachedResponseIsGzippedWhenRequested() throws IOException {
+		String expected = executeAndReturnBody("/Patient/123", null, 200);
+
+		try (CloseableHttpClient client = HttpClientBuilder.create().disableContentCompression().build()) {
+			HttpGet get = new HttpGet(myServer.getBaseUrl() + "/Patient/123");
+			get.addHeader(Constants.HEADER_ACCEPT_ENCODING, Constants.ENCODING_GZIP);
+			try (CloseableHttpResponse response = client.execute(get)) {
+				assertEquals(200, response.getStatusLine().getStatusCode());
+				assertEquals(Constants.ENCODING_GZIP, response.getFirstHeader(Constants.HEADER_CONTENT_ENCODING).getValue());
+				String body = IOUtils.toString(new GZIPInputStream(response.getEntity().getContent()), StandardCharsets.UTF_8);
+				assertEquals(expected, body);
+			}
+		}
+		assertEquals(1, ourReadCount.get());
+		assertEquals(1, mySvc.getHitCount());
+	}
+
+	@Test
+	public void testCachedResponseWrittenToResponseWithoutTextOutputStream() throws IOException {
+		// Like the JAX-RS server, this response can only be written using a Writer
+		Object interceptor = new WriterOnlyResponseInterceptor();
+		myServer.registerInterceptor(interceptor);
+		try {
+			String first = executeAndReturnBody("/Patient/123", null, 200);
+			String second = executeAndReturnBody("/Patient/123", null, 200);
+
+			assertEquals(first, second);
+			assertEquals(1, ourReadCount.get());
+			assertEquals(1, mySvc.getHitCount());
+		} finally {
+			myServer.unregisterInterceptor(interceptor);
+		}
+	}
+
+	@Test
+	public void testIfNoneMatchAnsweredFromVersionIndex() throws IOException {
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		executeAndReturnBody("/Patient/123", "W/\"1\"", 304);
+		executeAndReturnBody("/Patient/123/_history/1", "W/\"1\"", 304);
+
+		assertEquals(1, ourReadCount.get());
+		assertEquals(2, mySvc.getNotModifiedCount());
+	}
+
+	@Test
+	public void testUnknownResourceIsPassedToProvider() throws IOException {
+		executeAndReturnBody("/Patient/123", "W/\"1\"", 304);
+		assertEquals(1, ourReadCount.get());
+
+		executeAndReturnBody("/Patient/999", "W/\"1\"", 404);
+		executeAndReturnBody("/Patient/999", "W/\"1\"", 404);
+		assertEquals(3, ourReadCount.get());
+	}
+
+	@Test
+	public void testDifferentRepresentationsAreCachedSeparately() throws IOException {
+		String json = executeAndReturnBody("/Patient/123", null, 200);
+		String xml = executeAndReturnBody("/Patient/123?_format=xml", null, 200);
+		String summary = executeAndReturnBody("/Patient/123?_elements=gender", null, 200);
+		assertEquals(3, ourReadCount.get());
+
+		assertEquals(json, executeAndReturnBody("/Patient/123", null, 200));
+		assertEquals(xml, executeAndReturnBody("/Patient/123?_format=xml", null, 200));
+		assertEquals(summary, executeAndReturnBody("/Patient/123?_elements=gender", null, 200));
+		assertEquals(3, ourReadCount.get());
+		assertThat(xml).startsWith("<Patient");
+		assertThat(summary).doesNotContain("SMITH");
+	}
+
+	@Test
+	public void testNarrativeSummaryIsNotCached() throws IOException {
+		executeAndReturnBody("/Patient/123?_summary=text", null, 200);
+		executeAndReturnBody("/Patient/123?_summary=text", null, 200);
+
+		assertEquals(2, ourReadCount.get());
+	}
+
+	@Test
+	public void testUpdateInvalidatesVersionIndex() throws IOException {
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		ourCurrentVersion.set(2);
+		mySvc.resourceUpdated(null, new IdType("Patient/123/_history/2"));
+
+		executeAndReturnBody("/Patient/123", "W/\"1\"", 200);
+		assertEquals(2, ourReadCount.get());
+		executeAndReturnBody("/Patient/123", "W/\"2\"", 304);
+		String body = executeAndReturnBody("/Patient/123", null, 200);
+		assertEquals(2, ourReadCount.get());
+		assertEquals("2", ourCtx.newJsonParser().parseResource(Patient.class, body).getIdElement().getVersionIdPart());
+	}
+
+	@Test
+	public void testOlderVersionObservedByReadDoesNotMoveIndexBackwards() throws IOException {
+		// Simulate an update committing while the read is in progress
+		mySvc.resourceUpdated(null, new IdType("Patient/123/_history/2"));
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		// The provider is invoked and returns the version the client already has
+		executeAndReturnBody("/Patient/123", "W/\"1\"", 304);
+		assertEquals(2, ourReadCount.get());
+		assertEquals(0, mySvc.getNotModifiedCount());
+	}
+
+	@Test
+	public void testDeleteInvalidatesVersionIndex() throws IOException {
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		mySvc.resourceDeleted(null, new IdType("Patient/123"));
+
+		executeAndReturnBody("/Patient/123", "W/\"1\"", 304);
+		executeAndReturnBody("/Patient/123", null, 200);
+		assertEquals(3, ourReadCount.get());
+		assertEquals(0, mySvc.getNotModifiedCount());
+	}
+
+	@Test
+	public void testExpungeDiscardsCachedBodies() throws IOException {
+		executeAndReturnBody("/Patient/123/_history/1", null, 200);
+		executeAndReturnBody("/Patient/123/_history/1", null, 200);
+		assertEquals(1, ourReadCount.get());
+
+		mySvc.resourceExpunged(null, new IdType("Patient/123/_history/1"));
+
+		executeAndReturnBody("/Patient/123/_history/1", null, 200);
+		assertEquals(2, ourReadCount.get());
+	}
+
+	@Test
+	public void testNotActiveWhileAuthorizationInterceptorRegistered() throws IOException {
+		AuthorizationInterceptor authorizationInterceptor = new AuthorizationInterceptor(PolicyEnum.ALLOW);
+		myServer.registerInterceptor(authorizationInterceptor);
+		try {
+			executeAndReturnBody("/Patient/123", null, 200);
+			executeAndReturnBody("/Patient/123", null, 200);
+			executeAndReturnBody("/Patient/123", "W/\"1\"", 304);
+			assertEquals(3, ourReadCount.get());
+			assertEquals(0, mySvc.getHitCount());
+			assertEquals(0, mySvc.getNotModifiedCount());
+		} finally {
+			myServer.unregisterInterceptor(authorizationInterceptor);
+		}
+
+		// Nothing was stored while the interceptor was registered
+		executeAndReturnBody("/Patient/123", null, 200);
+		assertEquals(4, ourReadCount.get());
+	}
+
+	@Test
+	public void testBrowserRequestsAreNotCached() throws IOException {
+		executeAndReturnBody("/Patient/123", null, 200);
+
+		HttpGet get = new HttpGet(myServer.getBaseUrl() + "/Patient/123");
+		get.addHeader(Constants.HEADER_ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9");
+		try (CloseableHttpResponse response = myClient.execute(get)) {
+			assertEquals(200, response.getStatusLine().getStatusCode());
+		}
+		assertEquals(2, ourReadCount.get());
+	}
+
+	@Test
+	public void testNotActiveWithoutETagSupport() throws IOException {
+		myServer.getRestfulServer().setETagSupport(ETagSupportEnum.DISABLED);
+		try {
+			executeAndReturnBody("/Patient/123", null, 200);
+			executeAndReturnBody("/Patient/123", null, 200);
+			assertEquals(2, ourReadCount.get());
+		} finally {
+			myServer.getRestfulServer().setETagSupport(ETagSupportEnum.ENABLED);
+		}
+	}
+
+	private String executeAndReturnBody(String thePath, String theIfNoneMatch, int theExpectedStatus) throws IOException {
+		HttpGet get = new HttpGet(myServer.getBaseUrl() + thePath);
+		if (theIfNoneMatch != null) {
+			get.addHeader(Constants.HEADER_IF_NONE_MATCH, theIfNoneMatch);
+		}
+		try (CloseableHttpResponse response = myClient.execute(get)) {
+			String responseContent = response.getEntity() != null ? IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8) : null;
+			assertEquals(theExpectedStatus, response.getStatusLine().getStatusCode(), responseContent);
+			return responseContent;
+		}
+	}
+
+	@Interceptor
+	public static class WriterOnlyResponseInterceptor {
+
+		@Hook(value = Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED, order = -1)
+		public void replaceResponse(ServletRequestDetails theRequestDetails) {
+			theRequestDetails.setResponse(new ServletRestfulResponse(theRequestDetails) {
+				@Override
+				public OutputStream getResponseTextOutputStream(int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip) {
+					return null;
+				}
+			});
+		}
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read(version = true)
+		public Patient read(@IdParam IdType theId) {
+			ourReadCount.incrementAndGet();
+			if (!"123".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			String version = theId.hasVersionIdPart() ? theId.getVersionIdPart() : Integer.toString(ourCurrentVersion.get());
+			Patient retVal = new Patient();
+			retVal.setId("Patient/123/_history/" + version);
+			retVal.getMeta().setLastUpdatedElement(new InstantType("2024-01-01T00:00:00Z"));
+			retVal.addName().setFamily("SMITH");
+			retVal.setGender(Enumerations.AdministrativeGender.MALE);
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.interceptor.RequestCoalescingInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.auth.PolicyEnum;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RequestCoalescingInterceptorR4Test {
+
+	private static final String BEARER_A = "Bearer A";
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final ExecutorService ourExecutor = Executors.newCachedThreadPool();
+	private static final AtomicInteger ourInvocationCount = new AtomicInteger();
+	private static volatile CountDownLatch ourReleaseLatch;
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withPagingProvider(new FifoMemoryPagingProvider(10))
+		.setDefaultPrettyPrint(false);
+
+	@RegisterExtension
+	private HttpClientExtension myClient = new HttpClientExtension();
+
+	private RequestCoalescingInterceptor myInterceptor;
+	private final AtomicInteger myArrivalCount = new AtomicInteger();
+
+	@BeforeEach
+	public void before() {
+		ourInvocationCount.set(0);
+		ourReleaseLatch = new CountDownLatch(1);
+		myInterceptor = new RequestCoalescingInterceptor();
+		myServer.registerInterceptor(myInterceptor);
+		myServer.registerAnonymousInterceptor(Pointcut.SERVER_INCOMING_REQUEST_POST_PROCESSED, (thePointcut, theArgs) -> myArrivalCount.incrementAndGet());
+	}
+
+	@AfterEach
+	public void after() {
+		ourReleaseLatch.countDown();
+		myServer.unregisterAllInterceptors();
+	}
+
+	@AfterAll
+	public static void afterAll() {
+		ourExecutor.shutdown();
+	}
+
+	@Test
+	public void testConcurrentReadsAreCoalesced() throws Exception {
+		List<Future<Response>> futures = executeConcurrently(5, "/Patient/123", BEARER_A);
+
+		assertEquals(1, ourInvocationCount.get());
+		List<Response> responses = getAll(futures);
+		for (Response next : responses) {
+			assertEquals(200, next.myStatus);
+			assertEquals(responses.get(0).myBody, next.myBody);
+			assertEquals("W/\"3\"", next.myETag);
+		}
+		assertEquals("SMITH", ourCtx.newJsonParser().parseResource(Patient.class, responses.get(0).myBody).getNameFirstRep().getFamily());
+		assertEquals(1, myInterceptor.getLeaderCount());
+		assertEquals(4, myInterceptor.getCoalescedCount());
+		assertEquals(0, myInterceptor.getInFlightCount());
+	}
+
+	@Test
+	public void testConcurrentSearchesAreCoalesced() throws Exception {
+		List<Future<Response>> futures = executeConcurrently(3, "/Patient?name=SMITH&_count=5", BEARER_A);
+
+		assertEquals(1, ourInvocationCount.get());
+		List<Response> responses = getAll(futures);
+		for (Response next : responses) {
+			assertEquals(200, next.myStatus);
+			assertEquals(responses.get(0).myBody, next.myBody);
+		}
+		Bundle bundle = ourCtx.newJsonParser().parseResource(Bundle.class, responses.get(0).myBody);
+		assertThat(bundle.getEntry()).hasSize(5);
+		assertEquals(2, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testRequestsWithDifferentIdentityAreNotCoalesced() throws Exception {
+		Future<Response> first = ourExecutor.submit(() -> execute("/Patient/123", BEARER_A));
+		Future<Response> second = ourExecutor.submit(() -> execute("/Patient/123", "Bearer B"));
+		await().until(() -> ourInvocationCount.get() == 2);
+		ourReleaseLatch.countDown();
+
+		assertEquals(200, first.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(200, second.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(2, myInterceptor.getLeaderCount());
+		assertEquals(0, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testRequestsWithoutIdentityAreNotCoalesced() throws Exception {
+		Future<Response> first = ourExecutor.submit(() -> execute("/Patient/123", null));
+		Future<Response> second = ourExecutor.submit(() -> execute("/Patient/123", null));
+		await().until(() -> ourInvocationCount.get() == 2);
+		ourReleaseLatch.countDown();
+
+		assertEquals(200, first.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(200, second.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(0, myInterceptor.getLeaderCount());
+		assertEquals(0, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testNotCoalescedWhileAuthorizationInterceptorRegistered() throws Exception {
+		myServer.registerInterceptor(new AuthorizationInterceptor(PolicyEnum.ALLOW));
+
+		Future<Response> first = ourExecutor.submit(() -> execute("/Patient/123", BEARER_A));
+		Future<Response> second = ourExecutor.submit(() -> execute("/Patient/123", BEARER_A));
+		await().until(() -> ourInvocationCount.get() == 2);
+		ourReleaseLatch.countDown();
+
+		assertEquals(200, first.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(200, second.get(60, TimeUnit.SECONDS).myStatus);
+		assertEquals(0, myInterceptor.getLeaderCount());
+		assertEquals(0, myInterceptor.getCoalescedCount());
+	}
+
+	@Test
+	public void testFailedLeaderIsNotShared() throws Exception {
+		List<Future<Response>> futures = executeConcurrently(3, "/Patient/999", BEARER_A);
+
+		for (Response next : getAll(futures)) {
+			assertEquals(404, next.myStatus);
+			assertThat(next.myBody).contains("Patient/999 is not known");
+		}
+		assertEquals(0, myInterceptor.getCoalescedCount());
+		assertEquals(2, myInterceptor.getFallbackCount());
+		assertThat(ourInvocationCount.get()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	public void testResponseLargerThanMaximumIsNotShared() throws Exception {
+		myInterceptor.setMaximumResponseBytes(10);
+
+		List<Future<Response>> futures = executeConcurrently(2, "/Patient/123", BEARER_A);
+
+		for (Response next : getAll(futures)) {
+			assertEquals(200, next.myStatus);
+		}
+		assertEquals(0, myInterceptor.getCoalescedCount());
+		assertEquals(1, myInterceptor.getFallbackCount());
+		assertEquals(2, ourInvocationCount.get());
+	}
+
+	@Test
+	public void testSequentialRequestsAreNotCoalesced() throws Exception {
+		ourReleaseLatch.countDown();
+
+		assertEquals(200, execute("/Patient/123", BEARER_A).myStatus);
+		assertEquals(200, execute("/Patient/123", BEARER_A).myStatus);
+
+		assertEquals(2, ourInvocationCount.get());
+		assertEquals(2, myInterceptor.getLeaderCount());
+		assertEquals(0, myInterceptor.getCoalescedCount());
+	}
+
+	/**
+	 * Starts a leader which blocks in the resource provider, then waits for the given number
+	 * of requests to arrive before letting the leader continue
+	 */
+	private List<Future<Response>> executeConcurrently(int theCount, String thePath, String theAuthorization) throws InterruptedException {
+		List<Future<Response>> retVal = new ArrayList<>();
+		retVal.add(ourExecutor.submit(() -> execute(thePath, theAuthorization)));
+		await().until(() -> ourInvocationCount.get() == 1);
+		for (int i = 1; i < theCount; i++) {
+			retVal.add(ourExecutor.submit(() -> execute(thePath, theAuthorization)));
+		}
+		await().until(() -> myArrivalCount.get() == theCount);
+		// Give the followers time to start waiting for the leader
+		Thread.sleep(200);
+		ourReleaseLatch.countDown();
+		return retVal;
+	}
+
+	private static List<Response> getAll(List<Future<Response>> theFutures) throws Exception {
+		List<Response> retVal = new ArrayList<>();
+		for (Future<Response> next : theFutures) {
+			retVal.add(next.get(60, TimeUnit.SECONDS));
+		}
+		return retVal;
+	}
+
+	private Response execute(String thePath, String theAuthorization) throws Exception {
+		HttpGet get = new HttpGet(myServer.getBaseUrl() + thePath);
+		if (theAuthorization != null) {
+			get.addHeader(Constants.HEADER_AUTHORIZATION, theAuthorization);
+		}
+		try (CloseableHttpResponse response = myClient.execute(get)) {
+			Response retVal = new Response();
+			retVal.myStatus = response.getStatusLine().getStatusCode();
+			retVal.myBody = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			if (response.getFirstHeader(Constants.HEADER_ETAG) != null) {
+				retVal.myETag = response.getFirstHeader(Constants.HEADER_ETAG).getValue();
+			}
+			return retVal;
+		}
+	}
+
+	private static class Response {
+		private int myStatus;
+		private String myBody;
+		private String myETag;
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			ourInvocationCount.incrementAndGet();
+			ourReleaseLatch.await(60, TimeUnit.SECONDS);
+			if (!"123".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			Patient retVal = new Patient();
+			retVal.setId("Patient/123/_history/3");
+			retVal.addName().setFamily("SMITH");
+			return retVal;
+		}
+
+		@Search
+		public List<Patient> search(@RequiredParam(name = Patient.SP_NAME) StringParam theName) throws InterruptedException {
+			ourInvocationCount.incrementAndGet();
+			ourReleaseLatch.await(60, TimeUnit.SECONDS);
+			List<Patient> retVal = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue());
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.interceptor.metrics.HistogramServerMetricsRegistry;
+import ca.uhn.fhir.rest.server.interceptor.metrics.LatencyHistogram;
+import ca.uhn.fhir.rest.server.interceptor.metrics.ServerMetricsInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.metrics.ServerMetricsKey;
+import ca.uhn.fhir.rest.server.interceptor.metrics.ServerMetricsPhaseEnum;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ServerMetricsInterceptorR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.setDefaultPrettyPrint(false);
+
+	@RegisterExtension
+	private HttpClientExtension myClient = new HttpClientExtension();
+
+	private HistogramServerMetricsRegistry myRegistry;
+	private ServerMetricsInterceptor myInterceptor;
+
+	@BeforeEach
+	public void before() {
+		myRegistry = new HistogramServerMetricsRegistry();
+		myInterceptor = new ServerMetricsInterceptor(myRegistry);
+		myServer.registerInterceptor(myInterceptor);
+	}
+
+	@AfterEach
+	public void after() {
+		myServer.unregisterInterceptor(myInterceptor);
+	}
+
+	@Test
+	public void testRead() throws IOException {
+		executeAndReturnStatus("/Patient/123");
+		executeAndReturnStatus("/Patient/123");
+
+		ServerMetricsKey key = new ServerMetricsKey(RestOperationTypeEnum.READ, "Patient", null, ServerMetricsKey.OutcomeEnum.SUCCESS);
+		await().until(() -> getCount(key, ServerMetricsPhaseEnum.TOTAL) == 2);
+
+		for (ServerMetricsPhaseEnum next : ServerMetricsPhaseEnum.values()) {
+			assertEquals(2, getCount(key, next), next.name());
+		}
+		LatencyHistogram total = myRegistry.getHistogram(key, ServerMetricsPhaseEnum.TOTAL);
+		LatencyHistogram handler = myRegistry.getHistogram(key, ServerMetricsPhaseEnum.HANDLER);
+		assertThat(total.getTotalMicros()).isGreaterThanOrEqualTo(handler.getTotalMicros());
+		assertThat(handler.getMaxMicros()).isGreaterThanOrEqualTo(10_000);
+	}
+
+	@Test
+	public void testSearch() throws IOException {
+		executeAndReturnStatus("/Patient?name=SMITH");
+
+		ServerMetricsKey key = new ServerMetricsKey(RestOperationTypeEnum.SEARCH_TYPE, "Patient", null, ServerMetricsKey.OutcomeEnum.SUCCESS);
+		await().until(() -> getCount(key, ServerMetricsPhaseEnum.TOTAL) == 1);
+		assertEquals(1, getCount(key, ServerMetricsPhaseEnum.ENCODING));
+	}
+
+	@Test
+	public void testNotFound() throws IOException {
+		assertEquals(404, executeAndReturnStatus("/Patient/999"));
+
+		ServerMetricsKey key = new ServerMetricsKey(RestOperationTypeEnum.READ, "Patient", null, ServerMetricsKey.OutcomeEnum.CLIENT_ERROR);
+		await().until(() -> getCount(key, ServerMetricsPhaseEnum.TOTAL) == 1);
+
+		// The handler threw, so the response phases were never reached
+		assertEquals(1, getCount(key, ServerMetricsPhaseEnum.INCOMING));
+		assertEquals(0, getCount(key, ServerMetricsPhaseEnum.HANDLER));
+		assertEquals(0, getCount(key, ServerMetricsPhaseEnum.ENCODING));
+		Map<ServerMetricsKey, ?> histograms = myRegistry.getHistograms();
+		assertThat(histograms).containsOnlyKeys(key);
+	}
+
+	@Test
+	public void testDisabled() throws IOException {
+		myInterceptor.setEnabled(false);
+
+		List<Integer> statuses = new ArrayList<>();
+		statuses.add(executeAndReturnStatus("/Patient/123"));
+		statuses.add(executeAndReturnStatus("/Patient/999"));
+
+		assertThat(statuses).containsExactly(200, 404);
+		assertThat(myRegistry.getHistograms()).isEmpty();
+	}
+
+	private long getCount(ServerMetricsKey theKey, ServerMetricsPhaseEnum thePhase) {
+		LatencyHistogram histogram = myRegistry.getHistogram(theKey, thePhase);
+		return histogram != null ? histogram.getCount() : 0;
+	}
+
+	private int executeAndReturnStatus(String thePath) throws IOException {
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(myServer.getBaseUrl() + thePath))) {
+			IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			return response.getStatusLine().getStatusCode();
+		}
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType theId) throws InterruptedException {
+			if (!"123".equals(theId.getIdPart())) {
+				throw new ResourceNotFoundException(theId);
+			}
+			Thread.sleep(10);
+			Patient retVal = new Patient();
+			retVal.setId(theId);
+			retVal.addName().setFamily("SMITH");
+			return retVal;
+		}
+
+		@Search
+		public List<Patient> search(@RequiredParam(name = Patient.SP_NAME) StringParam theName) {
+			List<Patient> retVal = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue());
+				retVal.add(patient);
+			}
+			return retVal;
+		}
+	}
+}
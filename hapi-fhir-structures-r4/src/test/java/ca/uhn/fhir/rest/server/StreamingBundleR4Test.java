@@ -0,0 +1,308 @@
+package ca.uhn.fhir.rest.server;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.model.api.ResourceMetadataKeyEnum;
+import ca.uhn.fhir.model.valueset.BundleEntrySearchModeEnum;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.StringParam;
+import ca.uhn.fhir.rest.server.interceptor.consent.ConsentInterceptor;
+import ca.uhn.fhir.rest.server.interceptor.consent.ConsentOutcome;
+import ca.uhn.fhir.rest.server.interceptor.consent.IConsentContextServices;
+import ca.uhn.fhir.rest.server.interceptor.consent.IConsentService;
+import ca.uhn.fhir.rest.server.method.ResponsePage;
+import ca.uhn.fhir.test.utilities.HttpClientExtension;
+import ca.uhn.fhir.test.utilities.server.RestfulServerExtension;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StreamingBundleR4Test {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final List<String> ourLoadedRanges = Collections.synchronizedList(new ArrayList<>());
+
+	@RegisterExtension
+	public RestfulServerExtension myServer = new RestfulServerExtension(ourCtx)
+		.registerProvider(new PatientProvider())
+		.withPagingProvider(new FifoMemoryPagingProvider(10).setDefaultPageSize(50).setMaximumPageSize(100))
+		.setDefaultPrettyPrint(false);
+
+	@RegisterExtension
+	private HttpClientExtension myClient = new HttpClientExtension();
+
+	@BeforeEach
+	public void before() {
+		ourLoadedRanges.clear();
+	}
+
+	@AfterEach
+	public void after() {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(null);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"json", "xml"})
+	public void testStreamedBundleMatchesMaterializedBundle(String theFormat) throws IOException {
+		String url = myServer.getBaseUrl() + "/Patient?name=SMITH&_format=" + theFormat;
+
+		String materialized = executeAndReturnBody(url);
+		assertThat(ourLoadedRanges).containsExactly("0-50");
+		ourLoadedRanges.clear();
+
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+		String streamed = executeAndReturnBody(url);
+		assertThat(ourLoadedRanges).containsExactly("0-20", "20-40", "40-50");
+
+		assertEquals(normalize(theFormat, materialized), normalize(theFormat, streamed));
+		Bundle bundle = parse(theFormat, streamed);
+		assertEquals(1000, bundle.getTotal());
+		assertThat(bundle.getEntry()).hasSize(50);
+		assertThat(bundle.getLink(Bundle.LINK_NEXT)).isNotNull();
+	}
+
+	@Test
+	public void testStreamedPagingRequest() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+		Bundle firstPage = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH"));
+		ourLoadedRanges.clear();
+
+		String nextUrl = firstPage.getLink(Bundle.LINK_NEXT).getUrl();
+		Bundle secondPage = parse("json", executeAndReturnBody(nextUrl));
+
+		assertThat(ourLoadedRanges).containsExactly("50-70", "70-90", "90-100");
+		assertThat(secondPage.getEntry()).hasSize(50);
+		assertEquals("Patient/50", secondPage.getEntry().get(0).getResource().getIdElement().toUnqualifiedVersionless().getValue());
+		assertThat(secondPage.getLink(Bundle.LINK_PREV)).isNotNull();
+		assertThat(secondPage.getLink(Bundle.LINK_NEXT)).isNotNull();
+	}
+
+	@Test
+	public void testIncludedResourcesAreWrittenOnce() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH&_include=Patient:organization"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-20", "20-40", "40-50");
+		List<String> includedIds = bundle.getEntry()
+			.stream()
+			.filter(t -> t.getSearch().getMode() == Bundle.SearchEntryMode.INCLUDE)
+			.map(t -> t.getResource().getIdElement().toUnqualifiedVersionless().getValue())
+			.toList();
+		assertThat(includedIds).containsExactlyInAnyOrder("Organization/0", "Organization/1");
+		assertEquals(52, bundle.getEntry().size());
+	}
+
+	/**
+	 * A resource which was written as an include in an earlier batch must not be written
+	 * again when it is a search match in a later batch
+	 */
+	@Test
+	public void testResourceIncludedInEarlierBatchIsNotRepeatedAsMatch() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?family=SMITH&_include=*"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-20", "20-40", "40-50");
+		List<String> ids = bundle.getEntry()
+			.stream()
+			.map(t -> t.getResource().getIdElement().toUnqualifiedVersionless().getValue())
+			.toList();
+		assertThat(ids).doesNotHaveDuplicates();
+		assertThat(ids).hasSize(80);
+		assertThat(ids).contains("Patient/0", "Patient/49", "Patient/79");
+	}
+
+	@Test
+	public void testNotStreamedWhenOutgoingResponseHookRegistered() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+		myServer.registerAnonymousInterceptor(Pointcut.SERVER_OUTGOING_RESPONSE, (thePointcut, theArgs) -> {});
+
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-50");
+		assertThat(bundle.getEntry()).hasSize(50);
+	}
+
+	/**
+	 * The consent interceptor doesn't prevent streaming, and its rules are applied to
+	 * each batch as it is loaded
+	 */
+	@Test
+	public void testStreamedWithConsentInterceptor() throws IOException {
+		List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+		IConsentService consentService = new IConsentService() {
+			@Override
+			public List<ConsentOutcome> willSeeResources(
+				RequestDetails theRequestDetails,
+				List<IBaseResource> theResources,
+				IConsentContextServices theContextServices,
+				Executor theExecutor) {
+				batchSizes.add(theResources.size());
+				return IConsentService.super.willSeeResources(theRequestDetails, theResources, theContextServices, theExecutor);
+			}
+
+			@Override
+			public ConsentOutcome willSeeResource(
+				RequestDetails theRequestDetails, IBaseResource theResource, IConsentContextServices theContextServices) {
+				if (theResource instanceof Patient && Integer.parseInt(theResource.getIdElement().getIdPart()) % 2 == 0) {
+					return ConsentOutcome.REJECT;
+				}
+				return ConsentOutcome.PROCEED;
+			}
+		};
+		myServer.registerInterceptor(new ConsentInterceptor(consentService));
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-20", "20-40", "40-50");
+		assertThat(batchSizes).containsExactly(20, 20, 10);
+		List<String> ids = bundle.getEntry()
+			.stream()
+			.map(t -> t.getResource().getIdElement().toUnqualifiedVersionless().getValue())
+			.toList();
+		assertThat(ids).hasSize(25);
+		assertThat(ids).contains("Patient/1", "Patient/49").doesNotContain("Patient/0", "Patient/48");
+	}
+
+	@Test
+	public void testNotStreamedWithElementsParameter() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(20);
+
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH&_elements=gender"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-50");
+		assertThat(bundle.getEntry()).hasSize(50);
+		assertThat(((Patient) bundle.getEntry().get(0).getResource()).hasName()).isFalse();
+	}
+
+	@Test
+	public void testNotStreamedWhenPageFitsInOneBatch() throws IOException {
+		myServer.getRestfulServer().setStreamingBundleBatchSize(50);
+
+		Bundle bundle = parse("json", executeAndReturnBody(myServer.getBaseUrl() + "/Patient?name=SMITH"));
+
+		assertThat(ourLoadedRanges).containsExactly("0-50");
+		assertThat(bundle.getEntry()).hasSize(50);
+	}
+
+	private String executeAndReturnBody(String theUrl) throws IOException {
+		try (CloseableHttpResponse response = myClient.execute(new HttpGet(theUrl))) {
+			String responseContent = IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8);
+			assertEquals(200, response.getStatusLine().getStatusCode(), responseContent);
+			return responseContent;
+		}
+	}
+
+	/**
+	 * The bundle ID and timestamp differ between requests
+	 */
+	private static String normalize(String theFormat, String theEncoded) {
+		Bundle bundle = parse(theFormat, theEncoded);
+		bundle.setId((String) null);
+		bundle.setMeta(null);
+		bundle.getLink().forEach(t -> t.setUrl(t.getUrl().replaceAll("_getpages=[^&]+", "")));
+		return newParser(theFormat).encodeResourceToString(bundle);
+	}
+
+	private static Bundle parse(String theFormat, String theEncoded) {
+		return newParser(theFormat).parseResource(Bundle.class, theEncoded);
+	}
+
+	private static IParser newParser(String theFormat) {
+		return "xml".equals(theFormat) ? ourCtx.newXmlParser() : ourCtx.newJsonParser();
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Search
+		public IBundleProvider search(
+			@RequiredParam(name = Patient.SP_NAME) StringParam theName,
+			@IncludeParam(allow = "Patient:organization") Set<Include> theIncludes) {
+			List<IBaseResource> patients = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				Organization organization = new Organization();
+				organization.setId("Organization/" + (i % 2));
+				organization.setName("Org " + (i % 2));
+
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theName.getValue()).addGiven("Given " + i);
+				patient.getManagingOrganization().setResource(organization);
+				ResourceMetadataKeyEnum.ENTRY_SEARCH_MODE.put(patient, BundleEntrySearchModeEnum.MATCH);
+				patients.add(patient);
+			}
+			return new RecordingBundleProvider(patients);
+		}
+
+		/**
+		 * Each patient links to the patient 30 positions further on, so a page contains
+		 * patients which are both included by an earlier batch and matched by a later one
+		 */
+		@Search
+		public IBundleProvider searchLinked(
+			@RequiredParam(name = Patient.SP_FAMILY) StringParam theFamily,
+			@IncludeParam Set<Include> theIncludes) {
+			List<IBaseResource> patients = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				Patient linked = new Patient();
+				linked.setId("Patient/" + ((i + 30) % 1000));
+				linked.addName().setFamily(theFamily.getValue()).addGiven("Given " + ((i + 30) % 1000));
+
+				Patient patient = new Patient();
+				patient.setId("Patient/" + i);
+				patient.addName().setFamily(theFamily.getValue()).addGiven("Given " + i);
+				patient.addLink().getOther().setResource(linked);
+				ResourceMetadataKeyEnum.ENTRY_SEARCH_MODE.put(patient, BundleEntrySearchModeEnum.MATCH);
+				patients.add(patient);
+			}
+			return new RecordingBundleProvider(patients);
+		}
+	}
+
+	private static class RecordingBundleProvider extends SimpleBundleProvider {
+
+		RecordingBundleProvider(List<IBaseResource> theResources) {
+			super(theResources);
+		}
+
+		@Nonnull
+		@Override
+		public List<IBaseResource> getResources(int theFromIndex, int theToIndex, @Nonnull ResponsePage.ResponsePageBuilder theResponsePageBuilder) {
+			ourLoadedRanges.add(theFromIndex + "-" + theToIndex);
+			return super.getResources(theFromIndex, theToIndex, theResponsePageBuilder);
+		}
+	}
+}
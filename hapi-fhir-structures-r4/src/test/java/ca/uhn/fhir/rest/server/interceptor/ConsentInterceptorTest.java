@@ -60,9 +60,13 @@ import org.springframework.util.Assert;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -71,6 +75,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.timeout;
@@ -271,7 +276,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(0)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).startOperation(any(), any());
 		verify(myConsentSvc, timeout(2000).times(2)).completeOperationSuccess(any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 
@@ -299,7 +304,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(3)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 
@@ -327,7 +332,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(3)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 
@@ -359,7 +364,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(10000).times(3)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(10000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(10000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 
 	}
 
@@ -386,7 +391,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(3)).willSeeResource(any(), any(), any()); // the two patients + the bundle
 		verify(myConsentSvc, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 	@Test
@@ -425,7 +430,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(1000).times(3)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(1000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 	@Test
@@ -466,7 +471,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(4)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 	@Test
@@ -504,7 +509,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc, timeout(2000).times(3)).willSeeResource(any(), any(), any());
 		verify(myConsentSvc, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 	private Bundle createDocumentBundle() {
@@ -705,8 +710,8 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc2, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
 		verify(myConsentSvc2, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
-		verifyNoMoreInteractions(myConsentSvc2);
+		verifyNoMoreConsentInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc2);
 	}
 
 	@Test
@@ -753,7 +758,7 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc2, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
 		verify(myConsentSvc2, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc);
 	}
 
 	@Test
@@ -789,8 +794,8 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc2, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
 		verify(myConsentSvc2, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
-		verifyNoMoreInteractions(myConsentSvc2);
+		verifyNoMoreConsentInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc2);
 	}
 
 	@Test
@@ -827,8 +832,8 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc2, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
 		verify(myConsentSvc2, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
-		verifyNoMoreInteractions(myConsentSvc2);
+		verifyNoMoreConsentInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc2);
 	}
 
 	@Test
@@ -870,8 +875,8 @@ public class ConsentInterceptorTest {
 		verify(myConsentSvc2, timeout(2000).times(1)).completeOperationSuccess(any(), any());
 		verify(myConsentSvc, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
 		verify(myConsentSvc2, timeout(2000).times(0)).completeOperationFailure(any(), any(), any());
-		verifyNoMoreInteractions(myConsentSvc);
-		verifyNoMoreInteractions(myConsentSvc2);
+		verifyNoMoreConsentInteractions(myConsentSvc);
+		verifyNoMoreConsentInteractions(myConsentSvc2);
 	}
 
 	@Mock
@@ -1008,6 +1013,53 @@ public class ConsentInterceptorTest {
 		assertEquals(2, response.getTotal());
 	}
 
+	@Test
+	public void testSearch_BatchEvaluationUsesExecutor() throws IOException {
+		for (int i = 0; i < 10; i++) {
+			ourPatientProvider.store((Patient) new Patient().setActive(i % 3 != 0).setId("PT" + i));
+		}
+
+		List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+		IConsentService consentService = new IConsentService() {
+			@Override
+			public ConsentOutcome canSeeResource(RequestDetails theRequestDetails, IBaseResource theResource, IConsentContextServices theContextServices) {
+				threadNames.add(Thread.currentThread().getName());
+				return ((Patient) theResource).getActive() ? ConsentOutcome.PROCEED : ConsentOutcome.REJECT;
+			}
+
+			@Override
+			public List<ConsentOutcome> canSeeResources(RequestDetails theRequestDetails, List<IBaseResource> theResources, IConsentContextServices theContextServices, Executor theExecutor) {
+				return IConsentService.evaluateInParallel(theResources, t -> canSeeResource(theRequestDetails, t, theContextServices), theExecutor);
+			}
+		};
+		myInterceptor.unregisterConsentService(myConsentSvc);
+		myInterceptor.registerConsentService(consentService);
+		ExecutorService executor = Executors.newFixedThreadPool(4, r -> new Thread(r, "consent-executor"));
+		myInterceptor.setConsentEvaluationExecutor(executor);
+
+		try (CloseableHttpResponse status = myClient.execute(new HttpGet("http://localhost:" + myPort + "/Patient"))) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			String responseContent = IOUtils.toString(status.getEntity().getContent(), Charsets.UTF_8);
+			Bundle response = ourCtx.newJsonParser().parseResource(Bundle.class, responseContent);
+			List<String> ids = response.getEntry().stream().map(t -> t.getResource().getIdElement().getIdPart()).toList();
+			assertThat(ids).containsExactly("PT1", "PT2", "PT4", "PT5", "PT7", "PT8");
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(threadNames).hasSize(10).containsOnly("consent-executor");
+	}
+
+	/**
+	 * The interceptor calls the batch methods, which delegate to the single resource methods
+	 * verified by the tests.
+	 */
+	private static void verifyNoMoreConsentInteractions(IConsentService theConsentService) {
+		verify(theConsentService, atLeast(0)).canSeeResources(any(), any(), any(), any());
+		verify(theConsentService, atLeast(0)).willSeeResources(any(), any(), any(), any());
+		verifyNoMoreInteractions(theConsentService);
+	}
+
 	@Nested
 	class BulkExport {
 
@@ -1,6 +1,7 @@
 package ca.uhn.fhir.util;
 
 import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
 import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
@@ -8,6 +9,7 @@ import ca.uhn.fhir.model.api.annotation.Block;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.parser.JsonParser;
+import ca.uhn.fhir.parser.MyPatientWithCustomUrlExtension;
 
 import static ca.uhn.fhir.test.utilities.UuidUtils.UUID_PATTERN;
 
@@ -80,6 +82,7 @@ import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
@@ -1618,6 +1621,94 @@ public class FhirTerserR4Test {
 		}
 	}
 
+	@Test
+	public void testCompiledPath() {
+		Patient patient = new Patient();
+		patient.addName().setFamily("Smith").addGiven("John");
+		patient.addName().setFamily("Jones");
+		patient.addExtension("http://foo", new StringType("bar"));
+
+		FhirTerser terser = myCtx.newTerser();
+		CompiledTerserPath family = terser.compilePath("Patient", "Patient.name.family");
+		CompiledTerserPath extension = terser.compilePath("Patient", "extension('http://foo').value[x]");
+		CompiledTerserPath otherType = terser.compilePath("Patient", "Observation.status");
+
+		assertThat(terser.getValues(patient, family, StringType.class)).extracting(StringType::getValue).containsExactly("Smith", "Jones");
+		assertEquals("Smith", terser.getSingleValueOrNull(patient, family, StringType.class).getValue());
+		assertEquals("bar", ((StringType) terser.getSingleValueOrNull(patient, extension, IBase.class)).getValue());
+		assertThat(terser.getValues(patient, otherType, IBase.class)).isEmpty();
+		assertEquals("Patient.name.family", family.getPath());
+		assertEquals("Patient", family.getDefinition().getName());
+	}
+
+	@Test
+	public void testCompiledPathWithChoiceBranches() {
+		Observation quantity = new Observation();
+		quantity.setValue(new Quantity().setValue(123).setUnit("mg"));
+		Observation string = new Observation();
+		string.setValue(new StringType("high"));
+
+		FhirTerser terser = myCtx.newTerser();
+		CompiledTerserPath value = terser.compilePath("Observation", "Observation.value[x]");
+		CompiledTerserPath valueQuantity = terser.compilePath("Observation", "Observation.valueQuantity");
+		CompiledTerserPath unit = terser.compilePath("Observation", "Observation.value[x].unit");
+
+		assertThat(terser.getValues(quantity, value, IBase.class)).hasSize(1);
+		assertThat(terser.getValues(quantity, valueQuantity, IBase.class)).hasSize(1);
+		assertThat(terser.getValues(string, valueQuantity, IBase.class)).isEmpty();
+		assertEquals("mg", terser.getSingleValueOrNull(quantity, unit, StringType.class).getValue());
+		assertThat(terser.getValues(string, unit, IBase.class)).isEmpty();
+	}
+
+	@Test
+	public void testCompiledPathWithCreate() {
+		Patient patient = new Patient();
+
+		FhirTerser terser = myCtx.newTerser();
+		CompiledTerserPath family = terser.compilePath("Patient", "Patient.name.family");
+		terser.getValues(patient, family, StringType.class, true, false).get(0).setValue("Smith");
+
+		assertEquals("Smith", patient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void testCompiledPathInvalidChildIsOnlyReportedWhenReached() {
+		Patient patient = new Patient();
+
+		FhirTerser terser = myCtx.newTerser();
+		CompiledTerserPath path = terser.compilePath("Patient", "Patient.name.foo");
+
+		assertThat(terser.getValues(patient, path, IBase.class)).isEmpty();
+		patient.addName().setFamily("Smith");
+		DataFormatException e = assertThrows(DataFormatException.class, () -> terser.getValues(patient, path, IBase.class));
+		assertThat(e.getMessage()).contains("HAPI-1700", "foo");
+	}
+
+	@Test
+	public void testCompiledPathOnCustomSubclass() {
+		FhirContext ctx = FhirContext.forR4();
+		MyPatientWithCustomUrlExtension patient = new MyPatientWithCustomUrlExtension();
+		patient.addName().setFamily("Smith");
+
+		FhirTerser terser = ctx.newTerser();
+		CompiledTerserPath family = terser.compilePath("Patient", "Patient.name.family");
+
+		assertEquals("Smith", terser.getSingleValueOrNull(patient, family, StringType.class).getValue());
+		assertEquals("Smith", terser.getSinglePrimitiveValueOrNull(patient, "Patient.name.family"));
+	}
+
+	@Test
+	public void testStringPathsAreCompiledOnce() {
+		Patient patient = new Patient();
+		patient.addName().setFamily("Smith");
+
+		BaseRuntimeElementCompositeDefinition<?> def = myCtx.getResourceDefinition("Patient");
+		CompiledTerserPath path = myCtx.getCompiledTerserPath(def, "Patient.name.family");
+
+		assertSame(path, myCtx.getCompiledTerserPath(def, "Patient.name.family"));
+		assertEquals("Smith", myCtx.newTerser().getSinglePrimitiveValueOrNull(patient, "Patient.name.family"));
+	}
+
 	@Block
 	public static class MyValueSetExpansionComponent extends ValueSet.ValueSetExpansionComponent {
 		private static final long serialVersionUID = 2624360513249904086L;
@@ -3,6 +3,7 @@ package ca.uhn.fhir.rest.server;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.fhirpath.BaseValidationTestWithInlineMocks;
 import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.model.primitive.IdDt;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
@@ -16,8 +17,10 @@ import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.interceptor.AsyncValidationResult;
 import ca.uhn.fhir.rest.server.interceptor.RequestValidatingInterceptor;
 import ca.uhn.fhir.test.utilities.HttpClientExtension;
 import ca.uhn.fhir.test.utilities.server.ResourceProviderExtension;
@@ -53,8 +56,12 @@ import org.mockito.Mockito;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
@@ -527,6 +534,127 @@ public class RequestValidatingInterceptorR4Test extends BaseValidationTestWithIn
 		assertThat(responseContent).contains("CapabilityStatement");
 	}
 
+	@Test
+	public void testAsyncValidation_InvalidRequestIsNotFailed() throws Exception {
+		List<AsyncValidationResult> results = Collections.synchronizedList(new ArrayList<>());
+		myInterceptor.setAddResponseHeaderOnSeverity(ResultSeverityEnum.INFORMATION);
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		myInterceptor.setAsyncValidationResultConsumer(results::add);
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertThat(status.toString()).doesNotContain("X-FHIR-Request-Validation");
+		}
+
+		await().until(() -> results.size() == 1);
+		AsyncValidationResult result = results.get(0);
+		assertEquals("Patient", result.getResourceType());
+		assertEquals(RestOperationTypeEnum.CREATE, result.getRestOperationType());
+		assertThat(result.getValidationResult().getMessages())
+			.anyMatch(t -> t.getSeverity() == ResultSeverityEnum.ERROR);
+		assertEquals(1, myInterceptor.getAsyncValidationSubmittedCount());
+		assertEquals(1, myInterceptor.getAsyncValidationCompletedCount());
+	}
+
+	@Test
+	public void testAsyncValidation_UnselectedRequestIsFailed() throws Exception {
+		myInterceptor.setAsyncValidationSelector(t -> "Observation".equals(t.getResourceName()));
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+			assertEquals(422, status.getStatusLine().getStatusCode());
+		}
+		assertEquals(0, myInterceptor.getAsyncValidationSubmittedCount());
+	}
+
+	@Test
+	public void testAsyncValidation_NotSampled() throws Exception {
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		myInterceptor.setAsyncValidationSampleRate(0.0);
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+		}
+		assertEquals(0, myInterceptor.getAsyncValidationSubmittedCount());
+	}
+
+	@Test
+	public void testAsyncValidation_SamplesDroppedWhenQueueIsFull() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		myInterceptor.setAsyncValidationQueueCapacity(1);
+		myInterceptor.setAsyncValidationResultConsumer(t -> {
+			try {
+				latch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		try {
+			// The first request occupies the validation thread, and the second fills the queue
+			for (int i = 0; i < 4; i++) {
+				try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+					assertEquals(201, status.getStatusLine().getStatusCode());
+				}
+				if (i == 0) {
+					await().until(() -> myInterceptor.getAsyncValidationQueueDepth() == 0);
+				}
+			}
+			assertEquals(2, myInterceptor.getAsyncValidationSubmittedCount());
+			assertEquals(2, myInterceptor.getAsyncValidationDroppedCount());
+		} finally {
+			latch.countDown();
+		}
+
+		await().until(() -> myInterceptor.getAsyncValidationCompletedCount() == 2);
+	}
+
+	@Test
+	public void testAsyncValidation_ResultsPassedToPointcut() throws Exception {
+		List<AsyncValidationResult> results = Collections.synchronizedList(new ArrayList<>());
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		ourServlet.registerAnonymousInterceptor(Pointcut.VALIDATION_ASYNC_COMPLETED, (thePointcut, theArgs) -> {
+			results.add(theArgs.get(AsyncValidationResult.class));
+		});
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+		}
+
+		await().until(() -> results.size() == 1);
+		assertEquals("Patient", results.get(0).getResourceType());
+		assertThat(results.get(0).getValidationResult().isSuccessful()).isFalse();
+	}
+
+	@Test
+	public void testAsyncValidation_ExecutorShutDownWhenUnregistered() throws Exception {
+		List<Thread> validationThreads = Collections.synchronizedList(new ArrayList<>());
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		myInterceptor.setAsyncValidationResultConsumer(t -> validationThreads.add(Thread.currentThread()));
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(createInvalidPatientPost())) {
+			assertEquals(201, status.getStatusLine().getStatusCode());
+		}
+		await().until(() -> validationThreads.size() == 1);
+		assertThat(validationThreads.get(0).isAlive()).isTrue();
+
+		ourServlet.unregisterInterceptor(myInterceptor);
+
+		await().until(() -> !validationThreads.get(0).isAlive());
+	}
+
+	private static HttpPost createInvalidPatientPost() {
+		Patient patient = new Patient();
+		patient.addIdentifier().setValue("002");
+		patient.setGender(AdministrativeGender.MALE);
+		patient.addContact().addRelationship().setText("FOO");
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(patient);
+
+		HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/Patient");
+		httpPost.setEntity(new StringEntity(encoded, ContentType.create(Constants.CT_FHIR_JSON, "UTF-8")));
+		return httpPost;
+	}
+
 	@Test
 	public void testSearch() throws Exception {
 		HttpGet httpPost = new HttpGet("http://localhost:" + ourPort + "/Patient?foo=bar");
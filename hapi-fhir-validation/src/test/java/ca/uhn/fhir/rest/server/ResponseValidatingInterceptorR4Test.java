@@ -23,6 +23,8 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.hl7.fhir.common.hapi.validation.validator.FhirInstanceValidator;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.Enumerations.AdministrativeGender;
 import org.hl7.fhir.r4.model.Narrative;
 import org.hl7.fhir.r4.model.Patient;
@@ -34,8 +36,12 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mockito;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 
@@ -70,6 +76,34 @@ public class ResponseValidatingInterceptorR4Test extends BaseValidationTestWithI
 		ourPort = ourServlet.getPort();
 	}
 
+	@Test
+	public void testAsyncValidationUsesCopyOfResponse() throws Exception {
+		Patient patient = new Patient();
+		patient.addIdentifier().setValue("002");
+		patient.setGender(AdministrativeGender.MALE);
+		ourProvider.getProvider().setReturnResource(patient);
+
+		List<IBaseResource> validatedResources = Collections.synchronizedList(new ArrayList<>());
+		IValidatorModule module = mock(IValidatorModule.class);
+		Mockito.doAnswer(t -> {
+			IValidationContext<IBaseResource> context = t.getArgument(0);
+			return validatedResources.add(context.getResource());
+		}).when(module).validateResource(Mockito.any(IValidationContext.class));
+		myInterceptor.addValidatorModule(module);
+		myInterceptor.setAsyncValidationSelector(t -> true);
+		myInterceptor.setAsyncValidationResultConsumer(t -> {});
+
+		try (CloseableHttpResponse status = ourClient.getClient().execute(new HttpGet("http://localhost:" + ourPort + "/Patient?foo=bar"))) {
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertThat(status.toString()).doesNotContain("X-FHIR-Response-Validation");
+		}
+
+		await().until(() -> myInterceptor.getAsyncValidationCompletedCount() == 1);
+		assertThat(validatedResources).hasSize(1);
+		assertThat(validatedResources.get(0)).isNotSameAs(patient);
+		assertThat(validatedResources.get(0)).isInstanceOf(Bundle.class);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testInterceptorExceptionNpeNoIgnore() throws Exception {
@@ -0,0 +1,235 @@
+package ca.uhn.fhir.rest.server.interceptor.auth;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
+import ca.uhn.fhir.rest.server.interceptor.auth.AuthorizationInterceptor.Verdict;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Binary;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.IdType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Organization;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AuthorizationRuleIndexTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testCandidateRulesForRead() {
+		List<IAuthRule> rules = buildRules();
+		AuthorizationRuleIndex index = new AuthorizationRuleIndex(rules);
+
+		List<IAuthRule> candidates = index.getCandidateRules(ourCtx, RestOperationTypeEnum.READ, null, new IdType("Observation/1"), null);
+
+		assertThat(names(candidates)).containsExactly("read-observation-compartment", "read-all-compartment", "read-organization-instance", "patch", "operation", "bulk-export");
+	}
+
+	@Test
+	public void testCandidateRulesForOutputResource() {
+		AuthorizationRuleIndex index = new AuthorizationRuleIndex(buildRules());
+
+		List<IAuthRule> candidates = index.getCandidateRules(ourCtx, RestOperationTypeEnum.SEARCH_TYPE, null, null, new Patient());
+
+		assertThat(names(candidates)).containsExactly("read-patient", "read-observation-compartment", "read-all-compartment", "read-organization-instance", "patch", "operation", "bulk-export");
+	}
+
+	@Test
+	public void testCandidateRulesForCreate() {
+		AuthorizationRuleIndex index = new AuthorizationRuleIndex(buildRules());
+
+		List<IAuthRule> candidates = index.getCandidateRules(ourCtx, RestOperationTypeEnum.CREATE, new Encounter(), null, null);
+
+		assertThat(names(candidates)).containsExactly("create-encounter", "patch", "operation", "bulk-export");
+	}
+
+	@Test
+	public void testCandidateListsAreReused() {
+		AuthorizationRuleIndex index = new AuthorizationRuleIndex(buildRules());
+
+		List<IAuthRule> first = index.getCandidateRules(ourCtx, RestOperationTypeEnum.READ, null, new IdType("Patient/1"), null);
+		List<IAuthRule> second = index.getCandidateRules(ourCtx, RestOperationTypeEnum.READ, null, new IdType("Patient/2"), null);
+
+		assertSame(first, second);
+	}
+
+	/**
+	 * The index must never change the outcome of applying the rules in order
+	 */
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testIndexedDecisionMatchesSequentialEvaluation(boolean theDoNotProactivelyBlock) {
+		AuthorizationInterceptor interceptor = new AuthorizationInterceptor(PolicyEnum.DENY) {
+			@Override
+			public List<IAuthRule> buildRuleList(RequestDetails theRequestDetails) {
+				return buildRules();
+			}
+		};
+		if (theDoNotProactivelyBlock) {
+			interceptor.setFlags(AuthorizationFlagsEnum.DO_NOT_PROACTIVELY_BLOCK_COMPARTMENT_READ_ACCESS);
+		}
+		List<IAuthRule> rules = buildRules();
+
+		int comparisons = 0;
+		for (RestOperationTypeEnum nextOperation : RestOperationTypeEnum.values()) {
+			for (Object[] nextScenario : buildScenarios()) {
+				IBaseResource input = (IBaseResource) nextScenario[0];
+				IIdType inputId = (IIdType) nextScenario[1];
+				IBaseResource output = (IBaseResource) nextScenario[2];
+				for (Pointcut nextPointcut : Arrays.asList(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED, Pointcut.STORAGE_PRESHOW_RESOURCES)) {
+
+					String expected = describe(() -> applySequentially(rules, interceptor, nextOperation, newRequest(inputId), input, inputId, output, nextPointcut));
+					String actual = describe(() -> interceptor.applyRulesAndReturnDecision(nextOperation, newRequest(inputId), input, inputId, output, nextPointcut));
+
+					assertEquals(expected, actual, nextOperation + " " + Arrays.toString(nextScenario) + " " + nextPointcut);
+					comparisons++;
+				}
+			}
+		}
+		assertThat(comparisons).isGreaterThan(500);
+	}
+
+	@Test
+	public void testRuleTimings() {
+		AuthorizationInterceptor interceptor = new AuthorizationInterceptor(PolicyEnum.DENY) {
+			@Override
+			public List<IAuthRule> buildRuleList(RequestDetails theRequestDetails) {
+				return buildRules();
+			}
+		};
+		interceptor.setRuleTimingsEnabled(true);
+
+		Observation observation = new Observation();
+		observation.setId("Observation/1");
+		observation.getSubject().setReference("Patient/2");
+		RequestDetails request = newRequest(null);
+		for (int i = 0; i < 3; i++) {
+			Verdict verdict = interceptor.applyRulesAndReturnDecision(RestOperationTypeEnum.SEARCH_TYPE, request, null, null, observation, Pointcut.STORAGE_PRESHOW_RESOURCES);
+			assertEquals(PolicyEnum.ALLOW, verdict.getDecision());
+		}
+
+		Map<String, AuthorizationInterceptor.RuleTiming> timings = interceptor.getRuleTimings();
+		assertEquals(3, timings.get("read-observation-compartment").getEvaluationCount());
+		assertEquals(0, timings.get("read-observation-compartment").getVerdictCount());
+		assertEquals(3, timings.get("read-all-compartment").getVerdictCount());
+		assertThat(timings).doesNotContainKey("read-patient");
+
+		interceptor.clearRuleTimings();
+		assertThat(interceptor.getRuleTimings()).isEmpty();
+	}
+
+	private static Verdict applySequentially(List<IAuthRule> theRules, AuthorizationInterceptor theInterceptor, RestOperationTypeEnum theOperation, RequestDetails theRequest, IBaseResource theInput, IIdType theInputId, IBaseResource theOutput, Pointcut thePointcut) {
+		for (IAuthRule next : theRules) {
+			Verdict verdict = next.applyRule(theOperation, theRequest, theInput, theInputId, theOutput, theInterceptor, theInterceptor.getFlags(), thePointcut);
+			if (verdict != null) {
+				return verdict;
+			}
+		}
+		return new Verdict(theInterceptor.getDefaultPolicy(), null);
+	}
+
+	private static String describe(VerdictSupplier theSupplier) {
+		try {
+			Verdict verdict = theSupplier.get();
+			return verdict.toString();
+		} catch (Exception e) {
+			return e.getClass().getName();
+		}
+	}
+
+	private static RequestDetails newRequest(IIdType theInputId) {
+		SystemRequestDetails retVal = new SystemRequestDetails();
+		retVal.setFhirContext(ourCtx);
+		retVal.setResourceName(theInputId != null ? theInputId.getResourceType() : "Observation");
+		retVal.setId(theInputId);
+		return retVal;
+	}
+
+	private static List<Object[]> buildScenarios() {
+		Patient patient = new Patient();
+		patient.setId("Patient/1");
+
+		Observation observationInCompartment = new Observation();
+		observationInCompartment.setId("Observation/1");
+		observationInCompartment.getSubject().setReference("Patient/1");
+
+		Observation observationInOtherCompartment = new Observation();
+		observationInOtherCompartment.setId("Observation/2");
+		observationInOtherCompartment.getSubject().setReference("Patient/2");
+
+		Encounter encounter = new Encounter();
+
+		Organization organization = new Organization();
+		organization.setId("Organization/1");
+
+		Binary patchBody = new Binary();
+		patchBody.setContentType(Constants.CT_JSON_PATCH);
+
+		Bundle transaction = new Bundle();
+		transaction.setType(Bundle.BundleType.TRANSACTION);
+		transaction.addEntry().setResource(new Encounter()).getRequest().setMethod(Bundle.HTTPVerb.POST).setUrl("Encounter");
+
+		List<Object[]> retVal = new ArrayList<>();
+		retVal.add(new Object[]{null, null, null});
+		retVal.add(new Object[]{null, new IdType("Patient/1"), null});
+		retVal.add(new Object[]{null, new IdType("Observation/1"), null});
+		retVal.add(new Object[]{null, new IdType("Organization/1"), null});
+		retVal.add(new Object[]{null, new IdType("Patient"), null});
+		retVal.add(new Object[]{patient, new IdType("Patient/1"), null});
+		retVal.add(new Object[]{observationInCompartment, null, null});
+		retVal.add(new Object[]{encounter, null, null});
+		retVal.add(new Object[]{transaction, null, null});
+		retVal.add(new Object[]{patchBody, new IdType("Observation/1"), null});
+		retVal.add(new Object[]{null, null, patient});
+		retVal.add(new Object[]{null, null, observationInCompartment});
+		retVal.add(new Object[]{null, null, observationInOtherCompartment});
+		retVal.add(new Object[]{null, null, organization});
+		retVal.add(new Object[]{null, new IdType("Patient/1"), observationInOtherCompartment});
+		return retVal;
+	}
+
+	private static List<IAuthRule> buildRules() {
+		return new RuleBuilder()
+			.allow("read-patient").read().resourcesOfType(Patient.class).withAnyId().andThen()
+			.deny("read-observation-compartment").read().resourcesOfType(Observation.class).inCompartment("Patient", new IdType("Patient/1")).andThen()
+			.allow("write-observation").write().resourcesOfType(Observation.class).withAnyId().andThen()
+			.allow("create-encounter").create().resourcesOfType(Encounter.class).withAnyId().andThen()
+			.allow("delete-patient").delete().resourcesOfType(Patient.class).withAnyId().andThen()
+			.allow("read-all-compartment").read().allResources().inCompartment("Patient", new IdType("Patient/2")).andThen()
+			.allow("metadata").metadata().andThen()
+			.allow("read-organization-instance").read().instance("Organization/1").andThen()
+			.allow("patch").patch().allRequests().andThen()
+			.allow("graphql").graphQL().any().andThen()
+			.allow("transaction").transaction().withAnyOperation().andApplyNormalRules().andThen()
+			.allow("operation").operation().named("everything").onAnyInstance().andAllowAllResponses().andThen()
+			.allow("bulk-export").bulkExport().any().andThen()
+			.build();
+	}
+
+	private static List<String> names(List<IAuthRule> theRules) {
+		return theRules.stream().map(IAuthRule::getName).toList();
+	}
+
+	@FunctionalInterface
+	private interface VerdictSupplier {
+		Verdict get();
+	}
+}